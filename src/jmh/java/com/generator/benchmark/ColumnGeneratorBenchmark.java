@@ -0,0 +1,86 @@
+package com.generator.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.generator.column.ColumnGenerator;
+import com.generator.column.ColumnGeneratorFactory;
+import com.generator.column.GenerationContext;
+import com.generator.model.ColumnConfig;
+import com.generator.util.FakerInvoker;
+import com.generator.util.HashingEngine;
+import com.generator.util.SeedMixer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * カラムの型ごとに、1セルの値を生成する処理 (セルごとの乱数の再設定を含む) のスループットを測定します。
+ * カラム定義は同梱の config.json と同じ形式で記述しています。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ColumnGeneratorBenchmark {
+
+    private static final long SEED = 1L;
+
+    private static final Map<String, String> COLUMNS = Map.of(
+            "SERIAL", "{\"columnName\": \"id\", \"type\": \"SERIAL\", \"startFrom\": 1000}",
+            "STRING", "{\"columnName\": \"username\", \"type\": \"STRING\", \"format\": \"user_{i}\"}",
+            "REGEX", "{\"columnName\": \"email\", \"type\": \"REGEX\", \"pattern\": \"[a-z0-9]{7}\\\\@(demo|example)\\\\.com\"}",
+            "REGEX_UNIQUE", "{\"columnName\": \"code\", \"type\": \"REGEX\", \"pattern\": \"[A-Z]{3}-\\\\d{6}\", \"unique\": true}",
+            "FAKER", "{\"columnName\": \"name\", \"type\": \"FAKER\", \"generator\": \"name.fullName\"}",
+            "NUMBER", "{\"columnName\": \"price\", \"type\": \"NUMBER\", \"min\": 100, \"max\": 100000}",
+            "ARRAY", "{\"columnName\": \"status\", \"type\": \"ARRAY\", \"values\": [\"ACTIVE\", \"INACTIVE\", \"BLOCKED\"], \"isRandom\": true}",
+            "DATETIME", "{\"columnName\": \"last_login\", \"type\": \"DATETIME\", \"minDate\": \"2024-01-01 00:00:00\", \"maxDate\": \"2025-01-01 00:00:00\"}",
+            "PASSWORD", "{\"columnName\": \"password\", \"type\": \"PASSWORD\", \"format\": \"pass_{i}\"}");
+
+    @Param({"SERIAL", "STRING", "REGEX", "REGEX_UNIQUE", "FAKER", "NUMBER", "ARRAY", "DATETIME", "PASSWORD"})
+    public String type;
+
+    private HashingEngine hasher;
+    private ColumnGenerator generator;
+    private GenerationContext ctx;
+    private long columnSeed;
+    private long rowIndex;
+
+    @Setup
+    public void setup() throws IOException {
+        ColumnConfig config = new ObjectMapper().readValue(COLUMNS.get(type), ColumnConfig.class);
+        // PASSWORDは呼び出し元スレッドで同期的にハッシュ化する
+        hasher = new HashingEngine(SEED, false, 0);
+        ColumnGeneratorFactory factory = new ColumnGeneratorFactory(FakerInvoker::compile, reference -> null,
+                LocalDateTime.of(2025, 1, 1, 0, 0), hasher, SEED);
+        generator = factory.create(config, 1, SeedMixer.hash64("BENCH." + config.getColumnName()));
+        ctx = new GenerationContext();
+        columnSeed = SeedMixer.derive(SEED, SeedMixer.hash64("BENCH"), 0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        hasher.close();
+    }
+
+    @Benchmark
+    public Object generate() {
+        long row = rowIndex++;
+        ctx.reseed(SeedMixer.derive(columnSeed, row));
+        return generator.generate(row, 0, ctx);
+    }
+}
@@ -0,0 +1,90 @@
+package com.generator.benchmark;
+
+import com.generator.column.AliasTable;
+import com.generator.column.ForeignKeyGenerator;
+import com.generator.column.GenerationContext;
+import com.generator.reference.ReferenceColumn;
+import com.generator.reference.ReferenceColumnBuilder;
+import com.generator.util.SeedMixer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 外部キーの参照値のキャッシュについて、親テーブルの値からの構築と、子テーブルの行ごとの参照のスループットを測定します。
+ * 親カラムの値は SERIAL (連番)、NUMBER (ランダムな整数)、STRING (文字列) のいずれかです。
+ * 参照は一様 (uniform) またはジップ分布のエイリアス表 (zipf) で選択します。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ForeignKeyBenchmark {
+
+    private static final int PARENT_ROWS = 100_000;
+
+    @Param({"SERIAL", "NUMBER", "STRING"})
+    public String keyType;
+
+    @Param({"uniform", "zipf"})
+    public String distribution;
+
+    private Object[] parentValues;
+    private ForeignKeyGenerator generator;
+    private GenerationContext ctx;
+    private long rowIndex;
+
+    @Setup
+    public void setup() {
+        parentValues = new Object[PARENT_ROWS];
+        for (int i = 0; i < PARENT_ROWS; i++) {
+            switch (keyType) {
+                case "SERIAL":
+                    parentValues[i] = 1L + i;
+                    break;
+                case "NUMBER":
+                    parentValues[i] = SeedMixer.mix64(i) >>> 16;
+                    break;
+                default:
+                    parentValues[i] = "user_" + i;
+                    break;
+            }
+        }
+        generator = new ForeignKeyGenerator(build(), distribution.equals("zipf") ? AliasTable.zipf(PARENT_ROWS, 1.0) : null);
+        ctx = new GenerationContext();
+    }
+
+    private ReferenceColumn build() {
+        ReferenceColumnBuilder builder = new ReferenceColumnBuilder(PARENT_ROWS);
+        for (Object value : parentValues) {
+            builder.add(value);
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PARENT_ROWS)
+    public ReferenceColumn buildCache() {
+        return build();
+    }
+
+    @Benchmark
+    public Object lookup() {
+        long row = rowIndex++;
+        ctx.reseed(SeedMixer.derive(1L, row));
+        return generator.generate(row, 0, ctx);
+    }
+}
@@ -0,0 +1,57 @@
+package com.generator.benchmark;
+
+import com.generator.util.Hasher;
+import com.generator.util.HashingEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCryptハッシュ化のスループットを、ストレッチング因子ごとに測定します。
+ * hashPassword は平文ごとにハッシュ化し、cachedHash は --hash-cache 有効時に同じ平文を繰り返しハッシュ化する場合 (キャッシュヒット) です。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class HashingBenchmark {
+
+    @Param({"4", "10"})
+    public int cost;
+
+    private HashingEngine cachingEngine;
+    private long counter;
+
+    @Setup
+    public void setup() {
+        cachingEngine = new HashingEngine(1L, true, 0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        cachingEngine.close();
+    }
+
+    @Benchmark
+    public String hashPassword() {
+        return Hasher.hashPassword("pass_" + counter++, cost);
+    }
+
+    @Benchmark
+    public Object cachedHash() {
+        return cachingEngine.hash("pass123", cost);
+    }
+}
@@ -0,0 +1,114 @@
+package com.generator.benchmark;
+
+import com.generator.model.ColumnConfig;
+import com.generator.model.TableConfig;
+import com.generator.util.DataGenerator;
+import com.generator.util.GenerationOptions;
+import com.generator.util.Hasher;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 設定ファイルの全テーブルを生成してファイルに出力するまでのスループットを測定します。
+ * 各テーブルの行数は rows に置き換え、BCryptのストレッチング因子は最小値とし、ハッシュ値のキャッシュを有効にします
+ * (ハッシュ化のコストは {@link HashingBenchmark} で測定します)。
+ * 1回の呼び出しで出力した行数は、補助カウンター rows として行/秒で報告されます。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TableOutputBenchmark {
+
+    // 設定ファイルのパス。ファイルが存在しない場合はクラスパス上のリソースとして読み込む
+    @Param("config.json")
+    public String fixture;
+
+    @Param({"1000", "10000", "100000"})
+    public long rows;
+
+    @Param({"sql", "xlsx"})
+    public String format;
+
+    @Param("1")
+    public int threads;
+
+    private Path outputDir;
+    private PrintStream stdout;
+
+    /**
+     * 出力した行数を行/秒で報告するカウンター。
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RowCounter {
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        outputDir = Files.createTempDirectory("table-bench");
+        // 生成の進捗表示を測定結果に混ぜない
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.setOut(stdout);
+        try (Stream<Path> files = Files.walk(outputDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void generateTables(RowCounter counter) throws IOException {
+        GenerationOptions options = new GenerationOptions();
+        options.setThreads(threads);
+        options.setHashCache(true);
+        options.setHashThreads(0);
+        options.setProgressInterval(0);
+        DataGenerator generator = new DataGenerator(options);
+
+        List<TableConfig> configs = generator.loadConfig(fixture);
+        for (TableConfig config : configs) {
+            config.setSize(rows);
+            for (ColumnConfig column : config.getData()) {
+                if (column.getIsHashed() != null || "PASSWORD".equalsIgnoreCase(column.getType())) {
+                    column.setHashCost(Hasher.MIN_LOG_ROUNDS);
+                }
+            }
+        }
+        generator.generateAndOutput(configs, format, outputDir.toString());
+        counter.rows += rows * configs.size();
+    }
+}
@@ -0,0 +1,79 @@
+package com.generator.benchmark;
+
+import com.generator.unique.UniqueValueSet;
+import com.generator.util.SeedMixer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ユニーク制約のチェック ({@link UniqueValueSet#add(Object)}) のスループットを測定します。
+ * 1回の呼び出しで空のセットに {@value #VALUES} 件の異なる値を追加します (セットの作成と拡張を含む)。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class UniqueValueSetBenchmark {
+
+    private static final int VALUES = 100_000;
+
+    @Param({"long", "string"})
+    public String valueType;
+
+    @Param({"false", "true"})
+    public boolean spill;
+
+    private Path spillDirectory;
+    private Object[] values;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        if (spill) {
+            spillDirectory = Files.createTempDirectory("unique-bench");
+        }
+        values = new Object[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            values[i] = valueType.equals("long") ? (Object) SeedMixer.mix64(i) : "user_" + i + "@example.com";
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (spillDirectory != null) {
+            Files.deleteIfExists(spillDirectory);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public long addDistinct() throws IOException {
+        try (UniqueValueSet set = new UniqueValueSet(spillDirectory)) {
+            long added = 0;
+            for (Object value : values) {
+                if (set.add(value)) {
+                    added++;
+                }
+            }
+            return added;
+        }
+    }
+}
@@ -1,15 +1,21 @@
 package com.generator;
 
 import com.generator.model.TableConfig;
+import com.generator.output.OutputCompression;
+import com.generator.server.GeneratorServer;
 import com.generator.util.DataGenerator;
+import com.generator.util.FakerDictionary;
+import com.generator.util.GenerationOptions;
 import org.apache.commons.cli.*;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.zip.Deflater;
 
 /**
  * テーブルデータランダム生成ツールのメインエントリーポイント。
- * Apache Commons CLI を使用してコマンドライン引数 (-x, -q, -o, -s) を解析し、データ生成とファイル出力を行います。
+ * Apache Commons CLI を使用してコマンドライン引数 (-x, -q, -c, -p, -a, -j, -o, -s, -t) を解析し、データ生成とファイル出力を行います。
  */
 public class RegexGeneratorApp {
 
@@ -17,6 +23,7 @@ public class RegexGeneratorApp {
     private static final String DEFAULT_CONFIG_PATH = "config.json";
     private static final long DEFAULT_SEED = 1L;
     private static final String DEFAULT_OUTPUT_DIR = "."; // カレントディレクトリ
+    private static final int DEFAULT_THREADS = 1;
 
     public static void main(String[] args) {
         Options options = createOptions();
@@ -33,15 +40,41 @@ public class RegexGeneratorApp {
             return;
         }
 
-        // -x または -q のいずれかが必要
-        if (!cmd.hasOption("x") && !cmd.hasOption("q")) {
-            System.err.println("エラー: 出力形式 (-x: XLSX または -q: SQL) を指定してください。");
+        // 辞書スナップショットの作成のみを行う場合は、出力形式は不要
+        if (cmd.hasOption("write-faker-snapshot")) {
+            writeFakerSnapshot(cmd.getOptionValue("i", DEFAULT_CONFIG_PATH), cmd.getOptionValue("write-faker-snapshot"));
+            return;
+        }
+
+        // サーバーモードでは、出力形式はリクエストごとに指定する
+        if (cmd.hasOption("serve")) {
+            serve(cmd, formatter, options);
+            return;
+        }
+
+        // -x, -q, -c, -p, -a, -j のいずれかが必要
+        if (!cmd.hasOption("x") && !cmd.hasOption("q") && !cmd.hasOption("c") && !cmd.hasOption("p") && !cmd.hasOption("a")
+                && !cmd.hasOption("j")) {
+            System.err.println("エラー: 出力形式 (-x: XLSX, -q: SQL, -c: CSV, -p: PostgreSQL COPY, -a: Apache Arrow または -j: JDBC) を指定してください。");
             formatter.printHelp("java -jar data-generator-app.jar", options);
             return;
         }
 
         // 出力タイプとオプションの取得
-        String outputType = cmd.hasOption("x") ? "xlsx" : "sql";
+        String outputType;
+        if (cmd.hasOption("x")) {
+            outputType = "xlsx";
+        } else if (cmd.hasOption("q")) {
+            outputType = "sql";
+        } else if (cmd.hasOption("c")) {
+            outputType = "csv";
+        } else if (cmd.hasOption("p")) {
+            outputType = "copy";
+        } else if (cmd.hasOption("a")) {
+            outputType = "arrow";
+        } else {
+            outputType = "jdbc";
+        }
         String outputDir = cmd.hasOption("o") ? cmd.getOptionValue("o") : DEFAULT_OUTPUT_DIR;
         long seed = DEFAULT_SEED;
 
@@ -55,10 +88,228 @@ public class RegexGeneratorApp {
                 return;
             }
         }
+
+        int threads = DEFAULT_THREADS;
+        if (cmd.hasOption("t")) {
+            try {
+                threads = Integer.parseInt(cmd.getOptionValue("t"));
+            } catch (NumberFormatException e) {
+                threads = 0;
+            }
+            if (threads < 1) {
+                System.err.println("エラー: -t オプションには1以上の整数を指定してください。");
+                formatter.printHelp("java -jar data-generator-app.jar", options);
+                return;
+            }
+        }
         
+        int shardIndex = 0;
+        int shardCount = 1;
+        if (cmd.hasOption("shard")) {
+            String[] shard = cmd.getOptionValue("shard").split("/");
+            try {
+                shardIndex = Integer.parseInt(shard[0].trim()) - 1;
+                shardCount = shard.length == 2 ? Integer.parseInt(shard[1].trim()) : 0;
+            } catch (NumberFormatException e) {
+                shardCount = 0;
+            }
+            if (shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount) {
+                System.err.println("エラー: --shard オプションには k/n (1 ≦ k ≦ n) の形式で指定してください。");
+                formatter.printHelp("java -jar data-generator-app.jar", options);
+                return;
+            }
+            if (outputType.equals("xlsx")) {
+                System.err.println("エラー: XLSX出力は --shard に対応していません。");
+                return;
+            }
+            if (outputType.equals("arrow")) {
+                System.err.println("エラー: Arrow出力は --shard に対応していません (ファイルを連結できないため、--part-rows で分割してください)。");
+                return;
+            }
+        }
+
+        long partRows = 0;
+        if (cmd.hasOption("part-rows")) {
+            try {
+                partRows = Long.parseLong(cmd.getOptionValue("part-rows"));
+            } catch (NumberFormatException e) {
+                partRows = 0;
+            }
+            if (partRows < 1) {
+                System.err.println("エラー: --part-rows オプションには1以上の整数を指定してください。");
+                formatter.printHelp("java -jar data-generator-app.jar", options);
+                return;
+            }
+        }
+        long partBytes = 0;
+        if (cmd.hasOption("part-size")) {
+            partBytes = parseByteSize(cmd.getOptionValue("part-size"));
+            if (partBytes < 1) {
+                System.err.println("エラー: --part-size オプションにはバイト数 (例: 1048576, 512M, 2G) を指定してください。");
+                formatter.printHelp("java -jar data-generator-app.jar", options);
+                return;
+            }
+            if (outputType.equals("xlsx")) {
+                System.err.println("エラー: XLSX出力は --part-size に対応していません。--part-rows を使用してください。");
+                return;
+            }
+        }
+        if ((partRows > 0 || partBytes > 0) && outputType.equals("jdbc")) {
+            System.err.println("エラー: JDBCロードは --part-rows, --part-size に対応していません。");
+            return;
+        }
+        int writerThreads = 0;
+        if (cmd.hasOption("writer-threads")) {
+            try {
+                writerThreads = Integer.parseInt(cmd.getOptionValue("writer-threads"));
+            } catch (NumberFormatException e) {
+                writerThreads = 0;
+            }
+            if (writerThreads < 1) {
+                System.err.println("エラー: --writer-threads オプションには1以上の整数を指定してください。");
+                formatter.printHelp("java -jar data-generator-app.jar", options);
+                return;
+            }
+        }
+
+        OutputCompression.Type compression = OutputCompression.Type.NONE;
+        if (cmd.hasOption("compress")) {
+            String method = cmd.getOptionValue("compress").trim().toLowerCase();
+            if (method.equals("gzip")) {
+                compression = OutputCompression.Type.GZIP;
+            } else if (method.equals("pgzip")) {
+                compression = OutputCompression.Type.PARALLEL_GZIP;
+            } else {
+                System.err.println("エラー: --compress オプションには gzip または pgzip を指定してください。");
+                formatter.printHelp("java -jar data-generator-app.jar", options);
+                return;
+            }
+            if (outputType.equals("xlsx") || outputType.equals("arrow") || outputType.equals("jdbc")) {
+                System.err.println("エラー: --compress はSQL・CSV・COPY出力でのみ使用できます。");
+                return;
+            }
+        }
+        int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+        if (cmd.hasOption("compress-level")) {
+            try {
+                compressionLevel = Integer.parseInt(cmd.getOptionValue("compress-level"));
+            } catch (NumberFormatException e) {
+                compressionLevel = 0;
+            }
+            if (compressionLevel < 1 || compressionLevel > 9) {
+                System.err.println("エラー: --compress-level オプションには1から9の整数を指定してください。");
+                formatter.printHelp("java -jar data-generator-app.jar", options);
+                return;
+            }
+        }
+
+        GenerationOptions generationOptions = new GenerationOptions();
+        generationOptions.setSeed(seed);
+        generationOptions.setThreads(threads);
+        generationOptions.setShardIndex(shardIndex);
+        generationOptions.setShardCount(shardCount);
+        generationOptions.setPartRows(partRows);
+        generationOptions.setPartBytes(partBytes);
+        generationOptions.setWriterThreads(writerThreads);
+        generationOptions.setCompression(compression);
+        generationOptions.setCompressionLevel(compressionLevel);
+        generationOptions.setHashCache(cmd.hasOption("hash-cache"));
+        if (cmd.hasOption("compress-threads")) {
+            int compressionThreads;
+            try {
+                compressionThreads = Integer.parseInt(cmd.getOptionValue("compress-threads"));
+            } catch (NumberFormatException e) {
+                compressionThreads = 0;
+            }
+            if (compressionThreads < 1) {
+                System.err.println("エラー: --compress-threads オプションには1以上の整数を指定してください。");
+                formatter.printHelp("java -jar data-generator-app.jar", options);
+                return;
+            }
+            generationOptions.setCompressionThreads(compressionThreads);
+        }
+        if (cmd.hasOption("hash-threads")) {
+            int hashThreads;
+            try {
+                hashThreads = Integer.parseInt(cmd.getOptionValue("hash-threads"));
+            } catch (NumberFormatException e) {
+                hashThreads = -1;
+            }
+            if (hashThreads < 0) {
+                System.err.println("エラー: --hash-threads オプションには0以上の整数を指定してください。");
+                formatter.printHelp("java -jar data-generator-app.jar", options);
+                return;
+            }
+            generationOptions.setHashThreads(hashThreads);
+        }
+        if (cmd.hasOption("batch-size")) {
+            int batchSize;
+            try {
+                batchSize = Integer.parseInt(cmd.getOptionValue("batch-size"));
+            } catch (NumberFormatException e) {
+                batchSize = 0;
+            }
+            if (batchSize < 1) {
+                System.err.println("エラー: --batch-size オプションには1以上の整数を指定してください。");
+                formatter.printHelp("java -jar data-generator-app.jar", options);
+                return;
+            }
+            generationOptions.setSqlBatchSize(batchSize);
+            generationOptions.setJdbcBatchSize(batchSize);
+            generationOptions.setArrowBatchSize(batchSize);
+        }
+        if (cmd.hasOption("progress")) {
+            int progressInterval;
+            try {
+                progressInterval = Integer.parseInt(cmd.getOptionValue("progress"));
+            } catch (NumberFormatException e) {
+                progressInterval = -1;
+            }
+            if (progressInterval < 0) {
+                System.err.println("エラー: --progress オプションには0以上の整数 (秒) を指定してください。");
+                formatter.printHelp("java -jar data-generator-app.jar", options);
+                return;
+            }
+            generationOptions.setProgressInterval(progressInterval);
+        }
+        generationOptions.setReportFile(cmd.getOptionValue("report"));
+        generationOptions.setJfrFile(cmd.getOptionValue("jfr"));
+        if (cmd.hasOption("resume") && !cmd.hasOption("checkpoint")) {
+            System.err.println("エラー: --resume には --checkpoint でチェックポイントのディレクトリを指定してください。");
+            formatter.printHelp("java -jar data-generator-app.jar", options);
+            return;
+        }
+        if (cmd.hasOption("checkpoint") && outputType.equals("jdbc")) {
+            System.err.println("エラー: --checkpoint はSQL・CSV・COPY・XLSX・Arrow出力でのみ使用できます。");
+            return;
+        }
+        if (cmd.hasOption("checkpoint-interval")) {
+            long checkpointInterval;
+            try {
+                checkpointInterval = Long.parseLong(cmd.getOptionValue("checkpoint-interval"));
+            } catch (NumberFormatException e) {
+                checkpointInterval = 0;
+            }
+            if (checkpointInterval < 1) {
+                System.err.println("エラー: --checkpoint-interval オプションには1以上の整数を指定してください。");
+                formatter.printHelp("java -jar data-generator-app.jar", options);
+                return;
+            }
+            generationOptions.setCheckpointInterval(checkpointInterval);
+        }
+        generationOptions.setFakerSnapshot(cmd.getOptionValue("faker-snapshot"));
+        generationOptions.setCheckpointDirectory(cmd.getOptionValue("checkpoint"));
+        generationOptions.setCacheDirectory(cmd.getOptionValue("cache"));
+        generationOptions.setResume(cmd.hasOption("resume"));
+        generationOptions.setSqlTransaction(cmd.hasOption("transaction"));
+        generationOptions.setUniqueSpillDirectory(cmd.getOptionValue("unique-spill"));
+        generationOptions.setJdbcUrl(cmd.getOptionValue("j"));
+        generationOptions.setJdbcUser(cmd.getOptionValue("jdbc-user"));
+        generationOptions.setJdbcPassword(cmd.getOptionValue("jdbc-password"));
+
         // --- 2. データ生成と出力の実行 ---
         try {
-            DataGenerator generator = new DataGenerator(seed);
+            DataGenerator generator = new DataGenerator(generationOptions);
             
             System.out.println("設定ファイルをロード中: " + configPath);
             // JSON設定ファイルをロード
@@ -70,9 +321,92 @@ public class RegexGeneratorApp {
         } catch (IOException e) {
             System.err.println("致命的なエラー: 設定ファイルの読み込みに失敗しました。詳細: " + e.getMessage());
             e.printStackTrace();
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println("設定エラー: " + e.getMessage());
+            System.exit(1);
+        } catch (IllegalStateException e) {
+            // 出力の失敗など、原因を表示済みのエラー
+            System.err.println("エラー: " + e.getMessage());
+            System.exit(1);
         } catch (Exception e) {
             System.err.println("予期せぬエラーが発生しました: " + e.getMessage());
             e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 設定ファイルのFAKER型カラムが使用する辞書を抽出し、Fakerの辞書スナップショットとして書き出します。
+     */
+    private static void writeFakerSnapshot(String configPath, String snapshotPath) {
+        try {
+            DataGenerator generator = new DataGenerator(DEFAULT_SEED);
+            List<TableConfig> configs = generator.loadConfig(configPath);
+            generator.writeFakerSnapshot(configs, snapshotPath);
+        } catch (IOException e) {
+            System.err.println("致命的なエラー: 辞書スナップショットの作成に失敗しました。詳細: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println("設定エラー: " + e.getMessage());
+        }
+    }
+
+    /**
+     * HTTPサーバーを起動し、プロセスが終了するまでリクエストを受け付けます。
+     * Fakerの辞書は全てのリクエストで共有し、--faker-snapshot が指定されている場合はスナップショットを使用します。
+     */
+    private static void serve(CommandLine cmd, HelpFormatter formatter, Options options) {
+        int port;
+        try {
+            port = Integer.parseInt(cmd.getOptionValue("serve"));
+        } catch (NumberFormatException e) {
+            port = -1;
+        }
+        if (port < 0 || port > 65535) {
+            System.err.println("エラー: --serve オプションには0から65535のポート番号を指定してください。");
+            formatter.printHelp("java -jar data-generator-app.jar", options);
+            return;
+        }
+        GenerationOptions defaults = new GenerationOptions();
+        defaults.setHashCache(cmd.hasOption("hash-cache"));
+        defaults.setUniqueSpillDirectory(cmd.getOptionValue("unique-spill"));
+        try {
+            FakerDictionary dictionary = cmd.hasOption("faker-snapshot")
+                    ? FakerDictionary.open(Paths.get(cmd.getOptionValue("faker-snapshot")))
+                    : FakerDictionary.inMemory();
+            GeneratorServer server = new GeneratorServer(port, defaults, dictionary);
+            Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+            server.start();
+        } catch (IOException e) {
+            System.err.println("致命的なエラー: サーバーを起動できません。詳細: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 単位 (K, M, G, T。1024倍ずつ) を付けられるバイト数を解析します。
+     * @return バイト数。解析できない場合は -1
+     */
+    private static long parseByteSize(String text) {
+        String value = text.trim().toUpperCase();
+        if (value.endsWith("B")) {
+            value = value.substring(0, value.length() - 1);
+        }
+        int shift = 0;
+        if (!value.isEmpty()) {
+            int unit = "KMGT".indexOf(value.charAt(value.length() - 1));
+            if (unit >= 0) {
+                shift = 10 * (unit + 1);
+                value = value.substring(0, value.length() - 1);
+            }
+        }
+        try {
+            long number = Long.parseLong(value.trim());
+            if (number < 0 || number > Long.MAX_VALUE >> shift) {
+                return -1;
+            }
+            return number << shift;
+        } catch (NumberFormatException e) {
+            return -1;
         }
     }
 
@@ -89,6 +423,19 @@ public class RegexGeneratorApp {
         Option sql = new Option("q", "sql", false, "SQL INSERT文として出力します。");
         options.addOption(sql);
 
+        Option csv = new Option("c", "csv", false, "CSVファイル (RFC 4180) として出力します。");
+        options.addOption(csv);
+
+        Option copy = new Option("p", "copy", false, "PostgreSQLの COPY ... FROM STDIN 形式 (psql -f で実行可能) として出力します。");
+        options.addOption(copy);
+
+        Option arrow = new Option("a", "arrow", false, "Apache ArrowのIPCファイル (.arrow) として出力します。カラムは type に応じて整数・タイムスタンプ・辞書エンコードした文字列などの型で格納します。");
+        options.addOption(arrow);
+
+        Option jdbc = new Option("j", "jdbc-url", true, "JDBC経由でデータベースへ直接ロードします。テーブルは事前に作成し、JDBCドライバをクラスパスに追加してください。");
+        jdbc.setArgName("url");
+        options.addOption(jdbc);
+
         // 任意のオプション
         Option output = new Option("o", "output", true, "出力ディレクトリを指定します (デフォルト: ./)。");
         output.setArgName("path");
@@ -98,6 +445,106 @@ public class RegexGeneratorApp {
         seed.setArgName("seed_value");
         options.addOption(seed);
         
+        Option threads = new Option("t", "threads", true, "行生成に使用するスレッド数を指定します (デフォルト: " + DEFAULT_THREADS + ")。同じシード値であればスレッド数にかかわらず同じ出力になります。");
+        threads.setArgName("count");
+        options.addOption(threads);
+
+        Option shard = Option.builder().longOpt("shard").hasArg().argName("k/n")
+                .desc("各テーブルの行を n 個に分割したうち k 番目 (1始まり) のみを出力します。各シャードのファイルを番号順に連結すると、分割しない場合と同じ内容になります。").build();
+        options.addOption(shard);
+
+        Option partRows = Option.builder().longOpt("part-rows").hasArg().argName("rows")
+                .desc("各テーブルの出力を指定した行数ごとのファイル (例: orders.part-0007.sql) に分割し、パートの一覧をマニフェスト (例: orders.manifest.json) に出力します。").build();
+        options.addOption(partRows);
+
+        Option partSize = Option.builder().longOpt("part-size").hasArg().argName("size")
+                .desc("各テーブルの出力を指定したバイト数 (例: 512M, 2G) を超えたところで次のファイルに切り替えます。--part-rows と併用できます。").build();
+        options.addOption(partSize);
+
+        Option writerThreads = Option.builder().longOpt("writer-threads").hasArg().argName("count")
+                .desc("パートを書き出すスレッド数を指定します (デフォルト: -t と同じ)。").build();
+        options.addOption(writerThreads);
+
+        Option compress = Option.builder().longOpt("compress").hasArg().argName("method")
+                .desc("SQL・CSV・COPYファイルを圧縮して出力します (拡張子 .gz)。gzip: 1つのgzipストリームとして圧縮、pgzip: ブロックごとに複数のスレッドで並列に圧縮 (gunzip で展開可能)。").build();
+        options.addOption(compress);
+
+        Option compressLevel = Option.builder().longOpt("compress-level").hasArg().argName("level")
+                .desc("圧縮レベル (1: 高速 〜 9: 高圧縮) を指定します (デフォルト: 6)。").build();
+        options.addOption(compressLevel);
+
+        Option compressThreads = Option.builder().longOpt("compress-threads").hasArg().argName("count")
+                .desc("pgzip の圧縮に使用するスレッド数を指定します (デフォルト: CPU数)。").build();
+        options.addOption(compressThreads);
+
+        Option hashThreads = Option.builder().longOpt("hash-threads").hasArg().argName("count")
+                .desc("BCryptハッシュ化専用のスレッド数を指定します (デフォルト: CPU数)。0の場合は行生成と同じスレッドでハッシュ化します。").build();
+        options.addOption(hashThreads);
+
+        Option hashCache = Option.builder().longOpt("hash-cache")
+                .desc("同じ平文のハッシュ値をキャッシュします。ソルトはシード値から導出されるため、ハッシュ値も再現可能になります。").build();
+        options.addOption(hashCache);
+
+        Option batchSize = Option.builder().longOpt("batch-size").hasArg().argName("rows")
+                .desc("SQL出力で1つのINSERT文にまとめる行数、JDBCロードで executeBatch 1回あたりの行数、またはArrow出力の1つのレコードバッチの行数を指定します (デフォルト: SQL出力 1、JDBCロード 1000、Arrow出力 65536)。").build();
+        options.addOption(batchSize);
+
+        Option transaction = Option.builder().longOpt("transaction")
+                .desc("SQL出力の各バッチを BEGIN; と COMMIT; で囲みます。").build();
+        options.addOption(transaction);
+
+        Option uniqueSpill = Option.builder().longOpt("unique-spill").hasArg().argName("path")
+                .desc("ユニーク制約のチェックに使用する文字列の値を、指定したディレクトリの一時ファイルに書き出します。大量の行を生成する場合にヒープ使用量を抑えます。").build();
+        options.addOption(uniqueSpill);
+
+        Option progress = Option.builder().longOpt("progress").hasArg().argName("seconds")
+                .desc("生成中のテーブルの進捗 (行数、行/秒、出力バイト数) を指定した秒数ごとに標準エラー出力へ表示します (デフォルト: 5)。0の場合は表示しません。").build();
+        options.addOption(progress);
+
+        Option report = Option.builder().longOpt("report").hasArg().argName("path")
+                .desc("テーブルごとの行/秒、カラムごとの生成時間とメモリ割り当て量、ユニーク制約の再生成回数、参照キャッシュの件数、出力バイト数などを記載した実行レポートをJSONで出力します。").build();
+        options.addOption(report);
+
+        Option jfr = Option.builder().longOpt("jfr").hasArg().argName("path")
+                .desc("JDK Flight Recorder で実行中のプロファイルを記録し、指定したファイル (.jfr) に出力します。テーブルとチャンクの生成も独自イベントとして記録されます。").build();
+        options.addOption(jfr);
+
+        Option fakerSnapshot = Option.builder().longOpt("faker-snapshot").hasArg().argName("path")
+                .desc("--write-faker-snapshot で作成したFakerの辞書スナップショットを使用します。起動時とスレッドごとのロケールファイルの解析を省略し、FAKER型を含む設定の起動を速くします。").build();
+        options.addOption(fakerSnapshot);
+
+        Option writeFakerSnapshot = Option.builder().longOpt("write-faker-snapshot").hasArg().argName("path")
+                .desc("-i の設定ファイルのFAKER型カラムが使用する辞書を抽出し、Fakerの辞書スナップショットとして指定したファイルに出力して終了します (データは生成しません)。").build();
+        options.addOption(writeFakerSnapshot);
+
+        Option serve = Option.builder().longOpt("serve").hasArg().argName("port")
+                .desc("生成サーバーとして起動し、http://127.0.0.1:<port>/generate へPOSTされた設定JSONから生成したSQL、CSVまたはCOPY形式のデータを返します。プロセスを起動したまま、コンパイル済みのコードと辞書をリクエスト間で再利用します。").build();
+        options.addOption(serve);
+
+        Option cache = Option.builder().longOpt("cache").hasArg().argName("dir")
+                .desc("テーブルの出力と外部キー参照用のキャッシュを指定したディレクトリに保存し、テーブル構成、シード値、出力形式、参照する親テーブルが同じテーブルは生成せずにキャッシュから出力します。").build();
+        options.addOption(cache);
+
+        Option checkpoint = Option.builder().longOpt("checkpoint").hasArg().argName("dir")
+                .desc("出力が完了したテーブル、出力途中のテーブルの行数と参照キャッシュを、指定したディレクトリにチェックポイントとして記録します。全てのテーブルの出力が完了すると削除されます。").build();
+        options.addOption(checkpoint);
+
+        Option checkpointInterval = Option.builder().longOpt("checkpoint-interval").hasArg().argName("rows")
+                .desc("出力途中のテーブルの進捗をチェックポイントに記録する間隔 (行数) を指定します (デフォルト: 1000000)。").build();
+        options.addOption(checkpointInterval);
+
+        Option resume = Option.builder().longOpt("resume")
+                .desc("--checkpoint のチェックポイントから、中断した前回の実行を再開します。同じ設定ファイルとオプションで実行すると、中断せずに実行した場合と同じ内容を出力します。").build();
+        options.addOption(resume);
+
+        Option jdbcUser = Option.builder().longOpt("jdbc-user").hasArg().argName("user")
+                .desc("JDBC接続のユーザー名を指定します。").build();
+        options.addOption(jdbcUser);
+
+        Option jdbcPassword = Option.builder().longOpt("jdbc-password").hasArg().argName("password")
+                .desc("JDBC接続のパスワードを指定します。").build();
+        options.addOption(jdbcPassword);
+
         Option input = new Option("i", "inputPath", true, "入力するJSON設定ファイルのパスを指定します (デフォルト: " + DEFAULT_CONFIG_PATH + ")。");
         input.setArgName("path");
         input.setRequired(false);
@@ -0,0 +1,62 @@
+package com.generator.cache;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 出力キャッシュの1件 (1テーブルの出力) の内容。JSONとしてエントリのディレクトリに保存されます。
+ * 出力ファイルとその大きさ、外部キー参照用のキャッシュのファイルを記録します。
+ */
+public class CacheEntry {
+
+    // 形式のバージョン
+    private int version = 1;
+
+    // テーブル名
+    private String table;
+
+    // 出力ファイル (出力ディレクトリからの相対パス、大きさ、エントリ内のファイル名)
+    private List<OutputFile> files = new ArrayList<>();
+
+    // 参照キャッシュのファイル名: Map<カラム名, ファイル名>
+    private Map<String, String> references = new LinkedHashMap<>();
+
+    /**
+     * キャッシュした出力ファイル。
+     */
+    public static class OutputFile {
+
+        // 出力ディレクトリからの相対パス
+        private String path;
+
+        // ファイルの大きさ。復元時に一致しない場合はキャッシュが壊れているとみなす
+        private long bytes;
+
+        // エントリのディレクトリ内のファイル名
+        private String stored;
+
+        public String getPath() { return path; }
+        public void setPath(String path) { this.path = path; }
+
+        public long getBytes() { return bytes; }
+        public void setBytes(long bytes) { this.bytes = bytes; }
+
+        public String getStored() { return stored; }
+        public void setStored(String stored) { this.stored = stored; }
+    }
+
+    // Getter and Setter
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+
+    public String getTable() { return table; }
+    public void setTable(String table) { this.table = table; }
+
+    public List<OutputFile> getFiles() { return files; }
+    public void setFiles(List<OutputFile> files) { this.files = files; }
+
+    public Map<String, String> getReferences() { return references; }
+    public void setReferences(Map<String, String> references) { this.references = references; }
+}
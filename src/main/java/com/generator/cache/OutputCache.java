@@ -0,0 +1,303 @@
+package com.generator.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.generator.reference.ReferenceColumn;
+import com.generator.reference.ReferenceColumnCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * テーブルの出力ファイルと外部キー参照用のキャッシュを、内容を決める値のハッシュ (キー) ごとに保存するキャッシュ。
+ * キーはテーブル構成、出力に影響するオプション、生成ツールのビルド、参照する親テーブルのキーから計算するため、
+ * あるテーブルの定義を変更すると、そのテーブルと (キーが連鎖する) 子テーブルのみが生成し直されます。
+ * <p>
+ * 復元時は出力ファイルをハードリンク (できない場合はコピー) で出力ディレクトリに配置し、参照キャッシュを読み込みます。
+ * 保存時も出力ファイルをハードリンクするため、出力ファイルとキャッシュは同じ内容を共有します。
+ * 出力ファイルを書き出すシンクは既存のファイルを削除してから作成するため、生成し直してもキャッシュの内容は変わりません。
+ * エントリは一時ディレクトリに作成してから移動するため、書き込み中に中断しても不完全なエントリは残りません。
+ */
+public class OutputCache {
+
+    // キーの計算方法や保存形式を変更した場合に増やす
+    private static final int CACHE_VERSION = 1;
+
+    private static final String ENTRY_FILE = "entry.json";
+    private static final String TEMP_PREFIX = "tmp-";
+
+    // 生成ツールのビルドを表す値 (最初に必要になった時点で計算する)
+    private static volatile String buildFingerprint;
+
+    private final Path directory;
+    private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger stores = new AtomicInteger();
+
+    private OutputCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * キャッシュのディレクトリを開きます。存在しない場合は作成します。
+     * @throws IOException ディレクトリを作成できない場合
+     */
+    public static OutputCache open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        return new OutputCache(directory);
+    }
+
+    /**
+     * テーブルの出力の内容を決める値からキーを計算します。
+     * @param table テーブル構成 (JSONとして比較する)
+     * @param settings 出力に影響するオプション
+     * @param parentKeys 参照する親テーブルのキー: Map<テーブル名, キー>
+     * @return キー (SHA-256の16進数表記)
+     */
+    public String key(Object table, Map<String, Object> settings, Map<String, String> parentKeys) throws IOException {
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("cacheVersion", CACHE_VERSION);
+        content.put("build", buildFingerprint());
+        content.put("settings", settings);
+        content.put("table", table);
+        content.put("parents", parentKeys);
+        return hex(sha256().digest(new ObjectMapper().writeValueAsString(content).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * キーに対応するエントリがあれば、出力ファイルを出力ディレクトリに配置し、参照キャッシュを読み込みます。
+     * エントリの出力ファイルが欠けているか大きさが異なる場合や、必要な参照キャッシュが含まれない場合
+     * (後から他のテーブルが参照するようになったカラムなど) は、キャッシュにないものとして扱います。
+     * @param key キー
+     * @param outputDir 出力ディレクトリ
+     * @param requiredColumns 参照キャッシュが必要なカラム名
+     * @return 参照キャッシュ (Map<カラム名, 参照カラム>)。キャッシュにない場合はnull
+     * @throws IOException 出力ファイルの配置または参照キャッシュの読み込みに失敗した場合
+     */
+    public Map<String, ReferenceColumn> restore(String key, File outputDir, Collection<String> requiredColumns) throws IOException {
+        Path entryDir = entryDirectory(key);
+        Path entryFile = entryDir.resolve(ENTRY_FILE);
+        if (!Files.exists(entryFile)) {
+            return null;
+        }
+        CacheEntry entry = mapper.readValue(entryFile.toFile(), CacheEntry.class);
+        if (entry.getVersion() != CACHE_VERSION || !entry.getReferences().keySet().containsAll(requiredColumns)) {
+            return null;
+        }
+        for (CacheEntry.OutputFile file : entry.getFiles()) {
+            Path stored = entryDir.resolve(file.getStored());
+            if (!Files.exists(stored) || Files.size(stored) != file.getBytes()) {
+                System.err.println("警告: 出力キャッシュ " + entryDir + " の内容が記録と一致しないため、生成し直します。");
+                return null;
+            }
+        }
+
+        Path outputRoot = outputDir.toPath().toAbsolutePath().normalize();
+        for (CacheEntry.OutputFile file : entry.getFiles()) {
+            Path target = outputRoot.resolve(file.getPath());
+            Files.createDirectories(target.getParent());
+            Files.deleteIfExists(target);
+            link(entryDir.resolve(file.getStored()), target);
+        }
+        Map<String, ReferenceColumn> references = new LinkedHashMap<>();
+        for (Map.Entry<String, String> reference : entry.getReferences().entrySet()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    Files.newInputStream(entryDir.resolve(reference.getValue())), 1 << 16))) {
+                references.put(reference.getKey(), ReferenceColumnCodec.read(in));
+            }
+        }
+        hits.incrementAndGet();
+        return references;
+    }
+
+    /**
+     * テーブルの出力ファイルと参照キャッシュを、キーに対応するエントリとして保存します。既存のエントリは置き換えます。
+     * @param key キー
+     * @param tableName テーブル名
+     * @param outputDir 出力ディレクトリ (出力ファイルはこのディレクトリからの相対パスで記録する)
+     * @param outputFiles 出力ファイル
+     * @param references 参照キャッシュ (Map<カラム名, 参照カラム>)
+     * @throws IOException 保存に失敗した場合
+     */
+    public void store(String key, String tableName, File outputDir, List<File> outputFiles,
+                      Map<String, ReferenceColumn> references) throws IOException {
+        Path entryDir = entryDirectory(key);
+        Files.createDirectories(entryDir.getParent());
+        Path temp = Files.createTempDirectory(entryDir.getParent(), TEMP_PREFIX + key);
+        try {
+            CacheEntry entry = new CacheEntry();
+            entry.setTable(tableName);
+            Path outputRoot = outputDir.toPath().toAbsolutePath().normalize();
+            for (File outputFile : outputFiles) {
+                Path source = outputFile.toPath().toAbsolutePath().normalize();
+                if (!source.startsWith(outputRoot)) {
+                    throw new IOException("出力ディレクトリの外のファイルはキャッシュできません: " + source);
+                }
+                CacheEntry.OutputFile file = new CacheEntry.OutputFile();
+                file.setPath(outputRoot.relativize(source).toString());
+                file.setBytes(Files.size(source));
+                file.setStored(String.format("out-%04d", entry.getFiles().size() + 1));
+                link(source, temp.resolve(file.getStored()));
+                entry.getFiles().add(file);
+            }
+            for (Map.Entry<String, ReferenceColumn> reference : references.entrySet()) {
+                String fileName = String.format("ref-%04d.bin", entry.getReferences().size() + 1);
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                        Files.newOutputStream(temp.resolve(fileName)), 1 << 16))) {
+                    ReferenceColumnCodec.write(reference.getValue(), out);
+                }
+                entry.getReferences().put(reference.getKey(), fileName);
+            }
+            mapper.writeValue(temp.resolve(ENTRY_FILE).toFile(), entry);
+
+            deleteRecursively(entryDir);
+            try {
+                Files.move(temp, entryDir, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+                // 同じキーのエントリを他の実行が先に保存した場合は、そちらを使用する
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, entryDir);
+            }
+            stores.incrementAndGet();
+        } finally {
+            deleteRecursively(temp);
+        }
+    }
+
+    /**
+     * この実行でキャッシュから復元したテーブルの数を返します。
+     */
+    public int getHits() {
+        return hits.get();
+    }
+
+    /**
+     * この実行でキャッシュに保存したテーブルの数を返します。
+     */
+    public int getStores() {
+        return stores.get();
+    }
+
+    private Path entryDirectory(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    /**
+     * ファイルのハードリンクを作成します。ファイルシステムが異なるなどで作成できない場合はコピーします。
+     */
+    private static void link(Path source, Path target) throws IOException {
+        try {
+            Files.createLink(target, source);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path p : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    /**
+     * 生成ツールのビルドを表す値を返します。クラスパスのJARファイルは各エントリの名前とCRC、
+     * ディレクトリは各ファイルの内容から計算するため、依存ライブラリを含めてビルドが変わるとキャッシュは使用されません。
+     */
+    static String buildFingerprint() throws IOException {
+        String fingerprint = buildFingerprint;
+        if (fingerprint == null) {
+            MessageDigest digest = sha256();
+            for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+                Path path = Paths.get(entry).toAbsolutePath();
+                if (Files.isDirectory(path)) {
+                    digestDirectory(digest, path);
+                } else if (Files.isRegularFile(path)) {
+                    digestJar(digest, path);
+                }
+            }
+            fingerprint = hex(digest.digest());
+            buildFingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
+    private static void digestJar(MessageDigest digest, Path jar) throws IOException {
+        List<String> entries = new ArrayList<>();
+        try (JarFile file = new JarFile(jar.toFile())) {
+            // 中央ディレクトリのみを読み込み、エントリを展開しない
+            for (Enumeration<JarEntry> e = file.entries(); e.hasMoreElements(); ) {
+                JarEntry entry = e.nextElement();
+                entries.add(entry.getName() + ":" + entry.getCrc() + ":" + entry.getSize());
+            }
+        }
+        entries.sort(null);
+        for (String entry : entries) {
+            digest.update(entry.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void digestDirectory(MessageDigest digest, Path root) throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(root)) {
+            files = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        byte[] buffer = new byte[1 << 16];
+        for (Path file : files) {
+            digest.update(root.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+            try (InputStream in = Files.newInputStream(file)) {
+                int n;
+                while ((n = in.read(buffer)) > 0) {
+                    digest.update(buffer, 0, n);
+                }
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,81 @@
+package com.generator.checkpoint;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * チェックポイントの内容。JSONとしてチェックポイントのディレクトリに保存されます。
+ * 各セルの値は (シード値, テーブル, カラム, 行番号) のみから導出されるため、乱数生成器の状態は保存せず、
+ * 設定の同一性 (fingerprint) と実行時刻、テーブルごとの進捗、完了済みテーブルの参照キャッシュのファイルのみを記録します。
+ */
+public class CheckpointState {
+
+    // 形式のバージョン
+    private int version = 1;
+
+    // 設定ファイルと出力に影響するオプションから計算した値。再開時に一致しない場合は再開できない
+    private String fingerprint;
+
+    // 最初の実行の開始時刻 (maxDate 未指定のDATETIMEの上限)。再開後も同じ値を使用する
+    private String clock;
+
+    // 出力が完了したテーブル
+    private List<String> completedTables = new ArrayList<>();
+
+    // 完了したテーブルの参照キャッシュのファイル名: Map<テーブル名, Map<カラム名, ファイル名>>
+    private Map<String, Map<String, String>> references = new LinkedHashMap<>();
+
+    // 出力の途中のテーブルの進捗: Map<テーブル名, 進捗>
+    private Map<String, TableProgress> progress = new LinkedHashMap<>();
+
+    // 次に作成する参照キャッシュのファイルの番号
+    private int nextFileNumber = 1;
+
+    /**
+     * 出力の途中のテーブルの進捗。出力ファイルを bytes バイトに切り詰めると、rows 行目の直前までを出力した状態になります。
+     */
+    public static class TableProgress {
+
+        // 出力済みの行の次の行番号 (テーブル全体での行番号)
+        private long rows;
+
+        // 出力ファイルのパス
+        private String file;
+
+        // rows 行目の直前までを出力した時点の出力ファイルのバイト数
+        private long bytes;
+
+        public long getRows() { return rows; }
+        public void setRows(long rows) { this.rows = rows; }
+
+        public String getFile() { return file; }
+        public void setFile(String file) { this.file = file; }
+
+        public long getBytes() { return bytes; }
+        public void setBytes(long bytes) { this.bytes = bytes; }
+    }
+
+    // Getter and Setter
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+
+    public String getFingerprint() { return fingerprint; }
+    public void setFingerprint(String fingerprint) { this.fingerprint = fingerprint; }
+
+    public String getClock() { return clock; }
+    public void setClock(String clock) { this.clock = clock; }
+
+    public List<String> getCompletedTables() { return completedTables; }
+    public void setCompletedTables(List<String> completedTables) { this.completedTables = completedTables; }
+
+    public Map<String, Map<String, String>> getReferences() { return references; }
+    public void setReferences(Map<String, Map<String, String>> references) { this.references = references; }
+
+    public Map<String, TableProgress> getProgress() { return progress; }
+    public void setProgress(Map<String, TableProgress> progress) { this.progress = progress; }
+
+    public int getNextFileNumber() { return nextFileNumber; }
+    public void setNextFileNumber(int nextFileNumber) { this.nextFileNumber = nextFileNumber; }
+}
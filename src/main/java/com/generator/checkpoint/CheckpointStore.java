@@ -0,0 +1,202 @@
+package com.generator.checkpoint;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.generator.reference.ReferenceColumn;
+import com.generator.reference.ReferenceColumnCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 実行の進捗をディレクトリに記録し、中断した実行を再開するためのチェックポイント。
+ * <ul>
+ *   <li>テーブルの出力が完了すると、そのテーブルの外部キー参照用のキャッシュをファイルに保存し、完了済みとして記録します。
+ *       再開時は完了済みのテーブルを生成せず、保存したキャッシュを読み込みます。</li>
+ *   <li>出力の途中のテーブルは、一定の行数ごとに出力済みの行数と出力ファイルの大きさを記録します。
+ *       再開時は出力ファイルをその大きさに切り詰め、続きの行から出力します。</li>
+ * </ul>
+ * 内容は一時ファイルに書き込んでから置き換えるため、書き込み中に中断しても直前のチェックポイントが残ります。
+ * 複数のテーブルを並行して生成する場合に備え、記録は同期化されています。
+ */
+public class CheckpointStore {
+
+    private static final String STATE_FILE = "checkpoint.json";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final CheckpointState state;
+    private final boolean resumed;
+    private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private CheckpointStore(Path directory, CheckpointState state, boolean resumed) {
+        this.directory = directory;
+        this.state = state;
+        this.resumed = resumed;
+    }
+
+    /**
+     * チェックポイントのディレクトリを開きます。
+     * 再開する場合はディレクトリのチェックポイントを読み込み、存在しない場合は最初から実行します。
+     * 再開しない場合は既存のチェックポイントを破棄します。
+     * @param directory チェックポイントのディレクトリ
+     * @param fingerprint 設定ファイルと出力に影響するオプションから計算した値
+     * @param clock 実行の開始時刻 (新しく記録を始める場合に保存する)
+     * @param resume チェックポイントから再開するかどうか
+     * @throws IOException 読み込みまたは書き込みに失敗した場合
+     * @throws IllegalArgumentException チェックポイントが異なる設定で作成されている場合
+     */
+    public static CheckpointStore open(Path directory, String fingerprint, LocalDateTime clock, boolean resume) throws IOException {
+        Files.createDirectories(directory);
+        Path stateFile = directory.resolve(STATE_FILE);
+        ObjectMapper mapper = new ObjectMapper();
+        if (resume && Files.exists(stateFile)) {
+            CheckpointState state = mapper.readValue(stateFile.toFile(), CheckpointState.class);
+            if (!fingerprint.equals(state.getFingerprint())) {
+                throw new IllegalArgumentException("チェックポイント " + directory.toAbsolutePath()
+                        + " は異なる設定ファイルまたはオプションで作成されています。前回と同じ設定で実行するか、--resume を指定せずに最初から実行してください。");
+            }
+            System.out.println("チェックポイントから再開します: " + directory.toAbsolutePath() + " (完了済み "
+                    + state.getCompletedTables().size() + "テーブル)");
+            return new CheckpointStore(directory, state, true);
+        }
+        if (resume) {
+            System.out.println("チェックポイントが見つからないため、最初から生成します: " + directory.toAbsolutePath());
+        }
+        CheckpointStore store = new CheckpointStore(directory, new CheckpointState(), false);
+        store.deleteFiles();
+        store.state.setFingerprint(fingerprint);
+        store.state.setClock(clock.toString());
+        store.save();
+        return store;
+    }
+
+    /**
+     * 既存のチェックポイントから再開したかどうかを返します。
+     */
+    public boolean isResumed() {
+        return resumed;
+    }
+
+    /**
+     * 最初の実行の開始時刻を返します。
+     */
+    public LocalDateTime getClock() {
+        return LocalDateTime.parse(state.getClock());
+    }
+
+    public synchronized boolean isCompleted(String tableName) {
+        return state.getCompletedTables().contains(tableName);
+    }
+
+    /**
+     * 出力の途中のテーブルの進捗を返します。記録がない場合はnullを返します。
+     */
+    public synchronized CheckpointState.TableProgress getProgress(String tableName) {
+        return state.getProgress().get(tableName);
+    }
+
+    /**
+     * 出力の途中のテーブルの進捗を記録します。出力ファイルは書き込んだ行をすべて書き出した状態である必要があります。
+     * @param tableName テーブル名
+     * @param rows 出力済みの行の次の行番号
+     * @param outputFile 出力ファイル
+     */
+    public synchronized void recordProgress(String tableName, long rows, File outputFile) throws IOException {
+        CheckpointState.TableProgress progress = new CheckpointState.TableProgress();
+        progress.setRows(rows);
+        progress.setFile(outputFile.getAbsolutePath());
+        progress.setBytes(outputFile.length());
+        state.getProgress().put(tableName, progress);
+        save();
+    }
+
+    /**
+     * テーブルの出力の完了を記録し、外部キー参照用のキャッシュを保存します。
+     * @param tableName テーブル名
+     * @param references 参照キャッシュ (Map<カラム名, 参照カラム>)
+     */
+    public synchronized void recordCompleted(String tableName, Map<String, ReferenceColumn> references) throws IOException {
+        Map<String, String> files = new LinkedHashMap<>();
+        for (Map.Entry<String, ReferenceColumn> entry : references.entrySet()) {
+            String fileName = String.format("ref-%04d.bin", state.getNextFileNumber());
+            state.setNextFileNumber(state.getNextFileNumber() + 1);
+            writeReference(directory.resolve(fileName), entry.getValue());
+            files.put(entry.getKey(), fileName);
+        }
+        state.getReferences().put(tableName, files);
+        state.getCompletedTables().add(tableName);
+        state.getProgress().remove(tableName);
+        save();
+    }
+
+    /**
+     * 完了済みのテーブルの外部キー参照用のキャッシュを読み込みます。
+     * @return Map<カラム名, 参照カラム>
+     */
+    public Map<String, ReferenceColumn> loadReferences(String tableName) throws IOException {
+        Map<String, String> files;
+        synchronized (this) {
+            files = new LinkedHashMap<>(state.getReferences().getOrDefault(tableName, Map.of()));
+        }
+        Map<String, ReferenceColumn> references = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : files.entrySet()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    Files.newInputStream(directory.resolve(entry.getValue())), 1 << 16))) {
+                references.put(entry.getKey(), ReferenceColumnCodec.read(in));
+            }
+        }
+        return references;
+    }
+
+    /**
+     * 実行が完了したため、チェックポイントを削除します。
+     */
+    public synchronized void delete() throws IOException {
+        deleteFiles();
+        try {
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            // 他のファイルがある場合はディレクトリを残す
+        }
+    }
+
+    private void writeReference(Path file, ReferenceColumn column) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            ReferenceColumnCodec.write(column, out);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void save() throws IOException {
+        Path temp = directory.resolve(STATE_FILE + TEMP_SUFFIX);
+        mapper.writeValue(temp.toFile(), state);
+        Files.move(temp, directory.resolve(STATE_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * このクラスが作成したファイル (状態と参照キャッシュ、書き込み途中の一時ファイル) を削除します。
+     */
+    private void deleteFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(STATE_FILE) || name.startsWith("ref-") && (name.endsWith(".bin") || name.endsWith(".bin" + TEMP_SUFFIX))) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.generator.column;
+
+import java.util.Random;
+
+/**
+ * 重み付きの離散分布から位置を選択するエイリアス表 (Vose のエイリアス法)。
+ * 構築時に各位置の確率を「その位置を採用する確率」と「採用しない場合の代わりの位置」の組に変換するため、
+ * 選択は位置の数にかかわらず乱数2つの O(1) で行えます。構築後は不変であり、複数のスレッドから同時に使用できます。
+ */
+public final class AliasTable {
+
+    // 各位置を採用する確率
+    private final double[] probability;
+    // 採用しない場合の代わりの位置
+    private final int[] alias;
+
+    private AliasTable(double[] probability, int[] alias) {
+        this.probability = probability;
+        this.alias = alias;
+    }
+
+    /**
+     * 重みからエイリアス表を作成します。
+     * @param weights 各位置の重み (0以上の有限の値で、合計が正であること)
+     * @throws IllegalArgumentException 重みが不正な場合
+     */
+    public static AliasTable of(double[] weights) {
+        int n = weights.length;
+        double total = 0;
+        for (double weight : weights) {
+            if (!(weight >= 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("重みには0以上の有限の値を指定してください: " + weight);
+            }
+            total += weight;
+        }
+        if (!(total > 0) || Double.isInfinite(total)) {
+            throw new IllegalArgumentException("重みの合計が正の有限の値になりません: " + total);
+        }
+
+        // 平均が1になるように正規化し、1未満 (small) と1以上 (large) の位置に分ける
+        double[] probability = new double[n];
+        int[] alias = new int[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            probability[i] = weights[i] * n / total;
+            if (probability[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        // small の不足分を large の位置で埋める
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            alias[less] = more;
+            probability[more] = probability[more] + probability[less] - 1.0;
+            if (probability[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // 残りは丸め誤差のみのため、常に採用する
+        while (largeCount > 0) {
+            int i = large[--largeCount];
+            probability[i] = 1.0;
+            alias[i] = i;
+        }
+        while (smallCount > 0) {
+            int i = small[--smallCount];
+            probability[i] = 1.0;
+            alias[i] = i;
+        }
+        return new AliasTable(probability, alias);
+    }
+
+    /**
+     * k番目 (1始まり) の位置を 1/k^exponent に比例する確率で選択するジップ分布のエイリアス表を作成します。
+     * @param n 位置の数
+     * @param exponent 指数 (0の場合は一様分布)
+     */
+    public static AliasTable zipf(int n, double exponent) {
+        double[] weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = Math.pow(i + 1, -exponent);
+        }
+        return of(weights);
+    }
+
+    /**
+     * 位置の数を返します。
+     */
+    public int size() {
+        return probability.length;
+    }
+
+    /**
+     * 重みに比例する確率で位置を選択します。
+     * @return 0 から size()-1 までの位置
+     */
+    public int sample(Random random) {
+        int i = random.nextInt(probability.length);
+        return random.nextDouble() < probability[i] ? i : alias[i];
+    }
+}
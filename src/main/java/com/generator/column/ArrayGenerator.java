@@ -0,0 +1,45 @@
+package com.generator.column;
+
+import java.util.List;
+
+/**
+ * ARRAY型の生成器。値の配列から順番に、またはランダムに1つを選択します。
+ * 分布のエイリアス表を指定した場合は、各値をその重みに比例する確率で選択します。
+ */
+public class ArrayGenerator implements ColumnGenerator {
+
+    private final String[] values;
+    private final boolean random;
+    private final AliasTable distribution;
+
+    /**
+     * @param values 選択肢
+     * @param random trueの場合はランダムに選択、falseの場合は先頭から順に選択 (末尾の次は先頭に戻る)
+     */
+    public ArrayGenerator(List<String> values, boolean random) {
+        this(values, random, null);
+    }
+
+    /**
+     * @param values 選択肢
+     * @param random trueの場合はランダムに選択、falseの場合は先頭から順に選択 (末尾の次は先頭に戻る)
+     * @param distribution 選択肢と同じ数の位置を持つエイリアス表 (指定した場合は random にかかわらずこの分布で選択する。nullの場合は一様)
+     */
+    public ArrayGenerator(List<String> values, boolean random, AliasTable distribution) {
+        this.values = values.toArray(new String[0]);
+        this.random = random;
+        this.distribution = distribution;
+    }
+
+    @Override
+    public Object generate(long rowIndex, int attempt, GenerationContext ctx) {
+        if (distribution != null) {
+            return values[distribution.sample(ctx.random())];
+        }
+        if (random) {
+            return values[ctx.random().nextInt(values.length)];
+        }
+        // シーケンシャル選択。ユニーク制約による再生成では試行回数だけ先の値を使用する
+        return values[(int) ((rowIndex + attempt) % values.length)];
+    }
+}
@@ -0,0 +1,26 @@
+package com.generator.column;
+
+/**
+ * 1つのカラムの値を生成する生成器。
+ * カラム定義はテーブルの生成開始時に一度だけ解析され、行ごとの処理では解析済みの状態のみを使用します。
+ * 実装は不変であり、複数のワーカースレッドから同時に呼び出されます。
+ */
+public interface ColumnGenerator {
+
+    /**
+     * 1セル分の値を生成します。
+     * @param rowIndex テーブル内の行番号 (0始まり)
+     * @param attempt ユニーク制約による再生成の試行回数 (初回は0)
+     * @param ctx 現在の乱数ストリームが設定されたスレッドごとのコンテキスト
+     * @return 生成された値
+     */
+    Object generate(long rowIndex, int attempt, GenerationContext ctx);
+
+    /**
+     * 異なる行番号に対して常に異なる値を返すかどうかを返します。
+     * trueの場合、unique: true であっても重複のチェックと再生成を省略します。
+     */
+    default boolean isUniqueByConstruction() {
+        return false;
+    }
+}
@@ -0,0 +1,374 @@
+package com.generator.column;
+
+import com.generator.model.ColumnConfig;
+import com.generator.model.DistributionConfig;
+import com.generator.reference.ReferenceColumn;
+import com.generator.regex.CompiledRegex;
+import com.generator.util.FakerInvoker;
+import com.generator.util.Hasher;
+import com.generator.util.HashingEngine;
+import com.generator.util.IndexPermutation;
+import com.generator.util.SeedMixer;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * カラム定義を解析し、型ごとに特化した {@link ColumnGenerator} を作成するクラス。
+ * type文字列の判定、日時の解析、formatの分割、外部キー参照の解決などは、ここでテーブルごとに一度だけ行います。
+ */
+public class ColumnGeneratorFactory {
+
+    public static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // エイリアス表で扱える位置の数の上限 (配列の最大長)
+    private static final int MAX_ALIAS_SIZE = Integer.MAX_VALUE - 8;
+
+    // distribution の省略時の値
+    private static final double DEFAULT_ZIPF_EXPONENT = 1.0;
+    private static final double DEFAULT_NORMAL_MEAN = 0.5;
+    private static final double DEFAULT_NORMAL_STDDEV = 1.0 / 6;
+    private static final double DEFAULT_EXPONENTIAL_MEAN = 0.2;
+
+    private final Function<String, FakerInvoker> fakerInvokers;
+    private final Function<String, ReferenceColumn> references;
+    private final LocalDateTime now;
+    private final HashingEngine hasher;
+    private final long seed;
+
+    // ジップ分布のエイリアス表: Map<"位置の数:指数", エイリアス表> (同じ大きさの親テーブルを参照する外部キーで共有する)
+    private final Map<String, AliasTable> zipfTables = new ConcurrentHashMap<>();
+
+    /**
+     * @param fakerInvokers generator文字列からコンパイル済みのFAKER呼び出し器を取得する関数
+     * @param references "テーブル名.カラム名" からキャッシュ済みの参照値を取得する関数 (存在しない場合はnull)
+     * @param now DATETIMEでmaxDate未指定時の上限
+     * @param hasher PASSWORD型のハッシュ化エンジン
+     * @param seed 乱数シード値 (unique: true のREGEXで行番号を並べ替える順序に使用)
+     */
+    public ColumnGeneratorFactory(Function<String, FakerInvoker> fakerInvokers,
+                                  Function<String, ReferenceColumn> references,
+                                  LocalDateTime now,
+                                  HashingEngine hasher,
+                                  long seed) {
+        this.fakerInvokers = fakerInvokers;
+        this.references = references;
+        this.now = now;
+        this.hasher = hasher;
+        this.seed = seed;
+    }
+
+    public HashingEngine getHasher() {
+        return hasher;
+    }
+
+    /**
+     * カラムのBCryptストレッチング因子を返します。
+     * @throws IllegalArgumentException hashCost がBCryptで指定可能な範囲外の場合
+     */
+    public static int hashCost(ColumnConfig config) {
+        if (config.getHashCost() == null) {
+            return Hasher.LOG_ROUNDS;
+        }
+        int cost = config.getHashCost();
+        if (cost < Hasher.MIN_LOG_ROUNDS || cost > Hasher.MAX_LOG_ROUNDS) {
+            throw new IllegalArgumentException("hashCost は" + Hasher.MIN_LOG_ROUNDS + "〜" + Hasher.MAX_LOG_ROUNDS
+                    + "の範囲で指定してください。カラム: " + config.getColumnName() + ", hashCost: " + cost);
+        }
+        return cost;
+    }
+
+    /**
+     * カラム定義から生成器を作成します。
+     * @param config カラム設定
+     * @param initialSerialValue テーブルのSERIAL開始値 (STRING/PASSWORDプレースホルダーのデフォルト開始点)
+     * @param columnKey テーブル名とカラム名から導出したカラムの識別子
+     * @return 生成器
+     * @throws IllegalArgumentException カラム定義に必須の項目がない場合
+     */
+    public ColumnGenerator create(ColumnConfig config, long initialSerialValue, long columnKey) {
+        ColumnType type = ColumnType.parse(config.getType());
+
+        // SERIAL処理: テーブルの主キーをそのまま値とする
+        if (type == ColumnType.SERIAL) {
+            return new SerialGenerator(initialSerialValue);
+        }
+        // 外部キー参照が設定されている場合、それを最優先
+        if (config.getFkReference() != null) {
+            return createForeignKey(config);
+        }
+        if (type == null) {
+            return new ConstantGenerator(null);
+        }
+
+        // STRING/PASSWORDカラムにstartFromが指定されている場合、それを "{i}" の開始値とする
+        long start = config.getStartFrom() != null ? config.getStartFrom() : initialSerialValue;
+
+        switch (type) {
+            case PASSWORD:
+                // formatが指定されていない場合はFakerでランダムな平文を生成する
+                String passwordFormat = config.getFormat();
+                return new PasswordGenerator(
+                        passwordFormat == null || passwordFormat.isEmpty() ? null : new FormatTemplate(passwordFormat),
+                        start, hasher, hashCost(config));
+
+            case STRING:
+                if (config.getFormat() == null) {
+                    throw new IllegalArgumentException("STRING型には 'format' キーが必要です。カラム: " + config.getColumnName());
+                }
+                FormatTemplate template = new FormatTemplate(config.getFormat());
+                return template.hasPlaceholder() ? new StringGenerator(template, start) : new ConstantGenerator(template.render(0));
+
+            case REGEX:
+                String pattern = config.getPattern();
+                if (pattern == null || pattern.isEmpty()) {
+                    return new ConstantGenerator(null);
+                }
+                return createRegex(config, columnKey);
+
+            case FAKER:
+                return new FakerGenerator(fakerInvokers.apply(config.getGenerator()));
+
+            case NUMBER:
+                return createNumber(config);
+
+            case ARRAY:
+                List<String> values = config.getValues();
+                if (values == null || values.isEmpty()) {
+                    return new ConstantGenerator(null);
+                }
+                return new ArrayGenerator(values, config.getIsRandom() != null && config.getIsRandom(),
+                        discreteDistribution(config, values.size()));
+
+            case DATETIME:
+                return createDateTime(config);
+
+            default:
+                return new ConstantGenerator(null);
+        }
+    }
+
+    /**
+     * 外部キーの生成器を作成します。親テーブルのキャッシュはこの時点で揃っている必要があります。
+     */
+    private ColumnGenerator createForeignKey(ColumnConfig config) {
+        String ref = config.getFkReference(); // 例: "CUSTOMER.customer_id"
+        ReferenceColumn values = references.apply(ref);
+
+        if (values == null || values.size() == 0) {
+            System.err.println("エラー: 外部キー参照 '" + ref + "' のデータがキャッシュに見つかりません。参照先のテーブル名とカラム名 (SERIALまたはunique: true) を確認してください。");
+            return new ConstantGenerator(0); // 参照失敗を示すデフォルト値
+        }
+        return new ForeignKeyGenerator(values, discreteDistribution(config, values.size()));
+    }
+
+    /**
+     * REGEX型の生成器を作成します。
+     * unique: true でパターンが列挙可能な場合は、行番号を並べ替えた番号に対応する文字列を生成し、重複チェックを不要にします。
+     * 対応していない構文のパターンは、Fakerのregexifyで生成します。
+     */
+    private ColumnGenerator createRegex(ColumnConfig config, long columnKey) {
+        CompiledRegex regex;
+        try {
+            regex = CompiledRegex.compile(config.getPattern());
+        } catch (IllegalArgumentException e) {
+            return new RegexifyGenerator(config.getPattern());
+        }
+        // 文字列の数が 2^62 を超えるパターンは列挙できないため、ランダムに生成して重複チェックで一意にする
+        // (一部の番号のみを並べ替えると、先頭の文字や長さが偏る)
+        if (config.getUnique() != null && config.getUnique() && regex.isEnumerable() && regex.enumerableCount() > 0) {
+            return new UniqueRegexGenerator(regex, new IndexPermutation(regex.enumerableCount(), SeedMixer.derive(seed, columnKey)));
+        }
+        return new RegexGenerator(regex);
+    }
+
+    /**
+     * NUMBER型の生成器を作成します。
+     */
+    private ColumnGenerator createNumber(ColumnConfig config) {
+        long min = config.getMin() != null ? config.getMin() : 0;
+        long max = config.getMax() != null ? config.getMax() : Long.MAX_VALUE;
+
+        if (min > max) {
+            System.err.println("警告: NUMBER型のmin > maxです。min=" + min + ", max=" + max);
+            return new ConstantGenerator(min);
+        }
+        return new NumberGenerator(min, max, continuousDistribution(config));
+    }
+
+    /**
+     * DATETIME型の生成器を作成します。minDate/maxDateはここで一度だけ解析します。
+     */
+    private ColumnGenerator createDateTime(ColumnConfig config) {
+        long minEpoch;
+        long maxEpoch;
+        try {
+            // 最小日時 (必須)
+            minEpoch = LocalDateTime.parse(config.getMinDate(), DATE_FORMAT).toEpochSecond(ZoneOffset.UTC);
+
+            // 最大日時 (オプショナル、デフォルトは現在日時)
+            LocalDateTime maxDateTime = config.getMaxDate() != null ? LocalDateTime.parse(config.getMaxDate(), DATE_FORMAT) : now;
+            maxEpoch = maxDateTime.toEpochSecond(ZoneOffset.UTC);
+        } catch (Exception e) {
+            System.err.println("日時生成エラー: " + e.getMessage() + ". 現在の日時を返します。");
+            return new ConstantGenerator(now.format(DATE_FORMAT));
+        }
+
+        if (minEpoch > maxEpoch) {
+            System.err.println("警告: DATETIME型のminDate > maxDateです。minDate=" + config.getMinDate() + ", maxDate=" + config.getMaxDate());
+            return new ConstantGenerator(config.getMinDate());
+        }
+        return new DateTimeGenerator(minEpoch, maxEpoch, DATE_FORMAT, continuousDistribution(config));
+    }
+
+    /**
+     * カラムの distribution の指定を検証します。生成を始める前に呼び出し、誤りがあればエラーにします。
+     * zipf と weighted は外部キー参照とARRAY型 (weighted はARRAY型のみ)、normal と exponential はNUMBER型とDATETIME型に指定できます。
+     * @throws IllegalArgumentException 分布の種類がカラムの型に対応していない場合、またはパラメータが不正な場合
+     */
+    public static void checkDistribution(ColumnConfig config) {
+        DistributionConfig distribution = config.getDistribution();
+        if (distribution == null) {
+            return;
+        }
+        ColumnType type = ColumnType.parse(config.getType());
+        boolean foreignKey = type != ColumnType.SERIAL && config.getFkReference() != null;
+        boolean discrete = foreignKey || type == ColumnType.ARRAY;
+        boolean continuous = !foreignKey && (type == ColumnType.NUMBER || type == ColumnType.DATETIME);
+        String kind = distributionType(distribution);
+        switch (kind) {
+            case "uniform":
+                if (!discrete && !continuous) {
+                    throw new IllegalArgumentException("distribution は外部キー参照、ARRAY型、NUMBER型、DATETIME型のカラムにのみ指定できます。");
+                }
+                break;
+            case "zipf":
+                if (!discrete) {
+                    throw new IllegalArgumentException("zipf分布は外部キー参照またはARRAY型のカラムにのみ指定できます。");
+                }
+                zipfExponent(distribution);
+                break;
+            case "weighted":
+                if (foreignKey || type != ColumnType.ARRAY) {
+                    throw new IllegalArgumentException("weighted分布はARRAY型のカラムにのみ指定できます。");
+                }
+                int valueCount = config.getValues() != null ? config.getValues().size() : 0;
+                if (distribution.getWeights() == null || distribution.getWeights().size() != valueCount) {
+                    throw new IllegalArgumentException("weights には values と同じ数 (" + valueCount + "個) の重みを指定してください。");
+                }
+                AliasTable.of(weights(distribution));
+                break;
+            case "normal":
+            case "exponential":
+                if (!continuous) {
+                    throw new IllegalArgumentException(kind + "分布はNUMBER型またはDATETIME型のカラムにのみ指定できます。");
+                }
+                continuousTable(distribution);
+                break;
+            default:
+                throw new IllegalArgumentException("未対応の分布です: " + distribution.getType()
+                        + " (uniform, zipf, weighted, normal, exponential のいずれかを指定してください)。");
+        }
+    }
+
+    /**
+     * 外部キーまたはARRAY型の値を選択する分布のエイリアス表を返します。一様に選択する場合はnullを返します。
+     * @param size 選択肢の数
+     * @throws IllegalArgumentException 選択肢の数がエイリアス表で扱える数を超える場合
+     */
+    private AliasTable discreteDistribution(ColumnConfig config, long size) {
+        DistributionConfig distribution = config.getDistribution();
+        if (distribution == null) {
+            return null;
+        }
+        switch (distributionType(distribution)) {
+            case "zipf":
+                if (size > MAX_ALIAS_SIZE) {
+                    throw new IllegalArgumentException("zipf分布は選択肢が" + MAX_ALIAS_SIZE + "件以下の場合のみ指定できます。カラム: "
+                            + config.getColumnName() + ", 件数: " + size);
+                }
+                double exponent = zipfExponent(distribution);
+                return zipfTables.computeIfAbsent(size + ":" + exponent, key -> AliasTable.zipf((int) size, exponent));
+            case "weighted":
+                return AliasTable.of(weights(distribution));
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * NUMBER型またはDATETIME型の範囲内の位置の分布の表を返します。一様に選択する場合はnullを返します。
+     */
+    private static InverseCdfTable continuousDistribution(ColumnConfig config) {
+        DistributionConfig distribution = config.getDistribution();
+        if (distribution == null || distributionType(distribution).equals("uniform")) {
+            return null;
+        }
+        return continuousTable(distribution);
+    }
+
+    /**
+     * normal または exponential の分布の表を作成します。
+     * @throws IllegalArgumentException パラメータが不正な場合
+     */
+    private static InverseCdfTable continuousTable(DistributionConfig distribution) {
+        if (distributionType(distribution).equals("normal")) {
+            double mean = parameter(distribution.getMean(), DEFAULT_NORMAL_MEAN, "mean");
+            double stddev = parameter(distribution.getStddev(), DEFAULT_NORMAL_STDDEV, "stddev");
+            if (!(stddev > 0)) {
+                throw new IllegalArgumentException("normal分布の stddev には正の値を指定してください: " + stddev);
+            }
+            return InverseCdfTable.normal(mean, stddev);
+        }
+        double mean = parameter(distribution.getMean(), DEFAULT_EXPONENTIAL_MEAN, "mean");
+        if (!(mean > 0)) {
+            throw new IllegalArgumentException("exponential分布の mean には正の値を指定してください: " + mean);
+        }
+        return InverseCdfTable.exponential(mean);
+    }
+
+    private static String distributionType(DistributionConfig distribution) {
+        if (distribution.getType() == null) {
+            throw new IllegalArgumentException("distribution には type を指定してください。");
+        }
+        return distribution.getType().toLowerCase(Locale.ROOT);
+    }
+
+    private static double zipfExponent(DistributionConfig distribution) {
+        double exponent = parameter(distribution.getExponent(), DEFAULT_ZIPF_EXPONENT, "exponent");
+        if (exponent < 0) {
+            throw new IllegalArgumentException("zipf分布の exponent には0以上の値を指定してください: " + exponent);
+        }
+        return exponent;
+    }
+
+    private static double[] weights(DistributionConfig distribution) {
+        List<Double> list = distribution.getWeights();
+        double[] weights = new double[list.size()];
+        for (int i = 0; i < weights.length; i++) {
+            if (list.get(i) == null) {
+                throw new IllegalArgumentException("weights に null は指定できません。");
+            }
+            weights[i] = list.get(i);
+        }
+        return weights;
+    }
+
+    /**
+     * 分布のパラメータを返します。省略された場合は既定値を返します。
+     * @throws IllegalArgumentException 有限の値でない場合
+     */
+    private static double parameter(Double value, double defaultValue, String name) {
+        double result = value != null ? value : defaultValue;
+        if (Double.isNaN(result) || Double.isInfinite(result)) {
+            throw new IllegalArgumentException("distribution の " + name + " には有限の値を指定してください: " + result);
+        }
+        return result;
+    }
+}
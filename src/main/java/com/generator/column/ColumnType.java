@@ -0,0 +1,32 @@
+package com.generator.column;
+
+import java.util.Locale;
+
+/**
+ * カラム定義の type に対応する列挙型。
+ */
+public enum ColumnType {
+    SERIAL,
+    STRING,
+    PASSWORD,
+    REGEX,
+    FAKER,
+    NUMBER,
+    ARRAY,
+    DATETIME;
+
+    /**
+     * type 文字列 (大文字・小文字を区別しない) から列挙値を取得します。
+     * @return 対応する列挙値 (未対応の文字列またはnullの場合はnull)
+     */
+    public static ColumnType parse(String type) {
+        if (type == null) {
+            return null;
+        }
+        try {
+            return valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.generator.column;
+
+/**
+ * 常に同じ値を返す生成器。"{i}" を含まないSTRINGや、設定の誤りにより値が決まっているカラムに使用します。
+ */
+public class ConstantGenerator implements ColumnGenerator {
+
+    private final Object value;
+
+    public ConstantGenerator(Object value) {
+        this.value = value;
+    }
+
+    @Override
+    public Object generate(long rowIndex, int attempt, GenerationContext ctx) {
+        return value;
+    }
+}
@@ -0,0 +1,46 @@
+package com.generator.column;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * DATETIME型の生成器。事前に解析したエポック秒の範囲から、一様に、または分布の表に従ってランダムな日時を生成します。
+ */
+public class DateTimeGenerator implements ColumnGenerator {
+
+    private final long minEpoch;
+    private final long maxEpoch;
+    private final DateTimeFormatter format;
+    private final InverseCdfTable distribution;
+
+    /**
+     * @param minEpoch 最小日時のエポック秒 (UTC)
+     * @param maxEpoch 最大日時のエポック秒 (UTC)
+     * @param format 出力形式
+     */
+    public DateTimeGenerator(long minEpoch, long maxEpoch, DateTimeFormatter format) {
+        this(minEpoch, maxEpoch, format, null);
+    }
+
+    /**
+     * @param minEpoch 最小日時のエポック秒 (UTC)
+     * @param maxEpoch 最大日時のエポック秒 (UTC)
+     * @param format 出力形式
+     * @param distribution 範囲内の位置の分布 (nullの場合は一様)
+     */
+    public DateTimeGenerator(long minEpoch, long maxEpoch, DateTimeFormatter format, InverseCdfTable distribution) {
+        this.minEpoch = minEpoch;
+        this.maxEpoch = maxEpoch;
+        this.format = format;
+        this.distribution = distribution;
+    }
+
+    @Override
+    public Object generate(long rowIndex, int attempt, GenerationContext ctx) {
+        long randomEpoch = distribution != null
+                ? RandomRange.scale(minEpoch, maxEpoch, distribution.sample(ctx.random()))
+                : RandomRange.nextLong(ctx.random(), minEpoch, maxEpoch);
+        return LocalDateTime.ofEpochSecond(randomEpoch, 0, ZoneOffset.UTC).format(format);
+    }
+}
@@ -0,0 +1,20 @@
+package com.generator.column;
+
+import com.generator.util.FakerInvoker;
+
+/**
+ * FAKER型の生成器。コンパイル済みの呼び出し器をスレッドごとのFakerに対して実行します。
+ */
+public class FakerGenerator implements ColumnGenerator {
+
+    private final FakerInvoker invoker;
+
+    public FakerGenerator(FakerInvoker invoker) {
+        this.invoker = invoker;
+    }
+
+    @Override
+    public Object generate(long rowIndex, int attempt, GenerationContext ctx) {
+        return invoker.invoke(ctx.faker());
+    }
+}
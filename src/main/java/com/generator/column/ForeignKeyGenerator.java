@@ -0,0 +1,38 @@
+package com.generator.column;
+
+import com.generator.reference.ReferenceColumn;
+
+/**
+ * 外部キーの生成器。親テーブルの生成時にキャッシュされた値からランダムに1つを選択します。
+ * 分布のエイリアス表を指定した場合は、親テーブルの行の順に重みを付けて選択します (例: ジップ分布で先頭の行ほど多く参照する)。
+ */
+public class ForeignKeyGenerator implements ColumnGenerator {
+
+    private final ReferenceColumn values;
+    private final AliasTable distribution;
+
+    /**
+     * @param values 参照先カラムの値 (空でないこと)
+     */
+    public ForeignKeyGenerator(ReferenceColumn values) {
+        this(values, null);
+    }
+
+    /**
+     * @param values 参照先カラムの値 (空でないこと)
+     * @param distribution 参照先カラムの値と同じ数の位置を持つエイリアス表 (nullの場合は一様)
+     */
+    public ForeignKeyGenerator(ReferenceColumn values, AliasTable distribution) {
+        this.values = values;
+        this.distribution = distribution;
+    }
+
+    @Override
+    public Object generate(long rowIndex, int attempt, GenerationContext ctx) {
+        if (distribution != null) {
+            return values.get(distribution.sample(ctx.random()));
+        }
+        // キャッシュされた値からランダムに選択
+        return values.get(ctx.random().nextLong(values.size()));
+    }
+}
@@ -0,0 +1,50 @@
+package com.generator.column;
+
+/**
+ * STRING/PASSWORDの format を "{i}" の位置で事前に分割したテンプレート。
+ * 行ごとに文字列全体を走査・置換せず、分割済みの断片と連番を連結するだけで値を組み立てます。
+ */
+public final class FormatTemplate {
+
+    private static final String PLACEHOLDER = "{i}";
+
+    private final String[] parts;
+    private final int fixedLength;
+
+    public FormatTemplate(String format) {
+        this.parts = format.split("\\{i\\}", -1);
+        int length = 0;
+        for (String part : parts) {
+            length += part.length();
+        }
+        this.fixedLength = length;
+    }
+
+    /**
+     * テンプレートに "{i}" が含まれるかどうかを返します。
+     */
+    public boolean hasPlaceholder() {
+        return parts.length > 1;
+    }
+
+    /**
+     * "{i}" を指定された値に置き換えた文字列を返します。
+     */
+    public String render(long value) {
+        if (parts.length == 1) {
+            return parts[0];
+        }
+        String number = Long.toString(value);
+        StringBuilder sb = new StringBuilder(fixedLength + number.length() * (parts.length - 1));
+        sb.append(parts[0]);
+        for (int i = 1; i < parts.length; i++) {
+            sb.append(number).append(parts[i]);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.join(PLACEHOLDER, parts);
+    }
+}
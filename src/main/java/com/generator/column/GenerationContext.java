@@ -0,0 +1,57 @@
+package com.generator.column;
+
+import com.github.javafaker.Faker;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * ワーカースレッドごとに保持する乱数生成器とFakerの組。
+ * Fakerの初期化は重いため、FAKER型などで最初に必要になった時点でスレッドごとに一度だけ作成し、範囲 (チャンク) の処理開始時に
+ * {@link #reseed(long)} で乱数ストリームだけを切り替えて再利用します。Fakerを使用しない設定では作成しません。
+ */
+public class GenerationContext {
+
+    private final Random random;
+    private final Function<Random, Faker> fakerFactory;
+    private Faker faker;
+    private final StringBuilder buffer = new StringBuilder(64);
+
+    public GenerationContext() {
+        // Fakerを日本語ロケールとRandomインスタンスで初期化
+        this(random -> new Faker(new Locale("ja", "JP"), random));
+    }
+
+    /**
+     * @param fakerFactory 乱数生成器を受け取り、それを参照するFakerを作成する関数
+     */
+    public GenerationContext(Function<Random, Faker> fakerFactory) {
+        this.random = new Random();
+        this.fakerFactory = fakerFactory;
+    }
+
+    /**
+     * 乱数生成器のシードを再設定します。Fakerも同じRandomインスタンスを参照しているため、同時に切り替わります。
+     */
+    public void reseed(long seed) {
+        random.setSeed(seed);
+    }
+
+    public Random random() { return random; }
+
+    public Faker faker() {
+        if (faker == null) {
+            faker = fakerFactory.apply(random);
+        }
+        return faker;
+    }
+
+    /**
+     * 文字列の組み立てに再利用するバッファを、空にした状態で返します。
+     */
+    public StringBuilder buffer() {
+        buffer.setLength(0);
+        return buffer;
+    }
+}
@@ -0,0 +1,114 @@
+package com.generator.column;
+
+import java.util.Random;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * 区間 [0, 1] 上の連続分布の分位点を事前に計算した表 (逆累積分布関数の近似)。
+ * 一様な乱数に対応する分位点を隣り合う2点の線形補間で求めるため、選択は分布の形にかかわらず O(1) で行えます。
+ * 両端の区間 (確率の下位・上位 1/LEVELS) は同じ数の分位点で細かく分割した表を別に持ち、
+ * 裾の確率が範囲の端まで線形に引き伸ばされないようにします。
+ * NUMBER/DATETIME の範囲 [min, max] を 0〜1 に対応させ、範囲の外の値が出ないように切り詰めた分布として使用します。
+ * 構築後は不変であり、複数のスレッドから同時に使用できます。
+ */
+public final class InverseCdfTable {
+
+    // 分位点の数 (区間の分割数)
+    private static final int LEVELS = 4096;
+
+    // 累積分布関数を求めるための密度関数の分割数
+    private static final int GRID = 1 << 16;
+
+    // LEVELS + 1 個の分位点 (先頭が0%、末尾が100%の点)
+    private final double[] quantiles;
+    // 下位の裾 (0%〜1/LEVELS) と上位の裾 (1-1/LEVELS〜100%) をそれぞれ LEVELS 等分した分位点
+    private final double[] lowerTail;
+    private final double[] upperTail;
+
+    private InverseCdfTable(double[] quantiles, double[] lowerTail, double[] upperTail) {
+        this.quantiles = quantiles;
+        this.lowerTail = lowerTail;
+        this.upperTail = upperTail;
+    }
+
+    /**
+     * 平均 mean、標準偏差 stddev の正規分布を [0, 1] に切り詰めた分布の表を作成します。
+     * @throws IllegalArgumentException [0, 1] の範囲にほとんど確率がない場合
+     */
+    public static InverseCdfTable normal(double mean, double stddev) {
+        return fromDensity(x -> {
+            double z = (x - mean) / stddev;
+            return Math.exp(-0.5 * z * z);
+        });
+    }
+
+    /**
+     * 平均 mean の指数分布 (0 から離れるほど確率が下がる分布) を [0, 1] に切り詰めた分布の表を作成します。
+     */
+    public static InverseCdfTable exponential(double mean) {
+        return fromDensity(x -> Math.exp(-x / mean));
+    }
+
+    /**
+     * [0, 1] 上の密度関数 (定数倍は任意) から分布の表を作成します。
+     * @throws IllegalArgumentException 密度の合計が正にならない場合
+     */
+    static InverseCdfTable fromDensity(DoubleUnaryOperator density) {
+        // 各区間の中点の密度から累積分布関数を求める
+        double[] cdf = new double[GRID + 1];
+        for (int i = 0; i < GRID; i++) {
+            double d = density.applyAsDouble((i + 0.5) / GRID);
+            cdf[i + 1] = cdf[i] + (d > 0 && !Double.isInfinite(d) ? d : 0);
+        }
+        double total = cdf[GRID];
+        if (!(total > 0) || Double.isInfinite(total)) {
+            throw new IllegalArgumentException("分布の範囲 (min〜max) にほとんど確率がありません。mean と stddev を見直してください。");
+        }
+
+        return new InverseCdfTable(invert(cdf, 0, total), invert(cdf, 0, total / LEVELS),
+                invert(cdf, total * (LEVELS - 1) / LEVELS, total));
+    }
+
+    /**
+     * 累積確率 from〜to を LEVELS 等分した LEVELS + 1 点の分位点を、累積分布関数の逆関数を区間内で線形に補間して求めます。
+     */
+    private static double[] invert(double[] cdf, double from, double to) {
+        double total = cdf[GRID];
+        double[] quantiles = new double[LEVELS + 1];
+        int cell = 0;
+        for (int k = 0; k <= LEVELS; k++) {
+            double target = k == LEVELS ? to : from + (to - from) * k / LEVELS;
+            // 確率が0の区間は飛ばす (末尾の確率が0の区間には進まない)
+            while (cell < GRID - 1 && (cdf[cell + 1] < target || cdf[cell + 1] == cdf[cell] && cdf[cell] < total)) {
+                cell++;
+            }
+            double mass = cdf[cell + 1] - cdf[cell];
+            double fraction = mass > 0 ? Math.min(1.0, Math.max(0.0, (target - cdf[cell]) / mass)) : 0.0;
+            quantiles[k] = Math.min(1.0, (cell + fraction) / GRID);
+        }
+        return quantiles;
+    }
+
+    /**
+     * 分布に従う [0, 1] の値を返します。
+     */
+    public double sample(Random random) {
+        double u = random.nextDouble() * LEVELS;
+        int i = (int) u;
+        // 両端の区間では、区間内の位置を裾の表の位置に拡大して補間する
+        if (i == 0) {
+            return interpolate(lowerTail, u * LEVELS);
+        } else if (i == LEVELS - 1) {
+            return interpolate(upperTail, (u - i) * LEVELS);
+        }
+        return interpolate(quantiles, u);
+    }
+
+    /**
+     * 分位点の表 table の位置 position (0〜LEVELS) の値を、隣り合う2点の線形補間で求めます。
+     */
+    private static double interpolate(double[] table, double position) {
+        int i = (int) position;
+        return table[i] + (position - i) * (table[i + 1] - table[i]);
+    }
+}
@@ -0,0 +1,38 @@
+package com.generator.column;
+
+/**
+ * NUMBER型の生成器。範囲 [min, max] から一様に、または分布の表に従って選んだ整数を返します。
+ */
+public class NumberGenerator implements ColumnGenerator {
+
+    private final long min;
+    private final long max;
+    private final InverseCdfTable distribution;
+
+    /**
+     * @param min 最小値
+     * @param max 最大値 (min 以上であること)
+     */
+    public NumberGenerator(long min, long max) {
+        this(min, max, null);
+    }
+
+    /**
+     * @param min 最小値
+     * @param max 最大値 (min 以上であること)
+     * @param distribution 範囲内の位置の分布 (nullの場合は一様)
+     */
+    public NumberGenerator(long min, long max, InverseCdfTable distribution) {
+        this.min = min;
+        this.max = max;
+        this.distribution = distribution;
+    }
+
+    @Override
+    public Object generate(long rowIndex, int attempt, GenerationContext ctx) {
+        if (distribution != null) {
+            return RandomRange.scale(min, max, distribution.sample(ctx.random()));
+        }
+        return RandomRange.nextLong(ctx.random(), min, max);
+    }
+}
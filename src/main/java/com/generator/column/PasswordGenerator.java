@@ -0,0 +1,41 @@
+package com.generator.column;
+
+import com.generator.util.HashingEngine;
+
+/**
+ * PASSWORD型の生成器。format (未指定の場合はFakerのランダムなパスワード) から平文を作り、BCryptのハッシュ値のみを返します。
+ * ハッシュ化は {@link HashingEngine} に委譲されるため、未完了のハッシュ値を表す Future を返す場合があります。
+ */
+public class PasswordGenerator implements ColumnGenerator {
+
+    private final FormatTemplate template;
+    private final long start;
+    private final HashingEngine hasher;
+    private final int logRounds;
+
+    /**
+     * @param template 分割済みの format (nullの場合はFakerでランダムに生成)
+     * @param start "{i}" の開始値
+     * @param hasher ハッシュ化エンジン
+     * @param logRounds BCryptのストレッチング因子
+     */
+    public PasswordGenerator(FormatTemplate template, long start, HashingEngine hasher, int logRounds) {
+        this.template = template;
+        this.start = start;
+        this.hasher = hasher;
+        this.logRounds = logRounds;
+    }
+
+    @Override
+    public Object generate(long rowIndex, int attempt, GenerationContext ctx) {
+        String plainPassword;
+        if (template == null) {
+            // formatが指定されていない場合、Fakerを使用してランダムなパスワードを生成
+            plainPassword = ctx.faker().internet().password(8, 16, true, true, true);
+        } else {
+            plainPassword = template.render(start + rowIndex);
+        }
+        // BCryptでハッシュ化して返す
+        return hasher.hash(plainPassword, logRounds);
+    }
+}
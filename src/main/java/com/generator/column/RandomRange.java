@@ -0,0 +1,53 @@
+package com.generator.column;
+
+import java.util.Random;
+
+/**
+ * 両端を含む範囲の一様な乱数と、範囲内の位置に対応する値を求めるユーティリティ。
+ * 剰余による偏りがなく、long の全範囲 (max - min がオーバーフローする範囲) も扱えます。
+ */
+final class RandomRange {
+
+    private RandomRange() {
+    }
+
+    /**
+     * [min, max] の範囲から一様に選んだ値を返します。
+     * @param min 最小値
+     * @param max 最大値 (min 以上であること)
+     */
+    static long nextLong(Random random, long min, long max) {
+        if (max < Long.MAX_VALUE) {
+            return random.nextLong(min, max + 1);
+        }
+        if (min > Long.MIN_VALUE) {
+            return random.nextLong(min - 1, max) + 1;
+        }
+        return random.nextLong();
+    }
+
+    /**
+     * [0, 1] の値を [min, max] の範囲の値に対応させます。0 は min、1 は max になります。
+     * 範囲の大きさが long の最大値を超える場合も、差を符号なしの値として扱います。
+     * @param min 最小値
+     * @param max 最大値 (min 以上であること)
+     * @param fraction 範囲内の位置 (0〜1)
+     */
+    static long scale(long min, long max, double fraction) {
+        double span = unsignedToDouble(max - min);
+        double offset = Math.floor(fraction * (span + 1.0));
+        // 丸め誤差で範囲を超える場合は端の値とする
+        if (!(offset > 0)) {
+            return min;
+        }
+        if (offset >= span) {
+            return max;
+        }
+        long unsignedOffset = offset < 0x1p63 ? (long) offset : (long) (offset - 0x1p63) + Long.MIN_VALUE;
+        return min + unsignedOffset;
+    }
+
+    private static double unsignedToDouble(long value) {
+        return value >= 0 ? value : (value >>> 1) * 2.0 + (value & 1);
+    }
+}
@@ -0,0 +1,22 @@
+package com.generator.column;
+
+import com.generator.regex.CompiledRegex;
+
+/**
+ * REGEX型の生成器。コンパイル済みのパターンからランダムな文字列を生成します。
+ */
+public class RegexGenerator implements ColumnGenerator {
+
+    private final CompiledRegex regex;
+
+    public RegexGenerator(CompiledRegex regex) {
+        this.regex = regex;
+    }
+
+    @Override
+    public Object generate(long rowIndex, int attempt, GenerationContext ctx) {
+        StringBuilder buffer = ctx.buffer();
+        regex.sample(ctx.random(), buffer);
+        return buffer.toString();
+    }
+}
@@ -0,0 +1,20 @@
+package com.generator.column;
+
+/**
+ * REGEX型の生成器 (互換用)。{@link com.generator.regex.CompiledRegex} が対応していない構文のパターンに使用し、
+ * Fakerのregexifyで文字列を生成します。
+ */
+public class RegexifyGenerator implements ColumnGenerator {
+
+    private final String pattern;
+
+    public RegexifyGenerator(String pattern) {
+        this.pattern = pattern;
+    }
+
+    @Override
+    public Object generate(long rowIndex, int attempt, GenerationContext ctx) {
+        // GenerexではなくFakerのregexifyを使用
+        return ctx.faker().regexify(pattern);
+    }
+}
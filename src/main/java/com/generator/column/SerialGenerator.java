@@ -0,0 +1,23 @@
+package com.generator.column;
+
+/**
+ * SERIAL型の生成器。開始値に行番号を加えた連番を long で返します。
+ */
+public class SerialGenerator implements ColumnGenerator {
+
+    private final long start;
+
+    public SerialGenerator(long start) {
+        this.start = start;
+    }
+
+    @Override
+    public Object generate(long rowIndex, int attempt, GenerationContext ctx) {
+        return start + rowIndex;
+    }
+
+    @Override
+    public boolean isUniqueByConstruction() {
+        return true;
+    }
+}
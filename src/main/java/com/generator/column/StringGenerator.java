@@ -0,0 +1,24 @@
+package com.generator.column;
+
+/**
+ * STRING型の生成器。format の "{i}" を開始値と行番号から求めた連番に置き換えます。
+ */
+public class StringGenerator implements ColumnGenerator {
+
+    private final FormatTemplate template;
+    private final long start;
+
+    /**
+     * @param template 分割済みの format
+     * @param start "{i}" の開始値
+     */
+    public StringGenerator(FormatTemplate template, long start) {
+        this.template = template;
+        this.start = start;
+    }
+
+    @Override
+    public Object generate(long rowIndex, int attempt, GenerationContext ctx) {
+        return template.render(start + rowIndex);
+    }
+}
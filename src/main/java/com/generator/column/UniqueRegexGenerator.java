@@ -0,0 +1,35 @@
+package com.generator.column;
+
+import com.generator.regex.CompiledRegex;
+import com.generator.util.IndexPermutation;
+
+/**
+ * unique: true のREGEX型の生成器。行番号を並べ替えた番号に対応する文字列を生成します。
+ * 番号と文字列は1対1に対応するため、重複のチェックや再生成を行わずにユニークな値が得られます。
+ */
+public class UniqueRegexGenerator implements ColumnGenerator {
+
+    private final CompiledRegex regex;
+    private final IndexPermutation permutation;
+
+    /**
+     * @param regex 列挙可能なパターン ({@link CompiledRegex#isEnumerable()})
+     * @param permutation パターンの文字列数を範囲とする並べ替え
+     */
+    public UniqueRegexGenerator(CompiledRegex regex, IndexPermutation permutation) {
+        this.regex = regex;
+        this.permutation = permutation;
+    }
+
+    @Override
+    public Object generate(long rowIndex, int attempt, GenerationContext ctx) {
+        StringBuilder buffer = ctx.buffer();
+        regex.unrank(permutation.apply(rowIndex), buffer);
+        return buffer.toString();
+    }
+
+    @Override
+    public boolean isUniqueByConstruction() {
+        return true;
+    }
+}
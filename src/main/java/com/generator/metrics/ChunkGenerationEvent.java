@@ -0,0 +1,28 @@
+package com.generator.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 1チャンク分の行の生成を表すJFRイベント。ワーカースレッドで記録されます。
+ */
+@Name("com.generator.ChunkGeneration")
+@Label("Chunk Generation")
+@Category("Table Generator")
+@Description("1チャンク分の行の生成")
+@StackTrace(false)
+public class ChunkGenerationEvent extends Event {
+
+    @Label("Table")
+    public String table;
+
+    @Label("Chunk")
+    public long chunk;
+
+    @Label("Rows")
+    public int rows;
+}
@@ -0,0 +1,92 @@
+package com.generator.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 1つのカラムの生成にかかった時間とメモリ割り当て量、ユニーク制約の再生成回数などの計測値。
+ * 生成時間と割り当て量はチャンクごとにワーカースレッドから加算されます。
+ */
+public class ColumnMetrics {
+
+    private final String name;
+    private final String type;
+
+    private final LongAdder cells = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    // ユニーク制約の統計 (テーブルの生成完了時に設定される。ユニーク制約のチェック対象でない場合は-1)
+    private long uniqueRetries = -1;
+    private long uniqueCollisions = -1;
+    private long uniqueExhausted = -1;
+
+    // 外部キー参照用にキャッシュした値の件数 (キャッシュしない場合は-1)
+    private long referenceEntries = -1;
+
+    ColumnMetrics(String name, String type) {
+        this.name = name;
+        this.type = type;
+    }
+
+    /**
+     * 1チャンク分の生成結果を加算します。
+     * @param cellCount 生成したセル数
+     * @param elapsedNanos 生成にかかった時間 (ナノ秒)
+     * @param allocated 生成中にスレッドが割り当てたバイト数 (計測できない場合は負の値)
+     */
+    public void record(int cellCount, long elapsedNanos, long allocated) {
+        cells.add(cellCount);
+        nanos.add(elapsedNanos);
+        if (allocated > 0) {
+            allocatedBytes.add(allocated);
+        }
+    }
+
+    /**
+     * ユニーク制約の再生成回数、ハッシュ値の衝突回数、試行回数の上限に達した件数を設定します。
+     */
+    public void setUniqueness(long retries, long collisions, long exhausted) {
+        this.uniqueRetries = retries;
+        this.uniqueCollisions = collisions;
+        this.uniqueExhausted = exhausted;
+    }
+
+    public void setReferenceEntries(long referenceEntries) { this.referenceEntries = referenceEntries; }
+
+    public String getName() { return name; }
+
+    public long getCells() { return cells.sum(); }
+
+    public long getNanos() { return nanos.sum(); }
+
+    public long getAllocatedBytes() { return allocatedBytes.sum(); }
+
+    /**
+     * 実行レポートに出力する内容を返します。
+     */
+    Map<String, Object> toReport() {
+        long cellCount = getCells();
+        long totalNanos = getNanos();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("column", name);
+        report.put("type", type);
+        report.put("cells", cellCount);
+        report.put("nanos", totalNanos);
+        report.put("nanosPerCell", cellCount > 0 ? (double) totalNanos / cellCount : 0.0);
+        report.put("allocatedBytes", getAllocatedBytes());
+        report.put("allocatedBytesPerCell", cellCount > 0 ? (double) getAllocatedBytes() / cellCount : 0.0);
+        if (uniqueRetries >= 0) {
+            Map<String, Object> unique = new LinkedHashMap<>();
+            unique.put("retries", uniqueRetries);
+            unique.put("collisions", uniqueCollisions);
+            unique.put("exhausted", uniqueExhausted);
+            report.put("unique", unique);
+        }
+        if (referenceEntries >= 0) {
+            report.put("referenceEntries", referenceEntries);
+        }
+        return report;
+    }
+}
@@ -0,0 +1,59 @@
+package com.generator.metrics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+/**
+ * 実行中のJFR (JDK Flight Recorder) の記録。JDK標準の profile 設定に、このツールの独自イベント
+ * ({@link ChunkGenerationEvent}, {@link TableGenerationEvent}) を加えて記録し、終了時にファイルへ出力します。
+ * 出力したファイルは JDK Mission Control や jfr コマンドで、GCやCPUのプロファイルと合わせて確認できます。
+ */
+public class FlightRecording implements AutoCloseable {
+
+    private final Recording recording;
+    private final Path destination;
+
+    /**
+     * 記録を開始します。
+     * @param destination 記録の出力先ファイル
+     * @throws IOException 記録を開始できない場合
+     */
+    public FlightRecording(Path destination) throws IOException {
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration("profile");
+        } catch (ParseException e) {
+            throw new IOException("JFRの設定を読み込めません: " + e.getMessage(), e);
+        }
+        this.destination = destination;
+        this.recording = new Recording(configuration);
+        recording.setName("table-generator");
+        recording.enable(ChunkGenerationEvent.class);
+        recording.enable(TableGenerationEvent.class);
+        recording.setDestination(destination);
+        recording.start();
+    }
+
+    /**
+     * JFRが動作しているか (--jfr による記録、または -XX:StartFlightRecording などでJFRが初期化済みか) を返します。
+     * 動作していない場合、独自イベントのクラスを読み込むとJFRの初期化に時間がかかるため、イベントを作成しません。
+     */
+    public static boolean isActive() {
+        return FlightRecorder.isInitialized();
+    }
+
+    /**
+     * 記録を停止し、ファイルへ出力します。
+     */
+    @Override
+    public void close() {
+        recording.stop();
+        recording.close();
+        System.out.println("JFRの記録を出力しました: " + destination.toAbsolutePath());
+    }
+}
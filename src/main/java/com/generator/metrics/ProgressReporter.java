@@ -0,0 +1,79 @@
+package com.generator.metrics;
+
+import java.io.PrintStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 生成中のテーブルの進捗 (行数、行/秒、書き込んだバイト数、経過時間) を一定間隔で表示します。
+ * 標準出力の生成結果やログと混ざらないよう、標準エラー出力へ表示します。
+ */
+public class ProgressReporter implements AutoCloseable {
+
+    private final RunMetrics metrics;
+    private final PrintStream out;
+    private final ScheduledExecutorService timer;
+
+    /**
+     * @param metrics 実行の計測値
+     * @param intervalSeconds 表示の間隔 (秒)
+     * @param out 表示先
+     */
+    public ProgressReporter(RunMetrics metrics, long intervalSeconds, PrintStream out) {
+        this.metrics = metrics;
+        this.out = out;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "progress");
+            t.setDaemon(true);
+            return t;
+        });
+        timer.scheduleAtFixedRate(this::report, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    private void report() {
+        for (TableMetrics table : metrics.getTables()) {
+            if (table.isFinished()) {
+                continue;
+            }
+            long total = table.getRowsToProcess();
+            long processed = table.getRowsProcessed();
+            double percent = total > 0 ? processed * 100.0 / total : 0.0;
+            StringBuilder line = new StringBuilder();
+            line.append(String.format("進捗: %s %,d/%,d行 (%.1f%%), %,.0f行/秒", table.getName(), processed, total, percent,
+                    table.getRowsPerSecond()));
+            if (table.getBytesWritten() >= 0) {
+                line.append(", 出力 ").append(formatBytes(table.getBytesWritten()));
+            }
+            line.append(", 経過 ").append(formatElapsed(table.getElapsedNanos()));
+            out.println(line);
+        }
+    }
+
+    /**
+     * バイト数を単位 (KiB, MiB, GiB) 付きの文字列にします。
+     */
+    static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + "B";
+        }
+        String[] units = {"KiB", "MiB", "GiB", "TiB"};
+        double value = bytes;
+        int unit = -1;
+        while (value >= 1024 && unit < units.length - 1) {
+            value /= 1024;
+            unit++;
+        }
+        return String.format("%.1f%s", value, units[unit]);
+    }
+
+    private static String formatElapsed(long nanos) {
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(nanos);
+        return String.format("%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,174 @@
+package com.generator.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 1回の実行 (全テーブルの生成と出力) の計測値。テーブルごと・カラムごとの計測値を保持し、
+ * 実行の完了後に機械可読な実行レポート (JSON) として出力します。
+ */
+public class RunMetrics {
+
+    // スレッドごとのメモリ割り当て量を取得できる場合のみ設定される
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    private final Map<String, Object> settings;
+    private final Instant startTime = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final List<TableMetrics> tables = new CopyOnWriteArrayList<>();
+    private volatile long endNanos;
+    private Map<String, Object> hashing;
+    private Map<String, Object> jvm;
+    private String error;
+
+    /**
+     * @param settings 実行レポートに記載する実行時の設定 (シード値、スレッド数など)
+     */
+    public RunMetrics(Map<String, Object> settings) {
+        this.settings = new LinkedHashMap<>(settings);
+    }
+
+    /**
+     * テーブルの計測を開始します。
+     * @param name テーブル名
+     * @param size テーブルの行数
+     */
+    public TableMetrics startTable(String name, long size) {
+        TableMetrics table = new TableMetrics(name, size);
+        tables.add(table);
+        return table;
+    }
+
+    public List<TableMetrics> getTables() { return Collections.unmodifiableList(tables); }
+
+    /**
+     * BCryptハッシュ化の統計を設定します。
+     * @param hashes ハッシュ化した回数
+     * @param cacheHits キャッシュされたハッシュ値を使用した回数
+     * @param nanos ハッシュ化にかかった時間の合計 (ナノ秒。複数のスレッドでの時間を合算)
+     */
+    public void setHashing(long hashes, long cacheHits, long nanos) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hashes", hashes);
+        stats.put("cacheHits", cacheHits);
+        stats.put("nanos", nanos);
+        stats.put("nanosPerHash", hashes > 0 ? (double) nanos / hashes : 0.0);
+        this.hashing = stats;
+    }
+
+    /**
+     * 実行を完了し、JVMのGC回数などを記録します。
+     * @param failure 実行が失敗した場合の例外 (成功した場合はnull)
+     */
+    public void finish(Throwable failure) {
+        endNanos = System.nanoTime();
+        if (failure != null) {
+            error = failure.getMessage() != null ? failure.getMessage() : failure.toString();
+        }
+        long gcCount = 0;
+        long gcMillis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(gc.getCollectionCount(), 0);
+            gcMillis += Math.max(gc.getCollectionTime(), 0);
+        }
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peakHeap += pool.getPeakUsage().getUsed();
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("gcCount", gcCount);
+        stats.put("gcMillis", gcMillis);
+        stats.put("peakHeapBytes", peakHeap);
+        stats.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+        this.jvm = stats;
+    }
+
+    /**
+     * 実行開始からの経過時間 (完了後は実行にかかった時間) をナノ秒で返します。
+     */
+    public long getElapsedNanos() {
+        long end = endNanos;
+        return (end != 0 ? end : System.nanoTime()) - startNanos;
+    }
+
+    /**
+     * 実行レポートの内容を返します。
+     */
+    public Map<String, Object> toReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("status", error == null ? "completed" : "failed");
+        if (error != null) {
+            report.put("error", error);
+        }
+        report.put("startTime", startTime.toString());
+        report.put("elapsedMillis", getElapsedNanos() / 1_000_000);
+        report.put("settings", settings);
+        long rows = 0;
+        long bytes = 0;
+        List<Map<String, Object>> tableReports = new ArrayList<>();
+        for (TableMetrics table : tables) {
+            rows += table.getRowsWritten();
+            bytes += Math.max(table.getBytesWritten(), 0);
+            tableReports.add(table.toReport());
+        }
+        report.put("rowsWritten", rows);
+        report.put("bytesWritten", bytes);
+        report.put("tables", tableReports);
+        if (hashing != null) {
+            report.put("hashing", hashing);
+        }
+        if (jvm != null) {
+            report.put("jvm", jvm);
+        }
+        return report;
+    }
+
+    /**
+     * 実行レポートをJSONで出力します。
+     * @param file 出力先のファイル
+     * @throws IOException 書き込みに失敗した場合
+     */
+    public void writeReport(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, toReport());
+    }
+
+    /**
+     * 呼び出し元スレッドがこれまでに割り当てたヒープのバイト数を返します。
+     * @return バイト数。JVMが計測に対応していない場合は-1
+     */
+    public static long threadAllocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+            if (counter.isThreadAllocatedMemorySupported() && counter.isThreadAllocatedMemoryEnabled()) {
+                return counter;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.generator.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 1つのテーブルの生成と出力を表すJFRイベント。
+ */
+@Name("com.generator.TableGeneration")
+@Label("Table Generation")
+@Category("Table Generator")
+@Description("テーブルの生成と出力")
+@StackTrace(false)
+public class TableGenerationEvent extends Event {
+
+    @Label("Table")
+    public String table;
+
+    @Label("Rows Written")
+    public long rowsWritten;
+
+    @Label("Bytes Written")
+    @DataAmount
+    public long bytesWritten;
+}
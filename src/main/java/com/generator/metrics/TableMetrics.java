@@ -0,0 +1,129 @@
+package com.generator.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 1つのテーブルの生成の計測値。行数とバイト数はチャンクの確定ごとに呼び出し元スレッドから更新され、
+ * 進捗表示のために他のスレッドから読み取られます。
+ */
+public class TableMetrics {
+
+    private final String name;
+    private final long size;
+    private final List<ColumnMetrics> columns = new ArrayList<>();
+    private final long startNanos = System.nanoTime();
+    private volatile long endNanos;
+
+    // 生成して確定させる行数 (シャードの範囲外で、ユニーク制約や参照キャッシュのために生成する行を含む)
+    private volatile long rowsToProcess;
+    private volatile long rowsProcessed;
+    private volatile long rowsWritten;
+    private volatile long bytesWritten = -1;
+
+    // 呼び出し元スレッドでの処理時間の内訳 (ナノ秒)
+    private long waitNanos;
+    private long commitNanos;
+    private long writeNanos;
+
+    TableMetrics(String name, long size) {
+        this.name = name;
+        this.size = size;
+    }
+
+    /**
+     * カラムの計測値を追加します。生成を始める前にカラムの順に呼び出します。
+     */
+    public ColumnMetrics addColumn(String columnName, String type) {
+        ColumnMetrics column = new ColumnMetrics(columnName, type);
+        columns.add(column);
+        return column;
+    }
+
+    public void setRowsToProcess(long rowsToProcess) { this.rowsToProcess = rowsToProcess; }
+
+    /**
+     * 1チャンク分の確定と書き込みの結果を加算します。
+     * @param processed 確定させた行数
+     * @param written シンクへ書き込んだ行数
+     * @param bytes これまでにシンクが書き込んだバイト数 (把握できない場合は-1)
+     * @param wait チャンクの生成完了を待った時間 (ナノ秒)
+     * @param commit ハッシュ値の待機、ユニーク制約のチェック、参照キャッシュへの追加にかかった時間 (ナノ秒)
+     * @param write シンクへの書き込みにかかった時間 (ナノ秒)
+     */
+    public void recordChunk(int processed, int written, long bytes, long wait, long commit, long write) {
+        rowsProcessed += processed;
+        rowsWritten += written;
+        bytesWritten = bytes;
+        waitNanos += wait;
+        commitNanos += commit;
+        writeNanos += write;
+    }
+
+    /**
+     * テーブルの生成を完了します。
+     * @param bytes シンクが書き込んだバイト数 (把握できない場合は-1)
+     */
+    public void finish(long bytes) {
+        bytesWritten = bytes;
+        endNanos = System.nanoTime();
+    }
+
+    public String getName() { return name; }
+
+    public List<ColumnMetrics> getColumns() { return Collections.unmodifiableList(columns); }
+
+    public boolean isFinished() { return endNanos != 0; }
+
+    public long getRowsToProcess() { return rowsToProcess; }
+
+    public long getRowsProcessed() { return rowsProcessed; }
+
+    public long getRowsWritten() { return rowsWritten; }
+
+    public long getBytesWritten() { return bytesWritten; }
+
+    /**
+     * 生成開始からの経過時間 (完了後は生成にかかった時間) をナノ秒で返します。
+     */
+    public long getElapsedNanos() {
+        long end = endNanos;
+        return (end != 0 ? end : System.nanoTime()) - startNanos;
+    }
+
+    /**
+     * 書き込んだ行数の1秒あたりの平均を返します。
+     */
+    public double getRowsPerSecond() {
+        long elapsed = getElapsedNanos();
+        return elapsed > 0 ? rowsWritten * 1e9 / elapsed : 0.0;
+    }
+
+    /**
+     * 実行レポートに出力する内容を返します。
+     */
+    Map<String, Object> toReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("table", name);
+        report.put("size", size);
+        report.put("rowsProcessed", rowsProcessed);
+        report.put("rowsWritten", rowsWritten);
+        report.put("bytesWritten", bytesWritten);
+        report.put("elapsedMillis", getElapsedNanos() / 1_000_000);
+        report.put("rowsPerSecond", getRowsPerSecond());
+        Map<String, Object> phases = new LinkedHashMap<>();
+        phases.put("waitNanos", waitNanos);
+        phases.put("commitNanos", commitNanos);
+        phases.put("writeNanos", writeNanos);
+        report.put("phases", phases);
+        List<Map<String, Object>> columnReports = new ArrayList<>();
+        for (ColumnMetrics column : columns) {
+            columnReports.add(column.toReport());
+        }
+        report.put("columns", columnReports);
+        return report;
+    }
+}
@@ -16,7 +16,7 @@ public class ColumnConfig {
 
     // SERIAL/STRING用
     @JsonProperty("startFrom")
-    private Integer startFrom;
+    private Long startFrom;
 
     // STRING用
     @JsonProperty("format")
@@ -50,12 +50,19 @@ public class ColumnConfig {
     @JsonProperty("isHashed")
     private String isHashed; // ハッシュ化後のカラム名
 
+    @JsonProperty("hashCost")
+    private Integer hashCost; // BCryptのストレッチング因子 (PASSWORD/isHashed用、デフォルト: 10)
+
     @JsonProperty("generator")
     private String generator; 
 
     @JsonProperty("fkReference")
     private String fkReference; // 外部キー参照 (例: "other_table.other_column")
 
+    // 値の分布 (外部キー/ARRAY: zipf, weighted、NUMBER/DATETIME: normal, exponential。デフォルト: 一様)
+    @JsonProperty("distribution")
+    private DistributionConfig distribution;
+
     // Getter and Setter (Jacksonが使用するため必須)
     public String getColumnName() { return columnName; }
     public void setColumnName(String columnName) { this.columnName = columnName; }
@@ -63,8 +70,8 @@ public class ColumnConfig {
     public String getType() { return type; }
     public void setType(String type) { this.type = type; }
 
-    public Integer getStartFrom() { return startFrom; }
-    public void setStartFrom(Integer startFrom) { this.startFrom = startFrom; }
+    public Long getStartFrom() { return startFrom; }
+    public void setStartFrom(Long startFrom) { this.startFrom = startFrom; }
 
     public String getFormat() { return format; }
     public void setFormat(String format) { this.format = format; }
@@ -96,10 +103,16 @@ public class ColumnConfig {
     public String getIsHashed() { return isHashed; }
     public void setIsHashed(String isHashed) { this.isHashed = isHashed; }
 
+    public Integer getHashCost() { return hashCost; }
+    public void setHashCost(Integer hashCost) { this.hashCost = hashCost; }
+
     public String getGenerator() { return generator; }
     public void setGenerator(String generator) { this.generator = generator; }
 
     public String getFkReference() { return fkReference; }
     public void setFkReference(String fkReference) { this.fkReference = fkReference; }
 
+    public DistributionConfig getDistribution() { return distribution; }
+    public void setDistribution(DistributionConfig distribution) { this.distribution = distribution; }
+
 }
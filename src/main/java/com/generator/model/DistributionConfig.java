@@ -0,0 +1,46 @@
+package com.generator.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * カラム定義の distribution (値の分布) に対応するPOJOクラス。
+ * 指定しない場合、各カラムの値は一様に選択されます。
+ */
+public class DistributionConfig {
+    @JsonProperty("type")
+    private String type; // uniform, zipf, weighted, normal, exponential
+
+    // zipf用: k番目の値を 1/k^exponent に比例する確率で選択する (デフォルト: 1.0)
+    @JsonProperty("exponent")
+    private Double exponent;
+
+    // weighted用: ARRAYの values と同じ順序の重み
+    @JsonProperty("weights")
+    private List<Double> weights;
+
+    // normal/exponential用: min〜max を 0〜1 とした平均の位置 (デフォルト: normal 0.5、exponential 0.2)
+    @JsonProperty("mean")
+    private Double mean;
+
+    // normal用: min〜max を 0〜1 とした標準偏差 (デフォルト: 1/6)
+    @JsonProperty("stddev")
+    private Double stddev;
+
+    // Getter and Setter
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Double getExponent() { return exponent; }
+    public void setExponent(Double exponent) { this.exponent = exponent; }
+
+    public List<Double> getWeights() { return weights; }
+    public void setWeights(List<Double> weights) { this.weights = weights; }
+
+    public Double getMean() { return mean; }
+    public void setMean(Double mean) { this.mean = mean; }
+
+    public Double getStddev() { return stddev; }
+    public void setStddev(Double stddev) { this.stddev = stddev; }
+}
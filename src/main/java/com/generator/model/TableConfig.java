@@ -12,7 +12,7 @@ public class TableConfig {
     private String name;
 
     @JsonProperty("size")
-    private int size; // 生成する行数
+    private long size; // 生成する行数
 
     @JsonProperty("data")
     private List<ColumnConfig> data; // カラム定義
@@ -21,8 +21,8 @@ public class TableConfig {
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
-    public int getSize() { return size; }
-    public void setSize(int size) { this.size = size; }
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
 
     public List<ColumnConfig> getData() { return data; }
     public void setData(List<ColumnConfig> data) { this.data = data; }
@@ -0,0 +1,72 @@
+package com.generator.output;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Arrow出力の1カラムの型。カラム定義の type から {@link ArrowRowSink} のベクトルの種類を決めるために使用します。
+ */
+public final class ArrowColumnType {
+
+    /**
+     * ベクトルの種類。
+     */
+    public enum Kind {
+        // 64ビット整数 (SERIAL, NUMBER)
+        BIGINT,
+        // 秒精度のタイムスタンプ (DATETIME)
+        TIMESTAMP,
+        // UTF-8文字列
+        UTF8,
+        // 値の一覧を辞書とし、インデックスを格納するUTF-8文字列 (ARRAY)
+        DICTIONARY
+    }
+
+    private static final ArrowColumnType BIGINT = new ArrowColumnType(Kind.BIGINT, null);
+    private static final ArrowColumnType TIMESTAMP = new ArrowColumnType(Kind.TIMESTAMP, null);
+    private static final ArrowColumnType UTF8 = new ArrowColumnType(Kind.UTF8, null);
+
+    private final Kind kind;
+    private final List<String> dictionary;
+
+    private ArrowColumnType(Kind kind, List<String> dictionary) {
+        this.kind = kind;
+        this.dictionary = dictionary;
+    }
+
+    public static ArrowColumnType bigint() {
+        return BIGINT;
+    }
+
+    public static ArrowColumnType timestamp() {
+        return TIMESTAMP;
+    }
+
+    public static ArrowColumnType utf8() {
+        return UTF8;
+    }
+
+    /**
+     * @param values 辞書の値 (カラムが取りうる値の一覧)
+     */
+    public static ArrowColumnType dictionary(List<String> values) {
+        return new ArrowColumnType(Kind.DICTIONARY, Collections.unmodifiableList(new ArrayList<>(values)));
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * 辞書の値を返します。DICTIONARY以外はnullを返します。
+     */
+    public List<String> getDictionary() {
+        return dictionary;
+    }
+
+    @Override
+    public String toString() {
+        return kind.name();
+    }
+}
@@ -0,0 +1,310 @@
+package com.generator.output;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampSecVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 行をApache ArrowのIPCファイル形式 (拡張子 .arrow) で書き出すシンク。
+ * 行の値をカラムごとの型付きベクトルに直接格納し、指定した行数ごとに1つのレコードバッチとして書き出します。
+ * 書き出したバッチのベクトルは再利用するため、メモリ上にはバッチ1つ分の行のみを保持します。
+ * <p>
+ * 各カラムのベクトルは {@link ArrowColumnType} で指定します。BIGINT と TIMESTAMP は数値をそのまま格納し、
+ * DICTIONARY は値の一覧を辞書としてファイルに一度だけ書き出し、各行にはインデックスのみを格納します。
+ * IPCファイルは末尾にフッターを持つため、シャードのファイルを連結することはできません。
+ */
+public class ArrowRowSink implements FileRowSink {
+
+    // レコードバッチの行数のデフォルト値
+    public static final int DEFAULT_BATCH_SIZE = 65536;
+
+    // DATETIME型の値の形式
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // 辞書のインデックスの型
+    private static final ArrowType.Int INDEX_TYPE = new ArrowType.Int(32, true);
+
+    private final String outputDir;
+    private final List<ArrowColumnType> columnTypes;
+    private final int batchSize;
+    private BufferAllocator allocator;
+    private VectorSchemaRoot root;
+    private DictionaryProvider.MapDictionaryProvider dictionaries;
+    private ArrowFileWriter writer;
+    private FileChannel channel;
+    private FieldVector[] vectors;
+    private ArrowColumnType.Kind[] kinds;
+    // DICTIONARY カラムの値から辞書のインデックスへの対応 (それ以外のカラムはnull)
+    private List<Map<String, Integer>> dictionaryIndexes;
+    private File outputFile;
+    // 現在のバッチに格納した行数
+    private int rowCount;
+    // ファイルへ書き出し済みのバイト数
+    private long bytesWritten;
+    // 現在のバッチに格納した値のおおよそのバイト数 (値とオフセットの大きさ)
+    private long pendingBytes;
+
+    public ArrowRowSink(String outputDir, List<ArrowColumnType> columnTypes) {
+        this(outputDir, columnTypes, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param outputDir 出力ディレクトリ
+     * @param columnTypes 出力カラムの型 (出力カラムと同じ順序)
+     * @param batchSize 1つのレコードバッチの行数
+     */
+    public ArrowRowSink(String outputDir, List<ArrowColumnType> columnTypes, int batchSize) {
+        this.outputDir = outputDir;
+        this.columnTypes = columnTypes;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void open(String tableName, List<String> columnNames, TableSlice slice) throws IOException {
+        if (columnNames.size() != columnTypes.size()) {
+            throw new IllegalStateException("カラム数と型の数が一致しません: " + columnNames.size() + " != " + columnTypes.size());
+        }
+        File outFile = new File(outputDir, slice.fileName(tableName, ".arrow"));
+        outFile.getParentFile().mkdirs();
+        System.out.println("Arrowファイルを出力中: " + outFile.getAbsolutePath());
+
+        this.allocator = new RootAllocator();
+        this.dictionaries = new DictionaryProvider.MapDictionaryProvider();
+        int width = columnNames.size();
+        this.kinds = new ArrowColumnType.Kind[width];
+        this.dictionaryIndexes = new ArrayList<>(Collections.nCopies(width, null));
+        List<Field> fields = new ArrayList<>(width);
+        for (int c = 0; c < width; c++) {
+            ArrowColumnType type = columnTypes.get(c);
+            kinds[c] = type.getKind();
+            fields.add(createField(columnNames.get(c), type, c));
+        }
+        this.root = VectorSchemaRoot.create(new Schema(fields), allocator);
+        this.vectors = root.getFieldVectors().toArray(new FieldVector[0]);
+        for (FieldVector vector : vectors) {
+            vector.setInitialCapacity(batchSize);
+            vector.allocateNew();
+        }
+
+        // 出力キャッシュからハードリンクしたファイルの場合に、キャッシュの内容を書き換えないよう作成し直す
+        Files.deleteIfExists(outFile.toPath());
+        this.channel = FileChannel.open(outFile.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        this.outputFile = outFile;
+        this.writer = new ArrowFileWriter(root, dictionaries, channel);
+        writer.start();
+        this.rowCount = 0;
+        this.pendingBytes = 0;
+        this.bytesWritten = channel.position();
+    }
+
+    /**
+     * カラムのフィールドを作成します。DICTIONARY の場合は辞書のベクトルを作成して登録します。
+     */
+    private Field createField(String name, ArrowColumnType type, int column) {
+        switch (type.getKind()) {
+            case BIGINT:
+                return new Field(name, FieldType.nullable(new ArrowType.Int(64, true)), null);
+            case TIMESTAMP:
+                // タイムゾーンを持たない日時 (DATETIME型の値と同じくUTCとして解釈する)
+                return new Field(name, FieldType.nullable(new ArrowType.Timestamp(TimeUnit.SECOND, null)), null);
+            case DICTIONARY:
+                DictionaryEncoding encoding = new DictionaryEncoding(column, false, INDEX_TYPE);
+                List<String> values = type.getDictionary();
+                VarCharVector dictionary = new VarCharVector(
+                        new Field(name + ".dictionary", FieldType.nullable(ArrowType.Utf8.INSTANCE), null), allocator);
+                dictionary.allocateNew(values.size());
+                Map<String, Integer> indexes = new HashMap<>();
+                for (int i = 0; i < values.size(); i++) {
+                    String value = values.get(i);
+                    if (value == null) {
+                        dictionary.setNull(i);
+                    } else {
+                        dictionary.setSafe(i, value.getBytes(StandardCharsets.UTF_8));
+                        // 同じ値が複数ある場合は最初の位置を使用する
+                        indexes.putIfAbsent(value, i);
+                    }
+                }
+                dictionary.setValueCount(values.size());
+                dictionaries.put(new Dictionary(dictionary, encoding));
+                dictionaryIndexes.set(column, indexes);
+                return new Field(name, new FieldType(true, INDEX_TYPE, encoding), null);
+            default:
+                return new Field(name, FieldType.nullable(ArrowType.Utf8.INSTANCE), null);
+        }
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        int row = rowCount;
+        long bytes = 0;
+        for (int c = 0; c < values.length; c++) {
+            Object value = values[c];
+            if (value == null) {
+                vectors[c].setNull(row);
+                continue;
+            }
+            switch (kinds[c]) {
+                case BIGINT:
+                    ((BigIntVector) vectors[c]).setSafe(row, toLong(value));
+                    bytes += Long.BYTES;
+                    break;
+                case TIMESTAMP:
+                    ((TimeStampSecVector) vectors[c]).setSafe(row, toEpochSecond(value));
+                    bytes += Long.BYTES;
+                    break;
+                case DICTIONARY:
+                    Integer index = dictionaryIndexes.get(c).get(value.toString());
+                    if (index == null) {
+                        throw new IllegalStateException("カラム '" + vectors[c].getName() + "' の値 '" + value + "' が辞書にありません。");
+                    }
+                    ((IntVector) vectors[c]).setSafe(row, index);
+                    bytes += Integer.BYTES;
+                    break;
+                default:
+                    byte[] text = value.toString().getBytes(StandardCharsets.UTF_8);
+                    ((VarCharVector) vectors[c]).setSafe(row, text);
+                    bytes += text.length + Integer.BYTES;
+            }
+        }
+        pendingBytes += bytes;
+        rowCount++;
+        if (rowCount >= batchSize) {
+            writeBatch();
+        }
+    }
+
+    private static long toLong(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        return Long.parseLong(value.toString());
+    }
+
+    /**
+     * "yyyy-MM-dd HH:mm:ss" 形式の日時をUTCのエポック秒に変換します。数値はエポック秒とみなします。
+     */
+    private static long toEpochSecond(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        String text = value.toString();
+        if (text.length() == 19 && text.charAt(4) == '-' && text.charAt(7) == '-' && text.charAt(10) == ' '
+                && text.charAt(13) == ':' && text.charAt(16) == ':') {
+            // 固定位置の数字を直接読み取り、DateTimeFormatter による解析を省く
+            int year = digits(text, 0, 4);
+            int month = digits(text, 5, 7);
+            int day = digits(text, 8, 10);
+            int hour = digits(text, 11, 13);
+            int minute = digits(text, 14, 16);
+            int second = digits(text, 17, 19);
+            if (year >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= 31
+                    && hour >= 0 && hour < 24 && minute >= 0 && minute < 60 && second >= 0 && second < 60) {
+                try {
+                    return LocalDate.of(year, month, day).toEpochDay() * 86400L + hour * 3600L + minute * 60L + second;
+                } catch (java.time.DateTimeException e) {
+                    // 存在しない日付は下の解析でエラーにする
+                }
+            }
+        }
+        try {
+            return LocalDateTime.parse(text, DATE_FORMAT).toEpochSecond(ZoneOffset.UTC);
+        } catch (DateTimeParseException e) {
+            throw new IllegalStateException("日時を解析できません: " + text, e);
+        }
+    }
+
+    /**
+     * 10進数の数字のみからなる部分文字列を整数に変換します。数字以外を含む場合は -1 を返します。
+     */
+    private static int digits(String text, int begin, int end) {
+        int value = 0;
+        for (int i = begin; i < end; i++) {
+            char ch = text.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return -1;
+            }
+            value = value * 10 + (ch - '0');
+        }
+        return value;
+    }
+
+    /**
+     * 格納した行をレコードバッチとして書き出し、ベクトルを次のバッチのために空にします。
+     */
+    private void writeBatch() throws IOException {
+        root.setRowCount(rowCount);
+        writer.writeBatch();
+        bytesWritten = channel.position();
+        for (FieldVector vector : vectors) {
+            vector.reset();
+        }
+        rowCount = 0;
+        pendingBytes = 0;
+    }
+
+    @Override
+    public File getOutputFile() {
+        return outputFile;
+    }
+
+    /**
+     * ファイルへ書き出したバイト数に、書き出す前のバッチの値のおおよその大きさを加えた値を返します。
+     */
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten + pendingBytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer == null) return;
+        try {
+            if (rowCount > 0) {
+                writeBatch();
+            }
+            writer.end();
+            bytesWritten = channel.position();
+            System.out.println("Arrowファイルの出力が完了しました。");
+        } finally {
+            writer.close();
+            root.close();
+            for (long id : dictionaries.getDictionaryIds()) {
+                dictionaries.lookup(id).getVector().close();
+            }
+            allocator.close();
+            writer = null;
+        }
+    }
+}
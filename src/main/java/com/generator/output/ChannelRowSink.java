@@ -0,0 +1,231 @@
+package com.generator.output;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 行を再利用するダイレクト ByteBuffer に直接UTF-8でエンコードし、出力ファイルのチャネルへ書き出すシンクの基底クラス。
+ * 行ごとに文字列を連結せず、値を1文字ずつバッファに書き込みます。圧縮が指定されている場合はチャネル側で圧縮されます。
+ * ファイルの代わりに呼び出し元のチャネル (HTTPレスポンスなど) へ書き出すこともでき、その場合はチャネルを閉じません。
+ */
+public abstract class ChannelRowSink implements FileRowSink {
+
+    // 書き込みバッファのサイズ (バイト数)
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    // 1文字のUTF-8表現の最大バイト数
+    private static final int MAX_CHAR_BYTES = 4;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final byte[] digits = new byte[20];
+    private final OutputCompression compression;
+    // ファイルの代わりに書き出すチャネル (ファイルに出力する場合はnull)
+    private final WritableByteChannel destination;
+    private WritableByteChannel channel;
+    private File outputFile;
+    // チャネルへ書き出し済みのバイト数 (圧縮前)
+    private long flushedBytes;
+
+    /**
+     * @param compression 出力ファイルの圧縮方式
+     */
+    protected ChannelRowSink(OutputCompression compression) {
+        this.compression = compression;
+        this.destination = null;
+    }
+
+    /**
+     * @param destination 行を書き出すチャネル。複数のテーブルを順に書き出せるよう、シンクを閉じてもチャネルは閉じない
+     */
+    protected ChannelRowSink(WritableByteChannel destination) {
+        this.compression = OutputCompression.NONE;
+        this.destination = destination;
+    }
+
+    /**
+     * ファイルの代わりに、コンストラクタで指定したチャネルへの書き込みを開始します。
+     */
+    protected void openDestination() {
+        this.channel = destination;
+        this.outputFile = null;
+        this.flushedBytes = 0;
+        buffer.clear();
+    }
+
+    /**
+     * 圧縮方式に応じた拡張子を付けた出力ファイル名を返します。
+     * @param extension 形式の拡張子 (例: ".csv")
+     */
+    protected String fileName(TableSlice slice, String tableName, String extension) {
+        return slice.fileName(tableName, extension + compression.extension());
+    }
+
+    /**
+     * 出力ファイルを開きます。
+     */
+    protected void openChannel(File outFile) throws IOException {
+        openChannel(outFile, false);
+    }
+
+    /**
+     * 出力ファイルを開きます。
+     * @param append trueの場合は既存のファイルの末尾に追記する
+     */
+    protected void openChannel(File outFile, boolean append) throws IOException {
+        outFile.getParentFile().mkdirs();
+        this.channel = compression.open(outFile, append);
+        this.outputFile = outFile;
+        this.flushedBytes = 0;
+        buffer.clear();
+    }
+
+    @Override
+    public File getOutputFile() {
+        return outputFile;
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return flushedBytes + buffer.position();
+    }
+
+    /**
+     * 圧縮しない場合のみ、バッファの内容をファイルに書き出して再開可能な状態にします。
+     * 圧縮する場合は圧縮ストリームの途中で切り詰められないため、対応しません。
+     */
+    @Override
+    public boolean checkpoint() throws IOException {
+        if (compression.getType() != OutputCompression.Type.NONE) {
+            return false;
+        }
+        flush();
+        return true;
+    }
+
+    protected boolean isOpen() {
+        return channel != null;
+    }
+
+    /**
+     * バッファの内容をファイルに書き出し、チャネルを閉じます。コンストラクタで指定したチャネルは閉じません。
+     */
+    protected void closeChannel() throws IOException {
+        try {
+            flush();
+        } finally {
+            if (channel != destination) {
+                channel.close();
+            }
+            channel = null;
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        flushedBytes += buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void ensureRemaining(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    /**
+     * ASCII文字を1文字書き込みます。
+     */
+    protected void putAscii(char ch) throws IOException {
+        ensureRemaining(1);
+        buffer.put((byte) ch);
+    }
+
+    /**
+     * ASCII文字列を書き込みます。
+     */
+    protected void putAscii(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            putAscii(text.charAt(i));
+        }
+    }
+
+    /**
+     * 整数を10進数で書き込みます。
+     */
+    protected void putLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            putAscii(Long.toString(value));
+            return;
+        }
+        ensureRemaining(digits.length);
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int pos = digits.length;
+        do {
+            digits[--pos] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        buffer.put(digits, pos, digits.length - pos);
+    }
+
+    /**
+     * 1文字をUTF-8で書き込みます。サロゲートペアは呼び出し側で {@link #putCodePoint(int)} を使用します。
+     */
+    protected void putChar(char ch) throws IOException {
+        ensureRemaining(MAX_CHAR_BYTES);
+        if (ch < 0x80) {
+            buffer.put((byte) ch);
+        } else if (ch < 0x800) {
+            buffer.put((byte) (0xC0 | (ch >> 6)));
+            buffer.put((byte) (0x80 | (ch & 0x3F)));
+        } else {
+            buffer.put((byte) (0xE0 | (ch >> 12)));
+            buffer.put((byte) (0x80 | ((ch >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (ch & 0x3F)));
+        }
+    }
+
+    /**
+     * コードポイントをUTF-8で書き込みます。
+     */
+    protected void putCodePoint(int codePoint) throws IOException {
+        if (codePoint < 0x10000) {
+            putChar((char) codePoint);
+            return;
+        }
+        ensureRemaining(MAX_CHAR_BYTES);
+        buffer.put((byte) (0xF0 | (codePoint >> 18)));
+        buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+        buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+        buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+    }
+
+    /**
+     * 文字列を1文字ずつエスケープしながら書き込みます。
+     * 各文字は {@link #putEscaped(char)} に渡され、サロゲートペアはコードポイントとして書き込まれます。
+     */
+    protected void putText(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (Character.isHighSurrogate(ch) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                putCodePoint(Character.toCodePoint(ch, text.charAt(++i)));
+            } else {
+                putEscaped(ch);
+            }
+        }
+    }
+
+    /**
+     * 文字列中の1文字を書き込みます。形式に応じたエスケープが必要なサブクラスはオーバーライドします。
+     */
+    protected void putEscaped(char ch) throws IOException {
+        putChar(ch);
+    }
+}
@@ -0,0 +1,107 @@
+package com.generator.output;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**
+ * 行をPostgreSQLの COPY ... FROM STDIN (テキスト形式) として書き出すシンク。
+ * 出力ファイルはそのまま psql -f で実行できるスクリプトで、COPY文・タブ区切りのデータ行・終端行 (\.) から成ります。
+ * NULLは \N、バックスラッシュ・タブ・改行・復帰はそれぞれ \\, \t, \n, \r にエスケープします。
+ */
+public class CopyRowSink extends ChannelRowSink {
+
+    private final String outputDir;
+    private boolean writeTerminator;
+
+    public CopyRowSink(String outputDir) {
+        this(outputDir, OutputCompression.NONE);
+    }
+
+    /**
+     * @param outputDir 出力ディレクトリ
+     * @param compression 出力ファイルの圧縮方式
+     */
+    public CopyRowSink(String outputDir, OutputCompression compression) {
+        super(compression);
+        this.outputDir = outputDir;
+    }
+
+    /**
+     * @param destination 行を書き出すチャネル (ファイルは作成しない)
+     */
+    public CopyRowSink(WritableByteChannel destination) {
+        super(destination);
+        this.outputDir = null;
+    }
+
+    @Override
+    public void open(String tableName, List<String> columnNames, TableSlice slice) throws IOException {
+        if (outputDir != null) {
+            File outFile = new File(outputDir, fileName(slice, tableName, ".copy.sql"));
+            System.out.println("COPYファイルを出力中: " + outFile.getAbsolutePath());
+            openChannel(outFile.getAbsoluteFile(), slice.isContinued());
+        } else {
+            openDestination();
+        }
+
+        // 分割している場合、COPY文は最初のシャード、終端行は最後のシャードのみが出力する
+        this.writeTerminator = slice.isLast();
+        if (!slice.isFirst()) {
+            return;
+        }
+        putAscii("COPY ");
+        putText(tableName);
+        putAscii(" (");
+        putText(String.join(", ", columnNames));
+        putAscii(") FROM STDIN;\n");
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) putAscii('\t');
+            Object value = values[i];
+            if (value == null) {
+                putAscii("\\N");
+            } else if (value instanceof Integer || value instanceof Long) {
+                putLong(((Number) value).longValue());
+            } else {
+                putText(value.toString());
+            }
+        }
+        putAscii('\n');
+    }
+
+    @Override
+    protected void putEscaped(char ch) throws IOException {
+        switch (ch) {
+            case '\\':
+                putAscii("\\\\");
+                break;
+            case '\t':
+                putAscii("\\t");
+                break;
+            case '\n':
+                putAscii("\\n");
+                break;
+            case '\r':
+                putAscii("\\r");
+                break;
+            default:
+                putChar(ch);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!isOpen()) return;
+        // データの終端
+        if (writeTerminator) {
+            putAscii("\\.\n");
+        }
+        closeChannel();
+        System.out.println("COPYファイルの出力が完了しました。");
+    }
+}
@@ -0,0 +1,114 @@
+package com.generator.output;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**
+ * 行をRFC 4180形式のCSVファイルに書き出すシンク。
+ * 1行目はヘッダー (分割している場合は最初のシャードのみ)、改行はCRLFです。カンマ・ダブルクォート・改行を含む値はダブルクォートで囲み、
+ * NULLは空のフィールド、空文字列は "" として区別します (PostgreSQLの COPY ... CSV と互換)。
+ */
+public class CsvRowSink extends ChannelRowSink {
+
+    private final String outputDir;
+
+    public CsvRowSink(String outputDir) {
+        this(outputDir, OutputCompression.NONE);
+    }
+
+    /**
+     * @param outputDir 出力ディレクトリ
+     * @param compression 出力ファイルの圧縮方式
+     */
+    public CsvRowSink(String outputDir, OutputCompression compression) {
+        super(compression);
+        this.outputDir = outputDir;
+    }
+
+    /**
+     * @param destination 行を書き出すチャネル (ファイルは作成しない)
+     */
+    public CsvRowSink(WritableByteChannel destination) {
+        super(destination);
+        this.outputDir = null;
+    }
+
+    @Override
+    public void open(String tableName, List<String> columnNames, TableSlice slice) throws IOException {
+        if (outputDir != null) {
+            File outFile = new File(outputDir, fileName(slice, tableName, ".csv"));
+            System.out.println("CSVファイルを出力中: " + outFile.getAbsolutePath());
+            openChannel(outFile.getAbsoluteFile(), slice.isContinued());
+        } else {
+            openDestination();
+        }
+
+        // ヘッダー行 (分割している場合は最初のシャードのみ)
+        if (!slice.isFirst()) {
+            return;
+        }
+        for (int i = 0; i < columnNames.size(); i++) {
+            if (i > 0) putAscii(',');
+            putField(columnNames.get(i));
+        }
+        putAscii("\r\n");
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) putAscii(',');
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            if (value instanceof Integer || value instanceof Long) {
+                putLong(((Number) value).longValue());
+            } else {
+                putField(value.toString());
+            }
+        }
+        putAscii("\r\n");
+    }
+
+    /**
+     * 必要に応じてダブルクォートで囲んでフィールドを書き込みます。
+     */
+    private void putField(String text) throws IOException {
+        if (!text.isEmpty() && !needsQuote(text)) {
+            putText(text);
+            return;
+        }
+        putAscii('"');
+        putText(text);
+        putAscii('"');
+    }
+
+    private static boolean needsQuote(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch == ',' || ch == '"' || ch == '\r' || ch == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void putEscaped(char ch) throws IOException {
+        // クォート内のダブルクォートは2つ重ねる (クォート不要な値には含まれない)
+        if (ch == '"') {
+            putAscii('"');
+        }
+        putChar(ch);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!isOpen()) return;
+        closeChannel();
+        System.out.println("CSVファイルの出力が完了しました。");
+    }
+}
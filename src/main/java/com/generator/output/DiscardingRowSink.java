@@ -0,0 +1,26 @@
+package com.generator.output;
+
+import java.util.List;
+
+/**
+ * 行を書き出さずに破棄するシンク。外部キー参照のためにのみ生成し、出力しないテーブルに使用します。
+ */
+public class DiscardingRowSink implements RowSink {
+
+    @Override
+    public void open(String tableName, List<String> columnNames, TableSlice slice) {
+    }
+
+    @Override
+    public void writeRow(Object[] values) {
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return 0;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,28 @@
+package com.generator.output;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * テーブルの行をファイルへ書き出すシンク。
+ * {@link PartitionedRowSink} が出力ファイルとその大きさを把握し、パートを切り替えるために使用します。
+ */
+public interface FileRowSink extends RowSink {
+
+    /**
+     * 出力ファイルを返します。open前はnull、close後も最後に出力したファイルを返します。
+     */
+    File getOutputFile();
+
+    /**
+     * これまでに書き込んだバイト数 (バッファ上の未書き込み分を含み、圧縮する場合は圧縮前の大きさ) を返します。
+     * ファイルを閉じるまで大きさが決まらない形式は -1 を返します。
+     */
+    long getBytesWritten();
+
+    @Override
+    default List<File> getOutputFiles() {
+        File outputFile = getOutputFile();
+        return outputFile != null ? List.of(outputFile) : List.of();
+    }
+}
@@ -0,0 +1,221 @@
+package com.generator.output;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 行をJDBC経由でデータベースへ直接ロードするシンク。
+ * 行はバッチサイズごとにまとめて専用の書き込みスレッドへ渡され、PreparedStatement の addBatch/executeBatch で
+ * 挿入されます。行生成と書き込みは別スレッドで並行して進み、キューが一杯の場合のみ行生成側が待機します。
+ * 各バッチはコミットされ、close() は全ての行がコミットされるまで待機します。
+ * 行生成側が中断した場合は {@link #abort()} で書き込みスレッドを停止し、未コミットのバッチを破棄します。
+ * 値はカラムの型 (java.sql.Types) に合わせてバインドし、DATETIME は LocalDateTime、null は型付きの NULL とします。
+ * テーブルは事前に作成されている必要があります。
+ */
+public class JdbcRowSink implements RowSink {
+
+    // 書き込みスレッドへ渡すバッチのキューの容量
+    private static final int QUEUE_CAPACITY = 4;
+
+    // 書き込みスレッドへの終了通知
+    private static final List<Object[]> END_OF_DATA = Collections.emptyList();
+
+    // DATETIME カラムの値の形式
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int batchSize;
+    private final int[] sqlTypes;
+
+    private BlockingQueue<List<Object[]>> queue;
+    private List<Object[]> batch;
+    private Thread writerThread;
+    private volatile Exception failure;
+    private volatile boolean aborted;
+    private String tableName;
+    private long rowCount;
+
+    /**
+     * @param url JDBC URL (例: jdbc:h2:mem:test, jdbc:postgresql://localhost/db)
+     * @param user ユーザー名 (不要な場合はnull)
+     * @param password パスワード (不要な場合はnull)
+     * @param batchSize executeBatch 1回あたりの行数
+     * @param sqlTypes 出力カラムの型 (java.sql.Types の BIGINT, TIMESTAMP, VARCHAR のいずれか。出力カラムと同じ順序)
+     */
+    public JdbcRowSink(String url, String user, String password, int batchSize, int[] sqlTypes) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("バッチサイズは1以上を指定してください: " + batchSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.batchSize = batchSize;
+        this.sqlTypes = sqlTypes.clone();
+    }
+
+    @Override
+    public void open(String tableName, List<String> columnNames, TableSlice slice) throws IOException {
+        if (columnNames.size() != sqlTypes.length) {
+            throw new IllegalArgumentException("カラムの型の数がカラム数と一致しません: " + tableName);
+        }
+        System.out.println("データベースへロード中: " + tableName);
+
+        Connection connection = null;
+        PreparedStatement statement;
+        try {
+            connection = DriverManager.getConnection(url, user, password);
+            connection.setAutoCommit(false);
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(tableName)
+                    .append(" (").append(String.join(", ", columnNames)).append(") VALUES (");
+            for (int i = 0; i < columnNames.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(')');
+            statement = connection.prepareStatement(sql.toString());
+        } catch (SQLException e) {
+            // 書き込みスレッドへ渡す前に失敗した場合は、ここで接続を閉じる
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException closeFailure) {
+                    e.addSuppressed(closeFailure);
+                }
+            }
+            throw new IOException("データベースへの接続に失敗しました: " + e.getMessage(), e);
+        }
+
+        this.tableName = tableName;
+        this.rowCount = 0;
+        this.queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        this.batch = new ArrayList<>(batchSize);
+        this.failure = null;
+        this.aborted = false;
+        Connection conn = connection;
+        this.writerThread = new Thread(() -> writeBatches(conn, statement), "jdbc-writer-" + tableName);
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        checkFailure();
+        batch.add(values.clone());
+        if (batch.size() == batchSize) {
+            enqueue(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    /**
+     * 行生成側が中断した場合に、書き込みスレッドへ割り込んで停止させます。
+     * コミット済みのバッチはそのまま残り、残りの行は破棄されます。続けて close() を呼び出してください。
+     */
+    public void abort() {
+        aborted = true;
+        if (writerThread != null) {
+            writerThread.interrupt();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writerThread == null) return;
+        try {
+            if (aborted) {
+                // 中断した場合は残りの行をロードせず、書き込みスレッドの終了のみを待つ
+                writerThread.join();
+                return;
+            }
+            if (!batch.isEmpty() && failure == null) {
+                enqueue(batch);
+            }
+            enqueue(END_OF_DATA);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("データベースへの書き込みが中断されました。", e);
+        } finally {
+            writerThread = null;
+            batch = null;
+        }
+        checkFailure();
+        System.out.println("データベースへのロードが完了しました: " + tableName + " (" + rowCount + "行)");
+    }
+
+    private void enqueue(List<Object[]> rows) throws IOException {
+        try {
+            // 書き込みスレッドが異常終了している場合に待ち続けないよう、失敗を確認しながら投入する
+            while (!queue.offer(rows, 100, TimeUnit.MILLISECONDS)) {
+                checkFailure();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("データベースへの書き込みが中断されました。", e);
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException("データベースへの書き込みエラー (" + tableName + "): " + failure.getMessage(), failure);
+        }
+    }
+
+    /**
+     * 書き込みスレッドの処理。キューからバッチを取り出して挿入し、バッチごとにコミットします。
+     */
+    private void writeBatches(Connection connection, PreparedStatement statement) {
+        try (Connection conn = connection; PreparedStatement stmt = statement) {
+            while (true) {
+                List<Object[]> rows = queue.take();
+                if (rows == END_OF_DATA) {
+                    break;
+                }
+                for (Object[] row : rows) {
+                    for (int i = 0; i < row.length; i++) {
+                        bind(stmt, i + 1, sqlTypes[i], row[i]);
+                    }
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+                rowCount += rows.size();
+            }
+        } catch (SQLException | RuntimeException | InterruptedException e) {
+            failure = e;
+            // 失敗後も行生成側が待機し続けないよう、残りのバッチを破棄する
+            queue.clear();
+        }
+    }
+
+    /**
+     * 1つの値をカラムの型に合わせてバインドします。
+     * 外部キーの参照失敗を示す値 (0) など、型と一致しない値はドライバの変換に任せます。
+     */
+    private static void bind(PreparedStatement stmt, int index, int sqlType, Object value) throws SQLException {
+        if (value == null) {
+            stmt.setNull(index, sqlType);
+        } else if (sqlType == Types.BIGINT && value instanceof Number) {
+            stmt.setLong(index, ((Number) value).longValue());
+        } else if (sqlType == Types.TIMESTAMP && value instanceof String) {
+            stmt.setObject(index, LocalDateTime.parse((String) value, DATE_TIME_FORMAT), Types.TIMESTAMP);
+        } else if (sqlType == Types.VARCHAR) {
+            stmt.setString(index, value.toString());
+        } else {
+            stmt.setObject(index, value);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.generator.output;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ファイル出力の圧縮方式。SQL・CSV・COPYのシンクはこのクラスで出力ファイルを開きます。
+ * <ul>
+ *   <li>NONE: 圧縮せずにそのまま書き込みます。</li>
+ *   <li>GZIP: 書き込みスレッド上で1つのgzipストリームとして圧縮します。</li>
+ *   <li>PARALLEL_GZIP: 一定サイズのブロックごとに圧縮用のスレッドプールで並列にgzipのメンバーとして圧縮し、順に連結します。
+ *       連結したファイルは gunzip などの標準的なツールでそのまま展開できます。</li>
+ * </ul>
+ * 圧縮用のスレッドプールは close() で停止します。
+ */
+public final class OutputCompression implements AutoCloseable {
+
+    public enum Type { NONE, GZIP, PARALLEL_GZIP }
+
+    /**
+     * 圧縮しない場合の設定。
+     */
+    public static final OutputCompression NONE = new OutputCompression(Type.NONE, Deflater.DEFAULT_COMPRESSION, 0);
+
+    // GZIPOutputStream の出力バッファのサイズ
+    private static final int GZIP_BUFFER_SIZE = 1 << 16;
+
+    private final Type type;
+    private final int level;
+    private final ExecutorService pool;
+    private final int threads;
+
+    /**
+     * @param type 圧縮方式
+     * @param level 圧縮レベル (1〜9、または Deflater.DEFAULT_COMPRESSION)
+     * @param threads PARALLEL_GZIP の圧縮スレッド数
+     */
+    public OutputCompression(Type type, int level, int threads) {
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < 1 || level > 9)) {
+            throw new IllegalArgumentException("圧縮レベルは1から9の範囲で指定してください: " + level);
+        }
+        if (type == Type.PARALLEL_GZIP && threads < 1) {
+            throw new IllegalArgumentException("圧縮スレッド数は1以上を指定してください: " + threads);
+        }
+        this.type = type;
+        this.level = level;
+        this.threads = threads;
+        if (type == Type.PARALLEL_GZIP) {
+            AtomicInteger counter = new AtomicInteger();
+            this.pool = Executors.newFixedThreadPool(threads, r -> {
+                Thread thread = new Thread(r, "gzip-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.pool = null;
+        }
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * 出力ファイル名に付ける拡張子を返します (圧縮しない場合は空文字列)。
+     */
+    public String extension() {
+        return type == Type.NONE ? "" : ".gz";
+    }
+
+    /**
+     * 出力ファイルを開き、書き込まれたバイト列を圧縮方式に応じて圧縮するチャネルを返します。
+     */
+    public WritableByteChannel open(File outFile) throws IOException {
+        return open(outFile, false);
+    }
+
+    /**
+     * 出力ファイルを開き、書き込まれたバイト列を圧縮方式に応じて圧縮するチャネルを返します。
+     * @param append trueの場合は既存のファイルの末尾に追記する (圧縮する場合は新しいgzipのメンバーとして追記する)
+     */
+    public WritableByteChannel open(File outFile, boolean append) throws IOException {
+        if (!append) {
+            // 出力キャッシュからハードリンクしたファイルの場合に、キャッシュの内容を書き換えないよう作成し直す
+            Files.deleteIfExists(outFile.toPath());
+        }
+        if (type == Type.NONE) {
+            return FileChannel.open(outFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        OutputStream file = new FileOutputStream(outFile, append);
+        try {
+            if (type == Type.GZIP) {
+                return Channels.newChannel(new GZIPOutputStream(file, GZIP_BUFFER_SIZE) {
+                    {
+                        def.setLevel(level);
+                    }
+                });
+            }
+            // 出力待ちのブロックはスレッド数の2倍までとし、メモリ使用量を一定に保つ
+            return Channels.newChannel(new ParallelGzipOutputStream(file, pool, level, threads * 2));
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.generator.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * 書き込まれたバイト列を一定サイズのブロックに分け、各ブロックをスレッドプールで並列に独立したgzipのメンバーへ圧縮し、
+ * 元の順序で出力先へ書き出すストリーム。
+ * 複数のメンバーを連結したgzipファイルは、RFC 1952 に従い1つのファイルとして展開されます (gunzip, zcat, GZIPInputStream など)。
+ * ブロックごとに辞書がリセットされるため、単一ストリームでの圧縮より圧縮率はわずかに下がります。
+ */
+class ParallelGzipOutputStream extends OutputStream {
+
+    // 1つのメンバーとして圧縮するブロックのサイズ
+    static final int BLOCK_SIZE = 1 << 20;
+
+    // gzipヘッダー (圧縮方式 deflate、フラグ・更新日時なし、OS不明)
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    // 圧縮用のスレッドごとに再利用する Deflater
+    private static final ThreadLocal<Deflater> DEFLATERS = new ThreadLocal<>();
+
+    private final OutputStream out;
+    private final ExecutorService pool;
+    private final int level;
+    private final int maxPending;
+    private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+    private byte[] block = new byte[BLOCK_SIZE];
+    private int count;
+    private boolean closed;
+
+    /**
+     * @param out 出力先 (close() で閉じられます)
+     * @param pool 圧縮を行うスレッドプール
+     * @param level 圧縮レベル
+     * @param maxPending 出力待ちで保持するブロック数の上限
+     */
+    ParallelGzipOutputStream(OutputStream out, ExecutorService pool, int level, int maxPending) {
+        this.out = out;
+        this.pool = pool;
+        this.level = level;
+        this.maxPending = Math.max(1, maxPending);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (count == BLOCK_SIZE) {
+            submitBlock();
+        }
+        block[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (count == BLOCK_SIZE) {
+                submitBlock();
+            }
+            int n = Math.min(length, BLOCK_SIZE - count);
+            System.arraycopy(bytes, offset, block, count, n);
+            count += n;
+            offset += n;
+            length -= n;
+        }
+    }
+
+    /**
+     * 現在のブロックの圧縮を開始します。出力待ちのブロックが上限に達している場合は、先頭のブロックを書き出してから開始します。
+     */
+    private void submitBlock() throws IOException {
+        while (pending.size() >= maxPending) {
+            writeMember(pending.poll());
+        }
+        byte[] data = block;
+        int length = count;
+        pending.add(pool.submit(() -> compress(data, length, level)));
+        block = new byte[BLOCK_SIZE];
+        count = 0;
+    }
+
+    private void writeMember(Future<byte[]> member) throws IOException {
+        try {
+            out.write(member.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("圧縮が中断されました。", e);
+        } catch (ExecutionException e) {
+            throw new IOException("圧縮に失敗しました: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * 圧縮を待たずに書き出せる内容はないため、何もしません。全ての内容は close() で書き出されます。
+     */
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            if (count > 0) {
+                submitBlock();
+            }
+            while (!pending.isEmpty()) {
+                writeMember(pending.poll());
+            }
+        } finally {
+            for (Future<byte[]> member : pending) {
+                member.cancel(false);
+            }
+            block = null;
+            out.close();
+        }
+    }
+
+    /**
+     * ブロックを1つの完結したgzipのメンバー (ヘッダー、deflateデータ、CRC32と長さのトレーラー) に圧縮します。
+     */
+    private static byte[] compress(byte[] data, int length, int level) {
+        Deflater deflater = DEFLATERS.get();
+        if (deflater == null) {
+            deflater = new Deflater(level, true);
+            DEFLATERS.set(deflater);
+        } else {
+            deflater.reset();
+            deflater.setLevel(level);
+        }
+        deflater.setInput(data, 0, length);
+        deflater.finish();
+
+        // 圧縮できないデータでも収まるよう、元の長さに余裕を持たせた大きさから始める
+        byte[] result = new byte[HEADER.length + length + (length >> 6) + 64];
+        System.arraycopy(HEADER, 0, result, 0, HEADER.length);
+        int size = HEADER.length;
+        while (!deflater.finished()) {
+            if (size == result.length) {
+                result = Arrays.copyOf(result, result.length + (result.length >> 1));
+            }
+            size += deflater.deflate(result, size, result.length - size);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+        if (size + 8 > result.length) {
+            result = Arrays.copyOf(result, size + 8);
+        }
+        size = putIntLE(result, size, (int) crc.getValue());
+        size = putIntLE(result, size, length);
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private static int putIntLE(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) value;
+        bytes[offset + 1] = (byte) (value >>> 8);
+        bytes[offset + 2] = (byte) (value >>> 16);
+        bytes[offset + 3] = (byte) (value >>> 24);
+        return offset + 4;
+    }
+}
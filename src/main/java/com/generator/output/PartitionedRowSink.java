@@ -0,0 +1,341 @@
+package com.generator.output;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * テーブルの行を番号付きの複数のファイル (パート) に分けて書き出すシンク。
+ * パートは行数またはバイト数の上限で切り替わり、それぞれヘッダーや終端記号を含む単独で読み込めるファイル
+ * (例: orders.part-0007.sql) として出力されます。全てのパートを閉じた後、各パートのファイル名と行の範囲を記載した
+ * マニフェスト (例: orders.manifest.json) を出力します。
+ * <p>
+ * 行はブロックごとに書き込みスレッドへ渡され、エンコードとファイルへの書き込みは行生成と並行して進みます。
+ * 行数のみで区切る場合はパートごとに書き込みスレッドが割り当てられ、複数のパートが同時に書き込まれます。
+ * バイト数で区切る場合は書き込んだ大きさを見て次のパートへ切り替えるため、1つの書き込みスレッドが順にパートを書き出します。
+ * どちらの場合もパートの境界は行の内容のみで決まり、実行ごとに同じになります。
+ */
+public class PartitionedRowSink implements RowSink {
+
+    // 書き込みスレッドへ渡すブロックの行数
+    private static final int BLOCK_SIZE = 1024;
+
+    // 書き込みスレッド1つあたりの、書き込み待ちで保持するブロック数の上限
+    private static final int BLOCKS_PER_WRITER = 16;
+
+    // 書き込みスレッドへの終了通知
+    private static final List<Object[]> END_OF_DATA = Collections.emptyList();
+
+    private final Supplier<FileRowSink> partSinks;
+    private final String outputDir;
+    private final long partRows;
+    private final long partBytes;
+    private final int writerThreads;
+
+    private ExecutorService writers;
+    // 書き込み待ちのブロック数を制限し、メモリ使用量を一定に保つ
+    private Semaphore pendingBlocks;
+    private String tableName;
+    private List<String> columnNames;
+    private TableSlice slice;
+    private List<Object[]> block;
+    private PartWriter current;
+    // 現在の書き込みスレッドに渡した行数
+    private long currentRows;
+    private int nextPartNumber;
+    // 次に書き込む行のテーブル全体での行番号
+    private long rowIndex;
+    private final List<Map<String, Object>> parts = Collections.synchronizedList(new ArrayList<>());
+    // 出力したパートとマニフェストのファイル
+    private final List<File> outputFiles = Collections.synchronizedList(new ArrayList<>());
+    // 書き込みを終えたパートのバイト数の合計
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private volatile Exception failure;
+
+    /**
+     * @param partSinks パートごとのファイルを書き出すシンクを作成する関数
+     * @param outputDir 出力ディレクトリ (マニフェストの出力先)
+     * @param partRows 1パートあたりの最大行数 (0の場合は制限なし)
+     * @param partBytes 1パートあたりの目安のバイト数。書き込んだ大きさがこれ以上になった行の後で次のパートへ切り替える (0の場合は制限なし)
+     * @param writerThreads 書き込みスレッド数
+     */
+    public PartitionedRowSink(Supplier<FileRowSink> partSinks, String outputDir, long partRows, long partBytes, int writerThreads) {
+        if (partRows < 0 || partBytes < 0 || partRows == 0 && partBytes == 0) {
+            throw new IllegalArgumentException("パートの行数またはバイト数には1以上を指定してください。");
+        }
+        if (writerThreads < 1) {
+            throw new IllegalArgumentException("書き込みスレッド数は1以上を指定してください: " + writerThreads);
+        }
+        this.partSinks = partSinks;
+        this.outputDir = outputDir;
+        this.partRows = partRows;
+        this.partBytes = partBytes;
+        this.writerThreads = writerThreads;
+    }
+
+    @Override
+    public void open(String tableName, List<String> columnNames, TableSlice slice) {
+        this.tableName = tableName;
+        this.columnNames = columnNames;
+        this.slice = slice;
+        this.rowIndex = slice.getFirstRow();
+        this.nextPartNumber = 1;
+        this.block = new ArrayList<>(BLOCK_SIZE);
+        this.pendingBlocks = new Semaphore(writerThreads * BLOCKS_PER_WRITER);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(writerThreads, r -> {
+            Thread t = new Thread(r, "part-writer-" + tableName + "-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        parts.clear();
+        outputFiles.clear();
+        bytesWritten.set(0);
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        checkFailure();
+        // 行数のみで区切る場合は、パートの境界でそのパートの書き込みスレッドへの受け渡しを終える
+        if (current != null && partBytes == 0 && currentRows == partRows) {
+            finishCurrent();
+        }
+        // バイト数で区切る場合は、最初に開始した1つの書き込みスレッドが全てのパートを書き出す
+        if (current == null) {
+            current = new PartWriter(nextPartNumber++, rowIndex);
+            currentRows = 0;
+            writers.execute(current);
+        }
+        block.add(values.clone());
+        currentRows++;
+        rowIndex++;
+        if (block.size() == BLOCK_SIZE) {
+            sendBlock();
+        }
+    }
+
+    /**
+     * 書き込みを終えたパートのバイト数 (圧縮する場合は圧縮前の大きさ) の合計を返します。書き込み中のパートは含みません。
+     */
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    @Override
+    public List<File> getOutputFiles() {
+        synchronized (outputFiles) {
+            return new ArrayList<>(outputFiles);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writers == null) return;
+        try {
+            if (current != null && failure == null) {
+                finishCurrent();
+            }
+            writers.shutdown();
+            while (!writers.awaitTermination(100, TimeUnit.MILLISECONDS)) {
+                if (failure != null) {
+                    writers.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writers.shutdownNow();
+            throw new IOException("パートの書き込みが中断されました。", e);
+        } finally {
+            writers = null;
+            current = null;
+            block = null;
+        }
+        checkFailure();
+        writeManifest();
+    }
+
+    /**
+     * 現在のブロックを書き込みスレッドへ渡します。書き込み待ちのブロックが上限に達している場合は待機します。
+     */
+    private void sendBlock() throws IOException {
+        try {
+            // 書き込みスレッドが異常終了している場合に待ち続けないよう、失敗を確認しながら待機する
+            while (!pendingBlocks.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                checkFailure();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("パートの書き込みが中断されました。", e);
+        }
+        current.queue.add(block);
+        block = new ArrayList<>(BLOCK_SIZE);
+    }
+
+    /**
+     * 残りの行を現在の書き込みスレッドへ渡し、終了を通知します。
+     */
+    private void finishCurrent() throws IOException {
+        if (!block.isEmpty()) {
+            sendBlock();
+        }
+        current.queue.add(END_OF_DATA);
+        current = null;
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException("パートの書き込みエラー (" + tableName + "): " + failure.getMessage(), failure);
+        }
+    }
+
+    /**
+     * パートの一覧をマニフェストとしてJSONで出力します。行番号はテーブル全体での番号 (0始まり、endRowは含まない) です。
+     */
+    private void writeManifest() throws IOException {
+        List<Map<String, Object>> sorted = new ArrayList<>(parts);
+        sorted.sort(Comparator.comparingInt(part -> (Integer) part.get("part")));
+        long rows = 0;
+        for (Map<String, Object> part : sorted) {
+            rows += (Long) part.get("rows");
+        }
+
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("table", tableName);
+        manifest.put("columns", columnNames);
+        if (slice.isSharded()) {
+            manifest.put("shard", slice.getShardIndex() + 1);
+            manifest.put("shardCount", slice.getShardCount());
+        }
+        manifest.put("firstRow", slice.getFirstRow());
+        manifest.put("endRow", slice.getEndRow());
+        manifest.put("rows", rows);
+        manifest.put("parts", sorted);
+
+        File manifestFile = new File(outputDir, slice.fileName(tableName, ".manifest.json"));
+        manifestFile.getAbsoluteFile().getParentFile().mkdirs();
+        // 出力キャッシュからハードリンクしたファイルの場合に、キャッシュの内容を書き換えないよう作成し直す
+        Files.deleteIfExists(manifestFile.toPath());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(manifestFile, manifest);
+        outputFiles.add(manifestFile);
+        System.out.println("マニフェストを出力しました: " + manifestFile.getAbsolutePath() + " (" + sorted.size() + "パート, " + rows + "行)");
+    }
+
+    /**
+     * 書き込みスレッドの処理。キューからブロックを取り出してパートのファイルへ書き込みます。
+     * 行数またはバイト数が上限に達した行の後でパートを閉じ、次のパートを開きます。
+     */
+    private final class PartWriter implements Runnable {
+
+        private final BlockingQueue<List<Object[]>> queue = new LinkedBlockingQueue<>();
+        private int partNumber;
+        private long rowIndex;
+        private FileRowSink sink;
+        private long partFirstRow;
+        private long partRowCount;
+
+        /**
+         * @param partNumber 最初に書き込むパートの番号
+         * @param firstRow 最初に書き込む行のテーブル全体での行番号
+         */
+        PartWriter(int partNumber, long firstRow) {
+            this.partNumber = partNumber;
+            this.rowIndex = firstRow;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    List<Object[]> rows = queue.take();
+                    if (rows == END_OF_DATA) {
+                        break;
+                    }
+                    try {
+                        for (Object[] row : rows) {
+                            write(row);
+                        }
+                    } finally {
+                        pendingBlocks.release();
+                    }
+                }
+                closePart();
+            } catch (IOException | RuntimeException | InterruptedException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+                // 失敗後も行生成側が待機し続けないよう、残りのブロックを破棄する
+                List<List<Object[]>> discarded = new ArrayList<>();
+                queue.drainTo(discarded);
+                discarded.remove(END_OF_DATA);
+                pendingBlocks.release(discarded.size());
+                try {
+                    if (sink != null) {
+                        sink.close();
+                    }
+                } catch (IOException ignored) {
+                    // 最初のエラーを優先する
+                }
+            }
+        }
+
+        private void write(Object[] row) throws IOException {
+            if (sink == null) {
+                openPart();
+            } else if (partRows > 0 && partRowCount >= partRows || partBytes > 0 && sink.getBytesWritten() >= partBytes) {
+                closePart();
+                openPart();
+            }
+            sink.writeRow(row);
+            partRowCount++;
+            rowIndex++;
+        }
+
+        private void openPart() throws IOException {
+            sink = partSinks.get();
+            sink.open(tableName, columnNames, slice.part(partNumber));
+            partFirstRow = rowIndex;
+            partRowCount = 0;
+        }
+
+        private void closePart() throws IOException {
+            if (sink == null) {
+                return;
+            }
+            FileRowSink closing = sink;
+            sink = null;
+            closing.close();
+            long written = closing.getBytesWritten();
+            bytesWritten.addAndGet(written >= 0 ? written : closing.getOutputFile().length());
+
+            Map<String, Object> part = new LinkedHashMap<>();
+            part.put("part", partNumber);
+            part.put("file", closing.getOutputFile().getName());
+            part.put("firstRow", partFirstRow);
+            part.put("endRow", rowIndex);
+            part.put("rows", partRowCount);
+            part.put("bytes", closing.getOutputFile().length());
+            parts.add(part);
+            outputFiles.add(closing.getOutputFile());
+            partNumber++;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.generator.output;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 生成された行を1行ずつ受け取り、出力先へ書き出すシンクのインターフェース。
+ * テーブル全体をメモリに保持せずにストリーミング出力するために使用します。
+ */
+public interface RowSink extends Closeable {
+
+    /**
+     * テーブルの出力を開始します。行の書き込み前に一度だけ呼び出されます。
+     * 範囲がテーブルの一部 (シャード) の場合、その範囲の行のみが書き込まれます。
+     * ファイルに出力するシンクは、各シャードのファイルを連結すると分割しない場合と同じ内容になるように書き出します。
+     * @param tableName テーブル名
+     * @param columnNames 出力カラム名 (行の値と同じ順序)
+     * @param slice 書き込まれる行の範囲
+     * @throws IOException 出力先の作成に失敗した場合
+     */
+    void open(String tableName, List<String> columnNames, TableSlice slice) throws IOException;
+
+    /**
+     * 1行分の値を書き出します。配列は呼び出し後に再利用される可能性があるため、保持してはいけません。
+     * @param values カラム順に並んだ値
+     * @throws IOException 書き込みに失敗した場合
+     */
+    void writeRow(Object[] values) throws IOException;
+
+    /**
+     * これまでに書き込んだバイト数 (圧縮する場合は圧縮前の大きさ) を返します。書き込みを行うスレッドから呼び出します。
+     * 大きさを把握できない出力先は -1 を返します。
+     */
+    default long getBytesWritten() {
+        return -1;
+    }
+
+    /**
+     * close後に、このシンクが出力したファイルの一覧を返します。ファイルに出力しないシンクは空のリストを返します。
+     */
+    default List<File> getOutputFiles() {
+        return List.of();
+    }
+
+    /**
+     * チェックポイントを記録するために、書き込んだ行をすべて出力ファイルへ書き出します。
+     * 対応している場合、出力ファイルをこの時点の大きさに切り詰め、{@link TableSlice#resumeFrom(long)} の範囲で開き直すと、
+     * 中断せずに出力した場合と同じ内容の続きを書き出せます。
+     * @return 対応している場合はtrue。圧縮やファイルを閉じるまで内容が確定しない形式など、対応していない場合はfalse
+     * @throws IOException 書き込みに失敗した場合
+     */
+    default boolean checkpoint() throws IOException {
+        return false;
+    }
+
+    /**
+     * 出力を完了し、リソースを解放します。openされていない場合は何もしません。
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,270 @@
+package com.generator.output;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 行をSQL INSERT文としてファイルに書き出すシンク。
+ * バッチサイズが2以上の場合は複数行を1つの INSERT ... VALUES (...),(...); にまとめ、
+ * 必要に応じて各バッチをトランザクション (BEGIN; ... COMMIT;) で囲みます。
+ * バッチの区切りはテーブル全体での行番号で決まるため、シャードの境界がバッチの途中にあっても、
+ * 各シャードのファイルを連結すると分割しない場合と同じ内容になります。
+ * 文は再利用する StringBuilder に組み立て、UTF-8のバッファ付きチャネルへ書き出します。圧縮が指定されている場合はチャネル側で圧縮されます。
+ * ファイルの代わりに呼び出し元のチャネル (HTTPレスポンスなど) へ書き出すこともでき、その場合はチャネルを閉じません。
+ */
+public class SqlRowSink implements FileRowSink {
+
+    // 書き込みバッファのサイズ (文字数)
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final String outputDir;
+    private final int batchSize;
+    private final boolean transactional;
+    private final OutputCompression compression;
+    // ファイルの代わりに書き出すチャネル (ファイルに出力する場合はnull)
+    private final WritableByteChannel destination;
+    private final StringBuilder sb = new StringBuilder(1024);
+    private Writer writer;
+    private File outputFile;
+    // UTF-8で書き込んだバイト数
+    private long bytesWritten;
+    private String insertPrefix;
+    private TableSlice slice;
+    // 次に書き込む行のテーブル全体での行番号
+    private long rowIndex;
+    private boolean inBatch;
+
+    public SqlRowSink(String outputDir) {
+        this(outputDir, 1, false);
+    }
+
+    /**
+     * @param outputDir 出力ディレクトリ
+     * @param batchSize 1つのINSERT文にまとめる行数 (1の場合は1行ごとにINSERT文を出力)
+     * @param transactional trueの場合、各バッチを BEGIN; と COMMIT; で囲む
+     */
+    public SqlRowSink(String outputDir, int batchSize, boolean transactional) {
+        this(outputDir, batchSize, transactional, OutputCompression.NONE);
+    }
+
+    /**
+     * @param outputDir 出力ディレクトリ
+     * @param batchSize 1つのINSERT文にまとめる行数 (1の場合は1行ごとにINSERT文を出力)
+     * @param transactional trueの場合、各バッチを BEGIN; と COMMIT; で囲む
+     * @param compression 出力ファイルの圧縮方式
+     */
+    public SqlRowSink(String outputDir, int batchSize, boolean transactional, OutputCompression compression) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("バッチサイズは1以上を指定してください: " + batchSize);
+        }
+        this.outputDir = outputDir;
+        this.batchSize = batchSize;
+        this.transactional = transactional;
+        this.compression = compression;
+        this.destination = null;
+    }
+
+    /**
+     * @param destination 文を書き出すチャネル (ファイルは作成せず、シンクを閉じてもチャネルは閉じない)
+     * @param batchSize 1つのINSERT文にまとめる行数 (1の場合は1行ごとにINSERT文を出力)
+     * @param transactional trueの場合、各バッチを BEGIN; と COMMIT; で囲む
+     */
+    public SqlRowSink(WritableByteChannel destination, int batchSize, boolean transactional) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("バッチサイズは1以上を指定してください: " + batchSize);
+        }
+        this.outputDir = null;
+        this.batchSize = batchSize;
+        this.transactional = transactional;
+        this.compression = OutputCompression.NONE;
+        this.destination = destination;
+    }
+
+    @Override
+    public void open(String tableName, List<String> columnNames, TableSlice slice) throws IOException {
+        WritableByteChannel channel;
+        if (destination != null) {
+            this.outputFile = null;
+            channel = new NonClosingChannel(destination);
+        } else {
+            // 出力ディレクトリの作成
+            new File(outputDir).mkdirs();
+            File outFile = new File(outputDir, slice.fileName(tableName, ".sql" + compression.extension()));
+            System.out.println("SQLファイルを出力中: " + outFile.getAbsolutePath());
+            this.outputFile = outFile;
+            channel = compression.open(outFile, slice.isContinued());
+        }
+        this.bytesWritten = 0;
+        this.insertPrefix = "INSERT INTO " + tableName + " (" + String.join(", ", columnNames) + ") VALUES";
+        this.writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.slice = slice;
+        this.rowIndex = slice.getFirstRow();
+        // 前のシャードで始まったバッチの途中から書き始める場合がある
+        this.inBatch = rowIndex % batchSize != 0;
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        sb.setLength(0);
+        if (rowIndex % batchSize == 0) {
+            inBatch = true;
+            if (transactional) {
+                sb.append("BEGIN;\n");
+            }
+            sb.append(insertPrefix).append(batchSize > 1 ? '\n' : ' ');
+        } else {
+            sb.append(",\n");
+        }
+
+        sb.append('(');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) sb.append(", ");
+            appendLiteral(sb, values[i]);
+        }
+        sb.append(')');
+
+        rowIndex++;
+        if (rowIndex % batchSize == 0 || rowIndex == slice.getTotalRows()) {
+            endBatch();
+        }
+        append(sb);
+    }
+
+    private void append(StringBuilder text) throws IOException {
+        bytesWritten += utf8Length(text);
+        writer.append(text);
+    }
+
+    /**
+     * 現在のバッチの INSERT 文を閉じます。
+     */
+    private void endBatch() {
+        sb.append(";\n");
+        if (transactional) {
+            sb.append("COMMIT;\n");
+        }
+        inBatch = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer == null) return;
+        try {
+            // 途中で中断した場合は最後の文を閉じる。範囲の末尾まで書き込んだ場合は次のシャードがバッチを続ける
+            if (inBatch && rowIndex < slice.getEndRow()) {
+                sb.setLength(0);
+                endBatch();
+                append(sb);
+            }
+        } finally {
+            writer.close();
+            writer = null;
+        }
+        System.out.println("SQLファイルの出力が完了しました。");
+    }
+
+    /**
+     * 圧縮しない場合のみ、書き込んだ文をファイルに書き出して再開可能な状態にします。
+     * 各行はバッチの区切りを含めて書き込み時に確定しているため、行の境界で切り詰めたファイルに続きを追記できます。
+     */
+    @Override
+    public boolean checkpoint() throws IOException {
+        if (compression.getType() != OutputCompression.Type.NONE) {
+            return false;
+        }
+        writer.flush();
+        return true;
+    }
+
+    @Override
+    public File getOutputFile() {
+        return outputFile;
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * 文字列をUTF-8で表したときのバイト数を返します。
+     */
+    private static long utf8Length(CharSequence text) {
+        int length = text.length();
+        long bytes = length;
+        for (int i = 0; i < length; i++) {
+            char ch = text.charAt(i);
+            if (ch >= 0x80) {
+                // サロゲートペアは2文字で4バイト
+                bytes += ch < 0x800 ? 1 : Character.isSurrogate(ch) ? 1 : 2;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 値をSQLリテラルとして追加します。
+     */
+    static void appendLiteral(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("NULL");
+        } else if (value instanceof Integer) {
+            sb.append((int) (Integer) value);
+        } else if (value instanceof Long) {
+            sb.append((long) (Long) value);
+        } else if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value);
+        } else {
+            // SQLの文字列リテラルとしてシングルクォーテーションで囲む
+            String text = value.toString();
+            sb.append('\'');
+            for (int i = 0; i < text.length(); i++) {
+                char ch = text.charAt(i);
+                if (ch == '\'') {
+                    sb.append('\'');
+                }
+                sb.append(ch);
+            }
+            sb.append('\'');
+        }
+    }
+
+    /**
+     * 書き込みを委譲し、閉じても委譲先のチャネルを閉じないチャネル。
+     */
+    private static final class NonClosingChannel implements WritableByteChannel {
+
+        private final WritableByteChannel delegate;
+        private boolean open = true;
+
+        NonClosingChannel(WritableByteChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (!open) {
+                throw new ClosedChannelException();
+            }
+            return delegate.write(src);
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open && delegate.isOpen();
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.generator.output;
+
+/**
+ * 1つのプロセスが出力するテーブルの行の範囲 (シャード)。
+ * n 個のシャードはテーブルの行を先頭から順に重ならないように分割し、
+ * 各シャードの出力ファイルを番号順に連結すると、分割せずに出力した場合と同じ内容になります。
+ * {@link #part(int)} で得られるパートの範囲は、範囲をさらに分割した単独で読み込めるファイルを表します。
+ * {@link #resumeFrom(long)} で得られる範囲は、中断した出力の続きを既存のファイルに追記することを表します。
+ */
+public final class TableSlice {
+
+    private final long firstRow;
+    private final long endRow;
+    private final long totalRows;
+    private final int shardIndex;
+    private final int shardCount;
+    // パート番号 (1始まり)。パートでない場合は0
+    private final int partNumber;
+    // 中断した出力の続きを既存のファイルに追記するかどうか
+    private final boolean continued;
+
+    private TableSlice(long firstRow, long endRow, long totalRows, int shardIndex, int shardCount, int partNumber,
+                       boolean continued) {
+        this.firstRow = firstRow;
+        this.endRow = endRow;
+        this.totalRows = totalRows;
+        this.shardIndex = shardIndex;
+        this.shardCount = shardCount;
+        this.partNumber = partNumber;
+        this.continued = continued;
+    }
+
+    /**
+     * テーブル全体を表す範囲を返します。
+     */
+    public static TableSlice whole(long totalRows) {
+        return new TableSlice(0, totalRows, totalRows, 0, 1, 0, false);
+    }
+
+    /**
+     * テーブルを shardCount 個に分割したうちの shardIndex 番目 (0始まり) の範囲を返します。
+     */
+    public static TableSlice of(long totalRows, int shardIndex, int shardCount) {
+        if (shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException("シャードの指定が不正です: " + (shardIndex + 1) + "/" + shardCount);
+        }
+        return new TableSlice(boundary(totalRows, shardIndex, shardCount), boundary(totalRows, shardIndex + 1, shardCount),
+                totalRows, shardIndex, shardCount, 0, false);
+    }
+
+    /**
+     * この範囲を分割したパートのファイルを出力するための範囲を返します。
+     * パートはヘッダーや終端記号を含む単独で読み込めるファイルとして出力され、行番号はパートの先頭を0とします。
+     * パートの行数は閉じるまで確定しないため、末尾は Long.MAX_VALUE とします。
+     * @param partNumber パート番号 (1始まり)
+     */
+    public TableSlice part(int partNumber) {
+        if (partNumber < 1) {
+            throw new IllegalArgumentException("パート番号は1以上を指定してください: " + partNumber);
+        }
+        return new TableSlice(0, Long.MAX_VALUE, Long.MAX_VALUE, shardIndex, shardCount, partNumber, false);
+    }
+
+    /**
+     * この範囲の出力を途中の行から再開するための範囲を返します。出力ファイル名はこの範囲と同じで、
+     * ファイルは再開する行の直前までの内容に切り詰められている必要があります。
+     * ヘッダーなどファイル先頭の内容は出力済みのため出力せず、既存のファイルの末尾に追記します。
+     * @param rowIndex 再開する行のテーブル全体での行番号
+     */
+    public TableSlice resumeFrom(long rowIndex) {
+        if (partNumber > 0 || rowIndex < firstRow || rowIndex > endRow) {
+            throw new IllegalArgumentException("再開する行が範囲外です: " + rowIndex + " (" + this + ")");
+        }
+        if (rowIndex == firstRow && !continued) {
+            return this;
+        }
+        return new TableSlice(rowIndex, endRow, totalRows, shardIndex, shardCount, 0, true);
+    }
+
+    private static long boundary(long totalRows, int index, int count) {
+        // totalRows * index / count をオーバーフローさせずに計算する
+        return totalRows / count * index + totalRows % count * index / count;
+    }
+
+    /** 範囲の先頭の行番号 (0始まり、この行を含む) */
+    public long getFirstRow() { return firstRow; }
+
+    /** 範囲の末尾の行番号 (この行を含まない) */
+    public long getEndRow() { return endRow; }
+
+    /** テーブル全体の行数 */
+    public long getTotalRows() { return totalRows; }
+
+    /** シャード番号 (0始まり) */
+    public int getShardIndex() { return shardIndex; }
+
+    /** シャード数 */
+    public int getShardCount() { return shardCount; }
+
+    public boolean contains(long rowIndex) {
+        return rowIndex >= firstRow && rowIndex < endRow;
+    }
+
+    /**
+     * 最初のシャードかどうかを返します。ヘッダーなどファイル先頭の内容はこのシャードのみが出力します。
+     */
+    public boolean isFirst() {
+        return !continued && (partNumber > 0 || shardIndex == 0);
+    }
+
+    /**
+     * 最後のシャードかどうかを返します。終端記号などファイル末尾の内容はこのシャードのみが出力します。
+     */
+    public boolean isLast() {
+        return partNumber > 0 || shardIndex == shardCount - 1;
+    }
+
+    /**
+     * 中断した出力の続きを既存のファイルに追記する範囲かどうかを返します。
+     */
+    public boolean isContinued() {
+        return continued;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    /**
+     * 出力ファイル名を返します。分割している場合はシャード番号を、パートの場合はパート番号を含めます
+     * (例: orders.shard-0002-of-0004.sql, orders.part-0007.sql)。
+     * @param tableName テーブル名
+     * @param extension 拡張子 (例: ".sql")
+     */
+    public String fileName(String tableName, String extension) {
+        String base = tableName.toLowerCase();
+        if (isSharded()) {
+            base += String.format(".shard-%04d-of-%04d", shardIndex + 1, shardCount);
+        }
+        if (partNumber > 0) {
+            base += String.format(".part-%04d", partNumber);
+        }
+        return base + extension;
+    }
+
+    @Override
+    public String toString() {
+        return (shardIndex + 1) + "/" + shardCount + " (行 " + firstRow + "〜" + (endRow - 1) + ")";
+    }
+}
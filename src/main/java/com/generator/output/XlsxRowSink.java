@@ -0,0 +1,157 @@
+package com.generator.output;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * 行をXLSXファイルのシートに書き出すシンク。
+ * SXSSFを使用し、メモリ上には直近の一定行数 (ウィンドウ) のみを保持して残りは一時ファイルへフラッシュします。
+ * 1シートの最大行数を超えた場合は、自動的に次のシート (例: TABLE_2) へ切り替えます。
+ */
+public class XlsxRowSink implements FileRowSink {
+
+    // メモリ上に保持する行数のデフォルト値
+    public static final int DEFAULT_WINDOW_SIZE = 1000;
+
+    // 1シートあたりの最大行数 (ヘッダー行を含む)
+    private static final int MAX_ROWS_PER_SHEET = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    // Excelのシート名の最大長
+    private static final int MAX_SHEET_NAME_LENGTH = 31;
+
+    private final String outputDir;
+    private final int windowSize;
+    private SXSSFWorkbook workbook;
+    private CellStyle headerStyle;
+    private Sheet sheet;
+    private String tableName;
+    private List<String> columnNames;
+    private File outputFile;
+    private int sheetCount;
+    private int rowNum;
+
+    public XlsxRowSink(String outputDir) {
+        this(outputDir, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param outputDir 出力ディレクトリ
+     * @param windowSize メモリ上に保持する行数
+     */
+    public XlsxRowSink(String outputDir, int windowSize) {
+        this.outputDir = outputDir;
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public void open(String tableName, List<String> columnNames, TableSlice slice) {
+        // 出力ディレクトリの作成
+        new File(outputDir).mkdirs();
+        this.outputFile = new File(outputDir, slice.fileName(tableName, ".xlsx"));
+
+        this.tableName = tableName;
+        this.columnNames = columnNames;
+        this.workbook = new SXSSFWorkbook(windowSize);
+        // 一時ファイルを圧縮してディスク使用量を抑える
+        this.workbook.setCompressTempFiles(true);
+
+        // ヘッダー用のスタイルはワークブックごとに1つだけ作成し、全シートで共有する
+        Font headerFont = workbook.createFont();
+        headerFont.setBold(true);
+        this.headerStyle = workbook.createCellStyle();
+        this.headerStyle.setFont(headerFont);
+
+        this.sheetCount = 0;
+        nextSheet();
+    }
+
+    /**
+     * 新しいシートを作成し、ヘッダー行を書き込みます。
+     */
+    private void nextSheet() {
+        sheetCount++;
+        String sheetName = tableName;
+        if (sheetCount > 1) {
+            String suffix = "_" + sheetCount;
+            String base = tableName.length() + suffix.length() > MAX_SHEET_NAME_LENGTH
+                    ? tableName.substring(0, MAX_SHEET_NAME_LENGTH - suffix.length())
+                    : tableName;
+            sheetName = base + suffix;
+            System.out.println("  -> シートの最大行数に達したため、新しいシートを作成: " + sheetName);
+        }
+        sheet = workbook.createSheet(sheetName);
+
+        // ヘッダー行の作成
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < columnNames.size(); i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(columnNames.get(i));
+            cell.setCellStyle(headerStyle);
+        }
+        rowNum = 1;
+    }
+
+    @Override
+    public void writeRow(Object[] values) {
+        if (rowNum >= MAX_ROWS_PER_SHEET) {
+            nextSheet();
+        }
+        Row row = sheet.createRow(rowNum++);
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            Cell cell = row.createCell(i);
+            if (value instanceof String) {
+                cell.setCellValue((String) value);
+            } else if (value instanceof Number) {
+                // 数値として格納
+                cell.setCellValue(((Number) value).doubleValue());
+            } else {
+                cell.setCellValue(String.valueOf(value));
+            }
+        }
+    }
+
+    @Override
+    public File getOutputFile() {
+        return outputFile;
+    }
+
+    /**
+     * ワークブックは閉じるときにまとめて書き出すため、書き込み中のバイト数は分かりません。
+     */
+    @Override
+    public long getBytesWritten() {
+        return -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (workbook == null) return;
+
+        // ファイル出力
+        System.out.println("XLSXファイルを出力中: " + outputFile.getAbsolutePath());
+
+        // 出力キャッシュからハードリンクしたファイルの場合に、キャッシュの内容を書き換えないよう作成し直す
+        Files.deleteIfExists(outputFile.toPath());
+        try (FileOutputStream fileOut = new FileOutputStream(outputFile)) {
+            workbook.write(fileOut);
+            System.out.println("XLSXファイルの出力が完了しました。");
+        } finally {
+            // 一時ファイルを削除してからクローズ
+            workbook.dispose();
+            workbook.close();
+            workbook = null;
+        }
+    }
+}
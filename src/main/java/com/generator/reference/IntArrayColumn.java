@@ -0,0 +1,25 @@
+package com.generator.reference;
+
+/**
+ * int値をプリミティブ配列で保持する参照カラム。
+ */
+final class IntArrayColumn implements ReferenceColumn {
+
+    private final int[] values;
+    private final int size;
+
+    IntArrayColumn(int[] values, int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public Object get(long index) {
+        return values[(int) index];
+    }
+}
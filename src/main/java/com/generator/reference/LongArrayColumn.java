@@ -0,0 +1,25 @@
+package com.generator.reference;
+
+/**
+ * long値 (NUMBERなど) をプリミティブ配列で保持する参照カラム。
+ */
+final class LongArrayColumn implements ReferenceColumn {
+
+    private final long[] values;
+    private final int size;
+
+    LongArrayColumn(long[] values, int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public Object get(long index) {
+        return values[(int) index];
+    }
+}
@@ -0,0 +1,25 @@
+package com.generator.reference;
+
+/**
+ * 型が混在する値やその他の型の値を、そのまま配列で保持する参照カラム。
+ */
+final class ObjectArrayColumn implements ReferenceColumn {
+
+    private final Object[] values;
+    private final int size;
+
+    ObjectArrayColumn(Object[] values, int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public Object get(long index) {
+        return values[(int) index];
+    }
+}
@@ -0,0 +1,33 @@
+package com.generator.reference;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 文字列をUTF-8で1つのバイト配列に連結して保持する参照カラム。
+ * 行ごとの文字列オブジェクトは保持せず、参照時にのみ生成します。
+ */
+final class PackedStringColumn implements ReferenceColumn {
+
+    private final byte[] bytes;
+    // i 行目の文字列は bytes[offsets[i]] から bytes[offsets[i + 1]] まで
+    private final int[] offsets;
+    private final int size;
+
+    PackedStringColumn(byte[] bytes, int[] offsets, int size) {
+        this.bytes = bytes;
+        this.offsets = offsets;
+        this.size = size;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public Object get(long index) {
+        int i = (int) index;
+        int from = offsets[i];
+        return new String(bytes, from, offsets[i + 1] - from, StandardCharsets.UTF_8);
+    }
+}
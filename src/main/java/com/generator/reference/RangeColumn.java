@@ -0,0 +1,37 @@
+package com.generator.reference;
+
+/**
+ * 連続した整数 (SERIALなど) を開始値と件数のみで表す参照カラム。行ごとの値は保持しないため、件数は配列の上限を超えられます。
+ */
+final class RangeColumn implements ReferenceColumn {
+
+    private final long start;
+    private final long size;
+    // 値を Integer で返すかどうか (false の場合は Long)
+    private final boolean ints;
+
+    RangeColumn(long start, long size, boolean ints) {
+        this.start = start;
+        this.size = size;
+        this.ints = ints;
+    }
+
+    long start() {
+        return start;
+    }
+
+    boolean ints() {
+        return ints;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public Object get(long index) {
+        long value = start + index;
+        return ints ? (Object) (int) value : (Object) value;
+    }
+}
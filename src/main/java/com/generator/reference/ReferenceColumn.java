@@ -0,0 +1,19 @@
+package com.generator.reference;
+
+/**
+ * 外部キー参照用にキャッシュされた親テーブルのカラムの値。
+ * 値は行番号 (0 から size()-1) で参照され、格納形式は値の型と並びに応じて {@link ReferenceColumnBuilder} が選択します。
+ */
+public interface ReferenceColumn {
+
+    /**
+     * キャッシュされている値の数を返します。
+     */
+    long size();
+
+    /**
+     * 指定した位置の値を返します。値の型は親テーブルで生成された値と同じです。
+     * @param index 0 から size()-1 までの位置
+     */
+    Object get(long index);
+}
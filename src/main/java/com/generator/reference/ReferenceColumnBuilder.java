@@ -0,0 +1,264 @@
+package com.generator.reference;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 親テーブルの生成中に参照カラムの値を1行ずつ受け取り、値の型と並びに応じた形式で {@link ReferenceColumn} を構築します。
+ * <ul>
+ *   <li>連続した整数 (SERIAL) は開始値と件数のみを保持します。件数に上限はありません。</li>
+ *   <li>それ以外の整数は int[]、long値は long[] で保持します。</li>
+ *   <li>文字列はUTF-8で1つのバイト配列に連結して保持します。</li>
+ *   <li>型が混在する場合のみ Object[] で保持します。</li>
+ * </ul>
+ * 配列で保持する形式の件数は {@link #MAX_ARRAY_SIZE} までです。
+ * 単一スレッドから呼び出されることを前提とします。
+ */
+public class ReferenceColumnBuilder {
+
+    /**
+     * 配列で保持できる値の最大数。
+     */
+    public static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private enum Mode { EMPTY, RANGE, INT, LONG, STRING, OBJECT }
+
+    private Mode mode = Mode.EMPTY;
+    private long size;
+    private int capacity;
+
+    // RANGE の開始値と、値が Integer かどうか (false の場合は Long)
+    private long rangeStart;
+    private boolean rangeInts;
+    private int[] ints;
+    private long[] longs;
+    private byte[] bytes;
+    private int byteCount;
+    private int[] offsets;
+    private Object[] objects;
+
+    /**
+     * @param expectedSize 想定される行数 (配列の初期容量に使用)
+     */
+    public ReferenceColumnBuilder(long expectedSize) {
+        this.capacity = (int) Math.min(Math.max(16, expectedSize), MAX_ARRAY_SIZE);
+    }
+
+    /**
+     * 値を1つ追加します。
+     */
+    public void add(Object value) {
+        switch (mode) {
+            case EMPTY:
+                if (value instanceof Integer || value instanceof Long) {
+                    mode = Mode.RANGE;
+                    rangeStart = ((Number) value).longValue();
+                    rangeInts = value instanceof Integer;
+                } else if (value instanceof String) {
+                    mode = Mode.STRING;
+                    // 文字列の長さは分からないため小さめに確保し、必要に応じて拡張する
+                    bytes = new byte[Math.min(capacity, 1 << 16) * 16];
+                    offsets = new int[capacity + 1];
+                    appendString((String) value);
+                } else {
+                    mode = Mode.OBJECT;
+                    objects = new Object[capacity];
+                    objects[0] = value;
+                }
+                break;
+            case RANGE:
+                if ((rangeInts ? value instanceof Integer : value instanceof Long)
+                        && ((Number) value).longValue() == rangeStart + size) {
+                    break;
+                }
+                // 連続しなくなった時点で配列に展開する
+                toArray(rangeInts ? value instanceof Integer : value instanceof Long);
+                add(value);
+                return;
+            case INT:
+                if (value instanceof Integer) {
+                    ensureCapacity();
+                    ints[(int) size] = (Integer) value;
+                } else {
+                    toObjects();
+                    objects[(int) size] = value;
+                }
+                break;
+            case LONG:
+                if (value instanceof Long) {
+                    ensureCapacity();
+                    longs[(int) size] = (Long) value;
+                } else {
+                    toObjects();
+                    objects[(int) size] = value;
+                }
+                break;
+            case STRING:
+                if (value instanceof String) {
+                    ensureCapacity();
+                    appendString((String) value);
+                } else {
+                    toObjects();
+                    objects[(int) size] = value;
+                }
+                break;
+            default:
+                ensureCapacity();
+                objects[(int) size] = value;
+                break;
+        }
+        size++;
+    }
+
+    /**
+     * 追加された値の数を返します。
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * 追加された値から参照カラムを構築します。余分な容量は切り詰めます。
+     */
+    public ReferenceColumn build() {
+        switch (mode) {
+            case EMPTY:
+                return new ObjectArrayColumn(new Object[0], 0);
+            case RANGE:
+                return new RangeColumn(rangeStart, size, rangeInts);
+            case INT:
+                return new IntArrayColumn(trim(ints), (int) size);
+            case LONG:
+                return new LongArrayColumn(trim(longs), (int) size);
+            case STRING:
+                return new PackedStringColumn(Arrays.copyOf(bytes, byteCount), Arrays.copyOf(offsets, (int) size + 1), (int) size);
+            default:
+                return new ObjectArrayColumn(Arrays.copyOf(objects, (int) size), (int) size);
+        }
+    }
+
+    private int[] trim(int[] array) {
+        return array.length == size ? array : Arrays.copyOf(array, (int) size);
+    }
+
+    private long[] trim(long[] array) {
+        return array.length == size ? array : Arrays.copyOf(array, (int) size);
+    }
+
+    /**
+     * RANGE の値を配列に展開します。
+     * @param sameType 次の値が範囲と同じ型かどうか (false の場合は Object[] に展開)
+     */
+    private void toArray(boolean sameType) {
+        if (!sameType) {
+            toObjects();
+            return;
+        }
+        checkArraySize();
+        capacity = (int) Math.max(capacity, size + 1);
+        if (rangeInts) {
+            mode = Mode.INT;
+            ints = new int[capacity];
+            for (int i = 0; i < size; i++) {
+                ints[i] = (int) (rangeStart + i);
+            }
+        } else {
+            mode = Mode.LONG;
+            longs = new long[capacity];
+            for (int i = 0; i < size; i++) {
+                longs[i] = rangeStart + i;
+            }
+        }
+    }
+
+    /**
+     * 現在の値を Object[] に移し替えます。次の値を格納できる容量を確保します。
+     */
+    private void toObjects() {
+        checkArraySize();
+        ReferenceColumn current = build();
+        capacity = (int) Math.max(capacity, size + 1);
+        objects = new Object[capacity];
+        for (int i = 0; i < size; i++) {
+            objects[i] = current.get(i);
+        }
+        ints = null;
+        longs = null;
+        bytes = null;
+        offsets = null;
+        mode = Mode.OBJECT;
+    }
+
+    /**
+     * 次の値を格納できるよう配列を拡張します。
+     */
+    private void ensureCapacity() {
+        if (size < capacity) {
+            return;
+        }
+        checkArraySize();
+        capacity = (int) Math.min((long) capacity + (capacity >> 1), MAX_ARRAY_SIZE);
+        switch (mode) {
+            case INT:
+                ints = Arrays.copyOf(ints, capacity);
+                break;
+            case LONG:
+                longs = Arrays.copyOf(longs, capacity);
+                break;
+            case STRING:
+                offsets = Arrays.copyOf(offsets, capacity + 1);
+                break;
+            case OBJECT:
+                objects = Arrays.copyOf(objects, capacity);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 文字列をUTF-8でバイト配列の末尾に追加します。ASCIIのみの文字列は変換用の配列を生成せずに書き込みます。
+     */
+    private void appendString(String value) {
+        int length = value.length();
+        boolean ascii = true;
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) >= 0x80) {
+                ascii = false;
+                break;
+            }
+        }
+        if (ascii) {
+            ensureBytes(length);
+            for (int i = 0; i < length; i++) {
+                bytes[byteCount++] = (byte) value.charAt(i);
+            }
+        } else {
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            ensureBytes(encoded.length);
+            System.arraycopy(encoded, 0, bytes, byteCount, encoded.length);
+            byteCount += encoded.length;
+        }
+        offsets[(int) size + 1] = byteCount;
+    }
+
+    private void ensureBytes(int additional) {
+        long required = (long) byteCount + additional;
+        if (required > bytes.length) {
+            if (required > MAX_ARRAY_SIZE) {
+                throw new IllegalStateException("参照カラムの文字列の合計が" + MAX_ARRAY_SIZE + "バイトを超えたため、外部キー用にキャッシュできません。");
+            }
+            bytes = Arrays.copyOf(bytes, (int) Math.min(Math.max(required, (long) bytes.length + (bytes.length >> 1)), MAX_ARRAY_SIZE));
+        }
+    }
+
+    /**
+     * 配列に次の値を格納できない場合は例外を投げます。
+     */
+    private void checkArraySize() {
+        if (size >= MAX_ARRAY_SIZE) {
+            throw new IllegalStateException("参照カラムの値が" + MAX_ARRAY_SIZE + "件を超えたため、外部キー用にキャッシュできません。"
+                    + "連続した整数 (SERIAL) 以外のカラムを参照する場合は、親テーブルの行数を減らしてください。");
+        }
+    }
+}
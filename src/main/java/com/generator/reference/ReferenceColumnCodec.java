@@ -0,0 +1,169 @@
+package com.generator.reference;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 参照カラムをバイト列に変換して保存し、復元します。チェックポイントから実行を再開する際や出力キャッシュから復元する際に、
+ * テーブルを生成し直さずに外部キー参照用のキャッシュを復元するために使用します。
+ * <ul>
+ *   <li>連続した整数 (SERIAL) は開始値と件数のみを書き込みます。</li>
+ *   <li>それ以外は値ごとに型を表す1バイトと値を書き込みます。整数は直前の整数との差を可変長で、文字列はUTF-8で書き込みます。</li>
+ * </ul>
+ * 復元した値は {@link ReferenceColumnBuilder} で構築し直すため、保存前と同じ形式・同じ型の値になります。
+ */
+public final class ReferenceColumnCodec {
+
+    private static final byte FORMAT_RANGE = 1;
+    private static final byte FORMAT_VALUES = 2;
+
+    private static final byte NULL = 0;
+    private static final byte INT = 1;
+    private static final byte LONG = 2;
+    private static final byte STRING = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte BOOLEAN = 5;
+    private static final byte DECIMAL = 6;
+    private static final byte BIG_INTEGER = 7;
+
+    private ReferenceColumnCodec() {
+    }
+
+    /**
+     * 参照カラムを書き込みます。
+     * @throws IOException 書き込みに失敗した場合、または保存できない型の値が含まれる場合
+     */
+    public static void write(ReferenceColumn column, DataOutput out) throws IOException {
+        if (column instanceof RangeColumn) {
+            RangeColumn range = (RangeColumn) column;
+            out.writeByte(FORMAT_RANGE);
+            out.writeLong(range.start());
+            out.writeLong(range.size());
+            out.writeBoolean(range.ints());
+            return;
+        }
+        out.writeByte(FORMAT_VALUES);
+        long size = column.size();
+        out.writeLong(size);
+        long previous = 0;
+        for (long i = 0; i < size; i++) {
+            Object value = column.get(i);
+            if (value == null) {
+                out.writeByte(NULL);
+            } else if (value instanceof Integer || value instanceof Long) {
+                long number = ((Number) value).longValue();
+                out.writeByte(value instanceof Integer ? INT : LONG);
+                writeVarLong(out, zigZag(number - previous));
+                previous = number;
+            } else if (value instanceof String) {
+                byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+                out.writeByte(STRING);
+                writeVarLong(out, bytes.length);
+                out.write(bytes);
+            } else if (value instanceof Double) {
+                out.writeByte(DOUBLE);
+                out.writeDouble((Double) value);
+            } else if (value instanceof Boolean) {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean((Boolean) value);
+            } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+                byte[] bytes = value.toString().getBytes(StandardCharsets.US_ASCII);
+                out.writeByte(value instanceof BigDecimal ? DECIMAL : BIG_INTEGER);
+                writeVarLong(out, bytes.length);
+                out.write(bytes);
+            } else {
+                throw new IOException("参照カラムの値の型 " + value.getClass().getName() + " は保存できません。");
+            }
+        }
+    }
+
+    /**
+     * {@link #write} で書き込んだ参照カラムを読み込みます。
+     * @throws IOException 読み込みに失敗した場合、または形式が不正な場合
+     */
+    public static ReferenceColumn read(DataInput in) throws IOException {
+        byte format = in.readByte();
+        if (format == FORMAT_RANGE) {
+            return new RangeColumn(in.readLong(), in.readLong(), in.readBoolean());
+        }
+        if (format != FORMAT_VALUES) {
+            throw new IOException("参照カラムの形式が不正です: " + format);
+        }
+        long size = in.readLong();
+        ReferenceColumnBuilder builder = new ReferenceColumnBuilder(size);
+        long previous = 0;
+        for (long i = 0; i < size; i++) {
+            byte type = in.readByte();
+            switch (type) {
+                case NULL:
+                    builder.add(null);
+                    break;
+                case INT:
+                case LONG:
+                    previous += unZigZag(readVarLong(in));
+                    builder.add(type == INT ? (Object) (int) previous : (Object) previous);
+                    break;
+                case STRING:
+                    builder.add(new String(readBytes(in), StandardCharsets.UTF_8));
+                    break;
+                case DOUBLE:
+                    builder.add(in.readDouble());
+                    break;
+                case BOOLEAN:
+                    builder.add(in.readBoolean());
+                    break;
+                case DECIMAL:
+                    builder.add(new BigDecimal(new String(readBytes(in), StandardCharsets.US_ASCII)));
+                    break;
+                case BIG_INTEGER:
+                    builder.add(new BigInteger(new String(readBytes(in), StandardCharsets.US_ASCII)));
+                    break;
+                default:
+                    throw new IOException("参照カラムの値の型が不正です: " + type);
+            }
+        }
+        return builder.build();
+    }
+
+    private static byte[] readBytes(DataInput in) throws IOException {
+        long length = readVarLong(in);
+        if (length < 0 || length > ReferenceColumnBuilder.MAX_ARRAY_SIZE) {
+            throw new IOException("参照カラムの値の長さが不正です: " + length);
+        }
+        byte[] bytes = new byte[(int) length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("可変長整数の形式が不正です。");
+    }
+}
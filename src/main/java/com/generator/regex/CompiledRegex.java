@@ -0,0 +1,79 @@
+package com.generator.regex;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+/**
+ * 一度だけ解析して構文木に変換した正規表現。パターンに一致する文字列を、再解析せずに高速に生成します。
+ * <ul>
+ *   <li>{@link #sample(Random, StringBuilder)}: ランダムに1つの文字列を生成します。
+ *       量指定子の回数と選択肢は一様に選ばれます。</li>
+ *   <li>{@link #unrank(long, StringBuilder)}: 0 から {@link #enumerableCount()}-1 までの番号に対応する文字列を生成します。
+ *       パターンが曖昧でなく、文字列の数が 2^62 以下の場合 ({@link #isEnumerable()})、番号と文字列が1対1に対応します。</li>
+ * </ul>
+ * インスタンスは不変であり、複数のスレッドから同時に使用できます。
+ */
+public final class CompiledRegex {
+
+    private final String pattern;
+    private final RegexNode root;
+
+    private CompiledRegex(String pattern, RegexNode root) {
+        this.pattern = pattern;
+        this.root = root;
+    }
+
+    /**
+     * パターンを解析します。
+     * @throws IllegalArgumentException 構文が不正、または未対応の構文を含む場合
+     */
+    public static CompiledRegex compile(String pattern) {
+        return new CompiledRegex(pattern, RegexParser.parse(pattern));
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * パターンから生成できる文字列の数を返します。
+     * パターンが曖昧な場合は同じ文字列を重複して数えるため上限値となり、非常に大きい場合は 2^256 で飽和します。
+     */
+    public BigInteger cardinality() {
+        return root.count;
+    }
+
+    /**
+     * 番号と文字列が1対1に対応し、{@link #unrank(long, StringBuilder)} で全ての文字列を重複なく列挙できるかどうかを返します。
+     * 曖昧でないパターンでも、文字列の数が 2^62 を超える場合は番号で扱えないため false となります。
+     */
+    public boolean isEnumerable() {
+        return root.unambiguous && root.count.compareTo(BigInteger.valueOf(RegexNode.RANK_LIMIT)) <= 0;
+    }
+
+    /**
+     * {@link #unrank(long, StringBuilder)} で列挙できる文字列の数を返します。列挙できるパターンでは cardinality() と等しくなります。
+     */
+    public long enumerableCount() {
+        return root.rankLimit;
+    }
+
+    /**
+     * ランダムに1つの文字列を生成し、buffer に追記します。
+     */
+    public void sample(Random random, StringBuilder buffer) {
+        root.sample(random, buffer);
+    }
+
+    /**
+     * 番号に対応する文字列を buffer に追記します。
+     * @param index 0 から enumerableCount()-1 までの番号
+     * @throws IllegalStateException 列挙できないパターンの場合
+     */
+    public void unrank(long index, StringBuilder buffer) {
+        if (!isEnumerable()) {
+            throw new IllegalStateException("このパターンは番号で列挙できません: " + pattern);
+        }
+        root.unrank(index, buffer);
+    }
+}
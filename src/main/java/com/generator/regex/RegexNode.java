@@ -0,0 +1,302 @@
+package com.generator.regex;
+
+import java.math.BigInteger;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 解析済みの正規表現の構文木のノード。
+ * 構築時に、生成できる文字列の数 (上限で飽和)、長さの範囲、先頭文字と使用する文字の集合、曖昧さの有無を計算します。
+ * 曖昧でない (同じ文字列を2通り以上の方法で生成しない) ノードは、0 から count-1 までの番号と文字列が1対1に対応します。
+ * 番号は long で扱うため、番号で列挙するのは文字列の数が 2^62 以下のパターンに限ります。
+ */
+abstract class RegexNode {
+
+    // 生成できる文字列の数の上限。これを超える場合は飽和させ、巨大な計算を避ける
+    static final BigInteger COUNT_LIMIT = BigInteger.ONE.shiftLeft(256);
+
+    // unrank で扱う番号の上限 (IndexPermutationで扱える範囲)。途中の組み合わせ数の計算は桁あふれしないようこの値で飽和させる
+    static final long RANK_LIMIT = 1L << 62;
+
+    BigInteger count;
+    // unrank で扱える番号の数 (min(count, RANK_LIMIT))
+    long rankLimit;
+    int minLength;
+    int maxLength;
+    boolean nullable;
+    boolean unambiguous;
+    // どの文字列も他の文字列の接頭辞にならない (長さが一定の場合は常に成り立つ)
+    boolean prefixFree;
+    BitSet first;
+    // 生成する文字列に現れ得る全ての文字
+    BitSet alphabet;
+
+    /**
+     * ランダムに1つの文字列を生成し、buffer に追記します。
+     */
+    abstract void sample(Random random, StringBuilder buffer);
+
+    /**
+     * 番号 index (0 から rankLimit-1) に対応する文字列を buffer に追記します。
+     */
+    abstract void unrank(long index, StringBuilder buffer);
+
+    static BigInteger saturate(BigInteger value) {
+        return value.compareTo(COUNT_LIMIT) > 0 ? COUNT_LIMIT : value;
+    }
+
+    static long rankLimit(BigInteger count) {
+        return count.bitLength() > 62 ? RANK_LIMIT : count.longValue();
+    }
+
+    /**
+     * RANK_LIMIT で飽和する積。飽和した値は、扱う番号 (RANK_LIMIT 未満) のどれよりも大きいことのみを表します。
+     */
+    static long rankMultiply(long a, long b) {
+        if (a == 0 || b == 0) {
+            return 0;
+        }
+        return a > RANK_LIMIT / b ? RANK_LIMIT : Math.min(a * b, RANK_LIMIT);
+    }
+
+    /**
+     * 文字集合 (リテラル、文字クラス、"." など) から1文字を選択するノード。
+     */
+    static final class CharSet extends RegexNode {
+        private final char[] chars;
+
+        CharSet(BitSet set) {
+            this.chars = new char[set.cardinality()];
+            int n = 0;
+            for (int ch = set.nextSetBit(0); ch >= 0; ch = set.nextSetBit(ch + 1)) {
+                chars[n++] = (char) ch;
+            }
+            this.count = BigInteger.valueOf(chars.length);
+            this.rankLimit = chars.length;
+            this.minLength = 1;
+            this.maxLength = 1;
+            this.nullable = false;
+            this.unambiguous = true;
+            this.prefixFree = true;
+            this.first = (BitSet) set.clone();
+            this.alphabet = (BitSet) set.clone();
+        }
+
+        @Override
+        void sample(Random random, StringBuilder buffer) {
+            buffer.append(chars.length == 1 ? chars[0] : chars[random.nextInt(chars.length)]);
+        }
+
+        @Override
+        void unrank(long index, StringBuilder buffer) {
+            buffer.append(chars[(int) index]);
+        }
+    }
+
+    /**
+     * 要素を順に連結するノード。空の連結は空文字列のみを生成します。
+     */
+    static final class Sequence extends RegexNode {
+        private final RegexNode[] items;
+        // items[i] より後ろの要素の組み合わせ数 (unrank用、RANK_LIMIT で飽和)
+        private final long[] suffixCounts;
+
+        Sequence(List<RegexNode> list) {
+            this.items = list.toArray(new RegexNode[0]);
+            BigInteger product = BigInteger.ONE;
+            this.unambiguous = true;
+            this.prefixFree = true;
+            this.nullable = true;
+            this.first = new BitSet();
+            this.alphabet = new BitSet();
+            for (int i = 0; i < items.length; i++) {
+                RegexNode item = items[i];
+                product = saturate(product.multiply(item.count));
+                minLength = saturatedAdd(minLength, item.minLength);
+                maxLength = saturatedAdd(maxLength, item.maxLength);
+                if (nullable) {
+                    first.or(item.first);
+                }
+                nullable &= item.nullable;
+                // ここまでの連結 (接頭部) と item の区切り位置は、次のいずれかの場合に一意に決まる
+                // - 接頭部がどの文字列の接頭辞にもならない
+                // - 接頭部に現れる文字が item の先頭文字にならない (例: [a-z]{5,12} の後の \d{0,3})
+                // - item の長さが一定 (末尾から区切れる)
+                boolean disjoint = !alphabet.intersects(item.first);
+                unambiguous &= item.unambiguous && (prefixFree || disjoint || item.minLength == item.maxLength);
+                prefixFree = item.prefixFree && (prefixFree || disjoint && !item.nullable);
+                alphabet.or(item.alphabet);
+            }
+            this.count = product;
+            this.rankLimit = rankLimit(product);
+
+            this.suffixCounts = new long[items.length];
+            long suffix = 1;
+            for (int i = items.length - 1; i >= 0; i--) {
+                suffixCounts[i] = suffix;
+                suffix = rankMultiply(suffix, items[i].rankLimit);
+            }
+        }
+
+        @Override
+        void sample(Random random, StringBuilder buffer) {
+            for (RegexNode item : items) {
+                item.sample(random, buffer);
+            }
+        }
+
+        @Override
+        void unrank(long index, StringBuilder buffer) {
+            // 後ろの組み合わせ数が飽和している要素では、番号は常に後ろの要素に割り当てられる (商は0)
+            for (int i = 0; i < items.length; i++) {
+                items[i].unrank(index / suffixCounts[i], buffer);
+                index %= suffixCounts[i];
+            }
+        }
+    }
+
+    /**
+     * いずれか1つの選択肢を生成するノード (a|b|c)。
+     */
+    static final class Alternation extends RegexNode {
+        private final RegexNode[] branches;
+
+        Alternation(List<RegexNode> list) {
+            this.branches = list.toArray(new RegexNode[0]);
+            BigInteger sum = BigInteger.ZERO;
+            this.minLength = Integer.MAX_VALUE;
+            this.first = new BitSet();
+            this.alphabet = new BitSet();
+            this.unambiguous = true;
+            this.prefixFree = true;
+            for (RegexNode branch : branches) {
+                sum = saturate(sum.add(branch.count));
+                minLength = Math.min(minLength, branch.minLength);
+                maxLength = Math.max(maxLength, branch.maxLength);
+                nullable |= branch.nullable;
+                // 選択肢の先頭文字が重ならない場合のみ、異なる選択肢から同じ文字列 (や接頭辞) が生成されないことを保証できる
+                unambiguous &= branch.unambiguous && !branch.nullable && !first.intersects(branch.first);
+                prefixFree &= branch.prefixFree;
+                first.or(branch.first);
+                alphabet.or(branch.alphabet);
+            }
+            prefixFree &= unambiguous;
+            this.count = sum;
+            this.rankLimit = rankLimit(sum);
+        }
+
+        @Override
+        void sample(Random random, StringBuilder buffer) {
+            branches[random.nextInt(branches.length)].sample(random, buffer);
+        }
+
+        @Override
+        void unrank(long index, StringBuilder buffer) {
+            for (RegexNode branch : branches) {
+                long branchCount = branch.rankLimit;
+                if (index < branchCount) {
+                    branch.unrank(index, buffer);
+                    return;
+                }
+                index -= branchCount;
+            }
+        }
+    }
+
+    /**
+     * 要素を min 回から max 回繰り返すノード。
+     */
+    static final class Repeat extends RegexNode {
+        private final RegexNode item;
+        private final int min;
+        private final int max;
+        // item の組み合わせ数のべき乗 (powers[k] = item.rankLimit^k、RANK_LIMIT で飽和。飽和以降は省略)
+        private final long[] powers;
+
+        Repeat(RegexNode item, int min, int max) {
+            this.item = item;
+            this.min = min;
+            this.max = max;
+
+            BigInteger term = saturate(item.count.pow(Math.min(min, 256)));
+            BigInteger sum = BigInteger.ZERO;
+            for (int r = min; r <= max; r++) {
+                sum = saturate(sum.add(term));
+                if (sum.equals(COUNT_LIMIT)) {
+                    break;
+                }
+                term = saturate(term.multiply(item.count));
+            }
+            this.count = min > 256 && item.count.compareTo(BigInteger.ONE) > 0 ? COUNT_LIMIT : sum;
+            this.rankLimit = rankLimit(count);
+            this.minLength = saturatedMultiply(item.minLength, min);
+            this.maxLength = saturatedMultiply(item.maxLength, max);
+            this.nullable = min == 0 || item.nullable;
+            this.first = max > 0 ? (BitSet) item.first.clone() : new BitSet();
+            this.alphabet = max > 0 ? (BitSet) item.alphabet.clone() : new BitSet();
+            // 長さが一定の要素の繰り返しは、繰り返し回数が長さから一意に決まる
+            boolean fixedLength = item.minLength == item.maxLength && item.minLength > 0;
+            this.unambiguous = item.unambiguous && (fixedLength || min == max && max <= 1 || max <= 1 && !item.nullable);
+            this.prefixFree = max == 0 || min == max && item.prefixFree;
+
+            int length = 1;
+            long power = 1;
+            while (length <= max && power < RANK_LIMIT && item.rankLimit > 1) {
+                power = rankMultiply(power, item.rankLimit);
+                length++;
+            }
+            this.powers = new long[length];
+            powers[0] = 1;
+            for (int k = 1; k < length; k++) {
+                powers[k] = rankMultiply(powers[k - 1], item.rankLimit);
+            }
+        }
+
+        /**
+         * item.rankLimit^k (RANK_LIMIT で飽和) を返します。
+         */
+        private long power(int k) {
+            if (k < powers.length) {
+                return powers[k];
+            }
+            return item.rankLimit > 1 ? RANK_LIMIT : item.rankLimit;
+        }
+
+        @Override
+        void sample(Random random, StringBuilder buffer) {
+            int times = min == max ? min : min + random.nextInt(max - min + 1);
+            for (int i = 0; i < times; i++) {
+                item.sample(random, buffer);
+            }
+        }
+
+        @Override
+        void unrank(long index, StringBuilder buffer) {
+            // 繰り返し回数ごとの組み合わせ数 (block) を順に差し引いて、繰り返し回数を求める
+            int times = min;
+            long block = power(times);
+            while (index >= block) {
+                index -= block;
+                times++;
+                block = power(times);
+            }
+            // 繰り返しの各要素の番号を、上位の桁から順に取り出す
+            for (int i = times - 1; i >= 0; i--) {
+                long place = power(i);
+                item.unrank(index / place, buffer);
+                index %= place;
+            }
+        }
+    }
+
+    private static int saturatedAdd(int a, int b) {
+        long sum = (long) a + b;
+        return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+    }
+
+    private static int saturatedMultiply(int a, int b) {
+        long product = (long) a * b;
+        return product > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) product;
+    }
+}
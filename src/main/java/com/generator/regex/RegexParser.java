@@ -0,0 +1,367 @@
+package com.generator.regex;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * 正規表現の文字列を {@link RegexNode} の構文木に変換する再帰下降パーサー。
+ * テストデータ生成で使用される次の構文に対応します。
+ * <ul>
+ *   <li>リテラル、エスケープ (\d \w \s とその否定、\t \n \r \f \e \a、\xhh、\\uhhhh、記号のエスケープ)</li>
+ *   <li>文字クラス ([a-z0-9_]、[^...])、任意の1文字 (.)</li>
+ *   <li>グループ ((...)、(?:...)、(?&lt;name&gt;...))、選択 (|)</li>
+ *   <li>量指定子 (?, *, +, {n}, {n,}, {n,m})。最長一致以外の指定 (*? や *+) は無視します。</li>
+ *   <li>アンカー (^ $ \b \B \A \z \Z) は生成に影響しないため無視します。</li>
+ * </ul>
+ * "." と否定の文字クラスは印字可能なASCII文字 (0x20〜0x7E) の範囲で扱います。
+ * 上限のない量指定子 (*, +, {n,}) は最小回数に {@link #UNBOUNDED_EXTRA} 回を加えた回数を上限とします。
+ * 後方参照や先読みなどの未対応の構文は {@link IllegalArgumentException} になります。
+ */
+final class RegexParser {
+
+    static final int UNBOUNDED_EXTRA = 8;
+
+    private static final char PRINTABLE_FIRST = 0x20;
+    private static final char PRINTABLE_LAST = 0x7E;
+
+    private final String pattern;
+    private int pos;
+
+    private RegexParser(String pattern) {
+        this.pattern = pattern;
+    }
+
+    static RegexNode parse(String pattern) {
+        RegexParser parser = new RegexParser(pattern);
+        RegexNode node = parser.parseAlternation();
+        if (parser.pos < pattern.length()) {
+            throw parser.error("対応する '(' のない ')' があります");
+        }
+        return node;
+    }
+
+    private RegexNode parseAlternation() {
+        List<RegexNode> branches = new ArrayList<>();
+        branches.add(parseSequence());
+        while (pos < pattern.length() && pattern.charAt(pos) == '|') {
+            pos++;
+            branches.add(parseSequence());
+        }
+        return branches.size() == 1 ? branches.get(0) : new RegexNode.Alternation(branches);
+    }
+
+    private RegexNode parseSequence() {
+        List<RegexNode> items = new ArrayList<>();
+        while (pos < pattern.length()) {
+            char ch = pattern.charAt(pos);
+            if (ch == '|' || ch == ')') {
+                break;
+            }
+            RegexNode atom = parseAtom();
+            if (atom == null) {
+                continue;
+            }
+            items.add(parseQuantifiers(atom));
+        }
+        return items.size() == 1 ? items.get(0) : new RegexNode.Sequence(items);
+    }
+
+    /**
+     * 1つの要素を解析します。アンカーなど生成に影響しない要素の場合はnullを返します。
+     */
+    private RegexNode parseAtom() {
+        char ch = pattern.charAt(pos++);
+        switch (ch) {
+            case '^':
+            case '$':
+                return null;
+            case '(':
+                return parseGroup();
+            case '[':
+                return new RegexNode.CharSet(parseClass());
+            case '.':
+                return new RegexNode.CharSet(printable());
+            case '\\':
+                return parseEscape();
+            case '*':
+            case '+':
+            case '?':
+            case '{':
+                throw error("量指定子 '" + ch + "' の前に対象がありません");
+            default:
+                return new RegexNode.CharSet(single(ch));
+        }
+    }
+
+    private RegexNode parseGroup() {
+        if (pattern.startsWith("?:", pos)) {
+            pos += 2;
+        } else if (pattern.startsWith("?<", pos) && pos + 2 < pattern.length()
+                && pattern.charAt(pos + 2) != '=' && pattern.charAt(pos + 2) != '!') {
+            // 名前付きグループ
+            int end = pattern.indexOf('>', pos);
+            if (end < 0) {
+                throw error("名前付きグループが閉じられていません");
+            }
+            pos = end + 1;
+        } else if (pos < pattern.length() && pattern.charAt(pos) == '?') {
+            throw error("先読み・後読みやフラグ指定 (?...) には対応していません");
+        }
+        RegexNode node = parseAlternation();
+        if (pos >= pattern.length() || pattern.charAt(pos) != ')') {
+            throw error("グループが閉じられていません");
+        }
+        pos++;
+        return node;
+    }
+
+    private RegexNode parseQuantifiers(RegexNode atom) {
+        while (pos < pattern.length()) {
+            char ch = pattern.charAt(pos);
+            int min;
+            int max;
+            if (ch == '?') {
+                min = 0;
+                max = 1;
+                pos++;
+            } else if (ch == '*') {
+                min = 0;
+                max = UNBOUNDED_EXTRA;
+                pos++;
+            } else if (ch == '+') {
+                min = 1;
+                max = 1 + UNBOUNDED_EXTRA;
+                pos++;
+            } else if (ch == '{') {
+                int close = pattern.indexOf('}', pos);
+                if (close < 0) {
+                    throw error("量指定子 '{' が閉じられていません");
+                }
+                String body = pattern.substring(pos + 1, close);
+                try {
+                    int comma = body.indexOf(',');
+                    if (comma < 0) {
+                        min = max = Integer.parseInt(body.trim());
+                    } else {
+                        min = Integer.parseInt(body.substring(0, comma).trim());
+                        String upper = body.substring(comma + 1).trim();
+                        max = upper.isEmpty() ? min + UNBOUNDED_EXTRA : Integer.parseInt(upper);
+                    }
+                } catch (NumberFormatException e) {
+                    throw error("量指定子 {" + body + "} が不正です");
+                }
+                if (min < 0 || max < min) {
+                    throw error("量指定子 {" + body + "} の範囲が不正です");
+                }
+                pos = close + 1;
+            } else {
+                return atom;
+            }
+            // 最短一致 (?) や強欲 (+) の指定は生成には影響しない
+            if (pos < pattern.length() && (pattern.charAt(pos) == '?' || pattern.charAt(pos) == '+')) {
+                pos++;
+            }
+            atom = new RegexNode.Repeat(atom, min, max);
+        }
+        return atom;
+    }
+
+    private RegexNode parseEscape() {
+        if (pos >= pattern.length()) {
+            throw error("末尾の '\\' が不正です");
+        }
+        char ch = pattern.charAt(pos);
+        switch (ch) {
+            case 'b':
+            case 'B':
+            case 'A':
+            case 'z':
+            case 'Z':
+            case 'G':
+                pos++;
+                return null;
+            default:
+                return new RegexNode.CharSet(parseEscapeSet());
+        }
+    }
+
+    /**
+     * '\' に続くエスケープを文字集合として解析します (文字クラスの内外で共通)。
+     */
+    private BitSet parseEscapeSet() {
+        char ch = pattern.charAt(pos++);
+        switch (ch) {
+            case 'd':
+                return range('0', '9');
+            case 'D':
+                return complement(range('0', '9'));
+            case 'w':
+                return word();
+            case 'W':
+                return complement(word());
+            case 's':
+                return whitespace();
+            case 'S':
+                return complement(whitespace());
+            case 't':
+                return single('\t');
+            case 'n':
+                return single('\n');
+            case 'r':
+                return single('\r');
+            case 'f':
+                return single('\f');
+            case 'e':
+                return single('\u001B');
+            case 'a':
+                return single('\u0007');
+            case 'x':
+                return single(parseHex(2));
+            case 'u':
+                return single(parseHex(4));
+            case 'p':
+            case 'P':
+            case 'Q':
+            case 'k':
+                throw error("エスケープ \\" + ch + " には対応していません");
+            default:
+                if (ch >= '1' && ch <= '9') {
+                    throw error("後方参照には対応していません");
+                }
+                if (Character.isLetter(ch)) {
+                    throw error("不明なエスケープ \\" + ch + " です");
+                }
+                return single(ch);
+        }
+    }
+
+    private char parseHex(int digits) {
+        if (pos + digits > pattern.length()) {
+            throw error("16進数のエスケープが不正です");
+        }
+        try {
+            char value = (char) Integer.parseInt(pattern.substring(pos, pos + digits), 16);
+            pos += digits;
+            return value;
+        } catch (NumberFormatException e) {
+            throw error("16進数のエスケープが不正です");
+        }
+    }
+
+    /**
+     * '[' の後ろから文字クラスを解析します。
+     */
+    private BitSet parseClass() {
+        boolean negate = false;
+        if (pos < pattern.length() && pattern.charAt(pos) == '^') {
+            negate = true;
+            pos++;
+        }
+        BitSet set = new BitSet();
+        boolean firstItem = true;
+        while (true) {
+            if (pos >= pattern.length()) {
+                throw error("文字クラス '[' が閉じられていません");
+            }
+            char ch = pattern.charAt(pos);
+            if (ch == ']' && !firstItem) {
+                pos++;
+                break;
+            }
+            firstItem = false;
+            if (ch == '[' || pattern.startsWith("&&", pos)) {
+                throw error("文字クラスの和集合・積集合には対応していません");
+            }
+
+            char low;
+            if (ch == '\\') {
+                pos++;
+                if (pos >= pattern.length()) {
+                    throw error("文字クラス '[' が閉じられていません");
+                }
+                BitSet escaped = parseEscapeSet();
+                if (escaped.cardinality() != 1) {
+                    // \d などの集合はそのまま追加する
+                    set.or(escaped);
+                    continue;
+                }
+                low = (char) escaped.nextSetBit(0);
+            } else {
+                low = ch;
+                pos++;
+            }
+
+            // 範囲指定 (a-z)。'-' が末尾にある場合はリテラルとして扱う
+            if (pos + 1 < pattern.length() && pattern.charAt(pos) == '-' && pattern.charAt(pos + 1) != ']') {
+                pos++;
+                char high = pattern.charAt(pos++);
+                if (high == '\\') {
+                    BitSet escaped = parseEscapeSet();
+                    if (escaped.cardinality() != 1) {
+                        throw error("文字クラスの範囲指定が不正です");
+                    }
+                    high = (char) escaped.nextSetBit(0);
+                }
+                if (high < low) {
+                    throw error("文字クラスの範囲 " + low + "-" + high + " が不正です");
+                }
+                set.set(low, high + 1);
+            } else {
+                set.set(low);
+            }
+        }
+        if (negate) {
+            set = complement(set);
+        }
+        if (set.isEmpty()) {
+            throw error("文字クラスに一致する文字がありません");
+        }
+        return set;
+    }
+
+    private static BitSet single(char ch) {
+        BitSet set = new BitSet();
+        set.set(ch);
+        return set;
+    }
+
+    private static BitSet range(char low, char high) {
+        BitSet set = new BitSet();
+        set.set(low, high + 1);
+        return set;
+    }
+
+    private static BitSet word() {
+        BitSet set = range('a', 'z');
+        set.or(range('A', 'Z'));
+        set.or(range('0', '9'));
+        set.set('_');
+        return set;
+    }
+
+    private static BitSet whitespace() {
+        BitSet set = new BitSet();
+        for (char ch : " \t\n\u000B\f\r".toCharArray()) {
+            set.set(ch);
+        }
+        return set;
+    }
+
+    private static BitSet printable() {
+        return range(PRINTABLE_FIRST, PRINTABLE_LAST);
+    }
+
+    /**
+     * 印字可能なASCII文字のうち、指定した集合に含まれない文字の集合を返します。
+     */
+    private static BitSet complement(BitSet set) {
+        BitSet result = printable();
+        result.andNot(set);
+        return result;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " (位置 " + pos + "): " + pattern);
+    }
+}
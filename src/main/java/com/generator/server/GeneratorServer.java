@@ -0,0 +1,266 @@
+package com.generator.server;
+
+import com.generator.model.TableConfig;
+import com.generator.util.DataGenerator;
+import com.generator.util.FakerDictionary;
+import com.generator.util.GenerationOptions;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 設定JSONを受け取り、生成したデータをレスポンスとして返すHTTPサーバー (JDK組み込みの HttpServer)。
+ * プロセスを起動したまま繰り返し生成するため、JITコンパイル済みのコード、コンパイル済みのFAKER呼び出し器、
+ * Fakerの辞書、検証済みの設定がリクエスト間で再利用され、リクエストごとの起動コストがかかりません。
+ * <p>
+ * POST /generate に設定ファイルと同じ形式のJSONを送信すると、SQL、CSVまたはCOPY形式のデータを生成しながら
+ * レスポンス本文に書き出します (チャンク転送)。クエリパラメータで次の値を指定できます。
+ * <ul>
+ *   <li>seed: 乱数シード値 (デフォルト: 1)</li>
+ *   <li>format: sql, csv または copy (デフォルト: sql)</li>
+ *   <li>table: 出力するテーブル名 (複数指定可。デフォルト: 全てのテーブル。CSVで複数のテーブルがある場合は必須)</li>
+ *   <li>batch-size: SQLの1つのINSERT文にまとめる行数 (デフォルト: 1)</li>
+ *   <li>transaction: true の場合、SQLの各バッチをトランザクションで囲む</li>
+ * </ul>
+ * 各リクエストは仮想スレッド (Java 21以降。それ以前はスレッドプール) で処理し、1スレッドで生成します。
+ * 同じシード値と設定であれば、コマンドラインで出力したファイルと同じ内容を返します。
+ */
+public class GeneratorServer implements AutoCloseable {
+
+    // パスの末尾
+    private static final String CONTEXT_PATH = "/generate";
+
+    // 検証済みの設定を保持する件数
+    private static final int CONFIG_CACHE_SIZE = 64;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final GenerationOptions defaults;
+    private final FakerDictionary dictionary;
+    private final AtomicLong requestCount = new AtomicLong();
+
+    // 設定JSONの文字列ごとの検証済みの設定 (設定は生成中に変更されないため、リクエスト間で共有する)
+    private final Map<String, List<TableConfig>> configCache = Collections.synchronizedMap(
+            new LinkedHashMap<String, List<TableConfig>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, List<TableConfig>> eldest) {
+                    return size() > CONFIG_CACHE_SIZE;
+                }
+            });
+
+    /**
+     * @param port 待ち受けるポート番号 (ループバックアドレスのみで待ち受ける。0の場合は空いているポート)
+     * @param defaults リクエストで指定しないオプション (ハッシュのキャッシュなど) の値
+     * @param dictionary FAKER型の生成に使用する辞書 (全てのリクエストで共有する)
+     * @throws IOException ポートを使用できない場合
+     */
+    public GeneratorServer(int port, GenerationOptions defaults, FakerDictionary dictionary) throws IOException {
+        this.defaults = defaults;
+        this.dictionary = dictionary;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext(CONTEXT_PATH, this::handle);
+    }
+
+    /**
+     * サーバーを起動します。
+     */
+    public void start() {
+        server.start();
+        System.out.println("サーバーを起動しました: http://" + server.getAddress().getHostString() + ":"
+                + server.getAddress().getPort() + CONTEXT_PATH);
+    }
+
+    /**
+     * 待ち受けているポート番号を返します。
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * 新しいリクエストの受け付けを停止し、処理中のリクエストの完了を最大1秒待ってからサーバーを停止します。
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+        System.out.println("サーバーを停止しました。処理したリクエスト: " + requestCount.get() + "件");
+    }
+
+    /**
+     * リクエストごとに仮想スレッドを作成するエグゼキュータを返します。
+     * 仮想スレッドを使用できない (Java 21より前の) 場合は、スレッドを再利用するプールを返します。
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            System.out.println("リクエストは仮想スレッドで処理します。");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            System.out.println("仮想スレッドを使用できないため、リクエストはスレッドプールで処理します。");
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "generator-request");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * 1件のリクエストを処理します。設定やパラメータに誤りがある場合は、生成を始める前に 400 を返します。
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Allow", "POST");
+            sendError(exchange, 405, "POSTで設定JSONを送信してください。");
+            return;
+        }
+        long requestId = requestCount.incrementAndGet();
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        Map<String, List<String>> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String format;
+        Set<String> tables;
+        DataGenerator generator;
+        List<TableConfig> configs;
+        try {
+            format = parameter(query, "format", "sql").toLowerCase();
+            if (!format.equals("sql") && !format.equals("csv") && !format.equals("copy")) {
+                throw new IllegalArgumentException("format には sql, csv または copy を指定してください: " + format);
+            }
+            GenerationOptions options = requestOptions(query);
+            generator = new DataGenerator(options, dictionary);
+            configs = configCache.get(body);
+            if (configs == null) {
+                configs = generator.parseConfig(body);
+                configCache.put(body, configs);
+            }
+            tables = query.containsKey("table") ? new LinkedHashSet<>(query.get("table")) : null;
+            if (tables != null) {
+                for (String table : tables) {
+                    if (configs.stream().noneMatch(config -> config.getName().equals(table))) {
+                        throw new IllegalArgumentException("テーブル '" + table + "' は設定に存在しません。");
+                    }
+                }
+            }
+            if (format.equals("csv") && (tables != null ? tables.size() : configs.size()) > 1) {
+                throw new IllegalArgumentException("CSV形式ではテーブルを1つ指定してください (table パラメータ)。");
+            }
+        } catch (IOException e) {
+            sendError(exchange, 400, "設定JSONのパースエラー: " + e.getMessage());
+            return;
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, "設定エラー: " + e.getMessage());
+            return;
+        }
+
+        System.out.println("\n--- リクエスト #" + requestId + ": format=" + format
+                + (tables != null ? ", table=" + String.join(",", tables) : "") + " ---");
+        exchange.getResponseHeaders().set("Content-Type",
+                (format.equals("csv") ? "text/csv" : "text/plain") + "; charset=UTF-8");
+        // 長さは生成し終えるまで分からないため、チャンク転送で返す
+        exchange.sendResponseHeaders(200, 0);
+        try {
+            generator.generateAndStream(configs, format, Channels.newChannel(exchange.getResponseBody()), tables);
+        } catch (RuntimeException e) {
+            // ステータスは送信済みのため、本文を終端せずに例外を送出する (HttpServer が接続を閉じ、応答が不完全であることを示す)
+            System.err.println("リクエスト #" + requestId + " の生成中にエラーが発生しました: " + e.getMessage());
+            throw new IOException(e);
+        }
+        exchange.close();
+    }
+
+    /**
+     * クエリパラメータとサーバーの既定値から、1件のリクエストの実行オプションを作成します。
+     * @throws IllegalArgumentException 値が不正な場合
+     */
+    private GenerationOptions requestOptions(Map<String, List<String>> query) {
+        GenerationOptions options = new GenerationOptions();
+        options.setThreads(1);
+        options.setHashCache(defaults.isHashCache());
+        options.setHashThreads(defaults.getHashThreads());
+        options.setUniqueSpillDirectory(defaults.getUniqueSpillDirectory());
+        try {
+            options.setSeed(Long.parseLong(parameter(query, "seed", "1")));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("seed には整数を指定してください: " + parameter(query, "seed", ""));
+        }
+        int batchSize;
+        try {
+            batchSize = Integer.parseInt(parameter(query, "batch-size", "1"));
+        } catch (NumberFormatException e) {
+            batchSize = 0;
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batch-size には1以上の整数を指定してください: " + parameter(query, "batch-size", ""));
+        }
+        options.setSqlBatchSize(batchSize);
+        options.setSqlTransaction(Boolean.parseBoolean(parameter(query, "transaction", "false")));
+        return options;
+    }
+
+    /**
+     * クエリパラメータの最初の値を返します。指定されていない場合は既定値を返します。
+     */
+    private static String parameter(Map<String, List<String>> query, String name, String defaultValue) {
+        List<String> values = query.get(name);
+        return values != null ? values.get(0) : defaultValue;
+    }
+
+    /**
+     * クエリ文字列を、名前ごとの値のリストに分解します。
+     */
+    private static Map<String, List<String>> parseQuery(String rawQuery) {
+        Map<String, List<String>> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            query.computeIfAbsent(name, k -> new ArrayList<>()).add(value);
+        }
+        return query;
+    }
+
+    /**
+     * エラーメッセージを本文とするレスポンスを返します。
+     */
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] bytes = (message + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
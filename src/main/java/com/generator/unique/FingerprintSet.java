@@ -0,0 +1,109 @@
+package com.generator.unique;
+
+import com.generator.util.SeedMixer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 文字列 (UTF-8のバイト列) の集合を、64bitのハッシュ値のテーブルと {@link ValueStore} で保持するセット。
+ * 通常はハッシュ値の比較のみで判定し、ハッシュ値が一致した場合のみストアの値と厳密に比較します。
+ * 異なる値でハッシュ値が一致した回数は衝突として記録されます。
+ * テーブルは {@link LongHashSet} と同様にパーティションに分割されます。単一スレッドからの利用を前提とします。
+ */
+final class FingerprintSet implements Closeable {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ValueStore store;
+    // 0 は空きスロットを表す (ハッシュ値 0 は 1 に置き換える)
+    private final long[][] hashes = new long[LongHashSet.PARTITIONS][];
+    private final long[][] refs = new long[LongHashSet.PARTITIONS][];
+    private final int[] counts = new int[LongHashSet.PARTITIONS];
+    private long collisions;
+
+    FingerprintSet(ValueStore store) {
+        this.store = store;
+        for (int p = 0; p < LongHashSet.PARTITIONS; p++) {
+            hashes[p] = new long[INITIAL_CAPACITY];
+            refs[p] = new long[INITIAL_CAPACITY];
+        }
+    }
+
+    /**
+     * バイト列を追加します。
+     * @return 追加された場合はtrue、既に存在した場合はfalse
+     */
+    boolean add(byte[] bytes, int length) throws IOException {
+        long hash = hash(bytes, length);
+        int p = (int) (hash >>> (64 - LongHashSet.PARTITION_BITS));
+        long[] table = hashes[p];
+        int mask = table.length - 1;
+        int slot = (int) hash & mask;
+        while (true) {
+            long current = table[slot];
+            if (current == 0) {
+                break;
+            }
+            if (current == hash) {
+                if (store.matches(refs[p][slot], bytes, length)) {
+                    return false;
+                }
+                collisions++;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = hash;
+        refs[p][slot] = store.append(bytes, length);
+        if (++counts[p] > (table.length >> 1) + (table.length >> 2)) {
+            grow(p);
+        }
+        return true;
+    }
+
+    /**
+     * 異なる値でハッシュ値が一致した回数を返します。
+     */
+    long collisions() {
+        return collisions;
+    }
+
+    private void grow(int p) {
+        long[] oldHashes = hashes[p];
+        long[] oldRefs = refs[p];
+        long[] newHashes = new long[oldHashes.length << 1];
+        long[] newRefs = new long[newHashes.length];
+        int mask = newHashes.length - 1;
+        for (int i = 0; i < oldHashes.length; i++) {
+            long hash = oldHashes[i];
+            if (hash != 0) {
+                int slot = (int) hash & mask;
+                while (newHashes[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                newHashes[slot] = hash;
+                newRefs[slot] = oldRefs[i];
+            }
+        }
+        hashes[p] = newHashes;
+        refs[p] = newRefs;
+    }
+
+    /**
+     * FNV-1a で計算したハッシュ値を SplitMix64 で混合し、上位ビットと下位ビットの両方を分散させます。
+     */
+    private static long hash(byte[] bytes, int length) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < length; i++) {
+            h ^= (bytes[i] & 0xFF);
+            h *= 0x100000001B3L;
+        }
+        h = SeedMixer.mix64(h);
+        return h == 0 ? 1 : h;
+    }
+
+    @Override
+    public void close() throws IOException {
+        store.close();
+    }
+}
@@ -0,0 +1,83 @@
+package com.generator.unique;
+
+import com.generator.util.SeedMixer;
+
+/**
+ * long値のオープンアドレス法 (線形探索) によるハッシュセット。値をボックス化せずに保持します。
+ * ハッシュ値の上位ビットで複数のパーティションに分割し、パーティションごとに拡張するため、
+ * 要素数が多くなっても1回の拡張でコピーされる量は全体の一部に限られます。
+ * 単一スレッドからの利用を前提とします。
+ */
+final class LongHashSet {
+
+    static final int PARTITION_BITS = 4;
+    static final int PARTITIONS = 1 << PARTITION_BITS;
+    private static final int INITIAL_CAPACITY = 64;
+
+    // 0 は空きスロットを表すため、値 0 は別に管理する
+    private final long[][] tables = new long[PARTITIONS][];
+    private final int[] counts = new int[PARTITIONS];
+    private boolean containsZero;
+    private long size;
+
+    LongHashSet() {
+        for (int p = 0; p < PARTITIONS; p++) {
+            tables[p] = new long[INITIAL_CAPACITY];
+        }
+    }
+
+    /**
+     * 値を追加します。
+     * @return 追加された場合はtrue、既に存在した場合はfalse
+     */
+    boolean add(long value) {
+        if (value == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        long hash = SeedMixer.mix64(value);
+        int p = (int) (hash >>> (64 - PARTITION_BITS));
+        long[] table = tables[p];
+        int mask = table.length - 1;
+        int slot = (int) hash & mask;
+        while (true) {
+            long current = table[slot];
+            if (current == 0) {
+                break;
+            }
+            if (current == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = value;
+        size++;
+        if (++counts[p] > (table.length >> 1) + (table.length >> 2)) {
+            tables[p] = grow(table);
+        }
+        return true;
+    }
+
+    long size() {
+        return size;
+    }
+
+    private static long[] grow(long[] table) {
+        long[] grown = new long[table.length << 1];
+        int mask = grown.length - 1;
+        for (long value : table) {
+            if (value != 0) {
+                int slot = (int) SeedMixer.mix64(value) & mask;
+                while (grown[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                grown[slot] = value;
+            }
+        }
+        return grown;
+    }
+}
@@ -0,0 +1,59 @@
+package com.generator.unique;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * バイト列を固定サイズのページに詰めてヒープ上に保持するストア。
+ * 各値は [長さ(4バイト)][バイト列] の形式で格納され、ページをまたがないように配置されます。
+ */
+final class MemoryValueStore implements ValueStore {
+
+    private static final int PAGE_SIZE = 1 << 20;
+
+    private final List<byte[]> pages = new ArrayList<>();
+    private byte[] page;
+    private int position;
+
+    @Override
+    public long append(byte[] bytes, int length) {
+        int required = length + 4;
+        if (page == null || position + required > page.length) {
+            // ページより大きな値は専用のページに格納する
+            page = new byte[Math.max(PAGE_SIZE, required)];
+            pages.add(page);
+            position = 0;
+        }
+        long ref = ((long) (pages.size() - 1) << 32) | position;
+        page[position] = (byte) (length >>> 24);
+        page[position + 1] = (byte) (length >>> 16);
+        page[position + 2] = (byte) (length >>> 8);
+        page[position + 3] = (byte) length;
+        System.arraycopy(bytes, 0, page, position + 4, length);
+        position += required;
+        return ref;
+    }
+
+    @Override
+    public boolean matches(long ref, byte[] bytes, int length) {
+        byte[] stored = pages.get((int) (ref >>> 32));
+        int offset = (int) ref;
+        int storedLength = ((stored[offset] & 0xFF) << 24) | ((stored[offset + 1] & 0xFF) << 16)
+                | ((stored[offset + 2] & 0xFF) << 8) | (stored[offset + 3] & 0xFF);
+        if (storedLength != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (stored[offset + 4 + i] != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        pages.clear();
+        page = null;
+    }
+}
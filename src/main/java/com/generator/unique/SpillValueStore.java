@@ -0,0 +1,107 @@
+package com.generator.unique;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * バイト列を一時ファイルに書き出して保持するストア。ヒープにはハッシュ値のテーブルのみが残ります。
+ * 各値は [長さ(4バイト)][バイト列] の形式で追記され、未書き出しの値はバッファから直接比較します。
+ * ファイルはクローズ時に削除されます。
+ */
+final class SpillValueStore implements ValueStore {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    // ファイルに書き出し済みのバイト数
+    private long flushed;
+    private ByteBuffer readBuffer = ByteBuffer.allocate(256);
+
+    /**
+     * @param directory 一時ファイルを作成するディレクトリ
+     */
+    SpillValueStore(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.file = Files.createTempFile(directory, "unique-", ".spill");
+        this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+    }
+
+    @Override
+    public long append(byte[] bytes, int length) throws IOException {
+        int required = length + 4;
+        if (buffer.remaining() < required) {
+            flush();
+        }
+        long ref = flushed + buffer.position();
+        if (required > buffer.capacity()) {
+            // バッファに収まらない値は直接書き出す
+            ByteBuffer large = ByteBuffer.allocate(required);
+            large.putInt(length).put(bytes, 0, length).flip();
+            while (large.hasRemaining()) {
+                channel.write(large, flushed + large.position());
+            }
+            flushed += required;
+        } else {
+            buffer.putInt(length).put(bytes, 0, length);
+        }
+        return ref;
+    }
+
+    @Override
+    public boolean matches(long ref, byte[] bytes, int length) throws IOException {
+        if (ref >= flushed) {
+            int offset = (int) (ref - flushed);
+            if (buffer.getInt(offset) != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (buffer.get(offset + 4 + i) != bytes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        if (readBuffer.capacity() < length + 4) {
+            readBuffer = ByteBuffer.allocate(length + 4);
+        }
+        readBuffer.clear().limit(length + 4);
+        while (readBuffer.hasRemaining()) {
+            if (channel.read(readBuffer, ref + readBuffer.position()) < 0) {
+                return false;
+            }
+        }
+        readBuffer.flip();
+        if (readBuffer.getInt() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (readBuffer.get() != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, flushed + buffer.position());
+        }
+        flushed += buffer.limit();
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+}
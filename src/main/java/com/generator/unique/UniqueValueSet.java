@@ -0,0 +1,147 @@
+package com.generator.unique;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 1つのユニークカラムで生成済みの値を管理するセット。値の型に応じて格納方法を切り替えます。
+ * <ul>
+ *   <li>整数 (SERIAL, NUMBER など) はボックス化せずに {@link LongHashSet} で厳密に管理します。</li>
+ *   <li>文字列は64bitのハッシュ値で判定し、ハッシュ値が一致した場合のみ元の値と厳密に比較します。
+ *       元の値はヒープ上のページ、または一時ファイルに保持します。</li>
+ *   <li>その他の型の値は {@link HashSet} で管理します。</li>
+ * </ul>
+ * あわせて、再生成の回数や試行回数の上限に達した件数などの統計を記録します。
+ * 行の確定順に単一スレッドから呼び出されるため、ロックは使用しません。
+ */
+public class UniqueValueSet implements Closeable {
+
+    private final Path spillDirectory;
+    private LongHashSet numbers;
+    private FingerprintSet strings;
+    private Set<Object> others;
+    private boolean containsNull;
+    private byte[] encodeBuffer = new byte[64];
+
+    private long rows;
+    private long retries;
+    private long exhausted;
+
+    /**
+     * @param spillDirectory 文字列の値を書き出す一時ファイルのディレクトリ (nullの場合はヒープ上に保持)
+     */
+    public UniqueValueSet(Path spillDirectory) {
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * 値を追加します。
+     * @return 追加された場合はtrue、既に存在した場合はfalse
+     */
+    public boolean add(Object value) {
+        if (value == null) {
+            if (containsNull) {
+                return false;
+            }
+            containsNull = true;
+            return true;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            if (numbers == null) {
+                numbers = new LongHashSet();
+            }
+            return numbers.add(((Number) value).longValue());
+        }
+        if (value instanceof String) {
+            try {
+                if (strings == null) {
+                    strings = new FingerprintSet(spillDirectory != null
+                            ? new SpillValueStore(spillDirectory) : new MemoryValueStore());
+                }
+                return strings.add(encodeBuffer, encode((String) value));
+            } catch (IOException e) {
+                throw new UncheckedIOException("ユニーク制約用の一時ファイルの操作に失敗しました: " + e.getMessage(), e);
+            }
+        }
+        if (others == null) {
+            others = new HashSet<>();
+        }
+        return others.add(value);
+    }
+
+    /**
+     * 文字列をUTF-8で encodeBuffer に書き込み、そのバイト数を返します。ASCIIのみの場合は変換用の配列を生成しません。
+     */
+    private int encode(String value) {
+        int length = value.length();
+        if (encodeBuffer.length < length) {
+            encodeBuffer = new byte[Math.max(length, encodeBuffer.length << 1)];
+        }
+        for (int i = 0; i < length; i++) {
+            char ch = value.charAt(i);
+            if (ch >= 0x80) {
+                byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                if (encodeBuffer.length < encoded.length) {
+                    encodeBuffer = new byte[encoded.length];
+                }
+                System.arraycopy(encoded, 0, encodeBuffer, 0, encoded.length);
+                return encoded.length;
+            }
+            encodeBuffer[i] = (byte) ch;
+        }
+        return length;
+    }
+
+    /**
+     * 1行分の値が確定したことを記録します。
+     */
+    public void recordRow() {
+        rows++;
+    }
+
+    /**
+     * 重複により値を再生成したことを記録します。
+     */
+    public void recordRetry() {
+        retries++;
+    }
+
+    /**
+     * 試行回数の上限に達し、重複した値のまま確定したことを記録します。
+     */
+    public void recordExhausted() {
+        exhausted++;
+    }
+
+    public long getRows() { return rows; }
+
+    public long getRetries() { return retries; }
+
+    public long getExhausted() { return exhausted; }
+
+    /**
+     * 異なる文字列で64bitのハッシュ値が一致した回数を返します。
+     */
+    public long getCollisions() {
+        return strings != null ? strings.collisions() : 0;
+    }
+
+    /**
+     * 確定した行あたりの再生成の割合 (%) を返します。
+     */
+    public double getRetryRate() {
+        return rows == 0 ? 0 : retries * 100.0 / rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (strings != null) {
+            strings.close();
+        }
+    }
+}
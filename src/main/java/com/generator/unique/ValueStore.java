@@ -0,0 +1,24 @@
+package com.generator.unique;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 文字列のUTF-8表現を追記専用で保持するストア。
+ * {@link FingerprintSet} でハッシュ値が一致した場合に、元の値と厳密に比較するために使用します。
+ */
+interface ValueStore extends Closeable {
+
+    /**
+     * バイト列を追記し、その位置を示す参照値を返します。
+     */
+    long append(byte[] bytes, int length) throws IOException;
+
+    /**
+     * 参照値の位置に格納されたバイト列が指定したバイト列と等しいかどうかを返します。
+     */
+    boolean matches(long ref, byte[] bytes, int length) throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
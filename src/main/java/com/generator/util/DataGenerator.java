@@ -1,44 +1,195 @@
 package com.generator.util;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.generator.cache.OutputCache;
+import com.generator.checkpoint.CheckpointState;
+import com.generator.checkpoint.CheckpointStore;
+import com.generator.column.ColumnGenerator;
+import com.generator.column.ColumnGeneratorFactory;
+import com.generator.column.ColumnType;
+import com.generator.column.GenerationContext;
+import com.generator.metrics.ChunkGenerationEvent;
+import com.generator.metrics.ColumnMetrics;
+import com.generator.metrics.FlightRecording;
+import com.generator.metrics.ProgressReporter;
+import com.generator.metrics.RunMetrics;
+import com.generator.metrics.TableGenerationEvent;
+import com.generator.metrics.TableMetrics;
 import com.generator.model.ColumnConfig;
 import com.generator.model.TableConfig;
-import com.github.javafaker.Faker;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import com.generator.output.ArrowColumnType;
+import com.generator.output.ArrowRowSink;
+import com.generator.output.CopyRowSink;
+import com.generator.output.CsvRowSink;
+import com.generator.output.DiscardingRowSink;
+import com.generator.output.FileRowSink;
+import com.generator.output.JdbcRowSink;
+import com.generator.output.OutputCompression;
+import com.generator.output.PartitionedRowSink;
+import com.generator.output.RowSink;
+import com.generator.output.SqlRowSink;
+import com.generator.output.TableSlice;
+import com.generator.output.XlsxRowSink;
+import com.generator.reference.ReferenceColumn;
+import com.generator.reference.ReferenceColumnBuilder;
+import com.generator.regex.CompiledRegex;
+import com.generator.unique.UniqueValueSet;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Types;
 import java.time.LocalDateTime;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 /**
- * テーブル定義に基づいてランダムなデータを生成し、SQLまたはXLSXに出力するクラス。
+ * テーブル定義に基づいてランダムなデータを生成し、SQL、XLSX、CSVまたはPostgreSQLのCOPY形式で出力するクラス。
  * 外部キー整合性チェックとFakerの引数付きメソッド呼び出し、STRINGの連番制御に対応。
  * 修正機能: type: PASSWORD を導入し、平文の定義（format）に基づいてハッシュ値のみを生成する。
  */
 public class DataGenerator {
 
-    private final Random random;
-    private final Faker faker;
-    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    // 1つの乱数ストリームを割り当てる行範囲 (チャンク) のサイズ。スレッド数に依存させないことで出力の再現性を保つ
+    static final int CHUNK_SIZE = 1024;
 
-    // 外部キー参照用のデータキャッシュ: Map<テーブル名.カラム名, List<値>>
-    private final Map<String, List<Object>> referenceDataCache = new ConcurrentHashMap<>();
+    // ユニークな値が得られるまでの最大試行回数
+    private static final int MAX_UNIQUE_ATTEMPTS = 100;
+
+    private final GenerationOptions options;
+    private final long seed;
+    private final int threads;
+    // ユニーク制約の文字列値を書き出すディレクトリ (nullの場合はヒープ上に保持)
+    private final Path uniqueSpillDirectory;
+
+    // DATETIMEでmaxDate未指定時の上限。実行中に変化しないよう初期化時に固定する (チェックポイントから再開する場合は最初の実行の値)
+    private LocalDateTime now = LocalDateTime.now();
+
+    // ワーカースレッドごとの乱数生成器とFaker
+    private final ThreadLocal<GenerationContext> contexts;
+
+    // generator文字列ごとにコンパイル済みのFAKER呼び出し器 (状態を持たないため、プロセス内の全インスタンスで共有する)
+    private static final Map<String, FakerInvoker> fakerInvokers = new ConcurrentHashMap<>();
+
+    // 設定ファイルの読み込みに使用するマッパー (スレッドセーフなため共有する)
+    private static final ObjectMapper CONFIG_MAPPER = new ObjectMapper();
+
+    // 外部キー参照用のデータキャッシュ: Map<テーブル名.カラム名, 参照カラム> (型に応じたプリミティブ形式で保持)
+    private final Map<String, ReferenceColumn> referenceDataCache = new ConcurrentHashMap<>();
+
+    // 外部キーから参照されている "テーブル名.カラム名" (これらのカラムのみキャッシュする)
+    private final Set<String> referencedColumns = ConcurrentHashMap.newKeySet();
+
+    // ファイル出力の圧縮方式 (generateAndOutput の実行中のみ設定される)
+    private OutputCompression compression = OutputCompression.NONE;
+
+    // 実行中または直近の実行の計測値
+    private volatile RunMetrics metrics;
+
+    // 進捗を記録するチェックポイント (generateAndOutput の実行中のみ設定される。記録しない場合はnull)
+    private volatile CheckpointStore checkpoint;
+
+    // 出力キャッシュ (generateAndOutput の実行中のみ設定される。使用しない場合はnull)
+    private volatile OutputCache outputCache;
+
+    // Arrow出力のカラムの型: Map<テーブル名, 出力カラムの型> (generateAndOutput の実行中のみ設定される)
+    private final Map<String, List<ArrowColumnType>> arrowColumnTypes = new ConcurrentHashMap<>();
+
+    // JDBCロードのカラムの型: Map<テーブル名, java.sql.Types の値> (generateAndOutput の実行中のみ設定される)
+    private final Map<String, int[]> jdbcColumnTypes = new ConcurrentHashMap<>();
+
+    // 出力キャッシュのキー: Map<テーブル名, キー> (キャッシュできないテーブルは含まない。子テーブルのキーの計算に使用する)
+    private final Map<String, String> tableKeys = new ConcurrentHashMap<>();
+
+    // 出力に失敗したテーブルと、それらを参照するため生成しなかったテーブル (generateAndOutput の実行中のみ設定される)
+    private final Set<String> failedTables = ConcurrentHashMap.newKeySet();
+
+    // JFRのイベントを記録するか (JFRが動作していない場合はイベントのクラスを読み込まず、JFRの初期化を避ける)
+    private volatile boolean recordEvents;
+
+    // ファイルの代わりに出力するチャネル (generateAndStream の実行中のみ設定される)
+    private WritableByteChannel stream;
+    // チャネルに出力するテーブル名 (それ以外のテーブルは外部キー参照のためにのみ生成する)
+    private Set<String> streamTables;
 
     public DataGenerator(long seed) {
-        // シード値を持つRandomインスタンスを使用し、再現性を確保
-        this.random = new Random(seed);
-        // Fakerを日本語ロケールとRandomインスタンスで初期化
-        this.faker = new Faker(new Locale("ja", "JP"), this.random); 
-        System.out.println("データ生成ツールが初期化されました。シード値: " + seed);
+        this(seed, 1);
+    }
+
+    /**
+     * @param seed 乱数シード値
+     * @param threads 行生成に使用するスレッド数 (1の場合は呼び出し元スレッドのみで生成)
+     */
+    public DataGenerator(long seed, int threads) {
+        this(options(seed, threads));
+    }
+
+    /**
+     * @param options 実行オプション
+     */
+    public DataGenerator(GenerationOptions options) {
+        this(options, openFakerSnapshot(options));
+    }
+
+    /**
+     * 複数の実行でFakerの辞書を共有する場合に使用します。
+     * @param options 実行オプション ({@link GenerationOptions#getFakerSnapshot()} は参照しない)
+     * @param dictionary FAKER型の生成に使用する辞書 (nullの場合は各スレッドのFakerがロケールファイルを読み込む)
+     */
+    public DataGenerator(GenerationOptions options, FakerDictionary dictionary) {
+        if (options.getThreads() < 1) {
+            throw new IllegalArgumentException("スレッド数は1以上を指定してください: " + options.getThreads());
+        }
+        // 各チャンクの乱数はシード値から導出するため、スレッド数にかかわらず再現性を確保
+        this.options = options;
+        this.seed = options.getSeed();
+        this.threads = options.getThreads();
+        this.uniqueSpillDirectory = options.getUniqueSpillDirectory() != null ? Paths.get(options.getUniqueSpillDirectory()) : null;
+        if (dictionary != null) {
+            this.contexts = ThreadLocal.withInitial(() -> new GenerationContext(dictionary::newFaker));
+        } else {
+            this.contexts = ThreadLocal.withInitial(GenerationContext::new);
+        }
+        System.out.println("データ生成ツールが初期化されました。シード値: " + seed + ", スレッド数: " + threads);
+    }
+
+    /**
+     * オプションで指定されたFakerの辞書スナップショットを開きます。
+     * @return 辞書 (指定されていない場合はnull)
+     */
+    private static FakerDictionary openFakerSnapshot(GenerationOptions options) {
+        if (options.getFakerSnapshot() == null) {
+            return null;
+        }
+        try {
+            return FakerDictionary.open(Paths.get(options.getFakerSnapshot()));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Fakerの辞書スナップショットを読み込めません: " + e.getMessage(), e);
+        }
+    }
+
+    private static GenerationOptions options(long seed, int threads) {
+        GenerationOptions options = new GenerationOptions();
+        options.setSeed(seed);
+        options.setThreads(threads);
+        return options;
     }
 
     /**
@@ -46,16 +197,18 @@ public class DataGenerator {
      * @param jsonFilePath JSON設定ファイルのパス
      * @return テーブル構成のリスト
      * @throws IOException JSON読み込み/パースエラーが発生した場合
+     * @throws IllegalArgumentException FAKER型の generator が不正な場合
      */
     public List<TableConfig> loadConfig(String jsonFilePath) throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
+        ObjectMapper mapper = CONFIG_MAPPER;
         File jsonFile = new File(jsonFilePath);
+        List<TableConfig> configs;
         
         // リソースフォルダからのロードを試みる
         if (!jsonFile.exists()) {
             try {
                 // クラスローダーを使用してリソースからファイルをロード (Mavenのresourcesフォルダ対応)
-                return mapper.readValue(
+                configs = mapper.readValue(
                         getClass().getClassLoader().getResourceAsStream(jsonFilePath),
                         mapper.getTypeFactory().constructCollectionType(List.class, TableConfig.class)
                 );
@@ -63,450 +216,1321 @@ public class DataGenerator {
                 // ファイルが存在しない場合はエラーをスロー
                 throw new IOException("設定ファイルが見つかりません: " + jsonFilePath);
             }
+            return validateConfig(configs);
+        }
+        return validateConfig(mapper.readValue(jsonFile, mapper.getTypeFactory().constructCollectionType(List.class, TableConfig.class)));
+    }
+
+    /**
+     * JSON形式の設定を読み込み、テーブル構成のリストを返します。
+     * @param json 設定ファイルと同じ形式のJSON
+     * @return テーブル構成のリスト
+     * @throws IOException JSONのパースエラーが発生した場合
+     * @throws IllegalArgumentException 設定に誤りがある場合、または外部キー参照が循環している場合
+     */
+    public List<TableConfig> parseConfig(String json) throws IOException {
+        List<TableConfig> configs = validateConfig(CONFIG_MAPPER.readValue(json,
+                CONFIG_MAPPER.getTypeFactory().constructCollectionType(List.class, TableConfig.class)));
+        // 外部キー参照の循環も、出力を始める前に検出する
+        new TableDependencyGraph(configs).topologicalOrder();
+        return configs;
+    }
+
+    /**
+     * 生成を始める前に、カラム定義の誤りや生成できない設定を検出します。
+     * @param configs テーブル構成のリスト
+     * @return 引数と同じリスト
+     * @throws IllegalArgumentException 設定に誤りがある場合
+     */
+    private List<TableConfig> validateConfig(List<TableConfig> configs) {
+        checkSerialRanges(configs);
+        checkRegexPatterns(configs);
+        checkDistributions(configs);
+        return compileFakerGenerators(configs);
+    }
+
+    /**
+     * SERIAL の連番と、startFrom を指定したカラムの "{i}" の値が、最終行まで long の範囲に収まるかを検証します。
+     * @param configs テーブル構成のリスト
+     * @throws IllegalArgumentException 開始値に行数を加えると long の範囲を超える場合
+     */
+    private static void checkSerialRanges(List<TableConfig> configs) {
+        for (TableConfig table : configs) {
+            if (table.getSize() <= 0) {
+                continue;
+            }
+            // SERIALカラムは全て最初のSERIALカラムの startFrom から始まる (generateTableData と同じ規則)
+            boolean serialChecked = false;
+            for (ColumnConfig col : table.getData()) {
+                boolean serial = ColumnType.parse(col.getType()) == ColumnType.SERIAL;
+                if (serial && !serialChecked) {
+                    serialChecked = true;
+                    checkSerialRange(table, col, col.getStartFrom() != null ? col.getStartFrom() : 1L);
+                } else if (!serial && col.getStartFrom() != null) {
+                    checkSerialRange(table, col, col.getStartFrom());
+                }
+            }
+        }
+    }
+
+    private static void checkSerialRange(TableConfig table, ColumnConfig col, long start) {
+        try {
+            Math.addExact(start, table.getSize() - 1);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("カラム '" + table.getName() + "." + col.getColumnName() + "': startFrom "
+                    + start + " から " + table.getSize() + "行の連番は long の範囲 (最大 " + Long.MAX_VALUE + ") を超えます。");
+        }
+    }
+
+    /**
+     * カラムの distribution の種類がカラムの型に対応しているか、パラメータが正しいかを検証します。
+     * @param configs テーブル構成のリスト
+     * @throws IllegalArgumentException 分布の指定に誤りがある場合
+     */
+    private void checkDistributions(List<TableConfig> configs) {
+        for (TableConfig table : configs) {
+            for (ColumnConfig col : table.getData()) {
+                try {
+                    ColumnGeneratorFactory.checkDistribution(col);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("カラム '" + table.getName() + "." + col.getColumnName() + "': " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * REGEX型カラムのパターンを解析し、unique: true のカラムでパターンから生成できる文字列の数が行数に満たない場合はエラーにします。
+     * 対応していない構文のパターンはFakerのregexifyで生成するため、警告のみを出力します。
+     * @param configs テーブル構成のリスト
+     * @throws IllegalArgumentException ユニークな値を行数分生成できない場合
+     */
+    private void checkRegexPatterns(List<TableConfig> configs) {
+        for (TableConfig table : configs) {
+            for (ColumnConfig col : table.getData()) {
+                if (!"REGEX".equalsIgnoreCase(col.getType()) || col.getFkReference() != null
+                        || col.getPattern() == null || col.getPattern().isEmpty()) {
+                    continue;
+                }
+                CompiledRegex regex;
+                try {
+                    regex = CompiledRegex.compile(col.getPattern());
+                } catch (IllegalArgumentException e) {
+                    System.err.println("警告: カラム '" + table.getName() + "." + col.getColumnName() + "' のパターンは解析できないため、Fakerのregexifyで生成します。詳細: " + e.getMessage());
+                    continue;
+                }
+                boolean unique = col.getUnique() != null && col.getUnique();
+                if (unique && regex.cardinality().compareTo(BigInteger.valueOf(table.getSize())) < 0) {
+                    throw new IllegalArgumentException("カラム '" + table.getName() + "." + col.getColumnName() + "': パターン "
+                            + col.getPattern() + " から生成できる文字列は最大 " + regex.cardinality() + " 件のため、"
+                            + table.getSize() + "行のユニークな値を生成できません。");
+                }
+            }
+        }
+    }
+
+    /**
+     * FAKER型カラムの generator をすべてコンパイルし、不正な指定があれば生成開始前にエラーにします。
+     * @param configs テーブル構成のリスト
+     * @return 引数と同じリスト
+     * @throws IllegalArgumentException generator の形式が不正、またはメソッドが見つからない場合
+     */
+    private List<TableConfig> compileFakerGenerators(List<TableConfig> configs) {
+        for (TableConfig table : configs) {
+            for (ColumnConfig col : table.getData()) {
+                if (!"FAKER".equalsIgnoreCase(col.getType()) || col.getFkReference() != null) {
+                    continue;
+                }
+                try {
+                    fakerInvoker(col.getGenerator());
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("カラム '" + table.getName() + "." + col.getColumnName() + "': " + e.getMessage(), e);
+                }
+            }
+        }
+        return configs;
+    }
+
+    /**
+     * generator 文字列に対応するコンパイル済みの呼び出し器を返します。
+     * @throws IllegalArgumentException generator が未指定または不正な場合
+     */
+    private FakerInvoker fakerInvoker(String generatorPath) {
+        if (generatorPath == null) {
+            // 未指定の場合はコンパイル時に例外となる
+            return FakerInvoker.compile(null);
+        }
+        return fakerInvokers.computeIfAbsent(generatorPath, FakerInvoker::compile);
+    }
+
+    /**
+     * 設定ファイルのFAKER型カラムが使用する辞書を抽出し、Fakerの辞書スナップショットとして書き出します。
+     * 出力したファイルを {@link GenerationOptions#setFakerSnapshot(String)} に指定すると、起動時のロケールファイルの解析を省略できます。
+     * @param configs {@link #loadConfig(String)} で読み込んだテーブル構成のリスト
+     * @param path 出力先ファイル
+     * @throws IOException 書き込みに失敗した場合
+     */
+    public void writeFakerSnapshot(List<TableConfig> configs, String path) throws IOException {
+        List<FakerInvoker> invokers = new ArrayList<>();
+        for (TableConfig table : configs) {
+            for (ColumnConfig col : table.getData()) {
+                if ("FAKER".equalsIgnoreCase(col.getType()) && col.getFkReference() == null) {
+                    invokers.add(fakerInvoker(col.getGenerator()));
+                }
+            }
         }
-        return mapper.readValue(jsonFile, mapper.getTypeFactory().constructCollectionType(List.class, TableConfig.class));
+        int keys = FakerDictionary.write(Paths.get(path), invokers);
+        System.out.println("Fakerの辞書スナップショットを出力しました: " + Paths.get(path).toAbsolutePath() + " (" + keys + "件)");
     }
 
 
     /**
      * 全てのテーブルのデータを生成し、指定された形式で出力します。
+     * 行は生成と同時にシンクへ書き出されるため、テーブル全体をメモリに保持しません。
+     * テーブルは fkReference の依存関係に従って生成され、JSONでの定義順には依存しません。
+     * 複数スレッドを使用する場合、依存関係のないテーブルは並行して生成され、
+     * 子テーブルは参照する親テーブルのキャッシュが揃った時点で生成を開始します。
      * @param configs テーブル構成のリスト
-     * @param outputType "sql" または "xlsx"
+     * @param outputType "sql", "xlsx", "csv", "copy" または "arrow"
      * @param outputDir 出力ディレクトリ
+     * @throws IllegalArgumentException 外部キー参照が循環している場合
+     * @throws IllegalStateException 出力できなかったテーブルがある場合 (それを参照するテーブルは生成せず、チェックポイントは残す)
      */
     public void generateAndOutput(List<TableConfig> configs, String outputType, String outputDir) {
+        // 生成を始める前に依存関係を解決し、循環参照があればここでエラーにする
+        TableDependencyGraph graph = new TableDependencyGraph(configs);
+        List<TableConfig> ordered = graph.topologicalOrder();
         for (TableConfig config : configs) {
-            System.out.println("\n--- テーブル: " + config.getName() + " (" + config.getSize() + "行) の生成を開始 ---");
-            List<Map<String, Object>> generatedData = generateTableData(config);
+            for (ColumnConfig col : config.getData()) {
+                if (col.getFkReference() != null) {
+                    referencedColumns.add(col.getFkReference());
+                }
+            }
+        }
+        if (options.getShardCount() > 1) {
+            warnUnpinnedDates(configs);
+        }
+        if (outputType.equalsIgnoreCase("arrow")) {
+            arrowColumnTypes.putAll(resolveArrowColumnTypes(configs));
+        } else if (outputType.equalsIgnoreCase("jdbc")) {
+            jdbcColumnTypes.putAll(resolveJdbcColumnTypes(configs));
+        }
+
+        CheckpointStore checkpoint = openCheckpoint(configs, outputType, outputDir);
+        if (checkpoint != null && checkpoint.isResumed()) {
+            // 最初の実行と同じ日時の範囲で生成する
+            now = checkpoint.getClock();
+        }
+        this.checkpoint = checkpoint;
+        OutputCache outputCache = openOutputCache(outputType);
+        this.outputCache = outputCache;
 
-            if (outputType.equalsIgnoreCase("sql")) {
-                writeSqlFile(config.getName(), generatedData, outputDir);
-            } else if (outputType.equalsIgnoreCase("xlsx")) {
-                writeXlsxFile(config.getName(), generatedData, outputDir);
+        RunMetrics metrics = new RunMetrics(runSettings(outputType, outputDir));
+        this.metrics = metrics;
+        Throwable failure = null;
+        // JFRの記録と進捗の表示は、実行レポートを出力する前に finally で停止する
+        FlightRecording recording = null;
+        ProgressReporter progress = null;
+        try {
+            recording = startRecording();
+            if (options.getProgressInterval() > 0) {
+                progress = new ProgressReporter(metrics, options.getProgressInterval(), System.err);
             }
-            
-            // 外部キー参照用に、生成された主キーやユニークな値をキャッシュ
-            cacheReferenceData(config, generatedData);
+            try (HashingEngine hasher = new HashingEngine(seed, options.isHashCache(), options.getHashThreads());
+                 OutputCompression compression = new OutputCompression(options.getCompression(), options.getCompressionLevel(),
+                         options.getCompressionThreads())) {
+                this.compression = compression;
+                this.recordEvents = FlightRecording.isActive();
+                ColumnGeneratorFactory factory = new ColumnGeneratorFactory(this::fakerInvoker, referenceDataCache::get, now, hasher, seed);
+                try {
+                    generateTables(graph, ordered, factory, outputType, outputDir);
+                } finally {
+                    metrics.setHashing(hasher.getHashCount(), hasher.getCacheHits(), hasher.getHashNanos());
+                }
+                if (!failedTables.isEmpty()) {
+                    // チェックポイントは削除せず、出力できなかったテーブルから再開できるようにする
+                    throw new IllegalStateException("次のテーブルを出力できませんでした: " + new TreeSet<>(failedTables)
+                            + (checkpoint != null ? "。原因を取り除いた後、--resume で再開できます。" : ""));
+                }
+                System.out.println("\n--- 全てのデータ生成と出力が完了しました ---");
+                if (outputCache != null) {
+                    System.out.println("出力キャッシュ: 復元 " + outputCache.getHits() + "テーブル, 保存 " + outputCache.getStores() + "テーブル");
+                }
+                if (checkpoint != null) {
+                    checkpoint.delete();
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+            throw new IllegalStateException("チェックポイントの削除に失敗しました: " + e.getMessage(), e);
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (progress != null) {
+                progress.close();
+            }
+            if (recording != null) {
+                recording.close();
+            }
+            this.compression = OutputCompression.NONE;
+            this.checkpoint = null;
+            this.outputCache = null;
+            tableKeys.clear();
+            failedTables.clear();
+            arrowColumnTypes.clear();
+            jdbcColumnTypes.clear();
+            metrics.finish(failure);
+            writeReport(metrics);
         }
-        System.out.println("\n--- 全てのデータ生成と出力が完了しました ---");
     }
 
     /**
-     * テーブル生成後、そのテーブルの主キーや参照可能なデータをキャッシュします。
+     * 指定したテーブルのデータを生成し、ファイルの代わりにチャネルへ順に書き出します。
+     * 指定したテーブルが外部キーで参照するテーブルも生成しますが、出力はしません。
+     * テーブルを1つずつ同じチャネルへ書き出すため、スレッド数は1である必要があります。
+     * @param configs テーブル構成のリスト
+     * @param outputType "sql", "csv" または "copy"
+     * @param out 出力先のチャネル (閉じない)
+     * @param tables 出力するテーブル名 (nullの場合は全てのテーブル)
+     * @throws IllegalArgumentException 対応していない形式やオプション、存在しないテーブルが指定された場合
+     * @throws IllegalStateException チャネルへの書き込みに失敗した場合
      */
-    private void cacheReferenceData(TableConfig config, List<Map<String, Object>> generatedData) {
-        for (ColumnConfig col : config.getData()) {
-            // SERIALまたはunique: trueのカラムをキャッシュ対象とする
-            if ("SERIAL".equalsIgnoreCase(col.getType()) || (col.getUnique() != null && col.getUnique())) {
-                String key = config.getName() + "." + col.getColumnName();
-                List<Object> values = generatedData.stream()
-                        .map(row -> row.get(col.getColumnName()))
-                        .collect(Collectors.toList());
-                referenceDataCache.put(key, values);
-                System.out.println("  -> キャッシュ完了: " + key + " (" + values.size() + "件)");
+    public void generateAndStream(List<TableConfig> configs, String outputType, WritableByteChannel out, Set<String> tables) {
+        if (!outputType.equalsIgnoreCase("sql") && !outputType.equalsIgnoreCase("csv") && !outputType.equalsIgnoreCase("copy")) {
+            throw new IllegalArgumentException("未対応の出力形式です: " + outputType);
+        }
+        if (threads != 1) {
+            throw new IllegalArgumentException("チャネルへの出力はスレッド数1でのみ実行できます。");
+        }
+        if (options.getCheckpointDirectory() != null || options.getCacheDirectory() != null || options.isPartitioned()
+                || options.getCompression() != OutputCompression.Type.NONE) {
+            throw new IllegalArgumentException("チャネルへの出力はチェックポイント、出力キャッシュ、パートへの分割、圧縮に対応していません。");
+        }
+        List<TableConfig> selected = configs;
+        Set<String> names = new HashSet<>();
+        if (tables != null) {
+            for (TableConfig config : configs) {
+                names.add(config.getName());
+            }
+            for (String table : tables) {
+                if (!names.contains(table)) {
+                    throw new IllegalArgumentException("テーブル '" + table + "' は設定に存在しません。");
+                }
             }
+            // 出力するテーブルと、それらが参照するテーブルのみを生成する
+            TableDependencyGraph graph = new TableDependencyGraph(configs);
+            Set<String> required = new HashSet<>();
+            Deque<String> pending = new ArrayDeque<>(tables);
+            while (!pending.isEmpty()) {
+                String name = pending.pop();
+                if (required.add(name)) {
+                    pending.addAll(graph.parentsOf(name));
+                }
+            }
+            selected = new ArrayList<>();
+            for (TableConfig config : configs) {
+                if (required.contains(config.getName())) {
+                    selected.add(config);
+                }
+            }
+            names = new HashSet<>(tables);
+        } else {
+            names = null;
+        }
+        this.stream = out;
+        this.streamTables = names;
+        try {
+            generateAndOutput(selected, outputType, null);
+        } finally {
+            this.stream = null;
+            this.streamTables = null;
         }
     }
 
+    /**
+     * 実行中または直近の実行の計測値を返します。一度も実行していない場合はnullを返します。
+     */
+    public RunMetrics getMetrics() {
+        return metrics;
+    }
 
     /**
-     * 単一のテーブルのデータを生成します。
-     * @param config テーブル構成
-     * @return 生成されたデータ行のリスト (Map<カラム名, 値>)
+     * 実行レポートに記載する実行時の設定を返します。接続情報などの秘匿すべき値は含めません。
      */
-    private List<Map<String, Object>> generateTableData(TableConfig config) {
-        List<Map<String, Object>> tableData = new ArrayList<>();
-        
-        // ユニーク制約チェック用のマップ
-        Map<String, Set<Object>> uniqueValues = new ConcurrentHashMap<>();
-        
-        // ARRAY（配列選択）の現在のインデックス
-        Map<String, Integer> arrayIndices = new HashMap<>();
+    private Map<String, Object> runSettings(String outputType, String outputDir) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("seed", seed);
+        settings.put("threads", threads);
+        settings.put("outputType", outputType);
+        if (outputDir != null && !outputType.equalsIgnoreCase("jdbc")) {
+            settings.put("outputDir", new File(outputDir).getAbsoluteFile().toPath().normalize().toString());
+        }
+        if (options.getShardCount() > 1) {
+            settings.put("shard", options.getShardIndex() + 1);
+            settings.put("shardCount", options.getShardCount());
+        }
+        if (options.isPartitioned()) {
+            settings.put("partRows", options.getPartRows());
+            settings.put("partBytes", options.getPartBytes());
+        }
+        settings.put("compression", options.getCompression().name());
+        settings.put("hashThreads", options.getHashThreads());
+        settings.put("hashCache", options.isHashCache());
+        return settings;
+    }
 
-        // STRING/PASSWORDプレースホルダー用の連番カウンター (SERIALとは独立)
-        Map<String, Integer> stringCounter = new HashMap<>();
+    /**
+     * チェックポイントのディレクトリが指定されている場合、チェックポイントを開きます。
+     * 再開する場合は、設定ファイルと出力に影響するオプションが前回の実行と同じであることを確認します。
+     * @return チェックポイント (指定されていない場合はnull)
+     * @throws IllegalArgumentException 再開できない設定の場合
+     */
+    private CheckpointStore openCheckpoint(List<TableConfig> configs, String outputType, String outputDir) {
+        if (options.getCheckpointDirectory() == null) {
+            if (options.isResume()) {
+                throw new IllegalArgumentException("再開するにはチェックポイントのディレクトリを指定してください。");
+            }
+            return null;
+        }
+        if (outputType.equalsIgnoreCase("jdbc")) {
+            throw new IllegalArgumentException("JDBCロードはチェックポイントに対応していません。");
+        }
+        try {
+            return CheckpointStore.open(Paths.get(options.getCheckpointDirectory()), fingerprint(configs, outputType, outputDir),
+                    now, options.isResume());
+        } catch (IOException e) {
+            throw new IllegalStateException("チェックポイントを開けません: " + e.getMessage(), e);
+        }
+    }
 
-        // SERIALカラムを取得し、初期値を設定
-        Optional<ColumnConfig> serialColumn = config.getData().stream()
-                .filter(c -> "SERIAL".equalsIgnoreCase(c.getType()))
-                .findFirst();
+    /**
+     * 設定ファイルの内容と出力に影響するオプションから、チェックポイントの同一性を確認する値を計算します。
+     * スレッド数など出力に影響しないオプションは含めないため、再開時に変更できます。
+     */
+    private String fingerprint(List<TableConfig> configs, String outputType, String outputDir) throws IOException {
+        Map<String, Object> settings = outputSettings(outputType);
+        settings.put("outputDir", new File(outputDir).getAbsoluteFile().toPath().normalize().toString());
+        settings.put("tables", configs);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(new ObjectMapper().writeValueAsString(settings).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
-        Integer initialSerialValue = serialColumn.map(ColumnConfig::getStartFrom).orElse(1);
+    /**
+     * 出力の内容に影響するオプション (出力先を除く) を返します。スレッド数など出力に影響しないオプションは含めません。
+     */
+    private Map<String, Object> outputSettings(String outputType) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("seed", seed);
+        settings.put("outputType", outputType.toLowerCase());
+        settings.put("shard", options.getShardIndex() + "/" + options.getShardCount());
+        settings.put("partRows", options.getPartRows());
+        settings.put("partBytes", options.getPartBytes());
+        settings.put("compression", options.getCompression().name());
+        settings.put("compressionLevel", options.getCompressionLevel());
+        settings.put("sqlBatchSize", options.getSqlBatchSize());
+        settings.put("sqlTransaction", options.isSqlTransaction());
+        settings.put("hashCache", options.isHashCache());
+        if (outputType.equalsIgnoreCase("arrow")) {
+            settings.put("arrowBatchSize", options.getArrowBatchSize());
+        }
+        return settings;
+    }
 
+    /**
+     * 出力キャッシュのディレクトリが指定されている場合、出力キャッシュを開きます。
+     * @return 出力キャッシュ (指定されていない場合はnull)
+     * @throws IllegalArgumentException 出力キャッシュに対応していない出力形式の場合
+     */
+    private OutputCache openOutputCache(String outputType) {
+        if (options.getCacheDirectory() == null) {
+            return null;
+        }
+        if (outputType.equalsIgnoreCase("jdbc")) {
+            throw new IllegalArgumentException("JDBCロードは出力キャッシュに対応していません。");
+        }
+        try {
+            return OutputCache.open(Paths.get(options.getCacheDirectory()));
+        } catch (IOException e) {
+            throw new IllegalStateException("出力キャッシュを開けません: " + e.getMessage(), e);
+        }
+    }
 
-        for (int i = 0; i < config.getSize(); i++) {
-            Map<String, Object> row = new LinkedHashMap<>();
-            // SERIALカラムがない場合でも、STRING/PASSWORDプレースホルダーのデフォルト開始点として利用
-            int primaryKey = initialSerialValue + i; 
+    /**
+     * テーブルの出力キャッシュのキーを計算します。キーにはテーブル構成と出力に影響するオプションに加え、
+     * 参照する親テーブルのキーを含めるため、親テーブルの内容が変わると子テーブルのキーも変わります。
+     * @return キー。実行時刻に依存するカラムを含むテーブルや、キャッシュできない親テーブルを参照するテーブルの場合はnull
+     */
+    private String cacheKey(TableConfig config, String outputType) {
+        Map<String, String> parentKeys = new TreeMap<>();
+        for (ColumnConfig col : config.getData()) {
+            if (isUnpinnedDate(col)) {
+                return null;
+            }
+            if (col.getFkReference() != null) {
+                String parent = TableDependencyGraph.referencedTable(col.getFkReference());
+                String parentKey = tableKeys.get(parent);
+                if (parentKey == null) {
+                    return null;
+                }
+                parentKeys.put(parent, parentKey);
+            }
+        }
+        String key;
+        try {
+            key = outputCache.key(config, outputSettings(outputType), parentKeys);
+        } catch (IOException e) {
+            throw new IllegalStateException("出力キャッシュのキーを計算できません: " + e.getMessage(), e);
+        }
+        tableKeys.put(config.getName(), key);
+        return key;
+    }
 
-            for (ColumnConfig col : config.getData()) {
-                Object value = null;
-                boolean isUniqueRequired = col.getUnique() != null && col.getUnique();
-                int attempts = 0;
-                
-                // SERIAL処理: primaryKeyに値を代入し、次のループのプレースホルダーに使用
-                if ("SERIAL".equalsIgnoreCase(col.getType())) {
-                    value = primaryKey;
-                } else {
-                    // ユニーク制約がある場合は、ユニークな値が得られるまでループ
-                    do {
-                        // 外部キー参照が設定されている場合、それを最優先
-                        if (col.getFkReference() != null) {
-                            value = generateForeignKeyValue(col);
-                            break; 
-                        }
-                        
-                        // STRING/PASSWORDプレースホルダーの連番値を決定
-                        Integer stringPkValue = null;
-                        if (("STRING".equalsIgnoreCase(col.getType()) || "PASSWORD".equalsIgnoreCase(col.getType())) && col.getFormat() != null && col.getFormat().contains("{i}")) {
-                            // STRING/PASSWORDカラムにstartFromが指定されている場合、それを開始値とする。
-                            int start = col.getStartFrom() != null ? col.getStartFrom() : primaryKey;
-                            
-                            // カウンターを初期化または更新
-                            String counterKey = col.getColumnName() + "_str_pk";
-                            int currentCount = stringCounter.getOrDefault(counterKey, start - 1);
-                            
-                            // カウンターをインクリメントし、値を設定
-                            currentCount++;
-                            stringCounter.put(counterKey, currentCount);
-                            stringPkValue = currentCount;
-                        }
+    /**
+     * 出力キャッシュにテーブルがあれば、出力ファイルを配置して外部キー参照用のキャッシュを復元します。
+     * @return 復元した場合はtrue
+     */
+    private boolean restoreFromCache(TableConfig config, String key, String outputDir, CheckpointStore checkpoint) {
+        Set<String> requiredColumns = new HashSet<>();
+        String prefix = config.getName() + ".";
+        for (String column : referencedColumns) {
+            if (column.startsWith(prefix)) {
+                requiredColumns.add(column.substring(prefix.length()));
+            }
+        }
+        Map<String, ReferenceColumn> references;
+        try {
+            references = outputCache.restore(key, new File(outputDir), requiredColumns);
+            if (references == null) {
+                return false;
+            }
+            System.out.println("\n--- テーブル: " + config.getName() + " は出力キャッシュから復元 ---");
+            for (Map.Entry<String, ReferenceColumn> entry : references.entrySet()) {
+                String name = prefix + entry.getKey();
+                referenceDataCache.put(name, entry.getValue());
+                System.out.println("  -> キャッシュを復元: " + name + " (" + entry.getValue().size() + "件)");
+            }
+            if (checkpoint != null) {
+                checkpoint.recordCompleted(config.getName(), references);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("出力キャッシュから復元できません: " + e.getMessage(), e);
+        }
+        return true;
+    }
 
-                        value = generateSingleValue(col, stringPkValue != null ? stringPkValue : primaryKey, arrayIndices); 
-                        attempts++;
-                        
-                        // ユニーク制約チェック
-                        if (!isUniqueRequired || !uniqueValues.getOrDefault(col.getColumnName(), Collections.emptySet()).contains(value)) {
-                            break; // ユニーク制約がない、またはユニークな値が生成された
-                        }
-                        if (attempts > 100) {
-                            System.err.println("エラー: カラム '" + col.getColumnName() + "' で100回試行してもユニークな値が生成できませんでした。設定を見直してください。");
-                            // 処理を続行するために、最後の値を強制的に使用
-                            break;
-                        }
-                    } while (true);
-                }
+    /**
+     * JFRの出力先が指定されている場合、記録を開始します。
+     * @return 記録 (指定されていない場合はnull)
+     */
+    private FlightRecording startRecording() {
+        if (options.getJfrFile() == null) {
+            return null;
+        }
+        try {
+            return new FlightRecording(Paths.get(options.getJfrFile()));
+        } catch (IOException | IllegalStateException e) {
+            throw new IllegalArgumentException("JFRの記録を開始できません: " + e.getMessage(), e);
+        }
+    }
 
-                row.put(col.getColumnName(), value);
+    /**
+     * 実行レポートの出力先が指定されている場合、JSONで出力します。
+     * 書き込みに失敗しても生成結果には影響しないため、エラーを表示するのみとします。
+     */
+    private void writeReport(RunMetrics metrics) {
+        if (options.getReportFile() == null) {
+            return;
+        }
+        File reportFile = new File(options.getReportFile());
+        try {
+            metrics.writeReport(reportFile);
+            System.out.println("実行レポートを出力しました: " + reportFile.getAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("実行レポートの書き込みエラー: " + e.getMessage());
+        }
+    }
 
-                // ユニーク制約の値を追跡
-                if (isUniqueRequired) {
-                    // Setへの追加は同期化されたコレクションを使用
-                    uniqueValues.computeIfAbsent(col.getColumnName(), k -> Collections.synchronizedSet(new HashSet<>())).add(value);
+    /**
+     * Arrow出力の各テーブルの出力カラムの型を、カラム定義の type から決定します。
+     * isHashed によるハッシュカラムは、元のカラムの直後に文字列として追加します。
+     * @return Map<テーブル名, 出力カラムの型 (出力カラムと同じ順序)>
+     */
+    private static Map<String, List<ArrowColumnType>> resolveArrowColumnTypes(List<TableConfig> configs) {
+        Map<String, ColumnConfig> columns = new HashMap<>();
+        for (TableConfig config : configs) {
+            for (ColumnConfig col : config.getData()) {
+                columns.put(config.getName() + "." + col.getColumnName(), col);
+            }
+        }
+        Map<String, List<ArrowColumnType>> types = new HashMap<>();
+        for (TableConfig config : configs) {
+            List<ArrowColumnType> tableTypes = new ArrayList<>();
+            for (ColumnConfig col : config.getData()) {
+                tableTypes.add(arrowColumnType(col, columns));
+                if (col.getIsHashed() != null && ColumnType.parse(col.getType()) == ColumnType.STRING) {
+                    tableTypes.add(ArrowColumnType.utf8());
                 }
+            }
+            types.put(config.getName(), tableTypes);
+        }
+        return types;
+    }
 
-                // isHashedが指定されている場合、ハッシュカラムを追加 (平文パスワードも残るケース)
-                if (col.getIsHashed() != null && "STRING".equalsIgnoreCase(col.getType())) {
-                    // Hasher を使用
-                    // valueは平文なので、それをハッシュ化
-                    String hash = Hasher.hashPassword(value.toString());
-                    row.put(col.getIsHashed(), hash);
+    /**
+     * JDBCロードの各テーブルの出力カラムの型 (java.sql.Types) を、Arrow出力と同じ規則で決定します。
+     * 64ビット整数は BIGINT、タイムスタンプは TIMESTAMP、それ以外は VARCHAR とします。
+     * @return Map<テーブル名, 出力カラムの型 (出力カラムと同じ順序)>
+     */
+    private static Map<String, int[]> resolveJdbcColumnTypes(List<TableConfig> configs) {
+        Map<String, int[]> types = new HashMap<>();
+        for (Map.Entry<String, List<ArrowColumnType>> entry : resolveArrowColumnTypes(configs).entrySet()) {
+            List<ArrowColumnType> columnTypes = entry.getValue();
+            int[] sqlTypes = new int[columnTypes.size()];
+            for (int i = 0; i < sqlTypes.length; i++) {
+                switch (columnTypes.get(i).getKind()) {
+                    case BIGINT:
+                        sqlTypes[i] = Types.BIGINT;
+                        break;
+                    case TIMESTAMP:
+                        sqlTypes[i] = Types.TIMESTAMP;
+                        break;
+                    default:
+                        sqlTypes[i] = Types.VARCHAR;
+                        break;
                 }
             }
-            tableData.add(row);
+            types.put(entry.getKey(), sqlTypes);
         }
-        return tableData;
+        return types;
     }
 
     /**
-     * 外部キー (FK) の値をキャッシュからランダムに取得します。
-     * @param config カラム設定
-     * @return 参照先のキー値
+     * 1つのカラムのArrow出力の型を返します。SERIAL/NUMBER は64ビット整数、DATETIME はタイムスタンプ、
+     * ARRAY は値の一覧を辞書とする文字列、それ以外は文字列とします。
+     * 外部キー参照のカラムは参照先のカラムの値をそのまま出力するため、参照先のカラムの型とします
+     * (参照先が ARRAY の場合は、辞書を共有しないため文字列とします)。
+     * @param columns 全てのカラム定義 (Map<"テーブル名.カラム名", カラム定義>)
      */
-    private Object generateForeignKeyValue(ColumnConfig config) {
-        String ref = config.getFkReference(); // 例: "CUSTOMER.customer_id"
-        List<Object> values = referenceDataCache.get(ref);
-
-        if (values == null || values.isEmpty()) {
-            System.err.println("エラー: 外部キー参照 '" + ref + "' のデータがキャッシュに見つかりません。JSONで親テーブルが先に定義されているか確認してください。");
-            return 0; // 参照失敗を示すデフォルト値
+    private static ArrowColumnType arrowColumnType(ColumnConfig col, Map<String, ColumnConfig> columns) {
+        ColumnConfig target = col;
+        // 外部キーが外部キーを参照している場合は、参照をたどって値の生成元のカラムを求める
+        for (int depth = 0; depth <= columns.size(); depth++) {
+            if (ColumnType.parse(target.getType()) == ColumnType.SERIAL || target.getFkReference() == null) {
+                break;
+            }
+            ColumnConfig parent = columns.get(target.getFkReference());
+            if (parent == null) {
+                // 参照先が存在しない場合は参照失敗を示す値 (0) のみが出力される
+                return ArrowColumnType.bigint();
+            }
+            target = parent;
+        }
+        ColumnType type = ColumnType.parse(target.getType());
+        if (type == null) {
+            return ArrowColumnType.utf8();
+        }
+        switch (type) {
+            case SERIAL:
+            case NUMBER:
+                return ArrowColumnType.bigint();
+            case DATETIME:
+                return ArrowColumnType.timestamp();
+            case ARRAY:
+                if (target != col || target.getValues() == null || target.getValues().isEmpty()) {
+                    return ArrowColumnType.utf8();
+                }
+                return ArrowColumnType.dictionary(target.getValues());
+            default:
+                return ArrowColumnType.utf8();
         }
-        
-        // キャッシュされた値からランダムに選択
-        int randomIndex = random.nextInt(values.size());
-        return values.get(randomIndex);
     }
 
+    /**
+     * maxDate が未指定のDATETIMEカラムは実行時刻を上限とするため、シャードごとに別のプロセスで実行すると出力が一致しないことを警告します。
+     */
+    private static void warnUnpinnedDates(List<TableConfig> configs) {
+        for (TableConfig config : configs) {
+            for (ColumnConfig col : config.getData()) {
+                if (isUnpinnedDate(col)) {
+                    System.err.println("警告: カラム '" + config.getName() + "." + col.getColumnName()
+                            + "' は maxDate が未指定のため実行時刻が上限となり、シャード間で日時の範囲が一致しない可能性があります。maxDate を指定してください。");
+                }
+            }
+        }
+    }
 
     /**
-     * 単一のカラムの値を生成します。
-     * @param config カラム設定
-     * @param primaryKey 現在の行の主キー値 (STRING/PASSWORDプレースホルダー用)
-     * @param arrayIndices 配列のインデックス追跡用マップ
+     * maxDate が未指定で、実行時刻が値の上限となるDATETIMEカラムかどうかを返します。
      */
-    private Object generateSingleValue(ColumnConfig config, int primaryKey, Map<String, Integer> arrayIndices) {
-        switch (config.getType().toUpperCase()) {
-            case "SERIAL":
-                // SERIALはgenerateTableData()で処理されるため、ここでは何もしない
-                return null;
+    private static boolean isUnpinnedDate(ColumnConfig col) {
+        return "DATETIME".equalsIgnoreCase(col.getType()) && col.getFkReference() == null && col.getMaxDate() == null;
+    }
 
-            case "PASSWORD": // ★修正: formatに基づいて平文を生成し、ハッシュ値のみを返す
-                // 1. STRINGと同様のロジックで平文パスワードを生成
-                String plainPassFormat = config.getFormat();
-                if (plainPassFormat == null || plainPassFormat.isEmpty()) {
-                    // formatが指定されていない場合、Fakerを使用してランダムなパスワードを生成
-                    plainPassFormat = faker.internet().password(8, 16, true, true, true);
-                }
-                String plainPassword = plainPassFormat.replace("{i}", String.valueOf(primaryKey));
-                
-                // 2. BCryptでハッシュ化して返す
-                return Hasher.hashPassword(plainPassword);
-                
-            case "STRING":
-                String formattedString = config.getFormat().replace("{i}", String.valueOf(primaryKey));
-                return formattedString;
-            
-            case "REGEX":
-                String pattern = config.getPattern();
-                if (pattern == null || pattern.isEmpty()) {
-                    return null;
+    /**
+     * 依存関係の順序に従ってテーブルを生成します。複数スレッドの場合は依存関係のないテーブルを並行して生成します。
+     */
+    private void generateTables(TableDependencyGraph graph, List<TableConfig> ordered, ColumnGeneratorFactory factory,
+                                String outputType, String outputDir) {
+        if (threads == 1) {
+            for (TableConfig config : ordered) {
+                generateAndOutputTable(config, factory, outputType, outputDir, null);
+            }
+        } else {
+            ExecutorService rowPool = new ForkJoinPool(threads);
+            ExecutorService tablePool = Executors.newFixedThreadPool(threads);
+            try {
+                Map<String, CompletableFuture<Void>> tasks = new HashMap<>();
+                for (TableConfig config : ordered) {
+                    // 親テーブルは必ず先に登録されている
+                    CompletableFuture<?>[] parentTasks = graph.parentsOf(config.getName()).stream()
+                            .map(tasks::get)
+                            .toArray(CompletableFuture<?>[]::new);
+                    CompletableFuture<Void> task = CompletableFuture.allOf(parentTasks)
+                            .thenRunAsync(() -> generateAndOutputTable(config, factory, outputType, outputDir, rowPool), tablePool);
+                    tasks.put(config.getName(), task);
                 }
-                // GenerexではなくFakerのregexifyを使用
-                return faker.regexify(pattern);
-            
-            case "FAKER":
-                return generateFakerValue(config);
-
-            case "NUMBER":
-                long min = config.getMin() != null ? config.getMin() : 0;
-                long max = config.getMax() != null ? config.getMax() : Long.MAX_VALUE;
-                
-                // 上限がない場合、intの最大値を使用
-                if (max > Integer.MAX_VALUE) max = Integer.MAX_VALUE; 
-
-                if (min > max) {
-                    System.err.println("警告: NUMBER型のmin > maxです。min=" + min + ", max=" + max);
-                    return min;
-                }
-                
-                long range = max - min + 1;
-                if (range <= 0) {
-                    return min;
-                }
-                // シード値を持つ this.random を使用した範囲内乱数生成
-                return min + (Math.abs(this.random.nextLong()) % range);
-
-            case "ARRAY":
-                List<String> values = config.getValues();
-                if (values == null || values.isEmpty()) return null;
-
-                if (config.getIsRandom() != null && config.getIsRandom()) {
-                    // ランダム選択
-                    return values.get(random.nextInt(values.size()));
-                } else {
-                    // シーケンシャル選択 (先頭に戻る)
-                    int index = arrayIndices.getOrDefault(config.getColumnName(), 0);
-                    String value = values.get(index);
-                    arrayIndices.put(config.getColumnName(), (index + 1) % values.size());
-                    return value;
+                CompletableFuture.allOf(tasks.values().toArray(new CompletableFuture<?>[0])).join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
                 }
-                
-            case "DATETIME":
-                return generateRandomDateTime(config);
+                throw new IllegalStateException("データ生成中にエラーが発生しました: " + cause.getMessage(), cause);
+            } finally {
+                tablePool.shutdown();
+                rowPool.shutdown();
+            }
+        }
+    }
 
-            default:
-                return null;
+    /**
+     * 単一のテーブルを生成して出力し、外部キー参照用のデータをキャッシュします。
+     * @param pool チャンクを並列に生成するスレッドプール (nullの場合は呼び出し元スレッドで生成)
+     */
+    private void generateAndOutputTable(TableConfig config, ColumnGeneratorFactory factory, String outputType, String outputDir,
+                                        ExecutorService pool) {
+        CheckpointStore checkpoint = this.checkpoint;
+        String cacheKey = outputCache != null ? cacheKey(config, outputType) : null;
+        if (checkpoint != null && checkpoint.isCompleted(config.getName())) {
+            restoreReferenceData(config, checkpoint);
+            return;
+        }
+        if (cacheKey != null && restoreFromCache(config, cacheKey, outputDir, checkpoint)) {
+            return;
+        }
+        String failedParent = failedParent(config);
+        if (failedParent != null) {
+            // 参照先のキーがないため、生成しても外部キーが全て参照失敗の値 (0) になる
+            System.err.println("テーブル '" + config.getName() + "' は参照するテーブル '" + failedParent + "' を出力できなかったため生成しません。");
+            failedTables.add(config.getName());
+            return;
+        }
+        System.out.println("\n--- テーブル: " + config.getName() + " (" + config.getSize() + "行) の生成を開始 ---");
+        if (options.getShardCount() > 1) {
+            System.out.println("シャード: " + TableSlice.of(Math.max(config.getSize(), 0), options.getShardIndex(), options.getShardCount()));
+        }
+        long resumeRow = checkpoint != null ? prepareResume(config, checkpoint) : 0;
+        Map<String, ReferenceColumnBuilder> referenceValues = new LinkedHashMap<>();
+        TableMetrics tableMetrics = metrics.startTable(config.getName(), config.getSize());
+        TableGenerationEvent event = recordEvents ? new TableGenerationEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+
+        RowSink sink = stream != null ? createStreamSink(config.getName(), outputType) : createSink(config.getName(), outputType, outputDir);
+        boolean written = false;
+        try (sink) {
+            try {
+                generateTableData(config, factory, sink, referenceValues, pool, tableMetrics, resumeRow);
+            } catch (RuntimeException | Error e) {
+                if (sink instanceof JdbcRowSink) {
+                    // 生成が中断した場合は、生成済みの残りの行をロードせずに書き込みスレッドを停止する
+                    ((JdbcRowSink) sink).abort();
+                }
+                throw e;
+            }
+            written = true;
+        } catch (IOException e) {
+            if (stream != null) {
+                // 出力先が切断された場合など、残りのテーブルも書き出せないため中断する
+                throw new IllegalStateException("出力先への書き込みエラー: " + e.getMessage(), e);
+            }
+            if (sink instanceof JdbcRowSink) {
+                // 子テーブルが参照する行がデータベースにないため、以降のテーブルはロードしない
+                throw new IllegalStateException("データベースへのロードに失敗したため中断します: " + e.getMessage(), e);
+            }
+            System.err.println("ファイルへの書き込みエラー: " + e.getMessage());
+            failedTables.add(config.getName());
+        }
+        tableMetrics.finish(bytesWritten(sink));
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.table = config.getName();
+                event.rowsWritten = tableMetrics.getRowsWritten();
+                event.bytesWritten = tableMetrics.getBytesWritten();
+                event.commit();
+            }
+        }
+        System.out.println(String.format("  -> 生成完了: %s (%,d行, %.2f秒, %,.0f行/秒)", config.getName(),
+                tableMetrics.getRowsWritten(), tableMetrics.getElapsedNanos() / 1e9, tableMetrics.getRowsPerSecond()));
+
+        // 外部キー参照用に、生成された主キーやユニークな値をキャッシュ
+        Map<String, ReferenceColumn> references = cacheReferenceData(config, referenceValues);
+        if (cacheKey != null && !written) {
+            // 出力が不完全なため、子テーブルもキャッシュしない
+            tableKeys.remove(config.getName());
+        } else if (cacheKey != null) {
+            try {
+                outputCache.store(cacheKey, config.getName(), new File(outputDir), sink.getOutputFiles(), references);
+                System.out.println("  -> 出力キャッシュに保存: " + config.getName());
+            } catch (IOException e) {
+                System.err.println("警告: テーブル '" + config.getName() + "' を出力キャッシュに保存できません: " + e.getMessage());
+            }
+        }
+        if (checkpoint != null && written) {
+            try {
+                checkpoint.recordCompleted(config.getName(), references);
+            } catch (IOException e) {
+                throw new IllegalStateException("チェックポイントの書き込みに失敗しました: " + e.getMessage(), e);
+            }
         }
     }
 
     /**
-     * FAKER型のためのリフレクションを使用した値の生成。
-     * 引数付きメソッド呼び出しにも対応。
+     * テーブルが外部キーで参照するテーブルのうち、出力に失敗したテーブルの名前を返します。
+     * @return 出力に失敗した参照先のテーブル名 (ない場合はnull)
      */
-    private String generateFakerValue(ColumnConfig config) {
-        String generatorPath = config.getGenerator(); // 例: "name.fullName" or "bothify('##??')"
-        if (generatorPath == null || generatorPath.isEmpty()) {
-            System.err.println("エラー: FAKER型には 'generator' キーが必要です。");
-            return "FAKER_ERROR";
+    private String failedParent(TableConfig config) {
+        for (ColumnConfig col : config.getData()) {
+            if (col.getFkReference() != null) {
+                String parent = TableDependencyGraph.referencedTable(col.getFkReference());
+                if (failedTables.contains(parent)) {
+                    return parent;
+                }
+            }
         }
+        return null;
+    }
 
+    /**
+     * 前回の実行で出力が完了したテーブルを生成せず、チェックポイントに保存された参照キャッシュを読み込みます。
+     */
+    private void restoreReferenceData(TableConfig config, CheckpointStore checkpoint) {
+        System.out.println("\n--- テーブル: " + config.getName() + " は前回の実行で出力済みのためスキップ ---");
         try {
-            // 1. メソッド名と引数を分離 (例: "method('arg')" -> "method", "'arg'")
-            String methodName;
-            String argString = null;
-            
-            int openParen = generatorPath.indexOf('(');
-            int closeParen = generatorPath.lastIndexOf(')');
-
-            if (openParen != -1 && closeParen != -1 && closeParen > openParen) {
-                methodName = generatorPath.substring(0, openParen);
-                argString = generatorPath.substring(openParen + 1, closeParen).trim();
-                // 引数からシングルクォートを除去
-                if (argString.startsWith("'") && argString.endsWith("'")) {
-                    argString = argString.substring(1, argString.length() - 1);
-                }
-            } else {
-                methodName = generatorPath;
-            }
-
-            String moduleName = null;
-            String actualMethodName;
-            
-            // 2. モジュールとメソッドを分離 (例: "name.fullName" -> "name", "fullName")
-            String[] parts = methodName.split("\\.");
-            if (parts.length == 2) {
-                moduleName = parts[0]; 
-                actualMethodName = parts[1]; 
-            } else if (parts.length == 1) {
-                // トップレベルメソッド (例: bothify) の場合、モジュールはFakerインスタンス自体
-                actualMethodName = parts[0];
-            } else {
-                System.err.println("エラー: generator形式が無効です。指定: " + generatorPath);
-                return "FAKER_ERROR";
-            }
-
-            Object targetInstance = (moduleName == null) ? faker : Faker.class.getMethod(moduleName).invoke(faker);
-            
-            Method generationMethod;
-            Object result;
-
-            if (argString != null) {
-                // 引数ありのメソッド呼び出し
-                generationMethod = targetInstance.getClass().getMethod(actualMethodName, String.class);
-                result = generationMethod.invoke(targetInstance, argString);
-            } else {
-                // 引数なしのメソッド呼び出し
-                generationMethod = targetInstance.getClass().getMethod(actualMethodName);
-                result = generationMethod.invoke(targetInstance);
-            }
-
-            return result.toString();
-
-        } catch (NoSuchMethodException e) {
-            System.err.println("エラー: FAKERメソッドが見つかりません。パス: " + generatorPath + ". メソッド名または引数を確認してください。");
-        } catch (InvocationTargetException | IllegalAccessException e) {
-            System.err.println("エラー: FAKERメソッド呼び出し中に例外が発生しました。パス: " + generatorPath + ". 詳細: " + e.getMessage());
-        } catch (Exception e) {
-            System.err.println("Faker値の生成中に予期せぬエラーが発生しました: " + e.getMessage());
-        }
-        return "FAKER_GEN_FAILED";
-    }
-    /**
-     * ランダムな日時を生成します。
-     */
-    private String generateRandomDateTime(ColumnConfig config) {
-        try {
-            // 最小日時 (必須)
-            LocalDateTime minDateTime = LocalDateTime.parse(config.getMinDate(), DATE_FORMAT);
-            long minEpoch = minDateTime.toEpochSecond(ZoneOffset.UTC);
+            for (Map.Entry<String, ReferenceColumn> entry : checkpoint.loadReferences(config.getName()).entrySet()) {
+                String key = config.getName() + "." + entry.getKey();
+                referenceDataCache.put(key, entry.getValue());
+                System.out.println("  -> キャッシュを復元: " + key + " (" + entry.getValue().size() + "件)");
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("チェックポイントの参照キャッシュを読み込めません: " + e.getMessage(), e);
+        }
+    }
 
-            // 最大日時 (オプショナル、デフォルトは現在日時)
-            LocalDateTime maxDateTime;
-            if (config.getMaxDate() != null) {
-                maxDateTime = LocalDateTime.parse(config.getMaxDate(), DATE_FORMAT);
-            } else {
-                maxDateTime = LocalDateTime.now();
+    /**
+     * 前回の実行で出力の途中だったテーブルの出力ファイルを、記録した大きさに切り詰めます。
+     * @return 出力を再開する行番号 (記録がない、または出力ファイルが記録と一致しない場合は0)
+     */
+    private static long prepareResume(TableConfig config, CheckpointStore checkpoint) {
+        CheckpointState.TableProgress progress = checkpoint.getProgress(config.getName());
+        if (progress == null) {
+            return 0;
+        }
+        Path file = Paths.get(progress.getFile());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            if (channel.size() < progress.getBytes()) {
+                System.err.println("警告: 出力ファイル " + file + " がチェックポイントの記録より小さいため、テーブル '"
+                        + config.getName() + "' を最初から出力します。");
+                return 0;
             }
-            long maxEpoch = maxDateTime.toEpochSecond(ZoneOffset.UTC);
+            channel.truncate(progress.getBytes());
+        } catch (IOException e) {
+            System.err.println("警告: 出力ファイル " + file + " を再開できないため、テーブル '" + config.getName()
+                    + "' を最初から出力します。詳細: " + e.getMessage());
+            return 0;
+        }
+        System.out.println("前回の実行の続き (" + progress.getRows() + "行目) から出力を再開します。");
+        return progress.getRows();
+    }
 
-            if (minEpoch > maxEpoch) {
-                 System.err.println("警告: DATETIME型のminDate > maxDateです。minDate=" + config.getMinDate() + ", maxDate=" + config.getMaxDate());
-                 return config.getMinDate();
+    /**
+     * 閉じたシンクが書き込んだバイト数を返します。書き込み中に大きさを把握できない形式は出力ファイルの大きさを返します。
+     */
+    private static long bytesWritten(RowSink sink) {
+        long bytes = sink.getBytesWritten();
+        if (bytes < 0 && sink instanceof FileRowSink && ((FileRowSink) sink).getOutputFile() != null) {
+            return ((FileRowSink) sink).getOutputFile().length();
+        }
+        return bytes;
+    }
+
+    /**
+     * 出力形式に対応するシンクを作成します。パートへの分割が指定されている場合は、パートごとのファイルに書き出すシンクで包みます。
+     */
+    private RowSink createSink(String tableName, String outputType, String outputDir) {
+        if (outputType.equalsIgnoreCase("jdbc")) {
+            if (options.isPartitioned()) {
+                throw new IllegalArgumentException("JDBCロードはパートへの分割に対応していません。");
             }
+            return new JdbcRowSink(options.getJdbcUrl(), options.getJdbcUser(), options.getJdbcPassword(),
+                    options.getJdbcBatchSize(), jdbcColumnTypes.get(tableName));
+        }
+        if (options.isPartitioned()) {
+            int writerThreads = options.getWriterThreads() > 0 ? options.getWriterThreads() : threads;
+            return new PartitionedRowSink(() -> createFileSink(tableName, outputType, outputDir), outputDir,
+                    options.getPartRows(), options.getPartBytes(), writerThreads);
+        }
+        return createFileSink(tableName, outputType, outputDir);
+    }
 
-            long range = maxEpoch - minEpoch + 1;
-            // シード値を持つ this.random を使用した範囲内エポック秒生成
-            long randomEpoch = minEpoch + (Math.abs(this.random.nextLong()) % range);
+    /**
+     * generateAndStream の出力先のチャネルへ書き出すシンクを作成します。出力しないテーブルには行を破棄するシンクを返します。
+     */
+    private RowSink createStreamSink(String tableName, String outputType) {
+        if (streamTables != null && !streamTables.contains(tableName)) {
+            return new DiscardingRowSink();
+        }
+        if (outputType.equalsIgnoreCase("sql")) {
+            return new SqlRowSink(stream, options.getSqlBatchSize(), options.isSqlTransaction());
+        } else if (outputType.equalsIgnoreCase("csv")) {
+            return new CsvRowSink(stream);
+        }
+        return new CopyRowSink(stream);
+    }
+
+    /**
+     * ファイルに出力する形式のシンクを作成します。
+     */
+    private FileRowSink createFileSink(String tableName, String outputType, String outputDir) {
+        if (outputType.equalsIgnoreCase("sql")) {
+            return new SqlRowSink(outputDir, options.getSqlBatchSize(), options.isSqlTransaction(), compression);
+        } else if (outputType.equalsIgnoreCase("xlsx")) {
+            if (compression.getType() != OutputCompression.Type.NONE) {
+                throw new IllegalArgumentException("XLSX出力は圧縮に対応していません。");
+            }
+            return new XlsxRowSink(outputDir);
+        } else if (outputType.equalsIgnoreCase("csv")) {
+            return new CsvRowSink(outputDir, compression);
+        } else if (outputType.equalsIgnoreCase("copy")) {
+            return new CopyRowSink(outputDir, compression);
+        } else if (outputType.equalsIgnoreCase("arrow")) {
+            if (compression.getType() != OutputCompression.Type.NONE) {
+                throw new IllegalArgumentException("Arrow出力は圧縮に対応していません。");
+            }
+            return new ArrowRowSink(outputDir, arrowColumnTypes.get(tableName), options.getArrowBatchSize());
+        }
+        throw new IllegalArgumentException("未対応の出力形式です: " + outputType);
+    }
 
-            return LocalDateTime.ofEpochSecond(randomEpoch, 0, ZoneOffset.UTC).format(DATE_FORMAT);
-        } catch (Exception e) {
-            System.err.println("日時生成エラー: " + e.getMessage() + ". 現在の日時を返します。");
-            return LocalDateTime.now().format(DATE_FORMAT);
+    /**
+     * テーブル生成後、そのテーブルの主キーや参照可能なデータをキャッシュします。
+     * @return キャッシュした参照カラム (Map<カラム名, 参照カラム>)
+     */
+    private Map<String, ReferenceColumn> cacheReferenceData(TableConfig config, Map<String, ReferenceColumnBuilder> referenceValues) {
+        Map<String, ReferenceColumn> columns = new LinkedHashMap<>();
+        for (Map.Entry<String, ReferenceColumnBuilder> entry : referenceValues.entrySet()) {
+            String key = config.getName() + "." + entry.getKey();
+            ReferenceColumn column = entry.getValue().build();
+            referenceDataCache.put(key, column);
+            columns.put(entry.getKey(), column);
+            System.out.println("  -> キャッシュ完了: " + key + " (" + column.size() + "件)");
         }
+        return columns;
     }
 
+
     /**
-     * 生成されたデータをSQL INSERT文としてファイルに書き出します。
+     * 単一のテーブルのデータを生成し、1行ずつシンクへ書き出します。
+     * 各セルの乱数ストリームは (シード値, テーブル, カラム, 行番号) のみから導出されるため、任意の行を独立して生成できます。
+     * 行はチャンク単位で並列に生成され、ユニーク制約のチェックと再生成はチャンクの順序どおりに呼び出し元スレッドで行うため、
+     * スレッド数にかかわらず同じシード値からは同じ出力が得られます。
+     * 出力範囲 (シャード) の外の行は、ユニーク制約の再生成と外部キー参照のキャッシュに必要なカラムのみを生成し、書き出しません。
+     * これにより、各シャードの出力は分割しない場合の出力の該当部分と一致します。
+     * 他のテーブルから参照されているカラム (SERIAL/unique) の値のみを referenceValues に蓄積します。
+     * @param config テーブル構成
+     * @param factory カラムの生成器を作成するファクトリ
+     * @param sink 出力先のシンク
+     * @param referenceValues 参照用にキャッシュする値の格納先 (Map<カラム名, 参照カラムのビルダー>)
+     * @param pool チャンクを並列に生成するスレッドプール (nullの場合は呼び出し元スレッドで生成)
+     * @param tableMetrics テーブルの計測値
+     * @param resumeRow 出力を再開する行番号 (0の場合は範囲の先頭から出力)。再開する場合も、それより前の行のうち
+     *                  ユニーク制約の再生成と参照キャッシュに必要なカラムは生成し直す
+     * @throws IOException シンクへの書き込みまたはチェックポイントの記録に失敗した場合
      */
-    private void writeSqlFile(String tableName, List<Map<String, Object>> data, String outputDir) {
-        if (data.isEmpty()) return;
+    private void generateTableData(TableConfig config, ColumnGeneratorFactory factory, RowSink sink,
+                                   Map<String, ReferenceColumnBuilder> referenceValues, ExecutorService pool,
+                                   TableMetrics tableMetrics, long resumeRow) throws IOException {
+        TablePlan plan = new TablePlan(config, factory, seed, referencedColumns, tableMetrics);
+
+        // ユニーク制約チェック用のセット (チャンクの順序どおりにのみ更新される)
+        UniqueValueSet[] uniqueValues = new UniqueValueSet[plan.width];
+        // 参照キャッシュ対象のカラムのみ値を保持する
+        ReferenceColumnBuilder[] cachedValues = new ReferenceColumnBuilder[plan.width];
+        for (int c = 0; c < plan.width; c++) {
+            if (plan.checkUnique[c]) {
+                uniqueValues[c] = new UniqueValueSet(uniqueSpillDirectory);
+            }
+            if (plan.reference[c]) {
+                cachedValues[c] = new ReferenceColumnBuilder(config.getSize());
+                referenceValues.put(config.getData().get(c).getColumnName(), cachedValues[c]);
+            }
+        }
 
-        // 出力ディレクトリの作成
-        new File(outputDir).mkdirs(); 
-        File outFile = new File(outputDir, tableName.toLowerCase() + ".sql");
-        System.out.println("SQLファイルを出力中: " + outFile.getAbsolutePath());
+        long size = config.getSize();
+        if (size <= 0) {
+            return;
+        }
+        TableSlice slice = TableSlice.of(size, options.getShardIndex(), options.getShardCount());
+        if (resumeRow > 0) {
+            slice = slice.resumeFrom(resumeRow);
+        }
+        sink.open(config.getName(), plan.columnNames, slice);
+        TableSlice outputSlice = slice;
+        // 出力の途中から再開できるよう、一定の行数ごとに進捗を記録する
+        CheckpointStore checkpoint = this.checkpoint;
+        boolean checkpointing = checkpoint != null;
+        long lastCheckpoint = slice.getFirstRow();
+
+        try {
+            // 範囲より前の行はユニーク制約の履歴か参照キャッシュが必要な場合のみ、後ろの行は参照キャッシュが必要な場合のみ生成する
+            long chunkCount = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            long firstChunk = plan.hasHistory ? 0 : slice.getFirstRow() / CHUNK_SIZE;
+            long endChunk = plan.hasReference ? chunkCount : (slice.getEndRow() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            tableMetrics.setRowsToProcess(Math.min(endChunk * CHUNK_SIZE, size) - firstChunk * CHUNK_SIZE);
+            // 先行して生成するチャンク数を制限し、メモリ使用量を一定に保つ
+            // 非同期のハッシュ化も先行するチャンクで並行させるため、ハッシュ化のスレッド数も考慮する
+            int producers = Math.max(pool == null ? 0 : threads, options.getHashThreads());
+            int window = producers == 0 ? 1 : producers * 4;
+            Deque<Future<Object[][]>> pending = new ArrayDeque<>();
+            long nextChunk = firstChunk;
+
+            for (long chunk = firstChunk; chunk < endChunk; chunk++) {
+                // 単一スレッドの場合、チャンクの生成はここで行われ、待機時間に含まれる
+                long waitStart = System.nanoTime();
+                while (nextChunk < endChunk && pending.size() < window) {
+                    final long chunkIndex = nextChunk++;
+                    Callable<Object[][]> task = () -> generateChunk(plan, chunkIndex, outputSlice);
+                    if (pool != null) {
+                        pending.add(pool.submit(task));
+                    } else {
+                        FutureTask<Object[][]> inline = new FutureTask<>(task);
+                        inline.run();
+                        pending.add(inline);
+                    }
+                }
 
-        try (java.io.FileWriter writer = new java.io.FileWriter(outFile)) {
-            List<String> columnNames = new ArrayList<>(data.get(0).keySet());
-            String columns = columnNames.stream().collect(Collectors.joining(", "));
-            
-            for (Map<String, Object> row : data) {
-                String values = columnNames.stream()
-                        .map(col -> {
-                            Object value = row.get(col);
-                            if (value instanceof String || value instanceof LocalDateTime) {
-                                // SQLの文字列リテラルとしてシングルクォーテーションで囲む
-                                return "'" + value.toString().replace("'", "''") + "'";
-                            }
-                            return value.toString();
-                        })
-                        .collect(Collectors.joining(", "));
+                Object[][] rows = awaitChunk(pending.poll());
+                long commitStart = System.nanoTime();
+                long firstRow = chunk * CHUNK_SIZE;
+                for (int r = 0; r < rows.length; r++) {
+                    Object[] row = rows[r];
+                    long rowIndex = firstRow + r;
+                    // 非同期に計算されているハッシュ値の完了を待つ
+                    HashingEngine.resolve(row);
+                    enforceUniqueness(plan, row, rowIndex, uniqueValues, slice.contains(rowIndex));
 
-                String insertStatement = String.format("INSERT INTO %s (%s) VALUES (%s);\n",
-                        tableName, columns, values);
-                writer.write(insertStatement);
+                    for (int c = 0; c < plan.width; c++) {
+                        ReferenceColumnBuilder cached = cachedValues[c];
+                        if (cached != null) {
+                            cached.add(row[plan.valueIndex[c]]);
+                        }
+                    }
+                }
+
+                long writeStart = System.nanoTime();
+                int written = 0;
+                for (int r = 0; r < rows.length; r++) {
+                    if (slice.contains(firstRow + r)) {
+                        sink.writeRow(rows[r]);
+                        written++;
+                    }
+                    // 書き込み済みの行は保持しない
+                    rows[r] = null;
+                }
+                long writeEnd = System.nanoTime();
+                tableMetrics.recordChunk(rows.length, written, sink.getBytesWritten(),
+                        commitStart - waitStart, writeStart - commitStart, writeEnd - writeStart);
+
+                long nextRow = firstRow + rows.length;
+                if (checkpointing && nextRow - lastCheckpoint >= options.getCheckpointInterval() && nextRow < slice.getEndRow()) {
+                    // 出力ファイルを行の境界で切り詰められない形式では記録しない (再開時はテーブルの先頭から出力する)
+                    checkpointing = sink.checkpoint() && sink instanceof FileRowSink;
+                    if (checkpointing) {
+                        checkpoint.recordProgress(config.getName(), nextRow, ((FileRowSink) sink).getOutputFile());
+                        lastCheckpoint = nextRow;
+                    }
+                }
+            }
+            reportUniqueness(plan, uniqueValues);
+            for (int c = 0; c < plan.width; c++) {
+                if (cachedValues[c] != null) {
+                    plan.columnMetrics[c].setReferenceEntries(cachedValues[c].size());
+                }
+            }
+        } finally {
+            for (UniqueValueSet seen : uniqueValues) {
+                if (seen != null) {
+                    seen.close();
+                }
             }
-            System.out.println("SQLファイルの出力が完了しました。");
-        } catch (IOException e) {
-            System.err.println("SQLファイルへの書き込みエラー: " + e.getMessage());
         }
     }
 
     /**
-     * 生成されたデータをXLSXファイルとして書き出します。
+     * ユニーク制約のあるカラムごとに、再生成の回数と割合、ハッシュ値の衝突回数を出力します。
      */
-    private void writeXlsxFile(String tableName, List<Map<String, Object>> data, String outputDir) {
-        if (data.isEmpty()) return;
+    private static void reportUniqueness(TablePlan plan, UniqueValueSet[] uniqueValues) {
+        for (int c = 0; c < plan.width; c++) {
+            UniqueValueSet seen = uniqueValues[c];
+            if (seen == null) {
+                continue;
+            }
+            String name = plan.columnNames.get(plan.valueIndex[c]);
+            plan.columnMetrics[c].setUniqueness(seen.getRetries(), seen.getCollisions(), seen.getExhausted());
+            System.out.println(String.format("  -> ユニーク制約: %s (再生成 %d回, 再生成率 %.2f%%, ハッシュ衝突 %d回)",
+                    name, seen.getRetries(), seen.getRetryRate(), seen.getCollisions()));
+            if (seen.getExhausted() > 0) {
+                System.err.println("エラー: カラム '" + name + "' の " + seen.getExhausted() + "件の値は" + MAX_UNIQUE_ATTEMPTS + "回試行してもユニークにならず、重複したまま出力されました。");
+            }
+        }
+    }
 
-        // 出力ディレクトリの作成
-        new File(outputDir).mkdirs(); 
-        
-        Workbook workbook = new XSSFWorkbook();
-        Sheet sheet = workbook.createSheet(tableName);
-        List<String> columnNames = new ArrayList<>(data.get(0).keySet());
-
-        // 1. ヘッダー行の作成
-        Row headerRow = sheet.createRow(0);
-        for (int i = 0; i < columnNames.size(); i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(columnNames.get(i));
-        }
-
-        // 2. データ行の作成
-        int rowNum = 1;
-        for (Map<String, Object> rowData : data) {
-            Row row = sheet.createRow(rowNum++);
-            for (int i = 0; i < columnNames.size(); i++) {
-                String colName = columnNames.get(i);
-                Object value = rowData.get(colName);
-                
-                Cell cell = row.createCell(i);
-                if (value instanceof String) {
-                    cell.setCellValue((String) value);
-                } else if (value instanceof Number) {
-                    // 数値として格納
-                    cell.setCellValue(((Number) value).doubleValue());
-                } else {
-                    cell.setCellValue(String.valueOf(value));
+    /**
+     * チャンクの生成結果を待機します。
+     */
+    private static Object[][] awaitChunk(Future<Object[][]> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("データ生成が中断されました。", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("データ生成中にエラーが発生しました: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * 1チャンク分の行を生成します。ワーカースレッドから呼び出されます。
+     * 各セルの生成前に、(シード値, テーブル, カラム, 行番号) から導出した値で乱数を再設定します。
+     * 各セルの値は他のセルに依存しないため、カラムごとにまとめて生成し、カラムごとの生成時間とメモリ割り当て量を計測します。
+     * 出力範囲外の行は、ユニーク制約の履歴と参照キャッシュに必要なカラムのみを生成します。
+     * ユニーク制約はここでは考慮せず、{@link #enforceUniqueness} で順序どおりに解決します。
+     */
+    private Object[][] generateChunk(TablePlan plan, long chunkIndex, TableSlice slice) {
+        ChunkGenerationEvent event = recordEvents ? new ChunkGenerationEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        GenerationContext ctx = contexts.get();
+
+        ColumnGenerator[] generators = plan.generators;
+        int[] valueIndex = plan.valueIndex;
+        int[] hashIndex = plan.hashIndex;
+        long[] columnSeeds = plan.columnSeeds;
+
+        long firstRow = chunkIndex * CHUNK_SIZE;
+        int count = (int) Math.min(CHUNK_SIZE, plan.size - firstRow);
+        Object[][] rows = new Object[count][];
+        for (int r = 0; r < count; r++) {
+            rows[r] = new Object[plan.columnNames.size()];
+        }
+
+        for (int c = 0; c < generators.length; c++) {
+            long allocatedBefore = RunMetrics.threadAllocatedBytes();
+            long start = System.nanoTime();
+            int cells = 0;
+            for (int r = 0; r < count; r++) {
+                long rowIndex = firstRow + r;
+                boolean output = slice.contains(rowIndex);
+                if (!output && !plan.history[c]) {
+                    continue;
+                }
+                ctx.reseed(SeedMixer.derive(columnSeeds[c], rowIndex));
+                Object value = generators[c].generate(rowIndex, 0, ctx);
+                rows[r][valueIndex[c]] = value;
+                if (output && hashIndex[c] >= 0) {
+                    // isHashedが指定されている場合、平文をハッシュ化したカラムを追加 (平文パスワードも残るケース)
+                    rows[r][hashIndex[c]] = plan.hasher.hash(value.toString(), plan.hashCost[c]);
                 }
+                cells++;
             }
+            long elapsed = System.nanoTime() - start;
+            plan.columnMetrics[c].record(cells, elapsed, RunMetrics.threadAllocatedBytes() - allocatedBefore);
         }
 
-        // ファイル出力
-        File outFile = new File(outputDir, tableName.toLowerCase() + ".xlsx");
-        System.out.println("XLSXファイルを出力中: " + outFile.getAbsolutePath());
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.table = plan.tableName;
+                event.chunk = chunkIndex;
+                event.rows = count;
+                event.commit();
+            }
+        }
+        return rows;
+    }
 
-        try (FileOutputStream fileOut = new FileOutputStream(outFile)) {
-            workbook.write(fileOut);
-            System.out.println("XLSXファイルの出力が完了しました。");
-        } catch (IOException e) {
-            System.err.println("XLSXファイルへの書き込みエラー: " + e.getMessage());
-        } finally {
-            try {
-                workbook.close();
-            } catch (IOException e) {
-                System.err.println("Workbookクローズエラー: " + e.getMessage());
+    /**
+     * 行のユニーク制約を検証し、重複した値は (シード値, テーブル, カラム, 行, 試行回数) から導出した乱数で再生成します。
+     * チャンクの順序どおりに単一スレッドから呼び出されます。
+     * @param output 出力範囲内の行かどうか (範囲外の行は再生成の履歴が必要なカラムのみを扱う)
+     */
+    private void enforceUniqueness(TablePlan plan, Object[] row, long rowIndex, UniqueValueSet[] uniqueValues, boolean output) {
+        GenerationContext ctx = null;
+        for (int c = 0; c < plan.width; c++) {
+            UniqueValueSet seen = uniqueValues[c];
+            if (seen == null || !output && !plan.history[c]) {
+                continue;
+            }
+            seen.recordRow();
+            Object value = row[plan.valueIndex[c]];
+
+            if (!seen.add(value) && plan.regenerable[c]) {
+                if (ctx == null) {
+                    ctx = contexts.get();
+                }
+                int attempts = 1;
+                do {
+                    if (attempts >= MAX_UNIQUE_ATTEMPTS) {
+                        if (seen.getExhausted() == 0) {
+                            System.err.println("エラー: カラム '" + plan.columnNames.get(plan.valueIndex[c]) + "' で" + MAX_UNIQUE_ATTEMPTS + "回試行してもユニークな値が生成できませんでした。設定を見直してください。");
+                        }
+                        seen.recordExhausted();
+                        // 処理を続行するために、最後の値を強制的に使用
+                        break;
+                    }
+                    seen.recordRetry();
+                    ctx.reseed(SeedMixer.derive(seed, plan.tableKey, c, rowIndex, attempts));
+                    value = HashingEngine.resolve(plan.generators[c].generate(rowIndex, attempts, ctx));
+                    attempts++;
+                } while (!seen.add(value));
+
+                row[plan.valueIndex[c]] = value;
+                if (output && plan.hashIndex[c] >= 0) {
+                    row[plan.hashIndex[c]] = HashingEngine.resolve(plan.hasher.hash(value.toString(), plan.hashCost[c]));
+                }
+            }
+        }
+    }
+
+    /**
+     * テーブルの生成開始時にカラム定義から一度だけ構築される生成計画。
+     * 各カラムの生成器と、行配列上の配置・制約のフラグを配列で保持し、行ごとの処理ではこれらのみを参照します。
+     */
+    private static final class TablePlan {
+        final String tableName;
+        final long tableKey;
+        final long size;
+        final int width;
+        final List<String> columnNames;
+        final ColumnGenerator[] generators;
+        // 各カラムの値が格納される行配列上の位置
+        final int[] valueIndex;
+        // isHashedによるハッシュカラムの位置 (ない場合は-1)
+        final int[] hashIndex;
+        // isHashedのハッシュ化に使用するストレッチング因子
+        final int[] hashCost;
+        final HashingEngine hasher;
+        // unique: true のカラム
+        final boolean[] unique;
+        // ユニーク制約違反時に再生成できるカラム (SERIALと外部キー参照は対象外)
+        final boolean[] regenerable;
+        // 重複チェック用のセットで一意性を確認するカラム (構造上ユニークな値を生成するカラムは対象外)
+        final boolean[] checkUnique;
+        // 外部キー参照用にキャッシュするカラム (他のテーブルから参照されているSERIALまたはunique: true)
+        final boolean[] reference;
+        // 出力範囲外の行でも生成が必要なカラム (参照キャッシュ、または再生成の判定に過去の値が必要なカラム)
+        final boolean[] history;
+        final boolean hasHistory;
+        final boolean hasReference;
+        // 各カラムのセルごとの乱数シードを導出する元の値
+        final long[] columnSeeds;
+        // 各カラムの計測値
+        final ColumnMetrics[] columnMetrics;
+
+        /**
+         * @param seed 乱数シード値
+         * @param referencedColumns 外部キーから参照されている "テーブル名.カラム名" の集合
+         * @param tableMetrics テーブルの計測値 (カラムの計測値を追加する)
+         */
+        TablePlan(TableConfig config, ColumnGeneratorFactory factory, long seed, Set<String> referencedColumns,
+                  TableMetrics tableMetrics) {
+            List<ColumnConfig> columns = config.getData();
+            this.tableName = config.getName();
+            this.tableKey = SeedMixer.hash64(config.getName());
+            this.size = config.getSize();
+            this.width = columns.size();
+            this.generators = new ColumnGenerator[width];
+            this.valueIndex = new int[width];
+            this.hashIndex = new int[width];
+            this.hashCost = new int[width];
+            this.hasher = factory.getHasher();
+            this.unique = new boolean[width];
+            this.regenerable = new boolean[width];
+            this.checkUnique = new boolean[width];
+            this.reference = new boolean[width];
+            this.history = new boolean[width];
+            this.columnSeeds = new long[width];
+            this.columnMetrics = new ColumnMetrics[width];
+
+            // SERIALカラムを取得し、初期値を設定
+            long initialSerialValue = columns.stream()
+                    .filter(c -> ColumnType.parse(c.getType()) == ColumnType.SERIAL)
+                    .findFirst()
+                    .map(ColumnConfig::getStartFrom)
+                    .orElse(1L);
+
+            List<String> names = new ArrayList<>();
+            boolean anyHistory = false;
+            boolean anyReference = false;
+            for (int c = 0; c < width; c++) {
+                ColumnConfig col = columns.get(c);
+                ColumnType type = ColumnType.parse(col.getType());
+                generators[c] = factory.create(col, initialSerialValue, SeedMixer.hash64(config.getName() + "." + col.getColumnName()));
+
+                valueIndex[c] = names.size();
+                names.add(col.getColumnName());
+                // isHashedが指定されたSTRINGカラムの直後にはハッシュカラムが入る
+                if (col.getIsHashed() != null && type == ColumnType.STRING) {
+                    hashIndex[c] = names.size();
+                    hashCost[c] = ColumnGeneratorFactory.hashCost(col);
+                    names.add(col.getIsHashed());
+                } else {
+                    hashIndex[c] = -1;
+                }
+
+                unique[c] = col.getUnique() != null && col.getUnique();
+                regenerable[c] = unique[c] && type != ColumnType.SERIAL && col.getFkReference() == null;
+                checkUnique[c] = unique[c] && !generators[c].isUniqueByConstruction();
+                reference[c] = (type == ColumnType.SERIAL || unique[c])
+                        && referencedColumns.contains(config.getName() + "." + col.getColumnName());
+                history[c] = reference[c] || checkUnique[c] && regenerable[c];
+                anyHistory |= history[c];
+                anyReference |= reference[c];
+                columnSeeds[c] = SeedMixer.derive(seed, tableKey, c);
+                // 外部キー参照のカラムは参照キャッシュから値を選ぶため、type ではなく FK として計測する
+                String metricsType = col.getFkReference() != null ? "FK" : type != null ? type.name() : col.getType();
+                columnMetrics[c] = tableMetrics.addColumn(col.getColumnName(), metricsType);
             }
+            this.columnNames = names;
+            this.hasHistory = anyHistory;
+            this.hasReference = anyReference;
         }
     }
 }
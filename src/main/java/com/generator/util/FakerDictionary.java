@@ -0,0 +1,444 @@
+package com.generator.util;
+
+import com.github.javafaker.Faker;
+import com.github.javafaker.service.FakeValuesService;
+import com.github.javafaker.service.RandomService;
+import com.github.javafaker.service.files.EnFile;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FAKER型の生成に使用する辞書 (Fakerのロケールデータ) のスナップショット。
+ * Fakerは最初に値を参照した時点でYAMLのロケールファイルを解析し、その結果をFakerインスタンスごとに保持するため、
+ * 起動のたびに、またワーカースレッドごとに解析の時間がかかります。スナップショットには、設定ファイルのFAKER型カラムが
+ * 使用するモジュールの値を参照キー (例: "name.first_name") ごとに解析済みの形で保存します。
+ * <p>
+ * 読み込み時はファイルをメモリにマップしてキーの索引のみを読み込み、値は最初に参照された時点で復元して全スレッドで共有します。
+ * 値はFakerが返すものと同じ内容のため、スナップショットの有無で生成される値は変わりません。
+ * スナップショットにないキーは、共有する1つのFakerのサービスでロケールファイルから読み込み、復元済みの値と同様に全スレッドで共有します。
+ * {@link #inMemory()} で作成した辞書はファイルを持たず、参照されたキーを順に読み込んで保持するため、
+ * サーバーモードのように同じプロセスで繰り返し生成する場合に、ロケールファイルの解析を最初の1回に抑えられます。
+ */
+public final class FakerDictionary {
+
+    // FAKER型の生成に使用するロケール
+    public static final Locale LOCALE = new Locale("ja", "JP");
+
+    private static final int MAGIC = 0x464B4453; // "FKDS"
+    private static final int VERSION = 1;
+
+    // スナップショットを作成する際に、各generatorを呼び出して参照されるモジュールを調べる回数
+    private static final int SAMPLES = 1000;
+
+    private static final byte ABSENT_VALUE = 0;
+    private static final byte STRING = 1;
+    private static final byte LIST = 2;
+    private static final byte MAP = 3;
+    private static final byte INT = 4;
+    private static final byte LONG = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte BOOLEAN = 7;
+
+    // 値が存在しないことを記録したキーの、復元済みの値
+    private static final Object ABSENT = new Object();
+
+    private final ByteBuffer data;
+    // キーごとの値の位置
+    private final Map<String, Integer> offsets;
+    // 復元済みの値
+    private final Map<String, Object> values = new ConcurrentHashMap<>();
+    // スナップショットに含まれないキーを読み込むサービス (最初に必要になった時点で作成)
+    private FakeValuesService fallback;
+
+    private FakerDictionary(ByteBuffer data, Map<String, Integer> offsets) {
+        this.data = data;
+        this.offsets = offsets;
+    }
+
+    /**
+     * スナップショットのファイルをメモリにマップして開きます。
+     * @throws IOException 読み込めない場合、またはFakerのバージョンやロケールが異なるスナップショットの場合
+     */
+    public static FakerDictionary open(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException(file + " はFakerの辞書スナップショットではないか、形式が異なります。");
+        }
+        String fakerVersion = readString(buffer);
+        String locale = readString(buffer);
+        if (!fakerVersion.equals(fakerVersion()) || !locale.equals(LOCALE.toString())) {
+            throw new IOException(file + " は異なるバージョンのFaker (" + fakerVersion + ", " + locale
+                    + ") で作成されています。スナップショットを作成し直してください。");
+        }
+        int count = buffer.getInt();
+        Map<String, Integer> offsets = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            String key = readString(buffer);
+            offsets.put(key, buffer.getInt());
+        }
+        ByteBuffer data = buffer.slice();
+        return new FakerDictionary(data, offsets);
+    }
+
+    /**
+     * ファイルを持たず、参照されたキーをロケールファイルから読み込んで保持する辞書を作成します。
+     */
+    public static FakerDictionary inMemory() {
+        return new FakerDictionary(ByteBuffer.allocate(0), Collections.emptyMap());
+    }
+
+    /**
+     * スナップショットの値を参照するFakerを作成します。
+     * @param random Fakerが使用する乱数生成器
+     */
+    public Faker newFaker(Random random) {
+        RandomService randomService = new RandomService(random);
+        return new Faker(new SnapshotValuesService(randomService, this), randomService);
+    }
+
+    /**
+     * スナップショットに含まれるキーの数を返します。
+     */
+    public int size() {
+        return offsets.size();
+    }
+
+    /**
+     * キーに対応する値を返します。
+     * @return 値 (値が存在しないキーの場合はnull)
+     */
+    Object lookup(String key) {
+        Object value = values.get(key);
+        if (value == null) {
+            Integer offset = offsets.get(key);
+            if (offset == null) {
+                value = fetchFallback(key);
+            } else {
+                ByteBuffer buffer = data.duplicate();
+                buffer.position(offset);
+                value = readValue(buffer);
+            }
+            Object previous = values.putIfAbsent(key, value);
+            if (previous != null) {
+                value = previous;
+            }
+        }
+        return value == ABSENT ? null : value;
+    }
+
+    /**
+     * スナップショットに含まれないキーの値をロケールファイルから読み込みます。
+     * Fakerのサービスはスレッドセーフではないため、読み込みは同期して行います。
+     * @return 値 (値が存在しない場合は {@link #ABSENT})
+     */
+    private synchronized Object fetchFallback(String key) {
+        if (fallback == null) {
+            fallback = new FakeValuesService(LOCALE, new RandomService());
+        }
+        Object value = fallback.fetchObject(key);
+        return value != null ? value : ABSENT;
+    }
+
+    /**
+     * FAKER型の generator が使用するモジュールの値を抽出し、スナップショットのファイルに書き出します。
+     * 各generatorを固定の乱数で呼び出して参照されたキーとモジュール (他のモジュールを経由するものを含む) を調べ、
+     * そのモジュールの全てのキーの値を保存します。参照されたが値のないキー (Fakerが式の解決時に試すキーなど) も、
+     * ロケールファイルを読み込まずに済むよう、値がないことを保存します。
+     * @param file 出力先ファイル
+     * @param invokers コンパイル済みのFAKER呼び出し器
+     * @return 保存したキーの数
+     * @throws IOException 書き込みに失敗した場合
+     */
+    public static int write(Path file, Collection<FakerInvoker> invokers) throws IOException {
+        RandomService randomService = new RandomService(new Random(0));
+        RecordingValuesService recording = new RecordingValuesService(randomService);
+        Faker faker = new Faker(recording, randomService);
+        Set<String> modules = new TreeSet<>();
+        for (FakerInvoker invoker : invokers) {
+            if (invoker.getModuleClass() != Faker.class) {
+                modules.add(yamlName(invoker.getModuleClass().getSimpleName()));
+            }
+            try {
+                for (int i = 0; i < SAMPLES; i++) {
+                    invoker.invoke(faker);
+                }
+            } catch (RuntimeException e) {
+                // 例外となる引数の場合も、それまでに参照されたモジュールは保存する
+            }
+        }
+        modules.addAll(recording.modules);
+
+        // 各モジュールのキーをロケールファイルから列挙し、値はFakerのロケールの優先順位どおりに取得する
+        Set<String> keys = new TreeSet<>(recording.keys);
+        collectKeys(Faker.class.getResourceAsStream("/" + LOCALE.getLanguage() + ".yml"), LOCALE.getLanguage(), modules, keys);
+        for (EnFile enFile : EnFile.getFiles()) {
+            collectKeys(Faker.class.getResourceAsStream("/en/" + enFile.getFile()), "en", modules, keys);
+        }
+        FakeValuesService service = new FakeValuesService(LOCALE, randomService);
+        Map<String, byte[]> entries = new TreeMap<>();
+        for (String key : keys) {
+            Object value = service.fetchObject(key);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            if (value == null) {
+                out.writeByte(ABSENT_VALUE);
+            } else if (!writeValue(out, value)) {
+                // 保存できない型の値は、実行時にロケールファイルから読み込む
+                continue;
+            }
+            entries.put(key, bytes.toByteArray());
+        }
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeString(out, fakerVersion());
+            writeString(out, LOCALE.toString());
+            out.writeInt(entries.size());
+            int offset = 0;
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                writeString(out, entry.getKey());
+                out.writeInt(offset);
+                offset += entry.getValue().length;
+            }
+            for (byte[] value : entries.values()) {
+                out.write(value);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        return entries.size();
+    }
+
+    /**
+     * ロケールファイルから、指定したモジュールの値 (Map以外) に至るキーを列挙します。
+     */
+    @SuppressWarnings("unchecked")
+    private static void collectKeys(InputStream in, String language, Set<String> modules, Set<String> keys) throws IOException {
+        if (in == null) {
+            return;
+        }
+        Object root;
+        try (in) {
+            root = new Yaml().load(in);
+        }
+        Object faker = root instanceof Map ? ((Map<String, Object>) root).get(language) : null;
+        faker = faker instanceof Map ? ((Map<String, Object>) faker).get("faker") : null;
+        if (!(faker instanceof Map)) {
+            return;
+        }
+        for (Map.Entry<String, Object> module : ((Map<String, Object>) faker).entrySet()) {
+            if (modules.contains(module.getKey())) {
+                collectKeys(module.getKey(), module.getValue(), keys);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void collectKeys(String key, Object value, Set<String> keys) {
+        if (value instanceof Map) {
+            for (Map.Entry<Object, Object> child : ((Map<Object, Object>) value).entrySet()) {
+                String name = String.valueOf(child.getKey());
+                // Fakerはキーを "." で区切って辿るため、"." を含む名前は参照されない
+                if (!name.contains(".")) {
+                    collectKeys(key + "." + name, child.getValue(), keys);
+                }
+            }
+        } else {
+            keys.add(key);
+        }
+    }
+
+    /**
+     * クラス名をロケールファイルのモジュール名に変換します (例: PhoneNumber -> phone_number)。
+     */
+    private static String yamlName(String className) {
+        return className.replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * クラスパス上のFakerのバージョンを返します。
+     */
+    private static String fakerVersion() {
+        try (InputStream in = Faker.class.getResourceAsStream("/META-INF/maven/com.github.javafaker/javafaker/pom.properties")) {
+            if (in != null) {
+                Properties properties = new Properties();
+                properties.load(in);
+                return properties.getProperty("version", "unknown");
+            }
+        } catch (IOException e) {
+            // バージョンが分からない場合も、同じクラスパスで作成したスナップショットは使用できる
+        }
+        return "unknown";
+    }
+
+    /**
+     * 値を書き込みます。
+     * @return 保存できない型の値が含まれる場合はfalse
+     */
+    private static boolean writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            out.writeByte(LIST);
+            out.writeInt(list.size());
+            for (Object element : list) {
+                if (element == null || !writeValue(out, element)) {
+                    return false;
+                }
+            }
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            out.writeByte(MAP);
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!(entry.getKey() instanceof String) || entry.getValue() == null) {
+                    return false;
+                }
+                writeString(out, (String) entry.getKey());
+                if (!writeValue(out, entry.getValue())) {
+                    return false;
+                }
+            }
+        } else if (value instanceof Integer) {
+            out.writeByte(INT);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private static Object readValue(ByteBuffer in) {
+        byte type = in.get();
+        switch (type) {
+            case ABSENT_VALUE:
+                return ABSENT;
+            case STRING:
+                return readString(in);
+            case LIST: {
+                int size = in.getInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return Collections.unmodifiableList(list);
+            }
+            case MAP: {
+                int size = in.getInt();
+                Map<String, Object> map = new LinkedHashMap<>(size * 2);
+                for (int i = 0; i < size; i++) {
+                    String key = readString(in);
+                    map.put(key, readValue(in));
+                }
+                return Collections.unmodifiableMap(map);
+            }
+            case INT:
+                return in.getInt();
+            case LONG:
+                return in.getLong();
+            case DOUBLE:
+                return in.getDouble();
+            case BOOLEAN:
+                return in.get() != 0;
+            default:
+                throw new IllegalStateException("Fakerの辞書スナップショットが破損しています (型: " + type + ")");
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 辞書から値を返すサービス。
+     */
+    private static final class SnapshotValuesService extends FakeValuesService {
+
+        private final FakerDictionary dictionary;
+
+        SnapshotValuesService(RandomService randomService, FakerDictionary dictionary) {
+            super(LOCALE, randomService);
+            this.dictionary = dictionary;
+        }
+
+        @Override
+        public Object fetchObject(String key) {
+            return dictionary.lookup(key);
+        }
+    }
+
+    /**
+     * 参照されたキーとそのモジュール名を記録するサービス。スナップショットの作成時のみ使用します。
+     */
+    private static final class RecordingValuesService extends FakeValuesService {
+
+        private final Set<String> keys = new TreeSet<>();
+        private final Set<String> modules = new TreeSet<>();
+
+        RecordingValuesService(RandomService randomService) {
+            super(LOCALE, randomService);
+        }
+
+        @Override
+        public Object fetchObject(String key) {
+            int dot = key.indexOf('.');
+            keys.add(key);
+            modules.add(dot < 0 ? key : key.substring(0, dot));
+            return super.fetchObject(key);
+        }
+    }
+}
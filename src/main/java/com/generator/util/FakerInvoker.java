@@ -0,0 +1,267 @@
+package com.generator.util;
+
+import com.github.javafaker.Faker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * FAKER型の generator 文字列 (例: "name.fullName", "number.numberBetween(1, 100)", "bothify('##??')") を
+ * 一度だけ解析し、Fakerインスタンスを受け取って値を返す MethodHandle にコンパイルしたもの。
+ * 引数には文字列 ('...' または "...")、整数、小数、真偽値を複数指定でき、引数の型に合うオーバーロードが選択されます。
+ */
+public final class FakerInvoker {
+
+    private final String generatorPath;
+
+    // メソッドを呼び出すモジュールのクラス (トップレベルメソッドの場合はFaker)
+    private final Class<?> moduleClass;
+
+    // (Faker) -> Object の形に束縛済みのハンドル
+    private final MethodHandle handle;
+
+    private FakerInvoker(String generatorPath, Class<?> moduleClass, MethodHandle handle) {
+        this.generatorPath = generatorPath;
+        this.moduleClass = moduleClass;
+        this.handle = handle;
+    }
+
+    /**
+     * generator 文字列を解析し、呼び出し可能なハンドルにコンパイルします。
+     * @param generatorPath generator 文字列
+     * @return コンパイル済みの呼び出し器
+     * @throws IllegalArgumentException 形式が不正、またはメソッドが見つからない場合
+     */
+    public static FakerInvoker compile(String generatorPath) {
+        if (generatorPath == null || generatorPath.isEmpty()) {
+            throw new IllegalArgumentException("FAKER型には 'generator' キーが必要です。");
+        }
+
+        // 1. メソッド名と引数を分離 (例: "method('arg', 1)" -> "method", ["'arg'", "1"])
+        String methodPath;
+        List<String> argTokens = new ArrayList<>();
+        int openParen = generatorPath.indexOf('(');
+        int closeParen = generatorPath.lastIndexOf(')');
+        if (openParen != -1 && closeParen > openParen) {
+            methodPath = generatorPath.substring(0, openParen).trim();
+            argTokens = splitArguments(generatorPath.substring(openParen + 1, closeParen), generatorPath);
+        } else if (openParen != -1 || closeParen != -1) {
+            throw new IllegalArgumentException("generatorの括弧が対応していません。指定: " + generatorPath);
+        } else {
+            methodPath = generatorPath.trim();
+        }
+
+        // 2. モジュールとメソッドを分離 (例: "name.fullName" -> "name", "fullName")
+        String[] parts = methodPath.split("\\.");
+        String moduleName;
+        String methodName;
+        if (parts.length == 2) {
+            moduleName = parts[0];
+            methodName = parts[1];
+        } else if (parts.length == 1) {
+            // トップレベルメソッド (例: bothify) の場合、モジュールはFakerインスタンス自体
+            moduleName = null;
+            methodName = parts[0];
+        } else {
+            throw new IllegalArgumentException("generator形式が無効です。指定: " + generatorPath);
+        }
+
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        try {
+            // 3. モジュール取得用のハンドル (Faker) -> モジュール
+            MethodHandle target;
+            Class<?> moduleClass;
+            if (moduleName == null) {
+                target = MethodHandles.identity(Faker.class);
+                moduleClass = Faker.class;
+            } else {
+                Method moduleGetter = Faker.class.getMethod(moduleName);
+                moduleClass = moduleGetter.getReturnType();
+                target = lookup.unreflect(moduleGetter);
+            }
+
+            // 4. 引数の型に合うメソッドを選択し、引数を束縛する
+            Object[] args = new Object[argTokens.size()];
+            Method method = resolveMethod(moduleClass, methodName, argTokens, args);
+            if (method == null) {
+                throw new IllegalArgumentException("FAKERメソッドが見つかりません。パス: " + generatorPath + ". メソッド名または引数を確認してください。");
+            }
+            MethodHandle generation = lookup.unreflect(method);
+            if (args.length > 0) {
+                generation = MethodHandles.insertArguments(generation, 1, args);
+            }
+            generation = generation.asType(MethodType.methodType(Object.class, moduleClass));
+
+            MethodHandle bound = MethodHandles.filterReturnValue(target, generation)
+                    .asType(MethodType.methodType(Object.class, Faker.class));
+            return new FakerInvoker(generatorPath, moduleClass, bound);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("FAKERモジュールが見つかりません。パス: " + generatorPath, e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("FAKERメソッドにアクセスできません。パス: " + generatorPath, e);
+        }
+    }
+
+    /**
+     * 指定されたFakerインスタンスで値を生成します。
+     * @param faker 乱数ストリームが設定されたFakerインスタンス
+     * @return 生成された値の文字列表現
+     */
+    public String invoke(Faker faker) {
+        Object result;
+        try {
+            result = (Object) handle.invokeExact(faker);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("FAKERメソッド呼び出し中に例外が発生しました。パス: " + generatorPath + ". 詳細: " + e.getMessage(), e);
+        }
+        return result == null ? null : result.toString();
+    }
+
+    public String getGeneratorPath() {
+        return generatorPath;
+    }
+
+    public Class<?> getModuleClass() {
+        return moduleClass;
+    }
+
+    /**
+     * 引数の文字列をカンマで分割します。引用符内のカンマは区切りとして扱いません。
+     */
+    private static List<String> splitArguments(String argString, String generatorPath) {
+        List<String> tokens = new ArrayList<>();
+        if (argString.trim().isEmpty()) {
+            return tokens;
+        }
+        StringBuilder current = new StringBuilder();
+        char quote = 0;
+        for (int i = 0; i < argString.length(); i++) {
+            char ch = argString.charAt(i);
+            if (quote != 0) {
+                if (ch == quote) {
+                    quote = 0;
+                }
+                current.append(ch);
+            } else if (ch == '\'' || ch == '"') {
+                quote = ch;
+                current.append(ch);
+            } else if (ch == ',') {
+                tokens.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(ch);
+            }
+        }
+        if (quote != 0) {
+            throw new IllegalArgumentException("generatorの引数の引用符が閉じられていません。指定: " + generatorPath);
+        }
+        tokens.add(current.toString().trim());
+        return tokens;
+    }
+
+    /**
+     * メソッド名と引数の数が一致する公開メソッドのうち、引数の型に最もよく合うものを選択します。
+     * @param args 選択したメソッドの引数型に変換した値の格納先
+     * @return 選択したメソッド (見つからない場合はnull)
+     */
+    private static Method resolveMethod(Class<?> moduleClass, String methodName, List<String> argTokens, Object[] args) {
+        Method[] candidates = moduleClass.getMethods();
+        // オーバーロードの選択結果を実行ごとに安定させる
+        Arrays.sort(candidates, Comparator.comparing(Method::toGenericString));
+
+        Method best = null;
+        int bestScore = -1;
+        Object[] converted = new Object[argTokens.size()];
+        for (Method method : candidates) {
+            if (!method.getName().equals(methodName)
+                    || method.getParameterCount() != argTokens.size()
+                    || method.isVarArgs()
+                    || Modifier.isStatic(method.getModifiers())
+                    || method.getReturnType() == void.class) {
+                continue;
+            }
+            Class<?>[] types = method.getParameterTypes();
+            int score = 0;
+            for (int i = 0; i < types.length && score >= 0; i++) {
+                int argScore = convert(argTokens.get(i), types[i], converted, i);
+                score = argScore < 0 ? -1 : score + argScore;
+            }
+            if (score > bestScore) {
+                best = method;
+                bestScore = score;
+                System.arraycopy(converted, 0, args, 0, args.length);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 引数のトークンを指定された型に変換します。
+     * @return 型の一致度 (大きいほど良い)。変換できない場合は-1
+     */
+    private static int convert(String token, Class<?> type, Object[] out, int index) {
+        boolean quoted = token.length() >= 2
+                && (token.charAt(0) == '\'' || token.charAt(0) == '"')
+                && token.charAt(token.length() - 1) == token.charAt(0);
+        if (quoted) {
+            if (type != String.class) {
+                return -1;
+            }
+            out[index] = token.substring(1, token.length() - 1);
+            return 3;
+        }
+
+        if (token.equals("true") || token.equals("false")) {
+            if (type == boolean.class || type == Boolean.class) {
+                out[index] = Boolean.valueOf(token);
+                return 3;
+            }
+        } else {
+            try {
+                long number = Long.parseLong(token);
+                if ((type == int.class || type == Integer.class) && number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE) {
+                    out[index] = (int) number;
+                    return 3;
+                }
+                if (type == long.class || type == Long.class) {
+                    out[index] = number;
+                    return 2;
+                }
+                if (type == double.class || type == Double.class) {
+                    out[index] = (double) number;
+                    return 1;
+                }
+            } catch (NumberFormatException e) {
+                try {
+                    double decimal = Double.parseDouble(token);
+                    if (type == double.class || type == Double.class) {
+                        out[index] = decimal;
+                        return 3;
+                    }
+                    if (type == float.class || type == Float.class) {
+                        out[index] = (float) decimal;
+                        return 2;
+                    }
+                } catch (NumberFormatException ignored) {
+                    // 数値ではない
+                }
+            }
+        }
+
+        // 引用符のない引数も、文字列を受け取るメソッドにはそのまま渡す (例: bothify(##??))
+        if (type == String.class) {
+            out[index] = token;
+            return 0;
+        }
+        return -1;
+    }
+}
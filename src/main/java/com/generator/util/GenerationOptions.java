@@ -0,0 +1,184 @@
+package com.generator.util;
+
+import com.generator.output.ArrowRowSink;
+import com.generator.output.OutputCompression;
+
+import java.util.zip.Deflater;
+
+/**
+ * データ生成の実行オプション。コマンドライン引数から設定されます。
+ */
+public class GenerationOptions {
+
+    // 乱数シード値
+    private long seed = 1L;
+
+    // 行生成に使用するスレッド数
+    private int threads = 1;
+
+    // 出力するシャードの番号 (0始まり) とシャード数。各テーブルの行を shardCount 個に分割したうち shardIndex 番目のみを出力する
+    private int shardIndex = 0;
+    private int shardCount = 1;
+
+    // ファイル出力を分割する場合の1パートあたりの最大行数 (0の場合は行数で分割しない)
+    private long partRows = 0;
+
+    // ファイル出力を分割する場合の1パートあたりの目安のバイト数 (0の場合はバイト数で分割しない)
+    private long partBytes = 0;
+
+    // パートを書き出すスレッド数 (0の場合は行生成のスレッド数と同じ)
+    private int writerThreads = 0;
+
+    // SQL・CSV・COPYファイルの圧縮方式
+    private OutputCompression.Type compression = OutputCompression.Type.NONE;
+
+    // 圧縮レベル (1〜9)
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+    // ブロック単位の並列gzip圧縮に使用するスレッド数
+    private int compressionThreads = Runtime.getRuntime().availableProcessors();
+
+    // BCryptハッシュ化専用のスレッド数 (0の場合は行生成スレッドで同期的にハッシュ化)
+    private int hashThreads = Runtime.getRuntime().availableProcessors();
+
+    // 同じ平文のハッシュ値をキャッシュするかどうか (ソルトはシード値から導出される)
+    private boolean hashCache = false;
+
+    // SQL出力で1つのINSERT文にまとめる行数
+    private int sqlBatchSize = 1;
+
+    // SQL出力で各バッチをトランザクションで囲むかどうか
+    private boolean sqlTransaction = false;
+
+    // ユニーク制約の文字列値を一時ファイルに書き出すディレクトリ (nullの場合はヒープ上に保持)
+    private String uniqueSpillDirectory;
+
+    // 生成中の進捗を標準エラー出力に表示する間隔 (秒。0の場合は表示しない)
+    private int progressInterval = 5;
+
+    // 実行レポート (JSON) の出力先 (nullの場合は出力しない)
+    private String reportFile;
+
+    // JFRの記録の出力先 (nullの場合は記録しない)
+    private String jfrFile;
+
+    // チェックポイントを記録するディレクトリ (nullの場合は記録しない)
+    private String checkpointDirectory;
+
+    // 出力途中のテーブルの進捗をチェックポイントに記録する間隔 (行数)
+    private long checkpointInterval = 1_000_000;
+
+    // チェックポイントから前回の実行を再開するか
+    private boolean resume = false;
+
+    // テーブルの出力を保存し、同じ内容のテーブルを生成せずに復元する出力キャッシュのディレクトリ (nullの場合は使用しない)
+    private String cacheDirectory;
+
+    // FAKER型の生成に使用するFakerの辞書スナップショットのファイル (nullの場合はFakerのロケールファイルを読み込む)
+    private String fakerSnapshot;
+
+    // JDBCで直接ロードする場合の接続先URL
+    private String jdbcUrl;
+
+    // JDBC接続のユーザー名
+    private String jdbcUser;
+
+    // JDBC接続のパスワード
+    private String jdbcPassword;
+
+    // JDBCロードで executeBatch 1回あたりにまとめる行数
+    private int jdbcBatchSize = 1000;
+
+    // Arrow出力の1つのレコードバッチの行数
+    private int arrowBatchSize = ArrowRowSink.DEFAULT_BATCH_SIZE;
+
+    // Getter and Setter
+    public long getSeed() { return seed; }
+    public void setSeed(long seed) { this.seed = seed; }
+
+    public int getThreads() { return threads; }
+    public void setThreads(int threads) { this.threads = threads; }
+
+    public int getShardIndex() { return shardIndex; }
+    public void setShardIndex(int shardIndex) { this.shardIndex = shardIndex; }
+
+    public int getShardCount() { return shardCount; }
+    public void setShardCount(int shardCount) { this.shardCount = shardCount; }
+
+    public long getPartRows() { return partRows; }
+    public void setPartRows(long partRows) { this.partRows = partRows; }
+
+    public long getPartBytes() { return partBytes; }
+    public void setPartBytes(long partBytes) { this.partBytes = partBytes; }
+
+    public int getWriterThreads() { return writerThreads; }
+    public void setWriterThreads(int writerThreads) { this.writerThreads = writerThreads; }
+
+    /**
+     * ファイル出力をパートに分割するかどうかを返します。
+     */
+    public boolean isPartitioned() { return partRows > 0 || partBytes > 0; }
+
+    public OutputCompression.Type getCompression() { return compression; }
+    public void setCompression(OutputCompression.Type compression) { this.compression = compression; }
+
+    public int getCompressionLevel() { return compressionLevel; }
+    public void setCompressionLevel(int compressionLevel) { this.compressionLevel = compressionLevel; }
+
+    public int getCompressionThreads() { return compressionThreads; }
+    public void setCompressionThreads(int compressionThreads) { this.compressionThreads = compressionThreads; }
+
+    public int getHashThreads() { return hashThreads; }
+    public void setHashThreads(int hashThreads) { this.hashThreads = hashThreads; }
+
+    public boolean isHashCache() { return hashCache; }
+    public void setHashCache(boolean hashCache) { this.hashCache = hashCache; }
+
+    public int getSqlBatchSize() { return sqlBatchSize; }
+    public void setSqlBatchSize(int sqlBatchSize) { this.sqlBatchSize = sqlBatchSize; }
+
+    public boolean isSqlTransaction() { return sqlTransaction; }
+    public void setSqlTransaction(boolean sqlTransaction) { this.sqlTransaction = sqlTransaction; }
+
+    public String getUniqueSpillDirectory() { return uniqueSpillDirectory; }
+    public void setUniqueSpillDirectory(String uniqueSpillDirectory) { this.uniqueSpillDirectory = uniqueSpillDirectory; }
+
+    public int getProgressInterval() { return progressInterval; }
+    public void setProgressInterval(int progressInterval) { this.progressInterval = progressInterval; }
+
+    public String getReportFile() { return reportFile; }
+    public void setReportFile(String reportFile) { this.reportFile = reportFile; }
+
+    public String getJfrFile() { return jfrFile; }
+    public void setJfrFile(String jfrFile) { this.jfrFile = jfrFile; }
+
+    public String getCheckpointDirectory() { return checkpointDirectory; }
+    public void setCheckpointDirectory(String checkpointDirectory) { this.checkpointDirectory = checkpointDirectory; }
+
+    public long getCheckpointInterval() { return checkpointInterval; }
+    public void setCheckpointInterval(long checkpointInterval) { this.checkpointInterval = checkpointInterval; }
+
+    public boolean isResume() { return resume; }
+    public void setResume(boolean resume) { this.resume = resume; }
+
+    public String getCacheDirectory() { return cacheDirectory; }
+    public void setCacheDirectory(String cacheDirectory) { this.cacheDirectory = cacheDirectory; }
+
+    public String getFakerSnapshot() { return fakerSnapshot; }
+    public void setFakerSnapshot(String fakerSnapshot) { this.fakerSnapshot = fakerSnapshot; }
+
+    public String getJdbcUrl() { return jdbcUrl; }
+    public void setJdbcUrl(String jdbcUrl) { this.jdbcUrl = jdbcUrl; }
+
+    public String getJdbcUser() { return jdbcUser; }
+    public void setJdbcUser(String jdbcUser) { this.jdbcUser = jdbcUser; }
+
+    public String getJdbcPassword() { return jdbcPassword; }
+    public void setJdbcPassword(String jdbcPassword) { this.jdbcPassword = jdbcPassword; }
+
+    public int getJdbcBatchSize() { return jdbcBatchSize; }
+    public void setJdbcBatchSize(int jdbcBatchSize) { this.jdbcBatchSize = jdbcBatchSize; }
+
+    public int getArrowBatchSize() { return arrowBatchSize; }
+    public void setArrowBatchSize(int arrowBatchSize) { this.arrowBatchSize = arrowBatchSize; }
+}
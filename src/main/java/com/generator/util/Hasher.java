@@ -2,12 +2,18 @@ package com.generator.util;
 
 import org.mindrot.jbcrypt.BCrypt;
 
+import java.security.SecureRandom;
+
 /**
  * BCryptアルゴリズムを使用してパスワードをハッシュ化するユーティリティクラス。
  */
 public class Hasher {
     // BCryptのストレッチング因子 (強度の設定)
-    private static final int LOG_ROUNDS = 10;
+    public static final int LOG_ROUNDS = 10;
+
+    // BCryptで指定可能なストレッチング因子の範囲
+    public static final int MIN_LOG_ROUNDS = 4;
+    public static final int MAX_LOG_ROUNDS = 31;
 
     /**
      * 指定されたプレーンテキストパスワードをBCryptでハッシュ化します。
@@ -15,7 +21,29 @@ public class Hasher {
      * @return ハッシュ化されたパスワード文字列
      */
     public static String hashPassword(String password) {
+        return hashPassword(password, LOG_ROUNDS);
+    }
+
+    /**
+     * 指定されたストレッチング因子でパスワードをハッシュ化します。
+     * @param password ハッシュ化するパスワード
+     * @param logRounds ストレッチング因子 (4〜31)
+     * @return ハッシュ化されたパスワード文字列
+     */
+    public static String hashPassword(String password, int logRounds) {
         // パスワードをソルト（ランダム値）と組み合わせてハッシュ化
-        return BCrypt.hashpw(password, BCrypt.gensalt(LOG_ROUNDS));
+        return BCrypt.hashpw(password, BCrypt.gensalt(logRounds));
+    }
+
+    /**
+     * 指定された乱数源から作成したソルトでパスワードをハッシュ化します。
+     * 決定的な乱数源を渡すことで、同じ入力から同じハッシュ値を得られます。
+     * @param password ハッシュ化するパスワード
+     * @param logRounds ストレッチング因子 (4〜31)
+     * @param saltSource ソルト生成に使用する乱数源
+     * @return ハッシュ化されたパスワード文字列
+     */
+    public static String hashPassword(String password, int logRounds, SecureRandom saltSource) {
+        return BCrypt.hashpw(password, BCrypt.gensalt(logRounds, saltSource));
     }
 }
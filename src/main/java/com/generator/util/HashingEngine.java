@@ -0,0 +1,206 @@
+package com.generator.util;
+
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PASSWORD型とisHashedカラムのBCryptハッシュ化をまとめて扱うクラス。
+ * <ul>
+ *   <li>キャッシュ有効時は、ソルトを (シード値, 平文, ストレッチング因子) から導出し、
+ *       同じ平文のハッシュ値を実行中で共有します (定数の平文は一度だけハッシュ化されます)。</li>
+ *   <li>ハッシュ専用のスレッドプールが設定されている場合、ハッシュ化は非同期に行われ、
+ *       行生成はハッシュ値の完了を待たずに次の行へ進みます。
+ *       未完了のハッシュ値は {@link Future} として行に格納され、書き込み前に {@link #resolve(Object[])} で確定します。</li>
+ * </ul>
+ */
+public class HashingEngine implements AutoCloseable {
+
+    // キャッシュに保持する平文の最大件数。一意な平文ばかりの場合にメモリを使い切らないよう制限する
+    private static final int MAX_CACHE_ENTRIES = 10_000;
+
+    private final long seed;
+    private final boolean cacheEnabled;
+    private final ExecutorService pool;
+
+    // Map<ストレッチング因子:平文, ハッシュ値>
+    private final Map<String, CompletableFuture<String>> cache = new ConcurrentHashMap<>();
+
+    // ハッシュ化した回数、キャッシュされたハッシュ値を使用した回数、ハッシュ化にかかった時間の合計
+    private final LongAdder hashes = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+
+    /**
+     * @param seed 乱数シード値 (キャッシュ有効時のソルト導出に使用)
+     * @param cacheEnabled 平文ごとのハッシュ値をキャッシュするかどうか
+     * @param poolThreads ハッシュ専用スレッド数 (0の場合は呼び出し元スレッドで同期的にハッシュ化)
+     */
+    public HashingEngine(long seed, boolean cacheEnabled, int poolThreads) {
+        this.seed = seed;
+        this.cacheEnabled = cacheEnabled;
+        if (poolThreads > 0) {
+            AtomicInteger counter = new AtomicInteger();
+            this.pool = Executors.newFixedThreadPool(poolThreads, r -> {
+                Thread thread = new Thread(r, "bcrypt-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.pool = null;
+        }
+    }
+
+    /**
+     * 平文のハッシュ化を開始します。
+     * @param password 平文
+     * @param logRounds ストレッチング因子
+     * @return ハッシュ値の文字列、または未完了の場合はハッシュ値を返す {@link Future}
+     */
+    public Object hash(String password, int logRounds) {
+        if (!cacheEnabled) {
+            if (pool == null) {
+                return randomHash(password, logRounds);
+            }
+            return CompletableFuture.supplyAsync(() -> randomHash(password, logRounds), pool);
+        }
+
+        String key = logRounds + ":" + password;
+        CompletableFuture<String> cached = cache.get(key);
+        if (cached != null) {
+            cacheHits.increment();
+        } else {
+            CompletableFuture<String> created = new CompletableFuture<>();
+            if (cache.size() < MAX_CACHE_ENTRIES) {
+                CompletableFuture<String> existing = cache.putIfAbsent(key, created);
+                if (existing != null) {
+                    cached = existing;
+                    cacheHits.increment();
+                }
+            }
+            if (cached == null) {
+                cached = created;
+                if (pool == null) {
+                    created.complete(deterministicHash(password, logRounds));
+                } else {
+                    pool.execute(() -> {
+                        try {
+                            created.complete(deterministicHash(password, logRounds));
+                        } catch (RuntimeException e) {
+                            created.completeExceptionally(e);
+                        }
+                    });
+                }
+            }
+        }
+        // 完了済みであれば文字列をそのまま返す
+        return cached.isDone() && !cached.isCompletedExceptionally() ? cached.join() : cached;
+    }
+
+    /**
+     * 行に含まれる未完了のハッシュ値を待機し、文字列に置き換えます。
+     * @param row 行の値
+     */
+    public static void resolve(Object[] row) {
+        for (int i = 0; i < row.length; i++) {
+            if (row[i] instanceof Future) {
+                row[i] = await((Future<?>) row[i]);
+            }
+        }
+    }
+
+    /**
+     * 値が未完了のハッシュ値であれば完了を待機して返します。
+     */
+    public static Object resolve(Object value) {
+        return value instanceof Future ? await((Future<?>) value) : value;
+    }
+
+    private static Object await(Future<?> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("パスワードのハッシュ化が中断されました。", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("パスワードのハッシュ化に失敗しました: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * ランダムなソルトでハッシュ化します。
+     */
+    private String randomHash(String password, int logRounds) {
+        long start = System.nanoTime();
+        String hash = Hasher.hashPassword(password, logRounds);
+        recordHash(start);
+        return hash;
+    }
+
+    /**
+     * (シード値, 平文, ストレッチング因子) から導出したソルトでハッシュ化します。
+     */
+    private String deterministicHash(String password, int logRounds) {
+        long start = System.nanoTime();
+        long saltSeed = SeedMixer.derive(seed, SeedMixer.hash64(password), logRounds);
+        String hash = Hasher.hashPassword(password, logRounds, new SeededSaltSource(saltSeed));
+        recordHash(start);
+        return hash;
+    }
+
+    private void recordHash(long startNanos) {
+        hashNanos.add(System.nanoTime() - startNanos);
+        hashes.increment();
+    }
+
+    /**
+     * これまでにハッシュ化した回数を返します (キャッシュされたハッシュ値の使用は含みません)。
+     */
+    public long getHashCount() { return hashes.sum(); }
+
+    /**
+     * キャッシュされたハッシュ値を使用した回数を返します。
+     */
+    public long getCacheHits() { return cacheHits.sum(); }
+
+    /**
+     * ハッシュ化にかかった時間の合計 (ナノ秒) を返します。複数のスレッドでハッシュ化した場合は各スレッドの時間を合算します。
+     */
+    public long getHashNanos() { return hashNanos.sum(); }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * BCrypt.gensalt に渡す、シード値から決定的なバイト列を返す乱数源。
+     * gensalt は nextBytes のみを使用します。
+     */
+    private static final class SeededSaltSource extends SecureRandom {
+        private static final long serialVersionUID = 1L;
+
+        private final transient SplittableRandom random;
+
+        SeededSaltSource(long seed) {
+            this.random = new SplittableRandom(seed);
+        }
+
+        @Override
+        public void nextBytes(byte[] bytes) {
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = (byte) random.nextInt(256);
+            }
+        }
+    }
+}
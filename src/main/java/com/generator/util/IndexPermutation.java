@@ -0,0 +1,56 @@
+package com.generator.util;
+
+/**
+ * 0 から domain-1 までの整数を、キーから決まる順序に並べ替える全単射。
+ * 2のべき乗の範囲で4段のFeistel構造により並べ替え、範囲外の値は範囲内に戻るまで繰り返し適用します (cycle walking)。
+ * 状態を持たないため、行番号ごとに独立して並列に計算できます。
+ */
+public final class IndexPermutation {
+
+    private static final int ROUNDS = 4;
+
+    private final long domain;
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] roundKeys = new long[ROUNDS];
+
+    /**
+     * @param domain 並べ替える範囲の大きさ (1 以上 2^62 以下)
+     * @param key 並べ替えの順序を決めるキー
+     */
+    public IndexPermutation(long domain, long key) {
+        if (domain < 1 || domain > (1L << 62)) {
+            throw new IllegalArgumentException("範囲は1以上2^62以下で指定してください: " + domain);
+        }
+        this.domain = domain;
+        int bits = Math.max(2, 64 - Long.numberOfLeadingZeros(domain - 1));
+        this.halfBits = (bits + 1) / 2;
+        this.halfMask = (1L << halfBits) - 1;
+        for (int r = 0; r < ROUNDS; r++) {
+            roundKeys[r] = SeedMixer.derive(key, r);
+        }
+    }
+
+    /**
+     * 番号を並べ替えた先の番号を返します。
+     * @param index 0 から domain-1 までの番号
+     */
+    public long apply(long index) {
+        long value = index;
+        do {
+            value = feistel(value);
+        } while (value >= domain);
+        return value;
+    }
+
+    private long feistel(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (long roundKey : roundKeys) {
+            long next = left ^ (SeedMixer.mix64(right ^ roundKey) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+}
@@ -0,0 +1,51 @@
+package com.generator.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * シード値とテーブル名・インデックスなどから、独立した乱数ストリーム用のシードを導出するユーティリティクラス。
+ * SplitMix64の混合関数を使用するため、近いインデックス同士でも相関のないシードが得られます。
+ */
+public final class SeedMixer {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private SeedMixer() {
+    }
+
+    /**
+     * SplitMix64の最終混合関数。
+     */
+    public static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 文字列から64bitのハッシュ値を計算します (FNV-1a)。
+     * String.hashCode() と異なりJVMやバージョンに依存せず、32bitより衝突しにくい値を返します。
+     */
+    public static long hash64(String value) {
+        long h = 0xCBF29CE484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= (b & 0xFF);
+            h *= 0x100000001B3L;
+        }
+        return h;
+    }
+
+    /**
+     * シード値と任意個のキーから派生シードを導出します。
+     * @param seed 元のシード値
+     * @param keys テーブル・範囲番号などの識別子
+     * @return 派生シード
+     */
+    public static long derive(long seed, long... keys) {
+        long h = mix64(seed + GOLDEN_GAMMA);
+        for (long key : keys) {
+            h = mix64(h ^ (key + GOLDEN_GAMMA));
+        }
+        return h;
+    }
+}
@@ -0,0 +1,140 @@
+package com.generator.util;
+
+import com.generator.model.ColumnConfig;
+import com.generator.model.TableConfig;
+
+import java.util.*;
+
+/**
+ * カラム定義の fkReference からテーブル間の依存関係 (親テーブル → 子テーブル) を表すグラフを構築するクラス。
+ * JSON上の定義順にかかわらず、親テーブルが子テーブルより先に生成される順序を求めます。
+ */
+public class TableDependencyGraph {
+
+    private final List<TableConfig> tables;
+
+    // Map<テーブル名, 参照している親テーブル名の集合> (定義されている親テーブルのみ)
+    private final Map<String, Set<String>> parents = new LinkedHashMap<>();
+
+    public TableDependencyGraph(List<TableConfig> tables) {
+        this.tables = tables;
+
+        Set<String> tableNames = new HashSet<>();
+        for (TableConfig table : tables) {
+            tableNames.add(table.getName());
+        }
+
+        for (TableConfig table : tables) {
+            Set<String> refs = parents.computeIfAbsent(table.getName(), k -> new LinkedHashSet<>());
+            for (ColumnConfig col : table.getData()) {
+                String parent = referencedTable(col.getFkReference());
+                if (parent == null) {
+                    continue;
+                }
+                if (!tableNames.contains(parent)) {
+                    System.err.println("警告: 外部キー参照 '" + col.getFkReference() + "' の参照先テーブルが定義されていません。(テーブル: " + table.getName() + ")");
+                    continue;
+                }
+                refs.add(parent);
+            }
+        }
+    }
+
+    /**
+     * fkReference ("テーブル名.カラム名") から参照先のテーブル名を取り出します。
+     * @return テーブル名 (fkReferenceが未指定または形式が不正な場合はnull)
+     */
+    public static String referencedTable(String fkReference) {
+        if (fkReference == null) {
+            return null;
+        }
+        int dot = fkReference.indexOf('.');
+        return dot > 0 ? fkReference.substring(0, dot) : null;
+    }
+
+    /**
+     * 指定されたテーブルが参照している親テーブル名を返します。
+     */
+    public Set<String> parentsOf(String tableName) {
+        return parents.getOrDefault(tableName, Collections.emptySet());
+    }
+
+    /**
+     * 親テーブルが必ず子テーブルより前に来る順序でテーブル構成を返します。
+     * 依存関係のないテーブル同士はJSONでの定義順を保ちます。
+     * @return 並べ替えたテーブル構成のリスト
+     * @throws IllegalArgumentException 外部キー参照が循環している場合
+     */
+    public List<TableConfig> topologicalOrder() {
+        Map<String, Integer> remaining = new HashMap<>();
+        Map<String, List<TableConfig>> children = new HashMap<>();
+        for (TableConfig table : tables) {
+            Set<String> refs = parentsOf(table.getName());
+            remaining.put(table.getName(), refs.size());
+            for (String parent : refs) {
+                children.computeIfAbsent(parent, k -> new ArrayList<>()).add(table);
+            }
+        }
+
+        // 定義順を保つため、準備のできたテーブルは定義順の優先度付きキューで取り出す
+        Map<TableConfig, Integer> position = new IdentityHashMap<>();
+        for (int i = 0; i < tables.size(); i++) {
+            position.put(tables.get(i), i);
+        }
+        PriorityQueue<TableConfig> ready = new PriorityQueue<>(Comparator.comparingInt(position::get));
+        for (TableConfig table : tables) {
+            if (remaining.get(table.getName()) == 0) {
+                ready.add(table);
+            }
+        }
+
+        List<TableConfig> ordered = new ArrayList<>(tables.size());
+        while (!ready.isEmpty()) {
+            TableConfig table = ready.poll();
+            ordered.add(table);
+            for (TableConfig child : children.getOrDefault(table.getName(), Collections.emptyList())) {
+                if (remaining.merge(child.getName(), -1, Integer::sum) == 0) {
+                    ready.add(child);
+                }
+            }
+        }
+
+        if (ordered.size() < tables.size()) {
+            throw new IllegalArgumentException("外部キー参照が循環しています: " + String.join(" -> ", findCycle(remaining)));
+        }
+        return ordered;
+    }
+
+    /**
+     * 未処理のテーブルから親方向へ辿り、循環しているテーブル名の並びを返します。
+     */
+    private List<String> findCycle(Map<String, Integer> remaining) {
+        String start = null;
+        for (TableConfig table : tables) {
+            if (remaining.get(table.getName()) > 0) {
+                start = table.getName();
+                break;
+            }
+        }
+
+        // 未処理のテーブルには必ず未処理の親が存在するため、辿っていけば同じテーブルに戻る
+        List<String> path = new ArrayList<>();
+        Map<String, Integer> visitedAt = new HashMap<>();
+        String current = start;
+        while (!visitedAt.containsKey(current)) {
+            visitedAt.put(current, path.size());
+            path.add(current);
+            for (String parent : parentsOf(current)) {
+                if (remaining.get(parent) > 0) {
+                    current = parent;
+                    break;
+                }
+            }
+        }
+        List<String> cycle = new ArrayList<>(path.subList(visitedAt.get(current), path.size()));
+        cycle.add(current);
+        // 親 -> 子 の向きで表示する
+        Collections.reverse(cycle);
+        return cycle;
+    }
+}
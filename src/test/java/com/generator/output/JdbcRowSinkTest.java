@@ -0,0 +1,141 @@
+package com.generator.output;
+
+import com.generator.RegexGeneratorApp;
+import com.generator.model.TableConfig;
+import com.generator.util.DataGenerator;
+import com.generator.util.GenerationOptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * JDBCロード (-j) を、外部キー制約を持つプロセス内のH2データベースに対して確認します。
+ */
+class JdbcRowSinkTest {
+
+    // 子テーブル (ORDERS) を親テーブル (CUSTOMER) より先に定義し、依存関係の順にロードされることを確認する
+    private static final String CONFIG = "[\n"
+            + "  {\"name\": \"ORDERS\", \"size\": 200, \"data\": [\n"
+            + "    {\"columnName\": \"order_id\", \"type\": \"SERIAL\"},\n"
+            + "    {\"columnName\": \"customer_id\", \"type\": \"NUMBER\", \"fkReference\": \"CUSTOMER.customer_id\"},\n"
+            + "    {\"columnName\": \"ordered_at\", \"type\": \"DATETIME\", \"minDate\": \"2024-01-01 00:00:00\", \"maxDate\": \"2024-12-31 23:59:59\"}\n"
+            + "  ]},\n"
+            + "  {\"name\": \"CUSTOMER\", \"size\": 50, \"data\": [\n"
+            + "    {\"columnName\": \"customer_id\", \"type\": \"SERIAL\", \"startFrom\": 1000},\n"
+            + "    {\"columnName\": \"name\", \"type\": \"REGEX\", \"pattern\": \"[A-Z][a-z]{3,8}\"},\n"
+            + "    {\"columnName\": \"status\", \"type\": \"ARRAY\", \"values\": [\"ACTIVE\", \"INACTIVE\"], \"isRandom\": true},\n"
+            + "    {\"columnName\": \"created_at\", \"type\": \"DATETIME\", \"minDate\": \"2023-01-01 00:00:00\", \"maxDate\": \"2023-12-31 23:59:59\"}\n"
+            + "  ]}\n"
+            + "]\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void loadsParentTablesBeforeChildTables() throws Exception {
+        String url = "jdbc:h2:mem:jdbc_load;DB_CLOSE_DELAY=-1";
+        try (Connection conn = DriverManager.getConnection(url)) {
+            createSchema(conn, 20);
+
+            RegexGeneratorApp.main(new String[] {
+                    "-j", url, "-i", writeConfig().toString(), "-o", tempDir.toString(), "-t", "3", "--batch-size", "7"});
+
+            assertEquals(50, count(conn, "SELECT COUNT(*) FROM CUSTOMER"));
+            assertEquals(200, count(conn, "SELECT COUNT(*) FROM ORDERS"));
+            assertEquals(50, count(conn, "SELECT COUNT(*) FROM CUSTOMER WHERE customer_id BETWEEN 1000 AND 1049"));
+            // DATETIME はタイムスタンプとして範囲内に格納される
+            assertEquals(50, count(conn, "SELECT COUNT(*) FROM CUSTOMER"
+                    + " WHERE created_at BETWEEN TIMESTAMP '2023-01-01 00:00:00' AND TIMESTAMP '2023-12-31 23:59:59'"));
+            assertEquals(200, count(conn, "SELECT COUNT(*) FROM ORDERS o JOIN CUSTOMER c ON o.customer_id = c.customer_id"
+                    + " WHERE o.ordered_at BETWEEN TIMESTAMP '2024-01-01 00:00:00' AND TIMESTAMP '2024-12-31 23:59:59'"));
+        }
+    }
+
+    @Test
+    void failedParentLoadAbortsDependentTables() throws Exception {
+        String url = "jdbc:h2:mem:jdbc_failure;DB_CLOSE_DELAY=-1";
+        try (Connection conn = DriverManager.getConnection(url)) {
+            // name が入りきらないため、CUSTOMER のロードは失敗する
+            createSchema(conn, 2);
+
+            GenerationOptions options = new GenerationOptions();
+            options.setJdbcUrl(url);
+            options.setJdbcBatchSize(7);
+            DataGenerator generator = new DataGenerator(options);
+            List<TableConfig> configs = generator.loadConfig(writeConfig().toString());
+
+            assertThrows(IllegalStateException.class, () -> generator.generateAndOutput(configs, "jdbc", tempDir.toString()));
+            assertEquals(0, count(conn, "SELECT COUNT(*) FROM CUSTOMER"));
+            assertEquals(0, count(conn, "SELECT COUNT(*) FROM ORDERS"));
+        }
+    }
+
+    @Test
+    @Timeout(30)
+    void writerFailureOnInvalidValueIsReported() throws Exception {
+        String url = "jdbc:h2:mem:jdbc_invalid;DB_CLOSE_DELAY=-1";
+        try (Connection conn = DriverManager.getConnection(url)) {
+            createSchema(conn, 20);
+            JdbcRowSink sink = new JdbcRowSink(url, null, null, 2, new int[] {Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP});
+            sink.open("CUSTOMER", List.of("customer_id", "name", "status", "created_at"), TableSlice.of(4, 0, 1));
+            // 日時として解釈できない値は書き込みスレッドで例外となり、行生成側へ伝わる
+            sink.writeRow(new Object[] {1L, "Alice", "ACTIVE", "not a date"});
+            sink.writeRow(new Object[] {2L, "Bob", "ACTIVE", "2023-01-01 00:00:00"});
+            sink.writeRow(new Object[] {3L, "Carol", "ACTIVE", "2023-01-01 00:00:00"});
+            assertThrows(IOException.class, sink::close);
+            assertEquals(0, count(conn, "SELECT COUNT(*) FROM CUSTOMER"));
+        }
+    }
+
+    @Test
+    @Timeout(30)
+    void abortDiscardsUncommittedRows() throws Exception {
+        String url = "jdbc:h2:mem:jdbc_abort;DB_CLOSE_DELAY=-1";
+        try (Connection conn = DriverManager.getConnection(url)) {
+            createSchema(conn, 20);
+            JdbcRowSink sink = new JdbcRowSink(url, null, null, 100, new int[] {Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP});
+            sink.open("CUSTOMER", List.of("customer_id", "name", "status", "created_at"), TableSlice.of(10, 0, 1));
+            for (long id = 1; id <= 10; id++) {
+                sink.writeRow(new Object[] {id, "Alice", "ACTIVE", "2023-01-01 00:00:00"});
+            }
+            sink.abort();
+            sink.close();
+            assertEquals(0, count(conn, "SELECT COUNT(*) FROM CUSTOMER"));
+        }
+    }
+
+    private Path writeConfig() throws IOException {
+        return Files.write(tempDir.resolve("config.json"), CONFIG.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void createSchema(Connection conn, int nameLength) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE CUSTOMER (customer_id BIGINT PRIMARY KEY, name VARCHAR(" + nameLength + ") NOT NULL,"
+                    + " status VARCHAR(16) NOT NULL, created_at TIMESTAMP NOT NULL)");
+            stmt.execute("CREATE TABLE ORDERS (order_id BIGINT PRIMARY KEY,"
+                    + " customer_id BIGINT NOT NULL REFERENCES CUSTOMER (customer_id), ordered_at TIMESTAMP NOT NULL)");
+        }
+    }
+
+    private static long count(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.generator.output;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.generator.RegexGeneratorApp;
+import com.generator.checkpoint.CheckpointState;
+import com.generator.model.TableConfig;
+import com.generator.util.DataGenerator;
+import com.generator.util.GenerationOptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 出力の途中で強制終了したプロセスを --resume で再開すると、中断せずに出力した場合と1バイトも変わらないことを確認します。
+ */
+class ResumeTest {
+
+    private static final String BIG_TABLE = "EVENTS";
+
+    // 親テーブルの出力が完了し、子テーブルの出力の途中で強制終了されるよう、子テーブルを大きくする
+    private static final String CONFIG = "[\n"
+            + "  {\"name\": \"" + BIG_TABLE + "\", \"size\": 400000, \"data\": [\n"
+            + "    {\"columnName\": \"event_id\", \"type\": \"SERIAL\"},\n"
+            + "    {\"columnName\": \"customer_id\", \"type\": \"NUMBER\", \"fkReference\": \"CUSTOMER.customer_id\","
+            + " \"distribution\": {\"type\": \"zipf\"}},\n"
+            + "    {\"columnName\": \"code\", \"type\": \"REGEX\", \"pattern\": \"[a-z]{3}[0-9]{4}\", \"unique\": true},\n"
+            + "    {\"columnName\": \"occurred_at\", \"type\": \"DATETIME\", \"minDate\": \"2024-01-01 00:00:00\", \"maxDate\": \"2024-12-31 23:59:59\"}\n"
+            + "  ]},\n"
+            + "  {\"name\": \"CUSTOMER\", \"size\": 2000, \"data\": [\n"
+            + "    {\"columnName\": \"customer_id\", \"type\": \"SERIAL\", \"startFrom\": 1000},\n"
+            + "    {\"columnName\": \"name\", \"type\": \"FAKER\", \"generator\": \"name.fullName\"},\n"
+            + "    {\"columnName\": \"mail\", \"type\": \"STRING\", \"format\": \"user{i}@example.com\", \"unique\": true}\n"
+            + "  ]}\n"
+            + "]\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @Timeout(300)
+    void resumedOutputIsIdenticalToUninterruptedOutput() throws Exception {
+        Path config = Files.write(tempDir.resolve("config.json"), CONFIG.getBytes(StandardCharsets.UTF_8));
+        Path whole = Files.createDirectories(tempDir.resolve("whole"));
+        Path resumed = Files.createDirectories(tempDir.resolve("resumed"));
+        Path checkpointDir = tempDir.resolve("checkpoint");
+
+        GenerationOptions options = new GenerationOptions();
+        options.setSeed(42);
+        DataGenerator generator = new DataGenerator(options);
+        List<TableConfig> configs = generator.loadConfig(config.toString());
+        generator.generateAndOutput(configs, "sql", whole.toString());
+
+        // 別のプロセスで出力を開始し、大きいテーブルの途中の進捗が記録され、その後の行も書き出された時点で強制終了する
+        Process process = new ProcessBuilder(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                RegexGeneratorApp.class.getName(),
+                "-i", config.toString(), "-q", "-o", resumed.toString(), "-s", "42",
+                "--checkpoint", checkpointDir.toString(), "--checkpoint-interval", "10000")
+                .redirectErrorStream(true)
+                .redirectOutput(tempDir.resolve("interrupted.log").toFile())
+                .start();
+        try {
+            while (!hasOutputAfterProgress(checkpointDir.resolve("checkpoint.json"), BIG_TABLE)) {
+                assertTrue(process.isAlive(), "チェックポイントが記録される前にプロセスが終了しました");
+                Thread.sleep(20);
+            }
+        } finally {
+            process.destroyForcibly();
+            process.waitFor();
+        }
+        assertTrue(Files.exists(checkpointDir.resolve("checkpoint.json")), "強制終了前に出力が完了しました");
+
+        GenerationOptions resumeOptions = new GenerationOptions();
+        resumeOptions.setSeed(42);
+        resumeOptions.setThreads(3);
+        resumeOptions.setCheckpointDirectory(checkpointDir.toString());
+        resumeOptions.setResume(true);
+        DataGenerator resumeGenerator = new DataGenerator(resumeOptions);
+        resumeGenerator.generateAndOutput(resumeGenerator.loadConfig(config.toString()), "sql", resumed.toString());
+
+        // 完了したためチェックポイントは削除される
+        assertFalse(Files.exists(checkpointDir.resolve("checkpoint.json")));
+        ThreadDeterminismTest.assertSameFiles(whole, resumed);
+    }
+
+    /**
+     * テーブルの進捗が記録され、出力ファイルが記録した大きさより大きくなっている (再開時に切り詰める行がある) かどうかを返します。
+     */
+    private static boolean hasOutputAfterProgress(Path stateFile, String tableName) {
+        File file = stateFile.toFile();
+        if (!file.isFile()) {
+            return false;
+        }
+        try {
+            CheckpointState state = new ObjectMapper().readValue(file, CheckpointState.class);
+            CheckpointState.TableProgress progress = state.getProgress().get(tableName);
+            return progress != null && Files.size(Paths.get(progress.getFile())) > progress.getBytes();
+        } catch (IOException e) {
+            // 書き込み中の場合は次の確認で読み直す
+            return false;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.generator.output;
+
+import com.generator.model.TableConfig;
+import com.generator.util.DataGenerator;
+import com.generator.util.GenerationOptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 各シャード (--shard k/n) のファイルをシャードの順に連結すると、分割しない場合の出力と1バイトも変わらないことを確認します。
+ */
+class ShardConcatenationTest {
+
+    private static final int SHARD_COUNT = 3;
+
+    // シャードの境界がチャンクの途中になる行数で、外部キー、ユニーク、分布を含む
+    private static final String CONFIG = "[\n"
+            + "  {\"name\": \"ORDERS\", \"size\": 5000, \"data\": [\n"
+            + "    {\"columnName\": \"order_id\", \"type\": \"SERIAL\"},\n"
+            + "    {\"columnName\": \"customer_id\", \"type\": \"NUMBER\", \"fkReference\": \"CUSTOMER.customer_id\","
+            + " \"distribution\": {\"type\": \"zipf\"}},\n"
+            + "    {\"columnName\": \"customer_code\", \"type\": \"STRING\", \"fkReference\": \"CUSTOMER.code\"},\n"
+            + "    {\"columnName\": \"amount\", \"type\": \"NUMBER\", \"min\": 1, \"max\": 100000,"
+            + " \"distribution\": {\"type\": \"normal\", \"mean\": 0.3, \"stddev\": 0.1}},\n"
+            + "    {\"columnName\": \"ordered_at\", \"type\": \"DATETIME\", \"minDate\": \"2024-01-01 00:00:00\", \"maxDate\": \"2024-12-31 23:59:59\"}\n"
+            + "  ]},\n"
+            + "  {\"name\": \"CUSTOMER\", \"size\": 1500, \"data\": [\n"
+            + "    {\"columnName\": \"customer_id\", \"type\": \"SERIAL\", \"startFrom\": 1000},\n"
+            + "    {\"columnName\": \"code\", \"type\": \"REGEX\", \"pattern\": \"[A-Z]{2}[0-9]{4}\", \"unique\": true},\n"
+            + "    {\"columnName\": \"name\", \"type\": \"FAKER\", \"generator\": \"name.fullName\"},\n"
+            + "    {\"columnName\": \"mail\", \"type\": \"STRING\", \"format\": \"user{i}@example.com\", \"unique\": true},\n"
+            + "    {\"columnName\": \"status\", \"type\": \"ARRAY\", \"values\": [\"ACTIVE\", \"INACTIVE\"], \"isRandom\": true}\n"
+            + "  ]}\n"
+            + "]\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sqlShardsConcatenateToWholeOutput() throws IOException {
+        assertShardsConcatenate("sql");
+    }
+
+    @Test
+    void csvShardsConcatenateToWholeOutput() throws IOException {
+        assertShardsConcatenate("csv");
+    }
+
+    @Test
+    void copyShardsConcatenateToWholeOutput() throws IOException {
+        assertShardsConcatenate("copy");
+    }
+
+    private void assertShardsConcatenate(String outputType) throws IOException {
+        Path whole = generate(outputType, 0, 1);
+        Path joined = Files.createDirectories(tempDir.resolve(outputType + "-joined"));
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            Path shardDir = generate(outputType, shard, SHARD_COUNT);
+            String suffix = String.format(".shard-%04d-of-%04d", shard + 1, SHARD_COUNT);
+            List<Path> files = list(shardDir);
+            assertEquals(list(whole).size(), files.size(), shardDir.toString());
+            for (Path file : files) {
+                // orders.shard-0002-of-0003.sql -> orders.sql
+                String name = file.getFileName().toString().replace(suffix, "");
+                try (OutputStream out = Files.newOutputStream(joined.resolve(name),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    Files.copy(file, out);
+                }
+            }
+        }
+        ThreadDeterminismTest.assertSameFiles(whole, joined);
+    }
+
+    private Path generate(String outputType, int shardIndex, int shardCount) throws IOException {
+        Path config = Files.write(tempDir.resolve("config.json"), CONFIG.getBytes(StandardCharsets.UTF_8));
+        Path outputDir = Files.createDirectories(tempDir.resolve(outputType + "-" + shardIndex + "-of-" + shardCount));
+        GenerationOptions options = new GenerationOptions();
+        options.setSeed(42);
+        options.setThreads(2);
+        options.setShardIndex(shardIndex);
+        options.setShardCount(shardCount);
+        DataGenerator generator = new DataGenerator(options);
+        List<TableConfig> configs = generator.loadConfig(config.toString());
+        generator.generateAndOutput(configs, outputType, outputDir.toString());
+        return outputDir;
+    }
+
+    private static List<Path> list(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+}
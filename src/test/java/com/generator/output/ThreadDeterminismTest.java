@@ -0,0 +1,93 @@
+package com.generator.output;
+
+import com.generator.model.TableConfig;
+import com.generator.util.DataGenerator;
+import com.generator.util.GenerationOptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 同じシード値であれば、スレッド数にかかわらず出力が1バイトも変わらないことを確認します。
+ */
+class ThreadDeterminismTest {
+
+    // 複数のチャンクにまたがる行数で、外部キー、ユニーク、ハッシュ化、分布を含む
+    private static final String CONFIG = "[\n"
+            + "  {\"name\": \"ORDERS\", \"size\": 5000, \"data\": [\n"
+            + "    {\"columnName\": \"order_id\", \"type\": \"SERIAL\"},\n"
+            + "    {\"columnName\": \"customer_id\", \"type\": \"NUMBER\", \"fkReference\": \"CUSTOMER.customer_id\","
+            + " \"distribution\": {\"type\": \"zipf\"}},\n"
+            + "    {\"columnName\": \"customer_code\", \"type\": \"STRING\", \"fkReference\": \"CUSTOMER.code\"},\n"
+            + "    {\"columnName\": \"amount\", \"type\": \"NUMBER\", \"min\": 1, \"max\": 100000,"
+            + " \"distribution\": {\"type\": \"normal\", \"mean\": 0.3, \"stddev\": 0.1}},\n"
+            + "    {\"columnName\": \"ordered_at\", \"type\": \"DATETIME\", \"minDate\": \"2024-01-01 00:00:00\", \"maxDate\": \"2024-12-31 23:59:59\"}\n"
+            + "  ]},\n"
+            + "  {\"name\": \"CUSTOMER\", \"size\": 1500, \"data\": [\n"
+            + "    {\"columnName\": \"customer_id\", \"type\": \"SERIAL\", \"startFrom\": 1000},\n"
+            + "    {\"columnName\": \"code\", \"type\": \"REGEX\", \"pattern\": \"[A-Z]{2}[0-9]{4}\", \"unique\": true},\n"
+            + "    {\"columnName\": \"name\", \"type\": \"FAKER\", \"generator\": \"name.fullName\"},\n"
+            + "    {\"columnName\": \"mail\", \"type\": \"STRING\", \"format\": \"user{i}@example.com\", \"unique\": true},\n"
+            + "    {\"columnName\": \"password\", \"type\": \"STRING\", \"format\": \"pass{i}\", \"isHashed\": \"password_hash\", \"hashCost\": 4},\n"
+            + "    {\"columnName\": \"status\", \"type\": \"ARRAY\", \"values\": [\"ACTIVE\", \"INACTIVE\"], \"isRandom\": true}\n"
+            + "  ]}\n"
+            + "]\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sqlOutputIsIdenticalForAnyThreadCount() throws IOException {
+        assertSameOutput("sql");
+    }
+
+    @Test
+    void csvOutputIsIdenticalForAnyThreadCount() throws IOException {
+        assertSameOutput("csv");
+    }
+
+    private void assertSameOutput(String outputType) throws IOException {
+        assertSameFiles(generate(outputType, 1), generate(outputType, 3));
+    }
+
+    private Path generate(String outputType, int threads) throws IOException {
+        Path config = Files.write(tempDir.resolve("config.json"), CONFIG.getBytes(StandardCharsets.UTF_8));
+        Path outputDir = Files.createDirectories(tempDir.resolve(outputType + "-" + threads));
+        GenerationOptions options = new GenerationOptions();
+        options.setSeed(42);
+        options.setThreads(threads);
+        // BCryptのソルトをシード値から導出し、ハッシュ値も再現可能にする
+        options.setHashCache(true);
+        options.setHashThreads(4);
+        DataGenerator generator = new DataGenerator(options);
+        List<TableConfig> configs = generator.loadConfig(config.toString());
+        generator.generateAndOutput(configs, outputType, outputDir.toString());
+        return outputDir;
+    }
+
+    static void assertSameFiles(Path expectedDir, Path actualDir) throws IOException {
+        List<String> expected = fileNames(expectedDir);
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, fileNames(actualDir));
+        for (String name : expected) {
+            assertArrayEquals(Files.readAllBytes(expectedDir.resolve(name)), Files.readAllBytes(actualDir.resolve(name)), name);
+        }
+    }
+
+    private static List<String> fileNames(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.generator.regex;
+
+import com.generator.util.IndexPermutation;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 正規表現の番号による列挙 (unrank) を java.util.regex と照合します。
+ */
+class CompiledRegexTest {
+
+    // 全ての番号を列挙して確認するパターンの文字列数の上限
+    private static final long EXHAUSTIVE_LIMIT = 20_000;
+
+    private static final String[] ATOMS = {"a", "b", "c", "[ab]", "[a-c]", "[bc]", "\\d", "x"};
+    private static final String[] QUANTIFIERS = {"?", "*", "+", "{2}", "{0,2}", "{1,3}", "{2,4}"};
+
+    @Test
+    void unranksEveryIndexOfRandomSmallPatterns() {
+        Random random = new Random(42);
+        int checked = 0;
+        for (int n = 0; n < 10_000; n++) {
+            String pattern = randomPattern(random, 2);
+            CompiledRegex regex = CompiledRegex.compile(pattern);
+            if (!regex.isEnumerable() || regex.enumerableCount() > EXHAUSTIVE_LIMIT) {
+                continue;
+            }
+            assertEquals(regex.cardinality().longValueExact(), regex.enumerableCount(), pattern);
+            Pattern expected = Pattern.compile(pattern);
+            Set<String> seen = new HashSet<>();
+            for (long index = 0; index < regex.enumerableCount(); index++) {
+                String value = unrank(regex, index);
+                assertTrue(expected.matcher(value).matches(), () -> pattern + " -> " + value);
+                assertTrue(seen.add(value), () -> pattern + " で重複: " + value);
+            }
+            checked++;
+        }
+        // 大半のパターンが列挙可能と判定されること
+        assertTrue(checked > 5_000, "列挙したパターン数: " + checked);
+    }
+
+    @Test
+    void enumeratesVariableLengthPartsWithDisjointCharacters() {
+        String pattern = "[a-z]{3,8}\\d{0,3}\\@(example|test|demo)\\.(com|jp|net)";
+        CompiledRegex regex = CompiledRegex.compile(pattern);
+        assertTrue(regex.isEnumerable());
+        assertEquals(regex.cardinality().longValueExact(), regex.enumerableCount());
+
+        Pattern expected = Pattern.compile(pattern);
+        IndexPermutation permutation = new IndexPermutation(regex.enumerableCount(), 7);
+        Set<String> seen = new HashSet<>();
+        for (long row = 0; row < 100_000; row++) {
+            String value = unrank(regex, permutation.apply(row));
+            assertTrue(expected.matcher(value).matches(), value);
+            assertTrue(seen.add(value), value);
+        }
+        for (long index = regex.enumerableCount() - 1000; index < regex.enumerableCount(); index++) {
+            String value = unrank(regex, index);
+            assertTrue(expected.matcher(value).matches(), value);
+            assertTrue(seen.add(value), value);
+        }
+    }
+
+    @Test
+    void permutedValuesFollowTheDistributionOfAllStrings() {
+        // 英字部分の長さごとの文字列の数の比で、各長さが現れる
+        CompiledRegex regex = CompiledRegex.compile("[a-z]{3,6}\\d{0,2}@(example|test)\\.(com|jp)");
+        assertTrue(regex.isEnumerable());
+        IndexPermutation permutation = new IndexPermutation(regex.enumerableCount(), 3);
+        int samples = 100_000;
+        long[] firstChars = new long[26];
+        long[] lengths = new long[7];
+        for (long row = 0; row < samples; row++) {
+            String value = unrank(regex, permutation.apply(row));
+            firstChars[value.charAt(0) - 'a']++;
+            lengths[letterPrefixLength(value)]++;
+        }
+        for (int c = 0; c < 26; c++) {
+            assertNear(samples / 26.0, firstChars[c], "先頭の文字 " + (char) ('a' + c));
+        }
+        double total = 0;
+        for (int length = 3; length <= 6; length++) {
+            total += Math.pow(26, length);
+        }
+        for (int length = 5; length <= 6; length++) {
+            assertNear(samples * Math.pow(26, length) / total, lengths[length], "長さ " + length);
+        }
+    }
+
+    @Test
+    void patternsOverRankLimitAreSampledUniformly() {
+        // 2^62 を超える文字列を持つパターンは列挙せず、先頭の文字や長さが偏らないランダムな生成に任せる
+        String pattern = "[a-z]{5,12}\\d{0,3}\\@(example|test|demo)\\.(com|jp|net)";
+        CompiledRegex regex = CompiledRegex.compile(pattern);
+        assertTrue(regex.cardinality().bitLength() > 62);
+        assertFalse(regex.isEnumerable());
+        assertThrows(IllegalStateException.class, () -> unrank(regex, 0));
+
+        Random random = new Random(11);
+        int samples = 100_000;
+        long[] firstChars = new long[26];
+        long[] lengths = new long[13];
+        StringBuilder buffer = new StringBuilder();
+        for (int n = 0; n < samples; n++) {
+            buffer.setLength(0);
+            regex.sample(random, buffer);
+            String value = buffer.toString();
+            firstChars[value.charAt(0) - 'a']++;
+            lengths[letterPrefixLength(value)]++;
+        }
+        for (int c = 0; c < 26; c++) {
+            assertNear(samples / 26.0, firstChars[c], "先頭の文字 " + (char) ('a' + c));
+        }
+        for (int length = 5; length <= 12; length++) {
+            assertNear(samples / 8.0, lengths[length], "長さ " + length);
+        }
+    }
+
+    @Test
+    void rejectsAmbiguousConcatenations() {
+        // "acb" は (a)(cb) と (acb)() の2通りで生成できる
+        assertTrue(!CompiledRegex.compile("(a|acb)(cb)?").isEnumerable());
+        assertTrue(!CompiledRegex.compile("[a-z]{1,3}[a-c]{0,2}").isEnumerable());
+    }
+
+    /**
+     * 先頭から続く英小文字の数を返します。
+     */
+    private static int letterPrefixLength(String value) {
+        int length = 0;
+        while (length < value.length() && value.charAt(length) >= 'a' && value.charAt(length) <= 'z') {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * 度数が期待値の ±10% 以内であることを確認します。
+     */
+    private static void assertNear(double expected, long actual, String label) {
+        assertTrue(Math.abs(actual - expected) <= expected * 0.1, () -> label + ": 期待値 " + expected + ", 実際 " + actual);
+    }
+
+    private static String unrank(CompiledRegex regex, long index) {
+        StringBuilder buffer = new StringBuilder();
+        regex.unrank(index, buffer);
+        return buffer.toString();
+    }
+
+    private static String randomPattern(Random random, int depth) {
+        StringBuilder pattern = new StringBuilder();
+        int items = 1 + random.nextInt(3);
+        for (int i = 0; i < items; i++) {
+            if (depth > 0 && random.nextInt(4) == 0) {
+                pattern.append('(');
+                int branches = 1 + random.nextInt(3);
+                for (int b = 0; b < branches; b++) {
+                    if (b > 0) {
+                        pattern.append('|');
+                    }
+                    pattern.append(randomPattern(random, depth - 1));
+                }
+                pattern.append(')');
+            } else {
+                pattern.append(ATOMS[random.nextInt(ATOMS.length)]);
+            }
+            if (random.nextInt(3) == 0) {
+                pattern.append(QUANTIFIERS[random.nextInt(QUANTIFIERS.length)]);
+            }
+        }
+        return pattern.toString();
+    }
+}
@@ -0,0 +1,43 @@
+package com.generator.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * IndexPermutation が範囲内の全単射であることを確認します。
+ */
+class IndexPermutationTest {
+
+    @Test
+    void isBijectionForSmallDomains() {
+        for (long domain = 1; domain <= 1100; domain++) {
+            for (long key = 0; key < 3; key++) {
+                IndexPermutation permutation = new IndexPermutation(domain, key);
+                boolean[] hit = new boolean[(int) domain];
+                for (long index = 0; index < domain; index++) {
+                    long value = permutation.apply(index);
+                    assertTrue(value >= 0 && value < domain, "domain=" + domain + ", value=" + value);
+                    assertTrue(!hit[(int) value], "domain=" + domain + " で重複: " + value);
+                    hit[(int) value] = true;
+                }
+            }
+        }
+    }
+
+    @Test
+    void staysInRangeForLargestDomain() {
+        IndexPermutation permutation = new IndexPermutation(1L << 62, 11);
+        for (long index = 0; index < 10_000; index++) {
+            long value = permutation.apply((1L << 62) - 1 - index);
+            assertTrue(value >= 0 && value < (1L << 62));
+        }
+    }
+
+    @Test
+    void rejectsOutOfRangeDomain() {
+        assertThrows(IllegalArgumentException.class, () -> new IndexPermutation(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new IndexPermutation((1L << 62) + 1, 1));
+    }
+}